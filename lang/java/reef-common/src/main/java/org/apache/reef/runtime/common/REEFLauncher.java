@@ -19,6 +19,7 @@
 package org.apache.reef.runtime.common;
 
 import org.apache.reef.runtime.common.evaluator.PIDStoreStartHandler;
+import org.apache.reef.runtime.common.files.REEFFileNames;
 import org.apache.reef.runtime.common.launch.REEFErrorHandler;
 import org.apache.reef.runtime.common.launch.REEFMessageCodec;
 import org.apache.reef.runtime.common.launch.REEFUncaughtExceptionHandler;
@@ -28,6 +29,7 @@ import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.tang.exceptions.BindException;
 import org.apache.reef.tang.exceptions.InjectionException;
 import org.apache.reef.tang.formats.ConfigurationSerializer;
+import org.apache.reef.tang.implementation.java.ClassHierarchyImpl;
 import org.apache.reef.util.EnvironmentUtils;
 import org.apache.reef.util.ThreadLogger;
 import org.apache.reef.util.logging.LoggingSetup;
@@ -152,6 +154,38 @@ public final class REEFLauncher {
     }
   }
 
+  /**
+   * Preload the class hierarchy snapshot that the Driver writes next to the Evaluator configuration,
+   * so that Tang does not have to reflect on the classes the configuration refers to.
+   * A missing or unreadable snapshot is not an error: Tang then reflects on the classes as usual.
+   * @param configPath Path to the local file that contains serialized configuration
+   * of a REEF component to launch (can be either Driver or Evaluator).
+   */
+  @SuppressWarnings("checkstyle:illegalcatch")
+  private static void preloadClassHierarchy(final String configPath) {
+
+    final File snapshotFile = new File(new File(configPath).getAbsoluteFile().getParentFile(),
+        new REEFFileNames().getClassHierarchySnapshotName());
+
+    final JavaClassHierarchy classHierarchy = TANG.getDefaultClassHierarchy();
+    if (!snapshotFile.exists() || !(classHierarchy instanceof ClassHierarchyImpl)) {
+      return;
+    }
+
+    try {
+
+      final long start = System.currentTimeMillis();
+      final ClassHierarchy snapshot =
+          TANG.newInjector().getInstance(ClassHierarchySerializer.class).fromFile(snapshotFile);
+      ((ClassHierarchyImpl) classHierarchy).preload(snapshot);
+      LOG.log(Level.FINE, "Class hierarchy snapshot {0} loaded in {1} ms",
+          new Object[]{snapshotFile, System.currentTimeMillis() - start});
+
+    } catch (final IOException | InjectionException | RuntimeException e) {
+      LOG.log(Level.WARNING, "Unable to load the class hierarchy snapshot " + snapshotFile, e);
+    }
+  }
+
   /**
    * Launches a REEF client process (Driver or Evaluator).
    * @param args Command-line arguments.
@@ -173,6 +207,8 @@ public final class REEFLauncher {
       throw fatal(message, new IllegalArgumentException(message));
     }
 
+    preloadClassHierarchy(args[0]);
+
     final REEFLauncher launcher = getREEFLauncher(args[0]);
 
     Thread.setDefaultUncaughtExceptionHandler(new REEFUncaughtExceptionHandler(launcher.envConfig));
@@ -33,6 +33,7 @@ import org.apache.reef.proto.ClientRuntimeProtocol;
 import org.apache.reef.runtime.common.driver.api.ResourceLaunchHandler;
 import org.apache.reef.runtime.common.driver.api.ResourceReleaseHandler;
 import org.apache.reef.runtime.common.driver.evaluator.EvaluatorIdlenessThreadPool;
+import org.apache.reef.runtime.common.driver.evaluator.LaunchConfigurationTemplates;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.wake.EventHandler;
 
@@ -101,6 +102,9 @@ final class DriverSingletons {
       final ResourceLaunchHandler resourceLaunchHandler,
       final ResourceReleaseHandler resourceReleaseHandler,
 
-      final EvaluatorIdlenessThreadPool evaluatorIdlenessThreadPool) {
+      final EvaluatorIdlenessThreadPool evaluatorIdlenessThreadPool,
+
+      // Shared by the EvaluatorManagers, which are instantiated in forks of the Driver injector
+      final LaunchConfigurationTemplates launchConfigurationTemplates) {
   }
 }
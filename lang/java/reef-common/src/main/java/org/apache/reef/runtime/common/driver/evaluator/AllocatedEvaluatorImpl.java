@@ -25,9 +25,6 @@ import org.apache.reef.driver.evaluator.*;
 import org.apache.reef.runtime.common.driver.api.ResourceLaunchEventImpl;
 import org.apache.reef.runtime.common.evaluator.EvaluatorConfiguration;
 import org.apache.reef.tang.Configuration;
-import org.apache.reef.tang.ConfigurationBuilder;
-import org.apache.reef.tang.ConfigurationProvider;
-import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.formats.ConfigurationModule;
 import org.apache.reef.tang.formats.ConfigurationSerializer;
 import org.apache.reef.util.Optional;
@@ -37,8 +34,6 @@ import org.apache.reef.util.logging.LoggingScopeFactory;
 import java.io.File;
 import java.util.Collection;
 import java.util.HashSet;
-import java.util.Set;
-import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
@@ -55,7 +50,7 @@ public final class AllocatedEvaluatorImpl implements AllocatedEvaluator {
   private final ConfigurationSerializer configurationSerializer;
   private final String jobIdentifier;
   private final LoggingScopeFactory loggingScopeFactory;
-  private final Set<ConfigurationProvider> evaluatorConfigurationProviders;
+  private final LaunchConfigurationTemplates launchConfigurationTemplates;
 
   /**
    * The set of files to be places on the Evaluator.
@@ -72,13 +67,13 @@ public final class AllocatedEvaluatorImpl implements AllocatedEvaluator {
                          final ConfigurationSerializer configurationSerializer,
                          final String jobIdentifier,
                          final LoggingScopeFactory loggingScopeFactory,
-                         final Set<ConfigurationProvider> evaluatorConfigurationProviders) {
+                         final LaunchConfigurationTemplates launchConfigurationTemplates) {
     this.evaluatorManager = evaluatorManager;
     this.remoteID = remoteID;
     this.configurationSerializer = configurationSerializer;
     this.jobIdentifier = jobIdentifier;
     this.loggingScopeFactory = loggingScopeFactory;
-    this.evaluatorConfigurationProviders = evaluatorConfigurationProviders;
+    this.launchConfigurationTemplates = launchConfigurationTemplates;
   }
 
   @Override
@@ -268,6 +263,7 @@ public final class AllocatedEvaluatorImpl implements AllocatedEvaluator {
 
   /**
    * Make configuration for evaluator.
+   * The parts shared with other Evaluators come from a cached template.
    * @param contextConfiguration
    * @param serviceConfiguration
    * @param taskConfiguration
@@ -277,24 +273,23 @@ public final class AllocatedEvaluatorImpl implements AllocatedEvaluator {
                                                    final Optional<Configuration> serviceConfiguration,
                                                    final Optional<Configuration> taskConfiguration) {
 
-    final String contextConfigurationString = this.configurationSerializer.toString(contextConfiguration);
+    final EvaluatorType evaluatorType = getEvaluatorType();
+
+    ConfigurationModule evaluatorConfigurationModule = this.launchConfigurationTemplates
+        .getTemplate(evaluatorType, this.jobIdentifier, this.remoteID, serviceConfiguration)
+        .set(EvaluatorConfiguration.EVALUATOR_IDENTIFIER, this.getId())
+        .set(EvaluatorConfiguration.ROOT_CONTEXT_CONFIGURATION,
+            this.launchConfigurationTemplates.toNestedString(evaluatorType, contextConfiguration));
 
-    final Optional<String> taskConfigurationString;
+    // Add the (optional) task configuration
     if (taskConfiguration.isPresent()) {
-      taskConfigurationString = Optional.of(this.configurationSerializer.toString(taskConfiguration.get()));
-    } else {
-      taskConfigurationString = Optional.empty();
+      evaluatorConfigurationModule = evaluatorConfigurationModule
+          .set(EvaluatorConfiguration.TASK_CONFIGURATION,
+              this.launchConfigurationTemplates.toNestedString(evaluatorType, taskConfiguration.get()));
     }
 
-    final Optional<Configuration> mergedServiceConfiguration = makeRootServiceConfiguration(serviceConfiguration);
-    if (mergedServiceConfiguration.isPresent()) {
-      final String serviceConfigurationString = this.configurationSerializer.toString(mergedServiceConfiguration.get());
-      return makeEvaluatorConfiguration(contextConfigurationString, Optional.<String>empty(),
-          Optional.of(serviceConfigurationString), taskConfigurationString);
-    } else {
-      return makeEvaluatorConfiguration(
-          contextConfigurationString, Optional.<String>empty(), Optional.<String>empty(), taskConfigurationString);
-    }
+    // Create the evaluator configuration.
+    return evaluatorConfigurationModule.build();
   }
 
   /**
@@ -310,13 +305,10 @@ public final class AllocatedEvaluatorImpl implements AllocatedEvaluator {
                                                    final Optional<String> serviceConfiguration,
                                                    final Optional<String> taskConfiguration) {
 
-    final ConfigurationModule evaluatorConfigModule;
-    if (this.evaluatorManager.getEvaluatorDescriptor().getProcess() instanceof CLRProcess) {
-      evaluatorConfigModule = EvaluatorConfiguration.CONFCLR;
-    } else {
-      evaluatorConfigModule = EvaluatorConfiguration.CONF;
-    }
-    ConfigurationModule evaluatorConfigurationModule = evaluatorConfigModule
+    final EvaluatorType evaluatorType = getEvaluatorType();
+
+    ConfigurationModule evaluatorConfigurationModule = LaunchConfigurationTemplates
+        .getConfigurationModule(evaluatorType)
         .set(EvaluatorConfiguration.APPLICATION_IDENTIFIER, this.jobIdentifier)
         .set(EvaluatorConfiguration.DRIVER_REMOTE_IDENTIFIER, this.remoteID)
         .set(EvaluatorConfiguration.EVALUATOR_IDENTIFIER, this.getId())
@@ -335,7 +327,7 @@ public final class AllocatedEvaluatorImpl implements AllocatedEvaluator {
     } else {
       evaluatorConfigurationModule = evaluatorConfigurationModule
           .set(EvaluatorConfiguration.ROOT_SERVICE_CONFIGURATION,
-              this.configurationSerializer.toString(Tang.Factory.getTang().newConfigurationBuilder().build()));
+              this.launchConfigurationTemplates.getEmptyConfiguration(evaluatorType));
     }
 
     // Add the (optional) task configuration
@@ -348,39 +340,8 @@ public final class AllocatedEvaluatorImpl implements AllocatedEvaluator {
     return evaluatorConfigurationModule.build();
   }
 
-  /**
-   * Merges the Configurations provided by the evaluatorConfigurationProviders into the given
-   * serviceConfiguration, if any.
-   */
-  private Optional<Configuration> makeRootServiceConfiguration(final Optional<Configuration> serviceConfiguration) {
-    final EvaluatorType evaluatorType = this.evaluatorManager.getEvaluatorDescriptor().getProcess().getType();
-    if (EvaluatorType.CLR == evaluatorType) {
-      LOG.log(Level.FINE, "Not using the ConfigurationProviders as we are configuring a {0} Evaluator.", evaluatorType);
-      return serviceConfiguration;
-    }
-
-    if (!serviceConfiguration.isPresent() && this.evaluatorConfigurationProviders.isEmpty()) {
-      // No configurations to merge.
-      LOG.info("No service configuration given and no ConfigurationProviders set.");
-      return Optional.empty();
-    } else {
-      final ConfigurationBuilder configurationBuilder = getConfigurationBuilder(serviceConfiguration);
-      for (final ConfigurationProvider configurationProvider : this.evaluatorConfigurationProviders) {
-        configurationBuilder.addConfiguration(configurationProvider.getConfiguration());
-      }
-      return Optional.of(configurationBuilder.build());
-    }
-  }
-
-  /**
-   * Utility to build a ConfigurationBuilder from an Optional<Configuration>.
-   */
-  private static ConfigurationBuilder getConfigurationBuilder(final Optional<Configuration> configuration) {
-    if (configuration.isPresent()) {
-      return Tang.Factory.getTang().newConfigurationBuilder(configuration.get());
-    } else {
-      return Tang.Factory.getTang().newConfigurationBuilder();
-    }
+  private EvaluatorType getEvaluatorType() {
+    return this.evaluatorManager.getEvaluatorDescriptor().getProcess().getType();
   }
 
   @Override
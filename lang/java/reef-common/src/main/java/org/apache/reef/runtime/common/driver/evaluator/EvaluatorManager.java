@@ -21,7 +21,6 @@ package org.apache.reef.runtime.common.driver.evaluator;
 import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.annotations.audience.Private;
 import org.apache.reef.driver.evaluator.FailedEvaluator;
-import org.apache.reef.driver.parameters.EvaluatorConfigurationProviders;
 import org.apache.reef.driver.restart.DriverRestartManager;
 import org.apache.reef.driver.restart.EvaluatorRestartState;
 import org.apache.reef.exception.NonSerializableException;
@@ -30,7 +29,6 @@ import org.apache.reef.runtime.common.driver.evaluator.pojos.ContextStatusPOJO;
 import org.apache.reef.runtime.common.driver.evaluator.pojos.EvaluatorStatusPOJO;
 import org.apache.reef.runtime.common.driver.evaluator.pojos.State;
 import org.apache.reef.runtime.common.driver.evaluator.pojos.TaskStatusPOJO;
-import org.apache.reef.tang.ConfigurationProvider;
 import org.apache.reef.driver.context.ActiveContext;
 import org.apache.reef.driver.context.FailedContext;
 import org.apache.reef.driver.evaluator.AllocatedEvaluator;
@@ -64,7 +62,6 @@ import javax.inject.Inject;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -102,7 +99,7 @@ public final class EvaluatorManager implements Identifiable, AutoCloseable {
   private final RemoteManager remoteManager;
   private final ConfigurationSerializer configurationSerializer;
   private final LoggingScopeFactory loggingScopeFactory;
-  private final Set<ConfigurationProvider> evaluatorConfigurationProviders;
+  private final LaunchConfigurationTemplates launchConfigurationTemplates;
   private final DriverRestartManager driverRestartManager;
   private final EvaluatorIdlenessThreadPool idlenessThreadPool;
 
@@ -115,14 +112,13 @@ public final class EvaluatorManager implements Identifiable, AutoCloseable {
   private EvaluatorManager(
       @Parameter(EvaluatorIdentifier.class) final String evaluatorId,
       @Parameter(EvaluatorDescriptorName.class) final EvaluatorDescriptorImpl evaluatorDescriptor,
-      @Parameter(EvaluatorConfigurationProviders.class)
-        final Set<ConfigurationProvider> evaluatorConfigurationProviders,
       final Clock clock,
       final RemoteManager remoteManager,
       final ResourceReleaseHandler resourceReleaseHandler,
       final ResourceLaunchHandler resourceLaunchHandler,
       final ContextRepresenters contextRepresenters,
       final ConfigurationSerializer configurationSerializer,
+      final LaunchConfigurationTemplates launchConfigurationTemplates,
       final EvaluatorMessageDispatcher messageDispatcher,
       final EvaluatorControlHandler evaluatorControlHandler,
       final ContextControlHandler contextControlHandler,
@@ -137,7 +133,6 @@ public final class EvaluatorManager implements Identifiable, AutoCloseable {
 
     this.evaluatorId = evaluatorId;
     this.evaluatorDescriptor = evaluatorDescriptor;
-    this.evaluatorConfigurationProviders = evaluatorConfigurationProviders;
 
     this.clock = clock;
     this.contextRepresenters = contextRepresenters;
@@ -153,6 +148,7 @@ public final class EvaluatorManager implements Identifiable, AutoCloseable {
 
     this.remoteManager = remoteManager;
     this.configurationSerializer = configurationSerializer;
+    this.launchConfigurationTemplates = launchConfigurationTemplates;
     this.loggingScopeFactory = loggingScopeFactory;
     this.driverRestartManager = driverRestartManager;
     this.idlenessThreadPool = idlenessThreadPool;
@@ -191,7 +187,7 @@ public final class EvaluatorManager implements Identifiable, AutoCloseable {
               this.configurationSerializer,
               getJobIdentifier(),
               this.loggingScopeFactory,
-              this.evaluatorConfigurationProviders);
+              this.launchConfigurationTemplates);
 
       LOG.log(Level.FINEST, "Firing AllocatedEvaluator event for Evaluator with ID [{0}]", this.evaluatorId);
 
@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.driver.evaluator;
+
+import net.jcip.annotations.ThreadSafe;
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.driver.evaluator.EvaluatorType;
+import org.apache.reef.driver.parameters.EvaluatorConfigurationProviders;
+import org.apache.reef.runtime.common.evaluator.EvaluatorConfiguration;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.ConfigurationBuilder;
+import org.apache.reef.tang.ConfigurationProvider;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.tang.formats.ConfigurationModule;
+import org.apache.reef.tang.formats.ConfigurationSerializer;
+import org.apache.reef.util.Optional;
+
+import javax.inject.Inject;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the parts of the Evaluator launch configurations that are the same for many Evaluators, so that
+ * AllocatedEvaluatorImpl does not merge and serialize them again for every launch.
+ * <p>
+ * A template is an EvaluatorConfiguration module with the job and Driver identifiers and the serialized root
+ * service configuration set, the latter merged with the Configurations of the EvaluatorConfigurationProviders.
+ * Those are assumed to return the same Configuration every time. Templates are keyed by Evaluator type,
+ * job and Driver identifiers, and the serialized root service Configuration given by the application.
+ * Configurations built separately do not compare equal even when they bind the same values, so the key
+ * uses their serialized form instead.
+ */
+@Private
+@DriverSide
+@ThreadSafe
+public final class LaunchConfigurationTemplates {
+
+  private static final Logger LOG = Logger.getLogger(LaunchConfigurationTemplates.class.getName());
+
+  /**
+   * The maximum number of templates kept. Once reached, all templates are dropped and built again on demand.
+   */
+  private static final int MAX_TEMPLATES = 64;
+
+  private final Set<ConfigurationProvider> evaluatorConfigurationProviders;
+  private final ConfigurationSerializer configurationSerializer;
+  private final ConcurrentMap<TemplateKey, ConfigurationModule> templates = new ConcurrentHashMap<>();
+  private final ConcurrentMap<EvaluatorType, String> emptyConfigurations = new ConcurrentHashMap<>();
+
+  @Inject
+  LaunchConfigurationTemplates(
+      @Parameter(EvaluatorConfigurationProviders.class)
+        final Set<ConfigurationProvider> evaluatorConfigurationProviders,
+      final ConfigurationSerializer configurationSerializer) {
+    this.evaluatorConfigurationProviders = evaluatorConfigurationProviders;
+    this.configurationSerializer = configurationSerializer;
+  }
+
+  /**
+   * @param evaluatorType the type of the Evaluator to launch.
+   * @param jobIdentifier the identifier of the job.
+   * @param remoteId the remote identifier of the Driver.
+   * @param serviceConfiguration the root service configuration given by the application, if any.
+   * @return an EvaluatorConfiguration module that only lacks the per-Evaluator parameters.
+   */
+  ConfigurationModule getTemplate(final EvaluatorType evaluatorType,
+                                  final String jobIdentifier,
+                                  final String remoteId,
+                                  final Optional<Configuration> serviceConfiguration) {
+    final Optional<String> serviceConfigurationString = serviceConfiguration.isPresent()
+        ? Optional.of(toNestedString(evaluatorType, serviceConfiguration.get()))
+        : Optional.<String>empty();
+    final TemplateKey key = new TemplateKey(evaluatorType, jobIdentifier, remoteId, serviceConfigurationString);
+    final ConfigurationModule template = this.templates.get(key);
+    if (template != null) {
+      return template;
+    }
+    final ConfigurationModule newTemplate =
+        makeTemplate(evaluatorType, jobIdentifier, remoteId, serviceConfiguration);
+    if (this.templates.size() >= MAX_TEMPLATES) {
+      LOG.log(Level.FINE, "Dropping {0} launch configuration templates", this.templates.size());
+      this.templates.clear();
+    }
+    final ConfigurationModule previous = this.templates.putIfAbsent(key, newTemplate);
+    return previous == null ? newTemplate : previous;
+  }
+
+  /**
+   * @param evaluatorType the type of the Evaluator to launch.
+   * @return the EvaluatorConfiguration module for the given type of Evaluator.
+   */
+  static ConfigurationModule getConfigurationModule(final EvaluatorType evaluatorType) {
+    return EvaluatorType.CLR == evaluatorType ? EvaluatorConfiguration.CONFCLR : EvaluatorConfiguration.CONF;
+  }
+
+  /**
+   * Serializes a Configuration that is passed to the Evaluator inside of the Evaluator configuration.
+   * JVM Evaluators get the compact binary form; CLR Evaluators get JSON, as that is what the .NET side parses.
+   * @param evaluatorType the type of the Evaluator to launch.
+   * @param configuration the Configuration to serialize.
+   * @return the serialized Configuration
+   */
+  String toNestedString(final EvaluatorType evaluatorType, final Configuration configuration) {
+    if (EvaluatorType.CLR == evaluatorType) {
+      return this.configurationSerializer.toString(configuration);
+    }
+    return this.configurationSerializer.toBinaryString(configuration);
+  }
+
+  /**
+   * @param evaluatorType the type of the Evaluator to launch.
+   * @return the serialized empty Configuration, used when there is no root service configuration.
+   */
+  String getEmptyConfiguration(final EvaluatorType evaluatorType) {
+    final String emptyConfiguration = this.emptyConfigurations.get(evaluatorType);
+    if (emptyConfiguration != null) {
+      return emptyConfiguration;
+    }
+    final String newEmptyConfiguration =
+        toNestedString(evaluatorType, Tang.Factory.getTang().newConfigurationBuilder().build());
+    this.emptyConfigurations.putIfAbsent(evaluatorType, newEmptyConfiguration);
+    return newEmptyConfiguration;
+  }
+
+  private ConfigurationModule makeTemplate(final EvaluatorType evaluatorType,
+                                           final String jobIdentifier,
+                                           final String remoteId,
+                                           final Optional<Configuration> serviceConfiguration) {
+    final Optional<Configuration> mergedServiceConfiguration =
+        makeRootServiceConfiguration(evaluatorType, serviceConfiguration);
+    final String serviceConfigurationString = mergedServiceConfiguration.isPresent()
+        ? toNestedString(evaluatorType, mergedServiceConfiguration.get())
+        : getEmptyConfiguration(evaluatorType);
+
+    return getConfigurationModule(evaluatorType)
+        .set(EvaluatorConfiguration.APPLICATION_IDENTIFIER, jobIdentifier)
+        .set(EvaluatorConfiguration.DRIVER_REMOTE_IDENTIFIER, remoteId)
+        .set(EvaluatorConfiguration.ROOT_SERVICE_CONFIGURATION, serviceConfigurationString);
+  }
+
+  /**
+   * Merges the Configurations provided by the evaluatorConfigurationProviders into the given
+   * serviceConfiguration, if any.
+   */
+  private Optional<Configuration> makeRootServiceConfiguration(final EvaluatorType evaluatorType,
+                                                               final Optional<Configuration> serviceConfiguration) {
+    if (EvaluatorType.CLR == evaluatorType) {
+      LOG.log(Level.FINE, "Not using the ConfigurationProviders as we are configuring a {0} Evaluator.", evaluatorType);
+      return serviceConfiguration;
+    }
+
+    if (!serviceConfiguration.isPresent() && this.evaluatorConfigurationProviders.isEmpty()) {
+      // No configurations to merge.
+      LOG.info("No service configuration given and no ConfigurationProviders set.");
+      return Optional.empty();
+    } else {
+      final ConfigurationBuilder configurationBuilder = getConfigurationBuilder(serviceConfiguration);
+      for (final ConfigurationProvider configurationProvider : this.evaluatorConfigurationProviders) {
+        configurationBuilder.addConfiguration(configurationProvider.getConfiguration());
+      }
+      return Optional.of(configurationBuilder.build());
+    }
+  }
+
+  /**
+   * Utility to build a ConfigurationBuilder from an Optional<Configuration>.
+   */
+  private static ConfigurationBuilder getConfigurationBuilder(final Optional<Configuration> configuration) {
+    if (configuration.isPresent()) {
+      return Tang.Factory.getTang().newConfigurationBuilder(configuration.get());
+    } else {
+      return Tang.Factory.getTang().newConfigurationBuilder();
+    }
+  }
+
+  /**
+   * The inputs a template is built from.
+   */
+  private static final class TemplateKey {
+    private final EvaluatorType evaluatorType;
+    private final String jobIdentifier;
+    private final String remoteId;
+    private final Optional<String> serviceConfiguration;
+
+    TemplateKey(final EvaluatorType evaluatorType, final String jobIdentifier, final String remoteId,
+                final Optional<String> serviceConfiguration) {
+      this.evaluatorType = evaluatorType;
+      this.jobIdentifier = jobIdentifier;
+      this.remoteId = remoteId;
+      this.serviceConfiguration = serviceConfiguration;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final TemplateKey that = (TemplateKey) o;
+      return this.evaluatorType == that.evaluatorType
+          && this.jobIdentifier.equals(that.jobIdentifier)
+          && this.remoteId.equals(that.remoteId)
+          && this.serviceConfiguration.equals(that.serviceConfiguration);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = this.evaluatorType.hashCode();
+      result = 31 * result + this.jobIdentifier.hashCode();
+      result = 31 * result + this.remoteId.hashCode();
+      result = 31 * result + this.serviceConfiguration.hashCode();
+      return result;
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.files;
+
+import org.apache.reef.annotations.audience.DriverSide;
+import org.apache.reef.annotations.audience.Private;
+import org.apache.reef.annotations.audience.RuntimeAuthor;
+import org.apache.reef.tang.ClassHierarchy;
+import org.apache.reef.tang.ClassHierarchySerializer;
+import org.apache.reef.tang.Tang;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes a snapshot of the Driver's class hierarchy into the folder of an Evaluator's configuration.
+ * REEFLauncher preloads it on the Evaluator, so that injecting the Evaluator's configuration
+ * does not need to reflect on the classes already known to the Driver.
+ * <p>
+ * The snapshot is taken once, when the first Evaluator is launched.
+ */
+@Private
+@RuntimeAuthor
+@DriverSide
+public final class ClassHierarchySnapshotWriter {
+
+  private static final Logger LOG = Logger.getLogger(ClassHierarchySnapshotWriter.class.getName());
+
+  private final ClassHierarchySerializer classHierarchySerializer;
+  private final REEFFileNames fileNames;
+  private byte[] snapshot = null;
+
+  @Inject
+  ClassHierarchySnapshotWriter(final ClassHierarchySerializer classHierarchySerializer,
+                               final REEFFileNames fileNames) {
+    this.classHierarchySerializer = classHierarchySerializer;
+    this.fileNames = fileNames;
+  }
+
+  /**
+   * Write the class hierarchy snapshot into the given folder.
+   * Failures are logged: the Evaluator falls back to reflection if there is no snapshot.
+   *
+   * @param folder the folder holding the Evaluator configuration.
+   */
+  public void writeTo(final File folder) {
+    final File snapshotFile = new File(folder, this.fileNames.getClassHierarchySnapshotName());
+    try {
+      Files.write(snapshotFile.toPath(), getSnapshot());
+    } catch (final IOException e) {
+      LOG.log(Level.WARNING, "Unable to write the class hierarchy snapshot to " + snapshotFile, e);
+    }
+  }
+
+  private synchronized byte[] getSnapshot() throws IOException {
+    if (this.snapshot == null) {
+      final ClassHierarchy classHierarchy = Tang.Factory.getTang().getDefaultClassHierarchy();
+      final long start = System.currentTimeMillis();
+      // The hierarchy keeps growing while other threads inject; hold its lock while walking it.
+      synchronized (classHierarchy) {
+        this.snapshot = this.classHierarchySerializer.toByteArray(classHierarchy);
+      }
+      LOG.log(Level.FINE, "Serialized the class hierarchy snapshot: {0} bytes in {1} ms",
+          new Object[]{this.snapshot.length, System.currentTimeMillis() - start});
+    }
+    return this.snapshot;
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.runtime.common.driver.evaluator;
+
+import org.apache.reef.driver.evaluator.EvaluatorType;
+import org.apache.reef.runtime.common.evaluator.EvaluatorConfiguration;
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.ConfigurationBuilder;
+import org.apache.reef.tang.ConfigurationProvider;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.formats.AvroConfigurationSerializer;
+import org.apache.reef.tang.formats.ConfigurationSerializer;
+import org.apache.reef.util.Optional;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Tests for LaunchConfigurationTemplates.
+ */
+public final class LaunchConfigurationTemplatesTest {
+
+  private static final String JOB_ID = "job";
+  private static final String REMOTE_ID = "socket://127.0.0.1:10000";
+  private static final String EVALUATOR_ID = "evaluator";
+
+  private final ConfigurationSerializer serializer = new AvroConfigurationSerializer();
+  private final Set<ConfigurationProvider> providers =
+      Collections.<ConfigurationProvider>singleton(new TestConfigurationProvider());
+  private LaunchConfigurationTemplates templates;
+
+  @Before
+  public void setUp() {
+    templates = new LaunchConfigurationTemplates(providers, serializer);
+  }
+
+  /**
+   * Equal service configurations that were built separately must share a template.
+   */
+  @Test
+  public void testEqualServiceConfigurationsShareTemplate() {
+    final Optional<Configuration> first = Optional.of(makeServiceConfiguration("service"));
+    final Optional<Configuration> second = Optional.of(makeServiceConfiguration("service"));
+    Assert.assertNotSame(first.get(), second.get());
+
+    Assert.assertSame("Equal service configurations did not share a template",
+        templates.getTemplate(EvaluatorType.JVM, JOB_ID, REMOTE_ID, first),
+        templates.getTemplate(EvaluatorType.JVM, JOB_ID, REMOTE_ID, second));
+    Assert.assertSame("Launches without a service configuration did not share a template",
+        templates.getTemplate(EvaluatorType.JVM, JOB_ID, REMOTE_ID, Optional.<Configuration>empty()),
+        templates.getTemplate(EvaluatorType.JVM, JOB_ID, REMOTE_ID, Optional.<Configuration>empty()));
+  }
+
+  /**
+   * Different service configurations, and CLR and JVM Evaluators, must not share a template.
+   */
+  @Test
+  public void testDifferentLaunchesDoNotShareTemplate() {
+    final Optional<Configuration> service = Optional.of(makeServiceConfiguration("service"));
+    final Optional<Configuration> otherService = Optional.of(makeServiceConfiguration("other"));
+
+    Assert.assertNotSame("Different service configurations shared a template",
+        templates.getTemplate(EvaluatorType.JVM, JOB_ID, REMOTE_ID, service),
+        templates.getTemplate(EvaluatorType.JVM, JOB_ID, REMOTE_ID, otherService));
+    Assert.assertNotSame("A CLR and a JVM Evaluator shared a template",
+        templates.getTemplate(EvaluatorType.JVM, JOB_ID, REMOTE_ID, service),
+        templates.getTemplate(EvaluatorType.CLR, JOB_ID, REMOTE_ID, service));
+  }
+
+  /**
+   * The Evaluator configuration made from a template must equal the one made without it.
+   */
+  @Test
+  public void testTemplateConfigurationEqualsDirectConfiguration() {
+    final Configuration service = makeServiceConfiguration("service");
+    final Configuration context = makeServiceConfiguration("context");
+    final Configuration task = makeServiceConfiguration("task");
+
+    final Configuration fromTemplate = templates
+        .getTemplate(EvaluatorType.JVM, JOB_ID, REMOTE_ID, Optional.of(service))
+        .set(EvaluatorConfiguration.EVALUATOR_IDENTIFIER, EVALUATOR_ID)
+        .set(EvaluatorConfiguration.ROOT_CONTEXT_CONFIGURATION, serializer.toBinaryString(context))
+        .set(EvaluatorConfiguration.TASK_CONFIGURATION, serializer.toBinaryString(task))
+        .build();
+
+    final ConfigurationBuilder mergedService = Tang.Factory.getTang().newConfigurationBuilder(service);
+    for (final ConfigurationProvider provider : providers) {
+      mergedService.addConfiguration(provider.getConfiguration());
+    }
+    final Configuration direct = EvaluatorConfiguration.CONF
+        .set(EvaluatorConfiguration.APPLICATION_IDENTIFIER, JOB_ID)
+        .set(EvaluatorConfiguration.DRIVER_REMOTE_IDENTIFIER, REMOTE_ID)
+        .set(EvaluatorConfiguration.EVALUATOR_IDENTIFIER, EVALUATOR_ID)
+        .set(EvaluatorConfiguration.ROOT_CONTEXT_CONFIGURATION, serializer.toBinaryString(context))
+        .set(EvaluatorConfiguration.ROOT_SERVICE_CONFIGURATION, serializer.toBinaryString(mergedService.build()))
+        .set(EvaluatorConfiguration.TASK_CONFIGURATION, serializer.toBinaryString(task))
+        .build();
+
+    // Configurations have no value equality, so compare what is sent to the Evaluator.
+    Assert.assertEquals("The Evaluator configuration differs from the one made without a template",
+        serializer.toString(direct), serializer.toString(fromTemplate));
+  }
+
+  private static Configuration makeServiceConfiguration(final String value) {
+    return Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(TestServiceParameter.class, value)
+        .build();
+  }
+
+  @NamedParameter(doc = "A parameter set by the service configurations of the tests.")
+  static final class TestServiceParameter implements Name<String> {
+  }
+
+  @NamedParameter(doc = "A parameter set by the ConfigurationProvider of the tests.")
+  static final class TestProviderParameter implements Name<String> {
+  }
+
+  /**
+   * A ConfigurationProvider that returns the same Configuration every time.
+   */
+  private static final class TestConfigurationProvider implements ConfigurationProvider {
+    private final Configuration configuration = Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(TestProviderParameter.class, "provider")
+        .build();
+
+    @Override
+    public Configuration getConfiguration() {
+      return configuration;
+    }
+  }
+}
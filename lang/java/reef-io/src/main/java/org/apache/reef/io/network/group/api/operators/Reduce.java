@@ -21,6 +21,7 @@ package org.apache.reef.io.network.group.api.operators;
 import org.apache.reef.exception.evaluator.NetworkException;
 import org.apache.reef.io.network.group.impl.operators.ReduceReceiver;
 import org.apache.reef.io.network.group.impl.operators.ReduceSender;
+import org.apache.reef.io.serialization.Codec;
 import org.apache.reef.tang.annotations.DefaultImplementation;
 import org.apache.reef.wake.Identifier;
 
@@ -96,4 +97,37 @@ public interface Reduce {
      */
     T apply(Iterable<T> elements);
   }
+
+  /**
+   * A {@link ReduceFunction} that can fold one value into another, e.g. by updating
+   * a mutable accumulator. When the reduce function of an operator implements this
+   * interface, received values are combined through {@link #reduceInto} instead of
+   * building a list for {@link #apply} for every pair of values.
+   */
+  interface InPlaceReduceFunction<T> extends ReduceFunction<T> {
+    /**
+     * Combine {@code element} into {@code accumulator}. The accumulator is always a
+     * value owned by group communication and may be modified, but {@code element}
+     * may be the caller's own value and must be left untouched.
+     *
+     * @return the combined value, usually {@code accumulator} itself.
+     */
+    T reduceInto(T accumulator, T element);
+  }
+
+  /**
+   * A {@link Codec} whose encoding can be cut at any multiple of {@link #getSegmentAlignment()}
+   * bytes, with every piece decoding on its own, e.g. a raw encoding of a primitive array.
+   * <p>
+   * When the data codec of a Reduce operator implements this interface, large values are
+   * reduced segment by segment while they stream up the tree. The {@link ReduceFunction}
+   * must therefore be element-wise, and encoding a reduced segment must yield as many bytes
+   * as each of the segments it was reduced from.
+   */
+  interface SegmentableCodec<T> extends Codec<T> {
+    /**
+     * @return the number of bytes that segment boundaries must be a multiple of.
+     */
+    int getSegmentAlignment();
+  }
 }
@@ -38,5 +38,14 @@ public interface NodeStruct {
 
   byte[] getData();
 
+  /**
+   * Like {@link #getData()}, but returns the next message itself, so that every
+   * data blob it carries can be read, as well as whether it is a chunk of a
+   * pipelined message.
+   *
+   * @return the next message, or null if the node is dead
+   */
+  GroupCommunicationMessage getMessage();
+
   void addData(GroupCommunicationMessage msg);
 }
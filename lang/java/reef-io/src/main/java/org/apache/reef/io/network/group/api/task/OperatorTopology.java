@@ -20,10 +20,12 @@ package org.apache.reef.io.network.group.api.task;
 
 import org.apache.reef.io.network.exception.ParentDeadException;
 import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
+import org.apache.reef.io.network.group.api.operators.Reduce.SegmentableCodec;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
 import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
 import org.apache.reef.io.serialization.Codec;
 
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -52,6 +54,9 @@ public interface OperatorTopology {
 
   byte[] recvFromParent(ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) throws ParentDeadException;
 
+  byte[] recvFromParentAndSendToChildren(ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType)
+      throws ParentDeadException;
+
   void sendToChildren(byte[] data, ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) throws ParentDeadException;
 
   void sendToChildren(Map<String, byte[]> dataMap,
@@ -59,7 +64,10 @@ public interface OperatorTopology {
 
   <T> T recvFromChildren(ReduceFunction<T> redFunc, Codec<T> dataCodec) throws ParentDeadException;
 
-  byte[] recvFromChildren() throws ParentDeadException;
+  <T> void recvFromChildrenAndSendToParent(T myData, ReduceFunction<T> redFunc, SegmentableCodec<T> dataCodec)
+      throws ParentDeadException;
+
+  List<byte[]> recvFromChildren() throws ParentDeadException;
 
   void initialize() throws ParentDeadException;
 }
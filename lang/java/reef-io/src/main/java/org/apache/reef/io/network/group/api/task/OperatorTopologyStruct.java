@@ -19,6 +19,7 @@
 package org.apache.reef.io.network.group.api.task;
 
 import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
+import org.apache.reef.io.network.group.api.operators.Reduce.SegmentableCodec;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
 import org.apache.reef.io.network.group.impl.operators.Sender;
 import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
@@ -26,8 +27,10 @@ import org.apache.reef.io.serialization.Codec;
 import org.apache.reef.tang.annotations.Name;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 /**
  * The actual local topology maintaining the
@@ -46,6 +49,10 @@ public interface OperatorTopologyStruct {
 
   int getVersion();
 
+  int getPipelineChunkSize();
+
+  ExecutorService getReduceExecutor();
+
   NodeStruct getParent();
 
   Collection<? extends NodeStruct> getChildren();
@@ -68,11 +75,15 @@ public interface OperatorTopologyStruct {
 
   byte[] recvFromParent(ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType);
 
+  byte[] recvFromParentAndSendToChildren(ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType);
+
   void sendToChildren(byte[] data, ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType);
 
   void sendToChildren(Map<String, byte[]> dataMap, ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType);
 
   <T> T recvFromChildren(ReduceFunction<T> redFunc, Codec<T> dataCodec);
 
-  byte[] recvFromChildren();
+  <T> void recvFromChildrenAndSendToParent(T myData, ReduceFunction<T> redFunc, SegmentableCodec<T> dataCodec);
+
+  List<byte[]> recvFromChildren();
 }
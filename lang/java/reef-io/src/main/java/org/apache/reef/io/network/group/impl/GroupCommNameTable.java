@@ -0,0 +1,160 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl;
+
+import org.apache.reef.io.network.group.impl.config.parameters.GroupCommAddedNames;
+import org.apache.reef.io.network.group.impl.config.parameters.GroupCommNames;
+import org.apache.reef.tang.annotations.Parameter;
+
+import javax.inject.Inject;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+/**
+ * The table of names that {@link GroupCommunicationMessageCodec} writes as small IDs
+ * instead of strings.
+ * <p>
+ * On the driver, names are registered as communication groups and operators are created.
+ * The table is frozen when the first evaluator is configured: the names known by then are
+ * numbered in sorted order and passed on to every evaluator through {@link GroupCommNames}.
+ * Names registered later, such as the task IDs added to a topology, get the next free ID in
+ * the order they are registered. Each task learns the names added up to its own configuration
+ * through {@link GroupCommAddedNames}, so a task knows every ID up to its own.
+ */
+public final class GroupCommNameTable {
+
+  private static final Logger LOG = Logger.getLogger(GroupCommNameTable.class.getName());
+
+  /**
+   * The largest number of names that fit the two-byte IDs of the header.
+   */
+  private static final int MAX_NAMES = Short.MAX_VALUE;
+
+  private final Set<String> registered = new HashSet<>();
+  private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+  private volatile String[] names = new String[0];
+  private volatile int frozenCount = -1;
+
+  /**
+   * Create an open table to register names with.
+   */
+  public GroupCommNameTable() {
+  }
+
+  @Inject
+  private GroupCommNameTable(@Parameter(GroupCommNames.class) final Set<String> names) {
+    registered.addAll(names);
+    freeze();
+  }
+
+  /**
+   * Register a name to be written as an ID.
+   * Once the table is frozen, the name gets the next free ID.
+   */
+  public synchronized void register(final String name) {
+    if (frozenCount < 0) {
+      registered.add(name);
+    } else if (!ids.containsKey(name)) {
+      append(name);
+    }
+  }
+
+  /**
+   * Add the names that the driver registered after it froze its table.
+   * The names keep their driver IDs, so they have to be given in the order of {@link #getAddedNames()}.
+   */
+  public synchronized void addNames(final List<String> addedNames) {
+    if (frozenCount < 0) {
+      throw new IllegalStateException("Names can only be added to a frozen table");
+    }
+    for (int i = names.length - frozenCount; i < addedNames.size(); i++) {
+      append(addedNames.get(i));
+    }
+  }
+
+  private void append(final String name) {
+    if (names.length >= MAX_NAMES) {
+      LOG.fine("Name table is full. " + name + " will be written inline");
+      return;
+    }
+    final String[] newNames = Arrays.copyOf(names, names.length + 1);
+    newNames[names.length] = name;
+    ids.put(name, names.length);
+    names = newNames;
+  }
+
+  /**
+   * Freeze the table, if it is not frozen yet, and number its names.
+   *
+   * @return the names in the table, to be passed on to evaluators as {@link GroupCommNames}.
+   */
+  public synchronized Set<String> freeze() {
+    if (frozenCount < 0) {
+      final List<String> sorted = new ArrayList<>(registered);
+      Collections.sort(sorted);
+      if (sorted.size() > MAX_NAMES) {
+        sorted.subList(MAX_NAMES, sorted.size()).clear();
+      }
+      for (int i = 0; i < sorted.size(); i++) {
+        ids.put(sorted.get(i), i);
+      }
+      names = sorted.toArray(new String[sorted.size()]);
+      frozenCount = names.length;
+      LOG.finest("Froze name table with " + names.length + " names");
+    }
+    return new HashSet<>(Arrays.asList(names).subList(0, frozenCount));
+  }
+
+  /**
+   * @return the names registered after the table was frozen, in the order of their IDs,
+   * to be passed on to tasks as {@link GroupCommAddedNames}.
+   */
+  public synchronized List<String> getAddedNames() {
+    return frozenCount < 0 ? Collections.<String>emptyList()
+        : new ArrayList<>(Arrays.asList(names).subList(frozenCount, names.length));
+  }
+
+  /**
+   * @return the ID of the name or -1 if the name has none.
+   */
+  public int getId(final String name) {
+    final Integer id = ids.get(name);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * @return the largest ID that the party with the given name knows for sure: every party knows the
+   * names of the frozen table, and a task also knows the names added up to its own.
+   */
+  public int getLastIdKnownBy(final String name) {
+    return Math.max(getId(name), frozenCount - 1);
+  }
+
+  /**
+   * @return the name with the given ID.
+   */
+  public String getName(final int id) {
+    final String[] currentNames = names;
+    if (id < 0 || id >= currentNames.length) {
+      throw new RuntimeException("Unknown name ID " + id + " in a table of " + currentNames.length + " names");
+    }
+    return currentNames[id];
+  }
+}
@@ -35,6 +35,7 @@ public class GroupCommunicationMessage {
   private final String to;
   private final int dstVersion;
   private final byte[][] data;
+  private final boolean chunk;
 
   private final String simpleGroupName;
   private final String simpleOperName;
@@ -46,6 +47,19 @@ public class GroupCommunicationMessage {
       final String from, final int srcVersion,
       final String to, final int dstVersion,
       final byte[][] data) {
+    this(groupName, operName, msgType, from, srcVersion, to, dstVersion, data, false);
+  }
+
+  /**
+   * @param chunk whether the message is one chunk of a pipelined message
+   */
+  public GroupCommunicationMessage(
+      final String groupName,
+      final String operName,
+      final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType,
+      final String from, final int srcVersion,
+      final String to, final int dstVersion,
+      final byte[][] data, final boolean chunk) {
     super();
     this.groupName = groupName;
     this.operName = operName;
@@ -55,6 +69,7 @@ public class GroupCommunicationMessage {
     this.to = to;
     this.dstVersion = dstVersion;
     this.data = data;
+    this.chunk = chunk;
     this.simpleGroupName = Utils.simpleName(Utils.getClass(groupName));
     this.simpleOperName = Utils.simpleName(Utils.getClass(operName));
   }
@@ -103,6 +118,13 @@ public class GroupCommunicationMessage {
     return data;
   }
 
+  /**
+   * @return whether the message is one chunk of a pipelined message
+   */
+  public boolean isChunk() {
+    return chunk;
+  }
+
   public int getMsgsCount() {
     return data.length;
   }
@@ -147,6 +169,9 @@ public class GroupCommunicationMessage {
         if (!this.msgType.equals(that.msgType)) {
           return false;
         }
+        if (this.chunk != that.chunk) {
+          return false;
+        }
         if (this.data.length != that.data.length) {
           return false;
         }
@@ -175,6 +200,7 @@ public class GroupCommunicationMessage {
     result = 31 * result + srcVersion;
     result = 31 * result + to.hashCode();
     result = 31 * result + dstVersion;
+    result = 31 * result + (chunk ? 1 : 0);
     result = 31 * result + Arrays.deepHashCode(data);
     return result;
   }
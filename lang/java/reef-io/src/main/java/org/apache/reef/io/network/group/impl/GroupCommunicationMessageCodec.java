@@ -19,20 +19,74 @@
 package org.apache.reef.io.network.group.impl;
 
 
+import org.apache.reef.io.network.group.impl.config.parameters.CompactMessageHeader;
 import org.apache.reef.io.network.impl.StreamingCodec;
 import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos.GroupCommMessage.Type;
+import org.apache.reef.tang.annotations.Parameter;
 
 import javax.inject.Inject;
 import java.io.*;
 
 /**
  * Codec for {@link org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos.GroupCommMessage}.
+ * <p>
+ * With a {@link GroupCommNameTable} and the compact header enabled, the group, operator,
+ * source and destination names are written as two-byte IDs and the type as a single byte.
+ * A name is only written as an ID if the destination knows that ID; otherwise it is written inline.
+ * The compact header starts with a marker and a version, so every codec with a name table can
+ * decode both headers and parties that still write all names as strings can be mixed in.
+ * Decoded messages share the name instances of the table.
  */
 public class GroupCommunicationMessageCodec implements StreamingCodec<GroupCommunicationMessage> {
 
-  @Inject
+  /**
+   * Marks a name that is written inline instead of as an ID.
+   */
+  private static final short INLINE_NAME = -1;
+
+  /**
+   * Starts a compact header. A string header starts with the length of the group name instead,
+   * which, being a class name, never gets this long.
+   */
+  private static final int COMPACT_HEADER_MARKER = 0xFFFF;
+
+  /**
+   * The version of the compact header that follows the marker.
+   */
+  private static final byte COMPACT_HEADER_VERSION = 1;
+
+  /**
+   * Set in the written type of a message that is one chunk of a pipelined message.
+   * Type numbers stay well below it, so it also fits the single type byte of the compact header.
+   */
+  private static final int CHUNK_FLAG = 0x40;
+
+  private final GroupCommNameTable nameTable;
+  private final boolean compactHeader;
+
+  /**
+   * Create a codec that writes every name as a string.
+   */
   public GroupCommunicationMessageCodec() {
-    // Intentionally Blank
+    this(null, false);
+  }
+
+  /**
+   * @param nameTable the table of names to write as IDs, or null to write every name as a string.
+   */
+  public GroupCommunicationMessageCodec(final GroupCommNameTable nameTable) {
+    this(nameTable, nameTable != null);
+  }
+
+  /**
+   * @param nameTable the table of names to decode compact headers with
+   * @param compactHeader whether to write compact headers
+   */
+  @Inject
+  public GroupCommunicationMessageCodec(final GroupCommNameTable nameTable,
+                                        @Parameter(CompactMessageHeader.class) final boolean compactHeader) {
+    this.nameTable = nameTable;
+    this.compactHeader = compactHeader && nameTable != null;
   }
 
   @Override
@@ -49,9 +103,14 @@ public class GroupCommunicationMessageCodec implements StreamingCodec<GroupCommu
   @Override
   public GroupCommunicationMessage decodeFromStream(final DataInputStream stream) {
     try {
-      final String groupName = stream.readUTF();
+      final int groupNameLength = stream.readUnsignedShort();
+      if (groupNameLength == COMPACT_HEADER_MARKER) {
+        return decodeCompact(stream);
+      }
+      final String groupName = readUTF(groupNameLength, stream);
       final String operName = stream.readUTF();
-      final Type msgType = Type.valueOf(stream.readInt());
+      final int type = stream.readInt();
+      final Type msgType = Type.valueOf(type & ~CHUNK_FLAG);
       final String from = stream.readUTF();
       final int srcVersion = stream.readInt();
       final String to = stream.readUTF();
@@ -69,7 +128,8 @@ public class GroupCommunicationMessageCodec implements StreamingCodec<GroupCommu
           srcVersion,
           to,
           dstVersion,
-          gcmData);
+          gcmData,
+          (type & CHUNK_FLAG) != 0);
     } catch (final IOException e) {
       throw new RuntimeException("IOException", e);
     }
@@ -89,10 +149,14 @@ public class GroupCommunicationMessageCodec implements StreamingCodec<GroupCommu
 
   @Override
   public void encodeToStream(final GroupCommunicationMessage msg, final DataOutputStream stream) {
+    if (compactHeader) {
+      encodeCompact(msg, stream);
+      return;
+    }
     try {
       stream.writeUTF(msg.getGroupname());
       stream.writeUTF(msg.getOperatorname());
-      stream.writeInt(msg.getType().getNumber());
+      stream.writeInt(typeOf(msg));
       stream.writeUTF(msg.getSrcid());
       stream.writeInt(msg.getSrcVersion());
       stream.writeUTF(msg.getDestid());
@@ -107,4 +171,85 @@ public class GroupCommunicationMessageCodec implements StreamingCodec<GroupCommu
     }
   }
 
+  private GroupCommunicationMessage decodeCompact(final DataInputStream stream) {
+    try {
+      final byte version = stream.readByte();
+      if (version != COMPACT_HEADER_VERSION) {
+        throw new RuntimeException("Unsupported compact header version " + version);
+      }
+      if (nameTable == null) {
+        throw new RuntimeException("Received a compact header without a name table to decode it");
+      }
+      final String groupName = readName(stream);
+      final String operName = readName(stream);
+      final byte type = stream.readByte();
+      final Type msgType = Type.valueOf(type & ~CHUNK_FLAG);
+      final String from = readName(stream);
+      final int srcVersion = stream.readInt();
+      final String to = readName(stream);
+      final int dstVersion = stream.readInt();
+      final byte[][] gcmData = new byte[stream.readInt()][];
+      for (int i = 0; i < gcmData.length; i++) {
+        gcmData[i] = new byte[stream.readInt()];
+        stream.readFully(gcmData[i]);
+      }
+      return new GroupCommunicationMessage(groupName, operName, msgType, from, srcVersion, to, dstVersion, gcmData,
+          (type & CHUNK_FLAG) != 0);
+    } catch (final IOException e) {
+      throw new RuntimeException("IOException", e);
+    }
+  }
+
+  private void encodeCompact(final GroupCommunicationMessage msg, final DataOutputStream stream) {
+    try {
+      final int lastKnownId = nameTable.getLastIdKnownBy(msg.getDestid());
+      stream.writeShort(COMPACT_HEADER_MARKER);
+      stream.writeByte(COMPACT_HEADER_VERSION);
+      writeName(msg.getGroupname(), lastKnownId, stream);
+      writeName(msg.getOperatorname(), lastKnownId, stream);
+      stream.writeByte(typeOf(msg));
+      writeName(msg.getSrcid(), lastKnownId, stream);
+      stream.writeInt(msg.getSrcVersion());
+      writeName(msg.getDestid(), lastKnownId, stream);
+      stream.writeInt(msg.getVersion());
+      stream.writeInt(msg.getMsgsCount());
+      for (final byte[] b : msg.getData()) {
+        stream.writeInt(b.length);
+        stream.write(b);
+      }
+    } catch (final IOException e) {
+      throw new RuntimeException("IOException", e);
+    }
+  }
+
+  private static int typeOf(final GroupCommunicationMessage msg) {
+    return msg.isChunk() ? msg.getType().getNumber() | CHUNK_FLAG : msg.getType().getNumber();
+  }
+
+  private String readName(final DataInputStream stream) throws IOException {
+    final short id = stream.readShort();
+    return id == INLINE_NAME ? stream.readUTF() : nameTable.getName(id);
+  }
+
+  /**
+   * Read a string whose length has already been read.
+   */
+  private static String readUTF(final int length, final DataInputStream stream) throws IOException {
+    final byte[] utf = new byte[length + 2];
+    utf[0] = (byte) (length >>> 8);
+    utf[1] = (byte) length;
+    stream.readFully(utf, 2, length);
+    return new DataInputStream(new ByteArrayInputStream(utf)).readUTF();
+  }
+
+  private void writeName(final String name, final int lastKnownId, final DataOutputStream stream)
+      throws IOException {
+    final int id = nameTable.getId(name);
+    if (id < 0 || id > lastKnownId) {
+      stream.writeShort(INLINE_NAME);
+      stream.writeUTF(name);
+    } else {
+      stream.writeShort(id);
+    }
+  }
 }
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.config;
+
+import org.apache.reef.io.network.group.api.config.OperatorSpec;
+import org.apache.reef.io.network.group.impl.utils.Utils;
+import org.apache.reef.io.serialization.Codec;
+
+/**
+ * The specification for the AllGather operator.
+ * All tasks exchange data with each other, so no task sends or receives on behalf of the others.
+ * The root task only anchors the topology the driver uses to set up and update the group.
+ */
+public class AllGatherOperatorSpec implements OperatorSpec {
+
+  private final String rootId;
+  private final Class<? extends Codec> dataCodecClass;
+
+  public AllGatherOperatorSpec(final String rootId,
+                               final Class<? extends Codec> dataCodecClass) {
+    this.rootId = rootId;
+    this.dataCodecClass = dataCodecClass;
+  }
+
+  public String getRootId() {
+    return rootId;
+  }
+
+  @Override
+  public Class<? extends Codec> getDataCodecClass() {
+    return dataCodecClass;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder sb = new StringBuilder("AllGather Operator Spec: [root=")
+        .append(rootId)
+        .append("] [dataCodecClass=")
+        .append(Utils.simpleName(dataCodecClass))
+        .append("]");
+    return sb.toString();
+  }
+
+  public static Builder newBuilder() {
+    return new AllGatherOperatorSpec.Builder();
+  }
+
+  public static class Builder implements org.apache.reef.util.Builder<AllGatherOperatorSpec> {
+
+    private String rootId;
+    private Class<? extends Codec> dataCodecClass;
+
+    public Builder setRootId(final String rootId) {
+      this.rootId = rootId;
+      return this;
+    }
+
+    public Builder setDataCodecClass(final Class<? extends Codec> dataCodecClass) {
+      this.dataCodecClass = dataCodecClass;
+      return this;
+    }
+
+    @Override
+    public AllGatherOperatorSpec build() {
+      return new AllGatherOperatorSpec(rootId, dataCodecClass);
+    }
+  }
+}
@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.config.parameters;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * Whether group communication messages are sent with the compact binary header, which
+ * refers to the names in the {@link GroupCommNames} table by ID. The driver passes its
+ * own value on to the evaluators, so it only needs to be set on the driver.
+ * Off by default, which keeps the header format that writes every name as a string.
+ * Every party decodes both formats.
+ */
+@NamedParameter(doc = "Whether group communication messages use the compact header with name IDs",
+    default_value = "false", short_name = "group_comm_compact_header")
+public final class CompactMessageHeader implements Name<Boolean> {
+  private CompactMessageHeader() {
+  }
+}
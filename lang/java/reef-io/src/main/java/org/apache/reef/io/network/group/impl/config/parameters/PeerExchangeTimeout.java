@@ -0,0 +1,33 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.config.parameters;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * How long, in milliseconds, AllReduce, AllGather and ReduceScatter wait for a message from a peer.
+ * A receive that waits longer fails, so that a lost message does not block the operator forever.
+ */
+@NamedParameter(doc = "How long in ms AllReduce, AllGather and ReduceScatter wait for a message from a peer",
+    default_value = "300000", short_name = "peer_exchange_timeout")
+public final class PeerExchangeTimeout implements Name<Long> {
+  private PeerExchangeTimeout() {
+  }
+}
@@ -0,0 +1,34 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.config.parameters;
+
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+
+/**
+ * The size in bytes of the chunks that large Broadcast and Reduce messages are split into.
+ * Chunks are forwarded down (Broadcast) or reduced up (Reduce) the tree as soon as they arrive.
+ * A value of 0 disables chunking and falls back to the stop-and-wait transfer of whole messages.
+ */
+@NamedParameter(doc = "The size in bytes of the chunks large Broadcast and Reduce messages are pipelined in." +
+    " 0 disables pipelining", default_value = "1048576", short_name = "pipeline_chunk_size")
+public final class PipelineChunkSize implements Name<Integer> {
+  private PipelineChunkSize() {
+  }
+}
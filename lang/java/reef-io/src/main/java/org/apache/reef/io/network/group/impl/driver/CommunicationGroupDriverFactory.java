@@ -24,6 +24,7 @@ import org.apache.reef.driver.task.FailedTask;
 import org.apache.reef.driver.task.RunningTask;
 import org.apache.reef.io.network.group.api.driver.CommunicationGroupDriver;
 import org.apache.reef.io.network.group.api.driver.Topology;
+import org.apache.reef.io.network.group.impl.GroupCommNameTable;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
 import org.apache.reef.io.network.group.impl.config.parameters.*;
 import org.apache.reef.io.network.group.impl.utils.BroadcastingEventHandler;
@@ -54,7 +55,8 @@ public final class CommunicationGroupDriverFactory {
           final BroadcastingEventHandler<FailedTask> groupCommFailedTaskHandler,
       @Parameter(GroupCommFailedEvalHandler.class)
           final BroadcastingEventHandler<FailedEvaluator> groupCommFailedEvaluatorHandler,
-      final GroupCommMessageHandler groupCommMessageHandler) {
+      final GroupCommMessageHandler groupCommMessageHandler,
+      final GroupCommNameTable nameTable) {
     injector = Tang.Factory.getTang().newInjector();
     injector.bindVolatileParameter(GroupCommSenderStage.class, senderStage);
     injector.bindVolatileParameter(DriverIdentifier.class, driverId);
@@ -62,6 +64,7 @@ public final class CommunicationGroupDriverFactory {
     injector.bindVolatileParameter(GroupCommFailedTaskHandler.class, groupCommFailedTaskHandler);
     injector.bindVolatileParameter(GroupCommFailedEvalHandler.class, groupCommFailedEvaluatorHandler);
     injector.bindVolatileInstance(GroupCommMessageHandler.class, groupCommMessageHandler);
+    injector.bindVolatileInstance(GroupCommNameTable.class, nameTable);
   }
 
   /**
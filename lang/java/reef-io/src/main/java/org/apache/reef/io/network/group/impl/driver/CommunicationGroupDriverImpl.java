@@ -28,10 +28,14 @@ import org.apache.reef.driver.task.TaskConfigurationOptions;
 import org.apache.reef.io.network.group.api.config.OperatorSpec;
 import org.apache.reef.io.network.group.api.driver.CommunicationGroupDriver;
 import org.apache.reef.io.network.group.api.driver.Topology;
+import org.apache.reef.io.network.group.impl.GroupCommNameTable;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.AllGatherOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.AllReduceOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.BroadcastOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.GatherOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.ReduceOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.ReduceScatterOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.ScatterOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.parameters.*;
 import org.apache.reef.io.network.group.impl.utils.BroadcastingEventHandler;
@@ -84,6 +88,7 @@ public class CommunicationGroupDriverImpl implements CommunicationGroupDriver {
 
   private final TopologyFactory topologyFactory;
   private final Class<? extends Topology> topologyClass;
+  private final GroupCommNameTable nameTable;
 
   /**
    * @deprecated in 0.14. Use Tang to obtain an instance of this instead.
@@ -119,6 +124,7 @@ public class CommunicationGroupDriverImpl implements CommunicationGroupDriver {
       throw new RuntimeException(e);
     }
     this.topologyClass = TreeTopology.class;
+    this.nameTable = new GroupCommNameTable();
   }
 
   @Inject
@@ -135,7 +141,8 @@ public class CommunicationGroupDriverImpl implements CommunicationGroupDriver {
       @Parameter(DriverIdentifier.class) final String driverId,
       @Parameter(CommGroupNumTask.class) final int numberOfTasks,
       final TopologyFactory topologyFactory,
-      @Parameter(TopologyClass.class) final Class<? extends Topology> topologyClass) {
+      @Parameter(TopologyClass.class) final Class<? extends Topology> topologyClass,
+      final GroupCommNameTable nameTable) {
     super();
     this.groupName = groupName;
     this.driverId = driverId;
@@ -146,6 +153,7 @@ public class CommunicationGroupDriverImpl implements CommunicationGroupDriver {
         groupCommFailedEvaluatorHandler, groupCommMessageHandler);
     this.topologyFactory = topologyFactory;
     this.topologyClass = topologyClass;
+    this.nameTable = nameTable;
   }
 
   private void registerHandlers(
@@ -178,6 +186,7 @@ public class CommunicationGroupDriverImpl implements CommunicationGroupDriver {
     }
 
     topology.setRootTask(spec.getSenderId());
+    registerNames(operatorName, spec.getSenderId());
     topology.setOperatorSpecification(spec);
     topologies.put(operatorName, topology);
     LOG.exiting("CommunicationGroupDriverImpl", "addBroadcast",
@@ -205,6 +214,7 @@ public class CommunicationGroupDriverImpl implements CommunicationGroupDriver {
     }
 
     topology.setRootTask(spec.getReceiverId());
+    registerNames(operatorName, spec.getReceiverId());
     topology.setOperatorSpecification(spec);
     topologies.put(operatorName, topology);
     LOG.exiting("CommunicationGroupDriverImpl", "addReduce",
@@ -231,6 +241,7 @@ public class CommunicationGroupDriverImpl implements CommunicationGroupDriver {
     }
 
     topology.setRootTask(spec.getSenderId());
+    registerNames(operatorName, spec.getSenderId());
     topology.setOperatorSpecification(spec);
     topologies.put(operatorName, topology);
     LOG.exiting("CommunicationGroupDriverImpl", "addScatter",
@@ -257,6 +268,7 @@ public class CommunicationGroupDriverImpl implements CommunicationGroupDriver {
     }
 
     topology.setRootTask(spec.getReceiverId());
+    registerNames(operatorName, spec.getReceiverId());
     topology.setOperatorSpecification(spec);
     topologies.put(operatorName, topology);
     LOG.exiting("CommunicationGroupDriverImpl", "addGather",
@@ -264,6 +276,55 @@ public class CommunicationGroupDriverImpl implements CommunicationGroupDriver {
     return this;
   }
 
+  @Override
+  public CommunicationGroupDriver addAllReduce(final Class<? extends Name<String>> operatorName,
+                                               final AllReduceOperatorSpec spec) {
+    return addPeerOperator("addAllReduce", operatorName, spec, spec.getRootId());
+  }
+
+  @Override
+  public CommunicationGroupDriver addAllGather(final Class<? extends Name<String>> operatorName,
+                                               final AllGatherOperatorSpec spec) {
+    return addPeerOperator("addAllGather", operatorName, spec, spec.getRootId());
+  }
+
+  @Override
+  public CommunicationGroupDriver addReduceScatter(final Class<? extends Name<String>> operatorName,
+                                                   final ReduceScatterOperatorSpec spec) {
+    return addPeerOperator("addReduceScatter", operatorName, spec, spec.getRootId());
+  }
+
+  /**
+   * Register an operator whose tasks exchange data with each other directly.
+   * The topology rooted at {@code rootId} only carries the control messages of the operator.
+   */
+  private CommunicationGroupDriver addPeerOperator(final String methodName,
+                                                   final Class<? extends Name<String>> operatorName,
+                                                   final OperatorSpec spec, final String rootId) {
+    LOG.entering("CommunicationGroupDriverImpl", methodName,
+        new Object[]{getQualifiedName(), Utils.simpleName(operatorName), spec});
+    if (finalised) {
+      throw new IllegalStateException("Can't add more operators to a finalised spec");
+    }
+    operatorSpecs.put(operatorName, spec);
+
+    final Topology topology;
+    try {
+      topology = topologyFactory.getNewInstance(operatorName, topologyClass);
+    } catch (final InjectionException e) {
+      LOG.log(Level.WARNING, "Cannot inject new topology named {0}", operatorName);
+      throw new RuntimeException(e);
+    }
+
+    topology.setRootTask(rootId);
+    registerNames(operatorName, rootId);
+    topology.setOperatorSpecification(spec);
+    topologies.put(operatorName, topology);
+    LOG.exiting("CommunicationGroupDriverImpl", methodName,
+        Arrays.toString(new Object[]{getQualifiedName(), Utils.simpleName(operatorName), spec}));
+    return this;
+  }
+
   @Override
   public Configuration getTaskConfiguration(final Configuration taskConf) {
     LOG.entering("CommunicationGroupDriverImpl", "getTaskConfiguration",
@@ -329,6 +390,14 @@ public class CommunicationGroupDriverImpl implements CommunicationGroupDriver {
     }
   }
 
+  /**
+   * Register the names an operator adds to messages, so that they are sent as IDs.
+   */
+  private void registerNames(final Class<? extends Name<String>> operatorName, final String rootId) {
+    nameTable.register(operatorName.getName());
+    nameTable.register(rootId);
+  }
+
   @Override
   public void finalise() {
     finalised = true;
@@ -367,6 +436,7 @@ public class CommunicationGroupDriverImpl implements CommunicationGroupDriver {
       }
 
       perTaskState.put(taskId, TaskState.NOT_STARTED);
+      nameTable.register(taskId);
       LOG.finest(getQualifiedName() + "Released topologiesLock");
     }
     LOG.fine(getQualifiedName() + "Added " + taskId + " to topology");
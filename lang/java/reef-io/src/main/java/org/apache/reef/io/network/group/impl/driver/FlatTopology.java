@@ -27,9 +27,12 @@ import org.apache.reef.io.network.group.api.driver.Topology;
 import org.apache.reef.io.network.group.impl.GroupChangesCodec;
 import org.apache.reef.io.network.group.impl.GroupChangesImpl;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.AllGatherOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.AllReduceOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.BroadcastOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.GatherOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.ReduceOperatorSpec;
+import org.apache.reef.io.network.group.impl.config.ReduceScatterOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.ScatterOperatorSpec;
 import org.apache.reef.io.network.group.impl.config.parameters.*;
 import org.apache.reef.io.network.group.impl.operators.*;
@@ -147,6 +150,16 @@ public final class FlatTopology implements Topology {
       } else {
         jcb.bindImplementation(GroupCommOperator.class, GatherSender.class);
       }
+    } else if (operatorSpec instanceof AllReduceOperatorSpec) {
+      final AllReduceOperatorSpec allReduceOperatorSpec = (AllReduceOperatorSpec) operatorSpec;
+      jcb.bindNamedParameter(ReduceFunctionParam.class, allReduceOperatorSpec.getRedFuncClass());
+      jcb.bindImplementation(GroupCommOperator.class, AllReducer.class);
+    } else if (operatorSpec instanceof AllGatherOperatorSpec) {
+      jcb.bindImplementation(GroupCommOperator.class, AllGatherer.class);
+    } else if (operatorSpec instanceof ReduceScatterOperatorSpec) {
+      final ReduceScatterOperatorSpec reduceScatterOperatorSpec = (ReduceScatterOperatorSpec) operatorSpec;
+      jcb.bindNamedParameter(ReduceFunctionParam.class, reduceScatterOperatorSpec.getRedFuncClass());
+      jcb.bindImplementation(GroupCommOperator.class, ReduceScatterer.class);
     }
     return jcb.build();
   }
@@ -29,6 +29,7 @@ import org.apache.reef.io.network.Message;
 import org.apache.reef.io.network.group.api.driver.CommunicationGroupDriver;
 import org.apache.reef.io.network.group.api.driver.GroupCommServiceDriver;
 import org.apache.reef.io.network.group.api.driver.Topology;
+import org.apache.reef.io.network.group.impl.GroupCommNameTable;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessageCodec;
 import org.apache.reef.io.network.group.impl.config.parameters.*;
@@ -106,16 +107,21 @@ public final class GroupCommDriverImpl implements GroupCommServiceDriver {
   private final GroupCommMessageHandler groupCommMessageHandler;
   private final EStage<GroupCommunicationMessage> groupCommMessageStage;
   private final int fanOut;
+  private final boolean compactHeader;
+  private final GroupCommNameTable nameTable = new GroupCommNameTable();
 
   @Inject
   private GroupCommDriverImpl(final ConfigurationSerializer confSerializer,
                              @Parameter(DriverIdentifier.class) final String driverId,
                              @Parameter(TreeTopologyFanOut.class) final int fanOut,
+                             @Parameter(CompactMessageHeader.class) final boolean compactHeader,
                              final LocalAddressProvider localAddressProvider,
                              final TransportFactory tpFactory,
                              final NameServer nameService) {
     assert SingletonAsserter.assertSingleton(getClass());
     this.fanOut = fanOut;
+    this.compactHeader = compactHeader;
+    this.nameTable.register(driverId);
     this.nameService = nameService;
     this.nameServiceAddr = localAddressProvider.getLocalAddress();
     this.nameServicePort = nameService.getPort();
@@ -148,7 +154,7 @@ public final class GroupCommDriverImpl implements GroupCommServiceDriver {
       injector.bindVolatileParameter(NetworkServiceParameters.NetworkServiceIdentifierFactory.class, idFac);
       injector.bindVolatileInstance(NameResolver.class, nameResolver);
       injector.bindVolatileParameter(NetworkServiceParameters.NetworkServiceCodec.class,
-          new GroupCommunicationMessageCodec());
+          new GroupCommunicationMessageCodec(nameTable, compactHeader));
       injector.bindVolatileParameter(NetworkServiceParameters.NetworkServiceTransportFactory.class, tpFactory);
       injector.bindVolatileParameter(NetworkServiceParameters.NetworkServiceHandler.class,
           new EventHandler<Message<GroupCommunicationMessage>>() {
@@ -174,6 +180,7 @@ public final class GroupCommDriverImpl implements GroupCommServiceDriver {
     injector.bindVolatileParameter(GroupCommFailedTaskHandler.class, groupCommFailedTaskHandler);
     injector.bindVolatileParameter(GroupCommFailedEvalHandler.class, groupCommFailedEvaluatorHandler);
     injector.bindVolatileInstance(GroupCommMessageHandler.class, groupCommMessageHandler);
+    injector.bindVolatileInstance(GroupCommNameTable.class, nameTable);
 
     try {
       commGroupDriverFactory = injector.getInstance(CommunicationGroupDriverFactory.class);
@@ -212,6 +219,7 @@ public final class GroupCommDriverImpl implements GroupCommServiceDriver {
     }
 
     commGroupDrivers.put(groupName, commGroupDriver);
+    nameTable.register(groupName.getName());
     LOG.exiting("GroupCommDriverImpl", "newCommunicationGroup",
         "Created communication group: " + Utils.simpleName(groupName));
     return commGroupDriver;
@@ -247,7 +255,7 @@ public final class GroupCommDriverImpl implements GroupCommServiceDriver {
             BindNSToTask.class)
         .set(ServiceConfiguration.ON_TASK_STOP,
             UnbindNSFromTask.class).build();
-    final Configuration retVal = TANG.newConfigurationBuilder(serviceConfiguration)
+    final JavaConfigurationBuilder jcb = TANG.newConfigurationBuilder(serviceConfiguration)
         .bindNamedParameter(NetworkServiceParameters.NetworkServiceCodec.class,
             GroupCommunicationMessageCodec.class)
         .bindNamedParameter(NetworkServiceParameters.NetworkServiceHandler.class,
@@ -256,7 +264,14 @@ public final class GroupCommDriverImpl implements GroupCommServiceDriver {
             ExceptionHandler.class)
         .bindNamedParameter(NameResolverNameServerAddr.class, nameServiceAddr)
         .bindNamedParameter(NameResolverNameServerPort.class, Integer.toString(nameServicePort))
-        .bindNamedParameter(NetworkServiceParameters.NetworkServicePort.class, "0").build();
+        .bindNamedParameter(NetworkServiceParameters.NetworkServicePort.class, "0")
+        .bindNamedParameter(CompactMessageHeader.class, Boolean.toString(compactHeader));
+    if (compactHeader) {
+      for (final String name : nameTable.freeze()) {
+        jcb.bindSetEntry(GroupCommNames.class, name);
+      }
+    }
+    final Configuration retVal = jcb.build();
     LOG.exiting("GroupCommDriverImpl", "getServiceConf", confSerializer.toString(retVal));
     return retVal;
   }
@@ -271,6 +286,9 @@ public final class GroupCommDriverImpl implements GroupCommServiceDriver {
         jcb.bindSetEntry(SerializedGroupConfigs.class, confSerializer.toString(commGroupConf));
       }
     }
+    if (compactHeader) {
+      jcb.bindList(GroupCommAddedNames.class, nameTable.getAddedNames());
+    }
     final Configuration retVal = jcb.build();
     LOG.exiting("GroupCommDriverImpl", "getTaskConfiguration", confSerializer.toString(retVal));
     return retVal;
@@ -67,6 +67,7 @@ public class BroadcastReceiver<T> implements Broadcast.Receiver<T>, EventHandler
                            @Parameter(DataCodec.class) final Codec<T> dataCodec,
                            @Parameter(DriverIdentifierGroupComm.class) final String driverId,
                            @Parameter(TaskVersion.class) final int version,
+                           @Parameter(PipelineChunkSize.class) final int chunkSize,
                            final CommGroupNetworkHandler commGroupNetworkHandler,
                            final NetworkService<GroupCommunicationMessage> netService,
                            final CommunicationGroupServiceClient commGroupClient) {
@@ -79,7 +80,8 @@ public class BroadcastReceiver<T> implements Broadcast.Receiver<T>, EventHandler
     this.commGroupNetworkHandler = commGroupNetworkHandler;
     this.netService = netService;
     this.sender = new Sender(this.netService);
-    this.topology = new OperatorTopologyImpl(this.groupName, this.operName, selfId, driverId, sender, version);
+    this.topology = new OperatorTopologyImpl(this.groupName, this.operName, selfId, driverId, sender, version,
+        chunkSize, null);
     this.commGroupNetworkHandler.register(this.operName, this);
     this.commGroupClient = commGroupClient;
   }
@@ -131,7 +133,8 @@ public class BroadcastReceiver<T> implements Broadcast.Receiver<T>, EventHandler
     LOG.fine(this + " Waiting to receive broadcast");
     final byte[] data;
     try {
-      data = topology.recvFromParent(ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast);
+      // Large broadcasts are forwarded to the children chunk by chunk while they arrive
+      data = topology.recvFromParentAndSendToChildren(ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast);
       // TODO: Should receive the identity element instead of null
       if (data == null) {
         LOG.fine(this + " Received null. Perhaps one of my ancestors is dead.");
@@ -140,10 +143,7 @@ public class BroadcastReceiver<T> implements Broadcast.Receiver<T>, EventHandler
         LOG.finest("Using " + dataCodec.getClass().getSimpleName() + " as codec");
         retVal = dataCodec.decode(data);
         LOG.finest("Decoded msg successfully");
-        LOG.finest(this + " Sending to children.");
       }
-
-      topology.sendToChildren(data, ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast);
     } catch (final ParentDeadException e) {
       throw new RuntimeException("ParentDeadException", e);
     }
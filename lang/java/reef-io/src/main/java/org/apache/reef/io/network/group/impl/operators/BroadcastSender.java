@@ -67,6 +67,7 @@ public class BroadcastSender<T> implements Broadcast.Sender<T>, EventHandler<Gro
                          @Parameter(DataCodec.class) final Codec<T> dataCodec,
                          @Parameter(DriverIdentifierGroupComm.class) final String driverId,
                          @Parameter(TaskVersion.class) final int version,
+                         @Parameter(PipelineChunkSize.class) final int chunkSize,
                          final CommGroupNetworkHandler commGroupNetworkHandler,
                          final NetworkService<GroupCommunicationMessage> netService,
                          final CommunicationGroupServiceClient commGroupClient) {
@@ -79,7 +80,8 @@ public class BroadcastSender<T> implements Broadcast.Sender<T>, EventHandler<Gro
     this.commGroupNetworkHandler = commGroupNetworkHandler;
     this.netService = netService;
     this.sender = new Sender(this.netService);
-    this.topology = new OperatorTopologyImpl(this.groupName, this.operName, selfId, driverId, sender, version);
+    this.topology = new OperatorTopologyImpl(this.groupName, this.operName, selfId, driverId, sender, version,
+        chunkSize, null);
     this.commGroupNetworkHandler.register(this.operName, this);
     this.commGroupClient = commGroupClient;
   }
@@ -0,0 +1,253 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.operators;
+
+import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
+import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.wake.Identifier;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Peer-to-peer algorithms for the symmetric operators: every task of the group runs the same steps,
+ * exchanging messages with the tasks at computed ranks instead of going through a root.
+ * <p>
+ * Ranks are positions in a list of task ids that all tasks must agree on.
+ * Groups whose size is a power of two use recursive doubling (AllGather) or halving (ReduceScatter),
+ * which take log(n) steps. Other groups use a ring, which takes n - 1 steps but works for any size.
+ * AllReduce works on whole values, so it always uses recursive doubling and first folds
+ * the group into a power of two.
+ */
+final class CollectiveAlgorithms {
+
+  /**
+   * Shouldn't be instantiated.
+   */
+  private CollectiveAlgorithms() {
+  }
+
+  /**
+   * @param selfId id of this task
+   * @param activeTasks ids of the other tasks in the group
+   * @return ids of all tasks in the group, in lexicographic order
+   */
+  static List<String> getMembers(final String selfId, final List<? extends Identifier> activeTasks) {
+    final List<String> members = new ArrayList<>(activeTasks.size() + 1);
+    members.add(selfId);
+    for (final Identifier id : activeTasks) {
+      if (!selfId.equals(id.toString())) {
+        members.add(id.toString());
+      }
+    }
+    Collections.sort(members);
+    return members;
+  }
+
+  /**
+   * @param order ids of all tasks in the group, in the order to apply the operation in
+   * @return ids of all tasks in the group, in the given order
+   */
+  static List<String> getMembers(final List<? extends Identifier> order) {
+    final List<String> members = new ArrayList<>(order.size());
+    for (final Identifier id : order) {
+      members.add(id.toString());
+    }
+    return members;
+  }
+
+  /**
+   * Reduce the elements of all tasks, and give the result to every task.
+   * Partners always reduce the element of the lower ranks first, so all tasks end up with the same result.
+   */
+  static <T> T allReduce(final PeerChannel channel, final List<String> members, final String selfId,
+                         final T element, final ReduceFunction<T> reduceFunction, final Codec<T> codec)
+      throws NetworkException, InterruptedException {
+    final int size = members.size();
+    final int rank = getRank(members, selfId);
+    final int pow2 = Integer.highestOneBit(size);
+    final int rem = size - pow2;
+    T value = element;
+
+    // Of the first 2 * rem tasks, the even ones hand their element over to the next one and sit out.
+    final int foldedRank;
+    if (rank < 2 * rem) {
+      if (rank % 2 == 0) {
+        channel.send(members.get(rank + 1), codec.encode(value));
+        foldedRank = -1;
+      } else {
+        final T other = codec.decode(channel.receive(members.get(rank - 1))[0]);
+        value = reduce(reduceFunction, other, value);
+        foldedRank = rank / 2;
+      }
+    } else {
+      foldedRank = rank - rem;
+    }
+
+    if (foldedRank >= 0) {
+      for (int mask = 1; mask < pow2; mask <<= 1) {
+        final int partnerFoldedRank = foldedRank ^ mask;
+        final String partner = members.get(
+            partnerFoldedRank < rem ? partnerFoldedRank * 2 + 1 : partnerFoldedRank + rem);
+        channel.send(partner, codec.encode(value));
+        final T other = codec.decode(channel.receive(partner)[0]);
+        value = partnerFoldedRank < foldedRank ?
+            reduce(reduceFunction, other, value) : reduce(reduceFunction, value, other);
+      }
+    }
+
+    if (rank < 2 * rem) {
+      if (rank % 2 == 0) {
+        value = codec.decode(channel.receive(members.get(rank + 1))[0]);
+      } else {
+        channel.send(members.get(rank - 1), codec.encode(value));
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Give the elements of all tasks to every task.
+   *
+   * @return the elements of all tasks, in rank order
+   */
+  static <T> List<T> allGather(final PeerChannel channel, final List<String> members, final String selfId,
+                               final T element, final Codec<T> codec)
+      throws NetworkException, InterruptedException {
+    final int size = members.size();
+    final int rank = getRank(members, selfId);
+    final byte[][] blocks = new byte[size][];
+    blocks[rank] = codec.encode(element);
+
+    if (isPowerOfTwo(size)) {
+      // After each step, a task holds the elements of its aligned group of 2 * mask tasks.
+      for (int mask = 1; mask < size; mask <<= 1) {
+        final int partnerRank = rank ^ mask;
+        final String partner = members.get(partnerRank);
+        final int start = rank & ~(mask - 1);
+        channel.send(partner, Arrays.copyOfRange(blocks, start, start + mask));
+        System.arraycopy(channel.receive(partner), 0, blocks, partnerRank & ~(mask - 1), mask);
+      }
+    } else {
+      final String left = members.get((rank - 1 + size) % size);
+      final String right = members.get((rank + 1) % size);
+      for (int step = 0; step < size - 1; step++) {
+        channel.send(right, blocks[(rank - step + size) % size]);
+        blocks[(rank - step - 1 + size) % size] = channel.receive(left)[0];
+      }
+    }
+
+    final List<T> result = new ArrayList<>(size);
+    for (final byte[] block : blocks) {
+      result.add(codec.decode(block));
+    }
+    return result;
+  }
+
+  /**
+   * Reduce the lists of all tasks element by element, and scatter the result.
+   * The i-th task gets counts[i] elements, starting after the elements of the tasks before it.
+   *
+   * @return the reduced elements that belong to this task
+   */
+  static <T> List<T> reduceScatter(final PeerChannel channel, final List<String> members, final String selfId,
+                                   final List<T> elements, final List<Integer> counts,
+                                   final ReduceFunction<T> reduceFunction, final Codec<T> codec)
+      throws NetworkException, InterruptedException {
+    final int size = members.size();
+    final int rank = getRank(members, selfId);
+    if (counts.size() != size) {
+      throw new RuntimeException("Parameter 'counts' has size " + counts.size()
+          + ", but the group has " + size + " tasks.");
+    }
+    final int[] offsets = new int[size + 1];
+    for (int i = 0; i < size; i++) {
+      offsets[i + 1] = offsets[i] + counts.get(i);
+    }
+    if (offsets[size] != elements.size()) {
+      throw new RuntimeException("Parameter 'counts' adds up to " + offsets[size]
+          + ", but there are " + elements.size() + " elements.");
+    }
+
+    final List<T> values = new ArrayList<>(elements);
+    if (isPowerOfTwo(size)) {
+      // Before each step, a task is responsible for the blocks of its aligned group of 2 * mask tasks.
+      // It keeps the half its own block is in, and hands the other half over to its partner.
+      for (int mask = size / 2; mask >= 1; mask >>= 1) {
+        final int partnerRank = rank ^ mask;
+        final String partner = members.get(partnerRank);
+        final int start = rank & ~(2 * mask - 1);
+        final boolean keepLower = (rank & mask) == 0;
+        final int keepStart = keepLower ? start : start + mask;
+        final int sendStart = keepLower ? start + mask : start;
+        channel.send(partner, encode(values, offsets[sendStart], offsets[sendStart + mask], codec));
+        reduceInto(values, offsets[keepStart], channel.receive(partner), partnerRank < rank,
+            reduceFunction, codec);
+      }
+    } else {
+      final String left = members.get((rank - 1 + size) % size);
+      final String right = members.get((rank + 1) % size);
+      for (int step = 0; step < size - 1; step++) {
+        final int sendBlock = (rank - step - 1 + 2 * size) % size;
+        final int recvBlock = (rank - step - 2 + 2 * size) % size;
+        channel.send(right, encode(values, offsets[sendBlock], offsets[sendBlock + 1], codec));
+        reduceInto(values, offsets[recvBlock], channel.receive(left), true, reduceFunction, codec);
+      }
+    }
+    return new ArrayList<>(values.subList(offsets[rank], offsets[rank + 1]));
+  }
+
+  private static int getRank(final List<String> members, final String selfId) {
+    final int rank = members.indexOf(selfId);
+    if (rank < 0) {
+      throw new RuntimeException(selfId + " is not one of the tasks " + members);
+    }
+    return rank;
+  }
+
+  private static boolean isPowerOfTwo(final int size) {
+    return (size & (size - 1)) == 0;
+  }
+
+  private static <T> T reduce(final ReduceFunction<T> reduceFunction, final T first, final T second) {
+    return reduceFunction.apply(Arrays.asList(first, second));
+  }
+
+  private static <T> byte[][] encode(final List<T> values, final int from, final int to, final Codec<T> codec) {
+    final byte[][] data = new byte[to - from][];
+    for (int i = from; i < to; i++) {
+      data[i - from] = codec.encode(values.get(i));
+    }
+    return data;
+  }
+
+  private static <T> void reduceInto(final List<T> values, final int from, final byte[][] received,
+                                     final boolean receivedFirst, final ReduceFunction<T> reduceFunction,
+                                     final Codec<T> codec) {
+    for (int i = 0; i < received.length; i++) {
+      final T other = codec.decode(received[i]);
+      final T value = values.get(from + i);
+      values.set(from + i,
+          receivedFirst ? reduce(reduceFunction, other, value) : reduce(reduceFunction, value, other));
+    }
+  }
+}
@@ -162,20 +162,23 @@ public class GatherReceiver<T> implements Gather.Receiver<T>, EventHandler<Group
     final Map<String, T> mapOfTaskIdToData = new HashMap<>();
     try {
       LOG.fine(this + " Waiting for children.");
-      final byte[] gatheredDataFromChildren = topology.recvFromChildren();
+      final List<byte[]> gatheredDataFromChildren = topology.recvFromChildren();
 
       LOG.fine("Using " + dataCodec.getClass().getSimpleName() + " as codec.");
-      try (final ByteArrayInputStream bstream = new ByteArrayInputStream(gatheredDataFromChildren);
-           final DataInputStream dstream = new DataInputStream(bstream)) {
-        while (dstream.available() > 0) {
-          final String identifier = dstream.readUTF();
-          final int dataLength = dstream.readInt();
-          final byte[] data = new byte[dataLength];
-          dstream.readFully(data);
-          mapOfTaskIdToData.put(identifier, dataCodec.decode(data));
+      // Every child sends the data of its whole subtree as one segment
+      for (final byte[] segment : gatheredDataFromChildren) {
+        try (final ByteArrayInputStream bstream = new ByteArrayInputStream(segment);
+             final DataInputStream dstream = new DataInputStream(bstream)) {
+          while (dstream.available() > 0) {
+            final String identifier = dstream.readUTF();
+            final int dataLength = dstream.readInt();
+            final byte[] data = new byte[dataLength];
+            dstream.readFully(data);
+            mapOfTaskIdToData.put(identifier, dataCodec.decode(data));
+          }
         }
-        LOG.fine(this + " Successfully received gathered data.");
       }
+      LOG.fine(this + " Successfully received gathered data.");
 
     } catch (final ParentDeadException e) {
       throw new RuntimeException("ParentDeadException", e);
@@ -40,6 +40,8 @@ import javax.inject.Inject;
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
 
@@ -128,20 +130,21 @@ public class GatherSender<T> implements Gather.Sender<T>, EventHandler<GroupComm
 
     try {
       LOG.finest(this + " Waiting for children.");
-      final byte[] gatheredData = topology.recvFromChildren();
+      final List<byte[]> gatheredData = topology.recvFromChildren();
       final byte[] encodedMyData = dataCodec.encode(myData);
 
+      final List<byte[]> segments = new ArrayList<>(gatheredData.size() + 2);
       try (final ByteArrayOutputStream bstream = new ByteArrayOutputStream();
            final DataOutputStream dstream = new DataOutputStream(bstream)) {
         dstream.writeUTF(netService.getMyId().toString());
         dstream.writeInt(encodedMyData.length);
-        dstream.write(encodedMyData);
-        dstream.write(gatheredData);
-        final byte[] mergedData = bstream.toByteArray();
-
-        LOG.fine(this + " Sending merged value to parent.");
-        topology.sendToParent(mergedData, ReefNetworkGroupCommProtos.GroupCommMessage.Type.Gather);
+        segments.add(bstream.toByteArray());
       }
+      segments.add(encodedMyData);
+      segments.addAll(gatheredData);
+
+      LOG.fine(this + " Sending merged value to parent.");
+      topology.sendToParent(Utils.concat(segments), ReefNetworkGroupCommProtos.GroupCommMessage.Type.Gather);
     } catch (final ParentDeadException e) {
       throw new RuntimeException("ParentDeadException", e);
     } catch (final IOException e) {
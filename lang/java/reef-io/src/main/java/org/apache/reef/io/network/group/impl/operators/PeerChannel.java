@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.operators;
+
+import org.apache.reef.exception.evaluator.NetworkException;
+
+/**
+ * Point-to-point exchange of messages between the tasks of a group.
+ * Messages between two tasks are received in the order they were sent.
+ */
+interface PeerChannel {
+
+  /**
+   * Send a message made up of one or more blobs to a task.
+   */
+  void send(String dstId, byte[]... data) throws NetworkException;
+
+  /**
+   * Wait for the next message from a task.
+   *
+   * @return the blobs of the message, in the order they were sent
+   * @throws NetworkException if the message cannot arrive anymore, e.g. because a task failed
+   */
+  byte[][] receive(String srcId) throws InterruptedException, NetworkException;
+}
@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.operators;
+
+import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.utils.Utils;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.wake.EventHandler;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * A {@link PeerChannel} over the group communication network service.
+ * Unlike the operator topology, it talks to any task of the group, not only the parent and the children.
+ * <p>
+ * Messages are not guaranteed to be dispatched in the order they arrive, so every message carries
+ * a sequence number per pair of tasks in its first blob. Messages that arrive early wait until
+ * the ones before them are received.
+ * <p>
+ * Sequence numbers start over whenever the members of the group change, and every message also
+ * carries an epoch derived from the members it was sent to, so that messages of an exchange
+ * that was cut short are never taken for messages of the next one. Messages from an earlier
+ * version of a task are dropped. A failure notification for the group makes every pending and
+ * later receive of the current exchange fail, and a receive that waits longer than the timeout fails too.
+ */
+final class PeerExchange implements PeerChannel, EventHandler<GroupCommunicationMessage> {
+
+  private static final Logger LOG = Logger.getLogger(PeerExchange.class.getName());
+
+  private static final int HEADER_LENGTH = (Integer.SIZE + Long.SIZE) / Byte.SIZE;
+
+  private final Class<? extends Name<String>> groupName;
+  private final Class<? extends Name<String>> operName;
+  private final String selfId;
+  private final int version;
+  private final Sender sender;
+  private final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType;
+  private final long timeout;
+
+  private final Map<String, Long> nextSendSeq = new HashMap<>();
+  private final Map<String, Long> nextRecvSeq = new HashMap<>();
+  private final Map<Integer, Map<String, Map<Long, byte[][]>>> pending = new HashMap<>();
+  private final Map<String, Integer> peerVersions = new HashMap<>();
+
+  private int epoch = 0;
+  private boolean failed = false;
+
+  /**
+   * @param timeout how long, in milliseconds, a receive waits for a message before failing
+   */
+  PeerExchange(final Class<? extends Name<String>> groupName,
+               final Class<? extends Name<String>> operName,
+               final String selfId, final int version, final Sender sender,
+               final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType,
+               final long timeout) {
+    this.groupName = groupName;
+    this.operName = operName;
+    this.selfId = selfId;
+    this.version = version;
+    this.sender = sender;
+    this.msgType = msgType;
+    this.timeout = timeout;
+  }
+
+  /**
+   * @return true if the message is a data message of this exchange
+   */
+  boolean accepts(final GroupCommunicationMessage msg) {
+    return msg.getType() == msgType;
+  }
+
+  /**
+   * Start an exchange between {@code members}. If the members differ from those of the
+   * previous exchange, sequence numbers start over and messages of other epochs are dropped.
+   * Clears the failure of the previous exchange, if any.
+   */
+  synchronized void begin(final List<String> members) {
+    final int newEpoch = members.hashCode();
+    if (newEpoch != epoch) {
+      LOG.fine(getQualifiedName() + "Members changed to " + members + ". Starting over the sequence numbers");
+      epoch = newEpoch;
+      nextSendSeq.clear();
+      nextRecvSeq.clear();
+      pending.keySet().retainAll(Collections.singleton(newEpoch));
+    }
+    failed = false;
+  }
+
+  /**
+   * Handle a control message of the operator. A failure in the group fails the current exchange:
+   * its sequence numbers and pending messages are dropped and waiting receives are woken up.
+   */
+  synchronized void onControlMessage(final GroupCommunicationMessage msg) {
+    switch (msg.getType()) {
+    case ParentDead:
+    case ChildDead:
+    case SourceDead:
+      LOG.fine(getQualifiedName() + "Got " + msg.getType() + " for " + msg.getSrcid()
+          + ". Failing the current exchange");
+      failed = true;
+      nextSendSeq.clear();
+      nextRecvSeq.clear();
+      pending.remove(epoch);
+      notifyAll();
+      break;
+    default:
+      break;
+    }
+  }
+
+  @Override
+  public void send(final String dstId, final byte[]... data) throws NetworkException {
+    LOG.entering("PeerExchange", "send", new Object[]{getQualifiedName(), dstId});
+    final int sendEpoch;
+    final long seq;
+    synchronized (this) {
+      sendEpoch = epoch;
+      seq = getSeq(nextSendSeq, dstId);
+      nextSendSeq.put(dstId, seq + 1);
+    }
+    final byte[][] blobs = new byte[data.length + 1][];
+    blobs[0] = ByteBuffer.allocate(HEADER_LENGTH).putInt(sendEpoch).putLong(seq).array();
+    System.arraycopy(data, 0, blobs, 1, data.length);
+    sender.send(Utils.bldVersionedGCM(groupName, operName, msgType, selfId, version, dstId, version, blobs));
+    LOG.exiting("PeerExchange", "send", new Object[]{getQualifiedName(), dstId, seq});
+  }
+
+  /**
+   * Wait for the next message from a task.
+   *
+   * @throws NetworkException if a failure in the group was notified during the current exchange,
+   *                          or if no message arrived within the timeout
+   */
+  @Override
+  public synchronized byte[][] receive(final String srcId) throws InterruptedException, NetworkException {
+    LOG.entering("PeerExchange", "receive", new Object[]{getQualifiedName(), srcId});
+    final long seq = getSeq(nextRecvSeq, srcId);
+    final long deadline = System.currentTimeMillis() + timeout;
+    byte[][] data;
+    while ((data = getPending(epoch, srcId).remove(seq)) == null) {
+      if (failed) {
+        throw new NetworkException(getQualifiedName() + "A task of the group failed while waiting for msg " + seq
+            + " from " + srcId);
+      }
+      final long remaining = deadline - System.currentTimeMillis();
+      if (remaining <= 0) {
+        throw new NetworkException(getQualifiedName() + "Timed out after " + timeout + " ms waiting for msg " + seq
+            + " from " + srcId);
+      }
+      LOG.finest(getQualifiedName() + "Waiting for msg " + seq + " from " + srcId);
+      wait(remaining);
+    }
+    nextRecvSeq.put(srcId, seq + 1);
+    LOG.exiting("PeerExchange", "receive", new Object[]{getQualifiedName(), srcId, seq});
+    return data;
+  }
+
+  @Override
+  public void onNext(final GroupCommunicationMessage msg) {
+    LOG.entering("PeerExchange", "onNext", new Object[]{getQualifiedName(), msg});
+    final String srcId = msg.getSrcid();
+    final byte[][] blobs = msg.getData();
+    final ByteBuffer header = ByteBuffer.wrap(blobs[0]);
+    final int msgEpoch = header.getInt(0);
+    final long seq = header.getLong(Integer.SIZE / Byte.SIZE);
+    synchronized (this) {
+      final Integer peerVersion = peerVersions.get(srcId);
+      if (peerVersion != null && msg.getSrcVersion() < peerVersion) {
+        LOG.fine(getQualifiedName() + "Dropping msg " + seq + " from " + srcId + " of older version "
+            + msg.getSrcVersion());
+        return;
+      }
+      if (peerVersion != null && msg.getSrcVersion() > peerVersion) {
+        LOG.fine(getQualifiedName() + srcId + " is now at version " + msg.getSrcVersion()
+            + ". Starting over its sequence numbers");
+        resetPeer(srcId);
+      }
+      peerVersions.put(srcId, msg.getSrcVersion());
+      getPending(msgEpoch, srcId).put(seq, Arrays.copyOfRange(blobs, 1, blobs.length));
+      notifyAll();
+    }
+    LOG.exiting("PeerExchange", "onNext", new Object[]{getQualifiedName(), srcId, seq});
+  }
+
+  private void resetPeer(final String taskId) {
+    nextSendSeq.remove(taskId);
+    nextRecvSeq.remove(taskId);
+    for (final Iterator<Map<String, Map<Long, byte[][]>>> it = pending.values().iterator(); it.hasNext();) {
+      final Map<String, Map<Long, byte[][]>> epochPending = it.next();
+      epochPending.remove(taskId);
+      if (epochPending.isEmpty()) {
+        it.remove();
+      }
+    }
+  }
+
+  private Map<Long, byte[][]> getPending(final int msgEpoch, final String srcId) {
+    Map<String, Map<Long, byte[][]>> epochPending = pending.get(msgEpoch);
+    if (epochPending == null) {
+      epochPending = new HashMap<>();
+      pending.put(msgEpoch, epochPending);
+    }
+    Map<Long, byte[][]> msgs = epochPending.get(srcId);
+    if (msgs == null) {
+      msgs = new HashMap<>();
+      epochPending.put(srcId, msgs);
+    }
+    return msgs;
+  }
+
+  private static long getSeq(final Map<String, Long> seqs, final String taskId) {
+    final Long seq = seqs.get(taskId);
+    return seq == null ? 0 : seq;
+  }
+
+  private String getQualifiedName() {
+    return Utils.simpleName(groupName) + ":" + Utils.simpleName(operName) + ":" + selfId + ":ver(" + version + ") - ";
+  }
+}
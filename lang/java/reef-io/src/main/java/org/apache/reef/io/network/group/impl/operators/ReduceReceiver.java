@@ -30,6 +30,7 @@ import org.apache.reef.io.network.group.api.task.OperatorTopology;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
 import org.apache.reef.io.network.group.impl.config.parameters.*;
 import org.apache.reef.io.network.group.impl.task.OperatorTopologyImpl;
+import org.apache.reef.io.network.group.impl.task.Reduction;
 import org.apache.reef.io.network.group.impl.utils.Utils;
 import org.apache.reef.io.serialization.Codec;
 import org.apache.reef.tang.annotations.Name;
@@ -71,6 +72,8 @@ public class ReduceReceiver<T> implements Reduce.Receiver<T>, EventHandler<Group
                         @Parameter(ReduceFunctionParam.class) final ReduceFunction<T> reduceFunction,
                         @Parameter(DriverIdentifierGroupComm.class) final String driverId,
                         @Parameter(TaskVersion.class) final int version,
+                        @Parameter(PipelineChunkSize.class) final int chunkSize,
+                        @Parameter(ParallelReduceThreads.class) final int reduceThreads,
                         final CommGroupNetworkHandler commGroupNetworkHandler,
                         final NetworkService<GroupCommunicationMessage> netService,
                         final CommunicationGroupServiceClient commGroupClient) {
@@ -84,7 +87,8 @@ public class ReduceReceiver<T> implements Reduce.Receiver<T>, EventHandler<Group
     this.commGroupNetworkHandler = commGroupNetworkHandler;
     this.netService = netService;
     this.sender = new Sender(this.netService);
-    this.topology = new OperatorTopologyImpl(this.groupName, this.operName, selfId, driverId, sender, version);
+    this.topology = new OperatorTopologyImpl(this.groupName, this.operName, selfId, driverId, sender, version,
+        chunkSize, Reduction.newExecutor(Utils.simpleName(this.operName), reduceThreads));
     this.commGroupNetworkHandler.register(this.operName, this);
     this.commGroupClient = commGroupClient;
   }
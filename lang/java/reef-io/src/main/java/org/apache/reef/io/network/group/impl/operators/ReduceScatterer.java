@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.operators;
+
+import org.apache.reef.driver.task.TaskConfigurationOptions;
+import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.exception.ParentDeadException;
+import org.apache.reef.io.network.group.api.operators.ReduceScatter;
+import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
+import org.apache.reef.io.network.group.api.task.CommGroupNetworkHandler;
+import org.apache.reef.io.network.group.api.task.CommunicationGroupServiceClient;
+import org.apache.reef.io.network.group.api.task.OperatorTopology;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.config.parameters.*;
+import org.apache.reef.io.network.group.impl.task.OperatorTopologyImpl;
+import org.apache.reef.io.network.group.impl.utils.Utils;
+import org.apache.reef.io.network.impl.NetworkService;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
+import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.Identifier;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * ReduceScatter that exchanges elements directly between tasks, using recursive halving or a ring.
+ * The operator topology is only used to set up the group; the tasks of the group are learned
+ * from the driver when the group initializes and on every updateTopology().
+ */
+public final class ReduceScatterer<T> implements ReduceScatter<T>, EventHandler<GroupCommunicationMessage> {
+
+  private static final Logger LOG = Logger.getLogger(ReduceScatterer.class.getName());
+
+  private final Class<? extends Name<String>> groupName;
+  private final Class<? extends Name<String>> operName;
+  private final String selfId;
+  private final Codec<T> dataCodec;
+  private final ReduceFunction<T> reduceFunction;
+  private final OperatorTopology topology;
+  private final PeerExchange peerExchange;
+  private final CommunicationGroupServiceClient commGroupClient;
+  private final AtomicBoolean init = new AtomicBoolean(false);
+  private final int version;
+
+  @Inject
+  public ReduceScatterer(@Parameter(CommunicationGroupName.class) final String groupName,
+                         @Parameter(OperatorName.class) final String operName,
+                         @Parameter(TaskConfigurationOptions.Identifier.class) final String selfId,
+                         @Parameter(DataCodec.class) final Codec<T> dataCodec,
+                         @Parameter(ReduceFunctionParam.class) final ReduceFunction<T> reduceFunction,
+                         @Parameter(DriverIdentifierGroupComm.class) final String driverId,
+                         @Parameter(TaskVersion.class) final int version,
+                         @Parameter(PeerExchangeTimeout.class) final long peerExchangeTimeout,
+                         final CommGroupNetworkHandler commGroupNetworkHandler,
+                         final NetworkService<GroupCommunicationMessage> netService,
+                         final CommunicationGroupServiceClient commGroupClient) {
+    LOG.finest(operName + " has CommGroupHandler-" + commGroupNetworkHandler.toString());
+    this.version = version;
+    this.groupName = Utils.getClass(groupName);
+    this.operName = Utils.getClass(operName);
+    this.selfId = selfId;
+    this.dataCodec = dataCodec;
+    this.reduceFunction = reduceFunction;
+    final Sender sender = new Sender(netService);
+    this.topology = new OperatorTopologyImpl(this.groupName, this.operName, selfId, driverId, sender, version);
+    this.peerExchange = new PeerExchange(this.groupName, this.operName, selfId, version, sender,
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.ReduceScatter, peerExchangeTimeout);
+    this.commGroupClient = commGroupClient;
+    commGroupNetworkHandler.register(this.operName, this);
+  }
+
+  @Override
+  public int getVersion() {
+    return version;
+  }
+
+  @Override
+  public void initialize() throws ParentDeadException {
+    topology.initialize();
+  }
+
+  @Override
+  public Class<? extends Name<String>> getOperName() {
+    return operName;
+  }
+
+  @Override
+  public Class<? extends Name<String>> getGroupName() {
+    return groupName;
+  }
+
+  @Override
+  public String toString() {
+    return "ReduceScatterer:" + Utils.simpleName(groupName) + ":" + Utils.simpleName(operName) + ":" + version;
+  }
+
+  @Override
+  public void onNext(final GroupCommunicationMessage msg) {
+    if (peerExchange.accepts(msg)) {
+      peerExchange.onNext(msg);
+    } else {
+      peerExchange.onControlMessage(msg);
+      topology.handle(msg);
+    }
+  }
+
+  private void initializeGroup() {
+    if (init.compareAndSet(false, true)) {
+      commGroupClient.initialize();
+    }
+  }
+
+  @Override
+  public List<T> apply(final List<T> elements, final List<Integer> counts)
+      throws InterruptedException, NetworkException {
+    LOG.entering("ReduceScatterer", "apply", this);
+    initializeGroup();
+    final List<String> members = CollectiveAlgorithms.getMembers(selfId, commGroupClient.getActiveSlaveTasks());
+    peerExchange.begin(members);
+    final List<T> retVal = CollectiveAlgorithms.reduceScatter(peerExchange, members, selfId, elements, counts,
+        reduceFunction, dataCodec);
+    LOG.exiting("ReduceScatterer", "apply", this);
+    return retVal;
+  }
+
+  @Override
+  public List<T> apply(final List<T> elements, final List<Integer> counts,
+                       final List<? extends Identifier> order) throws InterruptedException, NetworkException {
+    LOG.entering("ReduceScatterer", "apply", this);
+    initializeGroup();
+    final List<String> members = CollectiveAlgorithms.getMembers(order);
+    peerExchange.begin(members);
+    final List<T> retVal = CollectiveAlgorithms.reduceScatter(peerExchange, members, selfId, elements, counts,
+        reduceFunction, dataCodec);
+    LOG.exiting("ReduceScatterer", "apply", this);
+    return retVal;
+  }
+
+  @Override
+  public ReduceFunction<T> getReduceFunction() {
+    return reduceFunction;
+  }
+}
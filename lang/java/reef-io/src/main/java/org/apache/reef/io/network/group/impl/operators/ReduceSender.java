@@ -30,6 +30,7 @@ import org.apache.reef.io.network.group.api.task.OperatorTopology;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
 import org.apache.reef.io.network.group.impl.config.parameters.*;
 import org.apache.reef.io.network.group.impl.task.OperatorTopologyImpl;
+import org.apache.reef.io.network.group.impl.task.Reduction;
 import org.apache.reef.io.network.group.impl.utils.Utils;
 import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
 import org.apache.reef.io.serialization.Codec;
@@ -73,6 +74,8 @@ public class ReduceSender<T> implements Reduce.Sender<T>, EventHandler<GroupComm
       @Parameter(ReduceFunctionParam.class) final ReduceFunction<T> reduceFunction,
       @Parameter(DriverIdentifierGroupComm.class) final String driverId,
       @Parameter(TaskVersion.class) final int version,
+      @Parameter(PipelineChunkSize.class) final int chunkSize,
+      @Parameter(ParallelReduceThreads.class) final int reduceThreads,
       final CommGroupNetworkHandler commGroupNetworkHandler,
       final NetworkService<GroupCommunicationMessage> netService,
       final CommunicationGroupServiceClient commGroupClient) {
@@ -90,7 +93,8 @@ public class ReduceSender<T> implements Reduce.Sender<T>, EventHandler<GroupComm
     this.commGroupNetworkHandler = commGroupNetworkHandler;
     this.netService = netService;
     this.sender = new Sender(this.netService);
-    this.topology = new OperatorTopologyImpl(this.groupName, this.operName, selfId, driverId, sender, version);
+    this.topology = new OperatorTopologyImpl(this.groupName, this.operName, selfId, driverId, sender, version,
+        chunkSize, Reduction.newExecutor(Utils.simpleName(this.operName), reduceThreads));
     this.commGroupNetworkHandler.register(this.operName, this);
     this.commGroupClient = commGroupClient;
   }
@@ -137,14 +141,23 @@ public class ReduceSender<T> implements Reduce.Sender<T>, EventHandler<GroupComm
     LOG.finest("Waiting for children");
     // Wait for children to send
     try {
-      final T reducedValueOfChildren = topology.recvFromChildren(reduceFunction, dataCodec);
-      final List<T> vals = new ArrayList<>(2);
-      vals.add(myData);
-      if (reducedValueOfChildren != null) {
-        vals.add(reducedValueOfChildren);
+      if (dataCodec instanceof Reduce.SegmentableCodec) {
+        // Reduce large values chunk by chunk while streaming them to the parent
+        topology.recvFromChildrenAndSendToParent(myData, reduceFunction, (Reduce.SegmentableCodec<T>) dataCodec);
+      } else {
+        final T reducedValueOfChildren = topology.recvFromChildren(reduceFunction, dataCodec);
+        final T reducedValue;
+        if (reducedValueOfChildren != null) {
+          // The value decoded from the children is ours, so it is the one that may be reduced into
+          reducedValue = Reduction.combine(reduceFunction, reducedValueOfChildren, myData);
+        } else {
+          final List<T> vals = new ArrayList<>(1);
+          vals.add(myData);
+          reducedValue = reduceFunction.apply(vals);
+        }
+        topology.sendToParent(dataCodec.encode(reducedValue),
+            ReefNetworkGroupCommProtos.GroupCommMessage.Type.Reduce);
       }
-      final T reducedValue = reduceFunction.apply(vals);
-      topology.sendToParent(dataCodec.encode(reducedValue), ReefNetworkGroupCommProtos.GroupCommMessage.Type.Reduce);
     } catch (final ParentDeadException e) {
       throw new RuntimeException("ParentDeadException", e);
     }
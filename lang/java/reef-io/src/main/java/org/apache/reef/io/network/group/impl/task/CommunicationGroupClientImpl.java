@@ -67,7 +67,7 @@ public final class CommunicationGroupClientImpl implements CommunicationGroupSer
   private final Sender sender;
 
   private final String taskId;
-  private final boolean isScatterSender;
+  private final boolean tracksActiveTasks;
   private final IdentifierFactory identifierFactory;
   private List<Identifier> activeSlaveTasks;
   private TopologySimpleNode topologySimpleNodeRoot;
@@ -108,7 +108,7 @@ public final class CommunicationGroupClientImpl implements CommunicationGroupSer
     try {
       this.groupCommNetworkHandler.register(this.groupName, commGroupNetworkHandler);
 
-      boolean operatorIsScatterSender = false;
+      boolean operatorTracksActiveTasks = false;
       for (final String operatorConfigStr : operatorConfigs) {
 
         final Configuration operatorConfig = configSerializer.fromString(operatorConfigStr);
@@ -121,12 +121,17 @@ public final class CommunicationGroupClientImpl implements CommunicationGroupSer
         this.operators.put(Utils.getClass(operName), operator);
         LOG.finest(operName + " has CommGroupHandler-" + commGroupNetworkHandler.toString());
 
-        if (!operatorIsScatterSender && operator instanceof Scatter.Sender) {
+        if (!operatorTracksActiveTasks && operator instanceof Scatter.Sender) {
           LOG.fine(operName + " is a scatter sender. Will keep track of active slave tasks.");
-          operatorIsScatterSender = true;
+          operatorTracksActiveTasks = true;
+        }
+        if (!operatorTracksActiveTasks && (operator instanceof AllReduce || operator instanceof AllGather
+            || operator instanceof ReduceScatter)) {
+          LOG.fine(operName + " exchanges data with all tasks. Will keep track of active slave tasks.");
+          operatorTracksActiveTasks = true;
         }
       }
-      this.isScatterSender = operatorIsScatterSender;
+      this.tracksActiveTasks = operatorTracksActiveTasks;
     } catch (final InjectionException | IOException e) {
       throw new RuntimeException("Unable to deserialize operator config", e);
     }
@@ -237,6 +242,45 @@ public final class CommunicationGroupClientImpl implements CommunicationGroupSer
     return (Gather.Sender) op;
   }
 
+  @Override
+  public AllReduce getAllReduce(final Class<? extends Name<String>> operatorName) {
+    LOG.entering("CommunicationGroupClientImpl", "getAllReduce", new Object[]{getQualifiedName(),
+        Utils.simpleName(operatorName)});
+    final GroupCommOperator op = operators.get(operatorName);
+    if (!(op instanceof AllReduce)) {
+      throw new RuntimeException("Configured operator is not an allreduce operator");
+    }
+    commGroupNetworkHandler.addTopologyElement(operatorName);
+    LOG.exiting("CommunicationGroupClientImpl", "getAllReduce", getQualifiedName() + op);
+    return (AllReduce) op;
+  }
+
+  @Override
+  public AllGather getAllGather(final Class<? extends Name<String>> operatorName) {
+    LOG.entering("CommunicationGroupClientImpl", "getAllGather", new Object[]{getQualifiedName(),
+        Utils.simpleName(operatorName)});
+    final GroupCommOperator op = operators.get(operatorName);
+    if (!(op instanceof AllGather)) {
+      throw new RuntimeException("Configured operator is not an allgather operator");
+    }
+    commGroupNetworkHandler.addTopologyElement(operatorName);
+    LOG.exiting("CommunicationGroupClientImpl", "getAllGather", getQualifiedName() + op);
+    return (AllGather) op;
+  }
+
+  @Override
+  public ReduceScatter getReduceScatter(final Class<? extends Name<String>> operatorName) {
+    LOG.entering("CommunicationGroupClientImpl", "getReduceScatter", new Object[]{getQualifiedName(),
+        Utils.simpleName(operatorName)});
+    final GroupCommOperator op = operators.get(operatorName);
+    if (!(op instanceof ReduceScatter)) {
+      throw new RuntimeException("Configured operator is not an reducescatter operator");
+    }
+    commGroupNetworkHandler.addTopologyElement(operatorName);
+    LOG.exiting("CommunicationGroupClientImpl", "getReduceScatter", getQualifiedName() + op);
+    return (ReduceScatter) op;
+  }
+
   @Override
   public void initialize() {
     LOG.entering("CommunicationGroupClientImpl", "initialize", getQualifiedName());
@@ -256,7 +300,7 @@ public final class CommunicationGroupClientImpl implements CommunicationGroupSer
         throw new RuntimeException("InterruptedException while waiting for initialization", e);
       }
 
-      if (isScatterSender) {
+      if (tracksActiveTasks) {
         updateTopology();
       }
 
@@ -331,7 +375,7 @@ public final class CommunicationGroupClientImpl implements CommunicationGroupSer
         msg = commGroupNetworkHandler.waitForTopologyUpdate(operName);
       } while (!isMsgVersionOk(msg));
 
-      if (isScatterSender) {
+      if (tracksActiveTasks) {
         updateActiveTasks(msg);
       }
     }
@@ -22,6 +22,8 @@ import org.apache.reef.io.network.group.api.task.CommunicationGroupClient;
 import org.apache.reef.io.network.group.api.task.CommunicationGroupServiceClient;
 import org.apache.reef.io.network.group.api.task.GroupCommClient;
 import org.apache.reef.io.network.group.api.task.GroupCommNetworkHandler;
+import org.apache.reef.io.network.group.impl.GroupCommNameTable;
+import org.apache.reef.io.network.group.impl.config.parameters.GroupCommAddedNames;
 import org.apache.reef.io.network.group.impl.config.parameters.SerializedGroupConfigs;
 import org.apache.reef.tang.Configuration;
 import org.apache.reef.tang.Injector;
@@ -33,6 +35,7 @@ import org.apache.reef.tang.formats.ConfigurationSerializer;
 import javax.inject.Inject;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
@@ -48,9 +51,12 @@ public final class GroupCommClientImpl implements GroupCommClient {
   private GroupCommClientImpl(@Parameter(SerializedGroupConfigs.class) final Set<String> groupConfigs,
                               final GroupCommNetworkHandler groupCommNetworkHandler,
                               final ConfigurationSerializer configSerializer,
-                              final Injector injector) {
+                              final Injector injector,
+                              final GroupCommNameTable nameTable,
+                              @Parameter(GroupCommAddedNames.class) final List<String> addedNames) {
 
     LOG.log(Level.FINEST, "GroupCommHandler-{0}", groupCommNetworkHandler);
+    nameTable.addNames(addedNames);
 
     for (final String groupConfigStr : groupConfigs) {
       try {
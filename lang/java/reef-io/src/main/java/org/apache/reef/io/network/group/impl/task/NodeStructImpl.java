@@ -66,16 +66,27 @@ public abstract class NodeStructImpl implements NodeStruct {
   @Override
   public byte[] getData() {
     LOG.entering("NodeStructImpl", "getData");
-    final GroupCommunicationMessage gcm;
+    final GroupCommunicationMessage gcm = takeData();
+    final byte[] retVal = checkDead(gcm) ? null : Utils.getData(gcm);
+    LOG.exiting("NodeStructImpl", "getData", retVal);
+    return retVal;
+  }
+
+  @Override
+  public GroupCommunicationMessage getMessage() {
+    LOG.entering("NodeStructImpl", "getMessage");
+    final GroupCommunicationMessage gcm = takeData();
+    final GroupCommunicationMessage retVal = checkDead(gcm) ? null : gcm;
+    LOG.exiting("NodeStructImpl", "getMessage", retVal);
+    return retVal;
+  }
+
+  private GroupCommunicationMessage takeData() {
     try {
-      gcm = dataQue.take();
+      return dataQue.take();
     } catch (final InterruptedException e) {
       throw new RuntimeException("InterruptedException while waiting for data from " + id, e);
     }
-
-    final byte[] retVal = checkDead(gcm) ? null : Utils.getData(gcm);
-    LOG.exiting("NodeStructImpl", "getData", retVal);
-    return retVal;
   }
 
   @Override
@@ -36,9 +36,11 @@ import org.apache.reef.wake.impl.SingleThreadStage;
 
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Logger;
@@ -55,6 +57,8 @@ public class OperatorTopologyImpl implements OperatorTopology {
   private final Object topologyLock = new Object();
 
   private final int version;
+  private final int chunkSize;
+  private final ExecutorService reduceExecutor;
 
   private final BlockingQueue<GroupCommunicationMessage> deltas = new LinkedBlockingQueue<>();
   private final BlockingQueue<GroupCommunicationMessage> deletionDeltas = new LinkedBlockingQueue<>();
@@ -81,6 +85,18 @@ public class OperatorTopologyImpl implements OperatorTopology {
   public OperatorTopologyImpl(final Class<? extends Name<String>> groupName,
                               final Class<? extends Name<String>> operName, final String selfId,
                               final String driverId, final Sender sender, final int version) {
+    this(groupName, operName, selfId, driverId, sender, version, 0, null);
+  }
+
+  /**
+   * @param chunkSize size of the chunks that large messages are pipelined in, 0 to send them whole
+   * @param reduceExecutor executor to reduce values received from children on, null to reduce them on
+   *                       the calling thread
+   */
+  public OperatorTopologyImpl(final Class<? extends Name<String>> groupName,
+                              final Class<? extends Name<String>> operName, final String selfId,
+                              final String driverId, final Sender sender, final int version,
+                              final int chunkSize, final ExecutorService reduceExecutor) {
     super();
     this.groupName = groupName;
     this.operName = operName;
@@ -88,6 +104,8 @@ public class OperatorTopologyImpl implements OperatorTopology {
     this.driverId = driverId;
     this.sender = sender;
     this.version = version;
+    this.chunkSize = chunkSize;
+    this.reduceExecutor = reduceExecutor;
   }
 
   /**
@@ -236,6 +254,17 @@ public class OperatorTopologyImpl implements OperatorTopology {
     return retVal;
   }
 
+  @Override
+  public byte[] recvFromParentAndSendToChildren(final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType)
+      throws ParentDeadException {
+    LOG.entering("OperatorTopologyImpl", "recvFromParentAndSendToChildren", new Object[] {getQualifiedName(), msgType});
+    refreshEffectiveTopology();
+    assert effectiveTopology != null;
+    final byte[] retVal = effectiveTopology.recvFromParentAndSendToChildren(msgType);
+    LOG.exiting("OperatorTopologyImpl", "recvFromParentAndSendToChildren", getQualifiedName());
+    return retVal;
+  }
+
   @Override
   public <T> T recvFromChildren(final Reduce.ReduceFunction<T> redFunc, final Codec<T> dataCodec)
       throws ParentDeadException {
@@ -248,11 +277,22 @@ public class OperatorTopologyImpl implements OperatorTopology {
   }
 
   @Override
-  public byte[] recvFromChildren() throws ParentDeadException {
+  public <T> void recvFromChildrenAndSendToParent(final T myData, final Reduce.ReduceFunction<T> redFunc,
+                                                  final Reduce.SegmentableCodec<T> dataCodec)
+      throws ParentDeadException {
+    LOG.entering("OperatorTopologyImpl", "recvFromChildrenAndSendToParent", getQualifiedName());
+    refreshEffectiveTopology();
+    assert effectiveTopology != null;
+    effectiveTopology.recvFromChildrenAndSendToParent(myData, redFunc, dataCodec);
+    LOG.exiting("OperatorTopologyImpl", "recvFromChildrenAndSendToParent", getQualifiedName());
+  }
+
+  @Override
+  public List<byte[]> recvFromChildren() throws ParentDeadException {
     LOG.entering("OperatorTopologyImpl", "recvFromChildren", getQualifiedName());
     refreshEffectiveTopology();
     assert effectiveTopology != null;
-    final byte[] retVal = effectiveTopology.recvFromChildren();
+    final List<byte[]> retVal = effectiveTopology.recvFromChildren();
     LOG.exiting("OperatorTopologyImpl", "recvFromChildren", getQualifiedName());
     return retVal;
   }
@@ -286,7 +326,8 @@ public class OperatorTopologyImpl implements OperatorTopology {
    */
   private void createBaseTopology() throws ParentDeadException {
     LOG.entering("OperatorTopologyImpl", "createBaseTopology", getQualifiedName());
-    baseTopology = new OperatorTopologyStructImpl(groupName, operName, selfId, driverId, sender, version);
+    baseTopology = new OperatorTopologyStructImpl(groupName, operName, selfId, driverId, sender, version,
+        chunkSize, reduceExecutor);
     updateBaseTopology();
     LOG.exiting("OperatorTopologyImpl", "createBaseTopology", getQualifiedName());
   }
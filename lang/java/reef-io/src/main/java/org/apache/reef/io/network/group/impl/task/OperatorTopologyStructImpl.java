@@ -18,9 +18,9 @@
  */
 package org.apache.reef.io.network.group.impl.task;
 
-import org.apache.commons.lang.ArrayUtils;
 import org.apache.reef.exception.evaluator.NetworkException;
 import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
+import org.apache.reef.io.network.group.api.operators.Reduce.SegmentableCodec;
 import org.apache.reef.io.network.group.api.task.NodeStruct;
 import org.apache.reef.io.network.group.api.task.OperatorTopologyStruct;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
@@ -30,10 +30,12 @@ import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
 import org.apache.reef.io.serialization.Codec;
 import org.apache.reef.tang.annotations.Name;
 
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.logging.Logger;
 
@@ -44,6 +46,25 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
 
   private static final int SMALL_MSG_LENGTH = 1 << 20;
 
+  /**
+   * Number of chunks of a pipelined message that may be in flight to a node
+   * before the sender waits for that node to ACK the oldest one.
+   */
+  private static final int PIPELINE_WINDOW = 4;
+
+  /**
+   * Chunks of a pipelined message are flagged as such and carry two data
+   * blobs: a header with the chunk index, the number of chunks and the total
+   * message length, followed by the chunk itself.
+   */
+  private static final int CHUNK_HEADER_LENGTH = 12;
+
+  /**
+   * Chunk index in the header of a chunk frame that aborts a pipelined message,
+   * e.g. because the sender lost its own input midway.
+   */
+  private static final int ABORTED_CHUNK = -1;
+
   private static final Logger LOG = Logger.getLogger(OperatorTopologyStructImpl.class.getName());
 
   private final Class<? extends Name<String>> groupName;
@@ -62,10 +83,13 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
   private final ConcurrentMap<String, Set<Integer>> deadMsgs = new ConcurrentHashMap<>();
 
   private final int version;
+  private final int chunkSize;
+  private final ExecutorService reduceExecutor;
 
   public OperatorTopologyStructImpl(final Class<? extends Name<String>> groupName,
                                     final Class<? extends Name<String>> operName, final String selfId,
-                                    final String driverId, final Sender sender, final int version) {
+                                    final String driverId, final Sender sender, final int version,
+                                    final int chunkSize, final ExecutorService reduceExecutor) {
     super();
     this.groupName = groupName;
     this.operName = operName;
@@ -73,6 +97,8 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
     this.driverId = driverId;
     this.sender = sender;
     this.version = version;
+    this.chunkSize = chunkSize;
+    this.reduceExecutor = reduceExecutor;
   }
 
   public OperatorTopologyStructImpl(final OperatorTopologyStruct topology) {
@@ -86,6 +112,8 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
     this.parent = topology.getParent();
     this.children.addAll(topology.getChildren());
     this.version = topology.getVersion();
+    this.chunkSize = topology.getPipelineChunkSize();
+    this.reduceExecutor = topology.getReduceExecutor();
   }
 
   @Override
@@ -142,6 +170,16 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
     return version;
   }
 
+  @Override
+  public int getPipelineChunkSize() {
+    return chunkSize;
+  }
+
+  @Override
+  public ExecutorService getReduceExecutor() {
+    return reduceExecutor;
+  }
+
   @Override
   public void addAsData(final GroupCommunicationMessage msg) {
     LOG.entering("OperatorTopologyStructImpl", "addAsData", new Object[]{getQualifiedName(), msg});
@@ -177,14 +215,26 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
   private void sendToNode(final byte[] data,
                           final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType,
                           final NodeStruct node) {
+    sendToNode(data, msgType, node, chunkSize);
+  }
+
+  private void sendToNode(final byte[] data,
+                          final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType,
+                          final NodeStruct node,
+                          final int chunkLength) {
     LOG.entering("OperatorTopologyStructImpl", "sendToNode", new Object[]{getQualifiedName(), msgType, node});
+    if (isChunked(data, chunkLength)) {
+      sendChunked(data, msgType, Collections.singletonList(node), chunkLength);
+      LOG.exiting("OperatorTopologyStructImpl", "sendToNode", getQualifiedName());
+      return;
+    }
+
     final String nodeId = node.getId();
     try {
 
       if (data.length > SMALL_MSG_LENGTH) {
         LOG.finest(getQualifiedName() + "Msg too big. Sending readiness to send " + msgType + " msg to " + nodeId);
-        sender.send(Utils.bldVersionedGCM(groupName, operName, msgType, selfId, version, nodeId, node.getVersion(),
-            Utils.EMPTY_BYTE_ARR));
+        sender.send(Utils.bldVersionedGCM(groupName, operName, msgType, selfId, version, nodeId, node.getVersion()));
         final byte[] tmpVal = receiveFromNode(node, true);
         if (tmpVal != null) {
           LOG.finest(getQualifiedName() + "Got readiness to accept " + msgType + " msg from " + nodeId
@@ -217,29 +267,178 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
     LOG.exiting("OperatorTopologyStructImpl", "sendToNode", getQualifiedName());
   }
 
+  private boolean isChunked(final byte[] data, final int chunkLength) {
+    return chunkLength > 0 && data != null && data.length > chunkLength;
+  }
+
+  /**
+   * Send {@code data} to every node in {@code nodes} as a pipelined sequence of
+   * chunks. Chunks are interleaved across the nodes, so that every subtree can
+   * start forwarding the first chunk before the last one has been sent.
+   */
+  private void sendChunked(final byte[] data,
+                           final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType,
+                           final Collection<? extends NodeStruct> nodes,
+                           final int chunkLength) {
+    LOG.entering("OperatorTopologyStructImpl", "sendChunked", new Object[]{getQualifiedName(), msgType, nodes,
+        chunkLength});
+    final int numChunks = (data.length + chunkLength - 1) / chunkLength;
+    final List<ChunkedSend> sends = new ArrayList<>(nodes.size());
+    for (final NodeStruct node : nodes) {
+      sends.add(new ChunkedSend(node, msgType, data.length, numChunks));
+    }
+    boolean complete = false;
+    try {
+      for (int offset = 0; offset < data.length; offset += chunkLength) {
+        final byte[] chunk = Arrays.copyOfRange(data, offset, Math.min(offset + chunkLength, data.length));
+        for (final ChunkedSend send : sends) {
+          send.send(chunk);
+        }
+      }
+      complete = true;
+    } finally {
+      closeChunkedSends(sends, complete);
+    }
+    LOG.exiting("OperatorTopologyStructImpl", "sendChunked", getQualifiedName());
+  }
+
+  /**
+   * Finish every send in {@code sends} if all chunks were sent, or abort it otherwise,
+   * so that no receiver keeps waiting for chunks that will never come.
+   */
+  private static void closeChunkedSends(final List<ChunkedSend> sends, final boolean complete) {
+    for (final ChunkedSend send : sends) {
+      if (complete) {
+        send.finish();
+      } else {
+        send.abort();
+      }
+    }
+  }
+
   private byte[] receiveFromNode(final NodeStruct node, final boolean remove) {
     LOG.entering("OperatorTopologyStructImpl", "receiveFromNode", new Object[]{getQualifiedName(), node, remove});
     final byte[] retVal = node.getData();
     if (remove) {
-      final boolean removed = nodesWithData.remove(node);
-      final String msg = getQualifiedName() + "Removed(" + removed + ") node " + node.getId()
-          + " from nodesWithData queue";
-      if (removed) {
-        LOG.finest(msg);
-      } else {
-        LOG.fine(msg);
-      }
+      removeFromNodesWithData(node);
     }
     LOG.exiting("OperatorTopologyStructImpl", "receiveFromNode", getQualifiedName());
     return retVal;
   }
 
+  private GroupCommunicationMessage receiveMessageFromNode(final NodeStruct node, final boolean remove) {
+    LOG.entering("OperatorTopologyStructImpl", "receiveMessageFromNode",
+        new Object[]{getQualifiedName(), node, remove});
+    final GroupCommunicationMessage retVal = node.getMessage();
+    if (remove) {
+      removeFromNodesWithData(node);
+    }
+    LOG.exiting("OperatorTopologyStructImpl", "receiveMessageFromNode", getQualifiedName());
+    return retVal;
+  }
+
+  private void removeFromNodesWithData(final NodeStruct node) {
+    final boolean removed = nodesWithData.remove(node);
+    final String msg = getQualifiedName() + "Removed(" + removed + ") node " + node.getId()
+        + " from nodesWithData queue";
+    if (removed) {
+      LOG.finest(msg);
+    } else {
+      LOG.fine(msg);
+    }
+  }
+
+  private static byte[] chunkHeader(final int chunkIndex, final int numChunks, final int totalLength) {
+    return ByteBuffer.allocate(CHUNK_HEADER_LENGTH).putInt(chunkIndex).putInt(numChunks).putInt(totalLength).array();
+  }
+
+  private static int chunkIndex(final GroupCommunicationMessage frame) {
+    return ByteBuffer.wrap(frame.getData()[0]).getInt(0);
+  }
+
+  private static int chunkCount(final GroupCommunicationMessage frame) {
+    return ByteBuffer.wrap(frame.getData()[0]).getInt(4);
+  }
+
+  private static int chunkedLength(final GroupCommunicationMessage frame) {
+    return ByteBuffer.wrap(frame.getData()[0]).getInt(8);
+  }
+
+  private static byte[] chunkData(final GroupCommunicationMessage frame) {
+    return frame.getData()[1];
+  }
+
+  private static boolean isAborted(final GroupCommunicationMessage frame) {
+    return chunkIndex(frame) == ABORTED_CHUNK;
+  }
+
+  /**
+   * Receive chunk {@code chunkIndex} of a pipelined message from {@code node}.
+   *
+   * @return the chunk frame, or null if {@code node} died or aborted the message
+   */
+  private GroupCommunicationMessage receiveChunk(final NodeStruct node, final int chunkIndex,
+                                                 final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
+    final GroupCommunicationMessage retVal = receiveMessageFromNode(node, true);
+    if (retVal == null) {
+      return null;
+    }
+    if (!retVal.isChunk()) {
+      throw new RuntimeException(getQualifiedName() + "Expected chunk " + chunkIndex + " of a " + msgType
+          + " msg from " + node.getId() + " but received an unchunked msg");
+    }
+    if (isAborted(retVal)) {
+      LOG.fine(getQualifiedName() + "Node " + node.getId() + " aborted a " + msgType + " msg before chunk "
+          + chunkIndex);
+      return null;
+    }
+    if (chunkIndex(retVal) != chunkIndex) {
+      throw new RuntimeException(getQualifiedName() + "Expected chunk " + chunkIndex + " of a " + msgType
+          + " msg from " + node.getId() + " but received chunk " + chunkIndex(retVal));
+    }
+    return retVal;
+  }
+
+  /**
+   * Receive the remaining chunks of the pipelined message that starts with
+   * {@code first}, ACKing every chunk as soon as it arrives.
+   *
+   * @return the reassembled message, or null if {@code node} died or aborted the message midway
+   */
+  private byte[] recvChunks(final NodeStruct node, final GroupCommunicationMessage first,
+                            final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
+    LOG.entering("OperatorTopologyStructImpl", "recvChunks", new Object[]{getQualifiedName(), node, msgType});
+    final int numChunks = chunkCount(first);
+    final byte[] retVal = new byte[chunkedLength(first)];
+    GroupCommunicationMessage frame = isAborted(first) ? null : first;
+    int offset = 0;
+    for (int i = 0; i < numChunks; i++) {
+      if (i > 0) {
+        frame = receiveChunk(node, i, msgType);
+      }
+      if (frame == null) {
+        LOG.warning(getQualifiedName() + "Node " + node.getId() + " died or aborted after sending " + i + " of "
+            + numChunks + " chunks of a " + msgType + " msg");
+        LOG.exiting("OperatorTopologyStructImpl", "recvChunks", getQualifiedName());
+        return null;
+      }
+      sendToNode(Utils.EMPTY_BYTE_ARR, msgType, node);
+      final byte[] chunk = chunkData(frame);
+      System.arraycopy(chunk, 0, retVal, offset, chunk.length);
+      offset += chunk.length;
+    }
+    LOG.exiting("OperatorTopologyStructImpl", "recvChunks", getQualifiedName());
+    return retVal;
+  }
+
   /**
    * Receive data from {@code node}, while checking if it is trying to send a big message.
-   * Nodes that send big messages will first send an empty data message and
-   * wait for an ACK before transmitting the actual big message. Thus the
-   * receiving side checks whether a message is empty or not, and after sending
-   * an ACK it must wait for another message if the first message was empty.
+   * Nodes that send big messages will first send a message without any data
+   * and wait for an ACK before transmitting the actual big message. Thus the
+   * receiving side checks whether a message carries data or not, and after sending
+   * an ACK it must wait for another message if the first message had no data.
+   * An empty byte array is ordinary data, e.g. the encoding of an empty vector.
+   * Pipelined messages are reassembled from their chunks.
    *
    * @param node node to receive a message from
    * @param msgType message type
@@ -248,9 +447,26 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
   private byte[] recvFromNodeCheckBigMsg(final NodeStruct node,
                                          final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
     LOG.entering("OperatorTopologyStructImpl", "recvFromNodeCheckBigMsg", new Object[]{node, msgType});
+    final byte[] retVal = recvRemaining(node, receiveMessageFromNode(node, false), msgType);
+    LOG.exiting("OperatorTopologyStructImpl", "recvFromNodeCheckBigMsg");
+    return retVal;
+  }
 
-    byte[] retVal = receiveFromNode(node, false);
-    if (retVal != null && retVal.length == 0) {
+  /**
+   * Finish receiving the message from {@code node} that started with {@code first},
+   * as described in {@link #recvFromNodeCheckBigMsg}.
+   */
+  private byte[] recvRemaining(final NodeStruct node, final GroupCommunicationMessage first,
+                               final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
+    if (first == null) {
+      return null;
+    }
+    if (first.isChunk()) {
+      return recvChunks(node, first, msgType);
+    }
+
+    byte[] retVal = first.getMsgsCount() == 1 ? first.getData()[0] : null;
+    if (first.getMsgsCount() == 0) {
       LOG.finest(getQualifiedName() + " Got msg that node " + node.getId()
           + " has large data and is ready to send it. Sending ACK to receive data.");
       sendToNode(Utils.EMPTY_BYTE_ARR, msgType, node);
@@ -265,8 +481,6 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
             + " but received nothing.");
       }
     }
-
-    LOG.exiting("OperatorTopologyStructImpl", "recvFromNodeCheckBigMsg");
     return retVal;
   }
 
@@ -303,8 +517,12 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
   @Override
   public void sendToChildren(final byte[] data, final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
     LOG.entering("OperatorTopologyStructImpl", "sendToChildren", new Object[]{getQualifiedName(), msgType});
-    for (final NodeStruct child : children) {
-      sendToNode(data, msgType, child);
+    if (isChunked(data, chunkSize) && !children.isEmpty()) {
+      sendChunked(data, msgType, children, chunkSize);
+    } else {
+      for (final NodeStruct child : children) {
+        sendToNode(data, msgType, child);
+      }
     }
     LOG.exiting("OperatorTopologyStructImpl", "sendToChildren", getQualifiedName());
   }
@@ -332,11 +550,243 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
     return retVal;
   }
 
+  /**
+   * Receive data from the parent and send it to all children. If the parent
+   * pipelines the data, every chunk is forwarded to the children as soon as it
+   * arrives instead of after the whole message has been received.
+   *
+   * @return data received from the parent
+   */
+  @Override
+  public byte[] recvFromParentAndSendToChildren(final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
+    LOG.entering("OperatorTopologyStructImpl", "recvFromParentAndSendToChildren", getQualifiedName());
+    LOG.finest(getQualifiedName() + "Waiting for " + parent.getId() + " to send data");
+    final GroupCommunicationMessage first = receiveMessageFromNode(parent, false);
+    final byte[] retVal;
+    if (first != null && first.isChunk() && !children.isEmpty()) {
+      retVal = forwardChunks(first, msgType);
+    } else {
+      retVal = recvRemaining(parent, first, msgType);
+      sendToChildren(retVal, msgType);
+    }
+    LOG.exiting("OperatorTopologyStructImpl", "recvFromParentAndSendToChildren", getQualifiedName());
+    return retVal;
+  }
+
+  /**
+   * Receive a pipelined message from the parent and forward every chunk to the children.
+   * If the parent dies or aborts the message midway, the message is aborted for the children as well.
+   *
+   * @return the reassembled message, or null if the parent died or aborted the message
+   */
+  private byte[] forwardChunks(final GroupCommunicationMessage first,
+                               final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType) {
+    LOG.entering("OperatorTopologyStructImpl", "forwardChunks", new Object[]{getQualifiedName(), msgType});
+    final int numChunks = chunkCount(first);
+    final byte[] retVal = new byte[chunkedLength(first)];
+    final List<ChunkedSend> sends = new ArrayList<>(children.size());
+    for (final NodeStruct child : children) {
+      sends.add(new ChunkedSend(child, msgType, retVal.length, numChunks));
+    }
+
+    boolean complete = false;
+    try {
+      GroupCommunicationMessage frame = isAborted(first) ? null : first;
+      int offset = 0;
+      for (int i = 0; i < numChunks; i++) {
+        if (i > 0) {
+          frame = receiveChunk(parent, i, msgType);
+        }
+        if (frame == null) {
+          LOG.warning(getQualifiedName() + "Parent died or aborted after sending " + i + " of " + numChunks
+              + " chunks of a " + msgType + " msg. Aborting it for the children");
+          LOG.exiting("OperatorTopologyStructImpl", "forwardChunks", getQualifiedName());
+          return null;
+        }
+        sendToNode(Utils.EMPTY_BYTE_ARR, msgType, parent);
+        final byte[] chunk = chunkData(frame);
+        for (final ChunkedSend send : sends) {
+          send.send(chunk);
+        }
+        System.arraycopy(chunk, 0, retVal, offset, chunk.length);
+        offset += chunk.length;
+      }
+      complete = true;
+    } finally {
+      closeChunkedSends(sends, complete);
+    }
+    LOG.exiting("OperatorTopologyStructImpl", "forwardChunks", getQualifiedName());
+    return retVal;
+  }
+
+  @Override
+  public <T> void recvFromChildrenAndSendToParent(final T myData, final ReduceFunction<T> redFunc,
+                                                  final SegmentableCodec<T> dataCodec) {
+    LOG.entering("OperatorTopologyStructImpl", "recvFromChildrenAndSendToParent",
+        new Object[]{getQualifiedName(), redFunc, dataCodec});
+    if (parent == null) {
+      LOG.fine(getQualifiedName() + "Perhaps parent has died or has not been configured");
+    }
+    reduceSegments(dataCodec.encode(myData), redFunc, dataCodec, parent);
+    LOG.exiting("OperatorTopologyStructImpl", "recvFromChildrenAndSendToParent", getQualifiedName());
+  }
+
+  private int alignedChunkSize(final SegmentableCodec<?> dataCodec) {
+    final int alignment = dataCodec.getSegmentAlignment();
+    if (chunkSize <= 0 || alignment <= 1) {
+      return chunkSize;
+    }
+    return Math.max(alignment, chunkSize - chunkSize % alignment);
+  }
+
+  /**
+   * Reduce the data of all children, together with {@code ownData} if it is not null,
+   * and send the result to {@code dst} or return it if {@code dst} is null.
+   * <p>
+   * When every input was pipelined along the same chunk boundaries, the reduction is
+   * done chunk by chunk, and each reduced chunk is sent on as soon as all children
+   * have delivered theirs. Otherwise the whole values are reduced at once.
+   * <p>
+   * The children taking part are fixed by the first chunks received. Reduced chunks
+   * may already have been sent on when a child dies or aborts midway, so that child
+   * cannot be left out of the result anymore. The whole reduction fails instead:
+   * the message to {@code dst} is aborted, the remaining chunks of the other
+   * children are received and dropped, and null is returned.
+   */
+  private <T> T reduceSegments(final byte[] ownData, final ReduceFunction<T> redFunc,
+                               final SegmentableCodec<T> dataCodec, final NodeStruct dst) {
+    LOG.entering("OperatorTopologyStructImpl", "reduceSegments", new Object[]{getQualifiedName(), dst});
+    final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType =
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.Reduce;
+    final int chunkLength = alignedChunkSize(dataCodec);
+    final List<NodeStruct> senders = new ArrayList<>(children.size());
+    final List<GroupCommunicationMessage> firstFrames = new ArrayList<>(children.size());
+    for (final NodeStruct child : children) {
+      LOG.finest(getQualifiedName() + "Waiting for " + child.getId() + " to send data");
+      final GroupCommunicationMessage first = receiveMessageFromNode(child, true);
+      if (first != null && !(first.isChunk() && isAborted(first))) {
+        senders.add(child);
+        firstFrames.add(first);
+      }
+    }
+
+    if (!isSegmentable(ownData, firstFrames, chunkLength)) {
+      final Reduction<T> reduction = new Reduction<>(redFunc, dataCodec, reduceExecutor);
+      for (int i = 0; i < senders.size(); i++) {
+        final byte[] data = recvRemaining(senders.get(i), firstFrames.get(i), msgType);
+        if (data != null) {
+          reduction.add(data);
+        }
+      }
+      if (ownData != null) {
+        reduction.add(ownData);
+      }
+      final T retVal = reduction.get();
+      if (dst != null) {
+        sendToNode(dataCodec.encode(retVal), msgType, dst, chunkLength);
+      }
+      LOG.exiting("OperatorTopologyStructImpl", "reduceSegments", getQualifiedName());
+      return retVal;
+    }
+
+    final GroupCommunicationMessage reference = firstFrames.get(0);
+    final int numChunks = chunkCount(reference);
+    final int totalLength = chunkedLength(reference);
+    final int segmentLength = chunkData(reference).length;
+    final ChunkedSend chunkedSend = dst == null ? null : new ChunkedSend(dst, msgType, totalLength, numChunks);
+    final byte[] reduced = new byte[totalLength];
+    boolean failed = false;
+    boolean complete = false;
+    try {
+      for (int i = 0, offset = 0; i < numChunks; i++, offset += segmentLength) {
+        final int length = Math.min(segmentLength, totalLength - offset);
+        final Reduction<T> reduction = new Reduction<>(redFunc, dataCodec, reduceExecutor);
+        for (int j = 0; j < senders.size();) {
+          final NodeStruct child = senders.get(j);
+          final GroupCommunicationMessage frame = i == 0 ? firstFrames.get(j) : receiveChunk(child, i, msgType);
+          if (frame == null) {
+            LOG.warning(getQualifiedName() + "Child " + child.getId() + " died or aborted after sending " + i
+                + " of " + numChunks + " chunks. Failing the reduction");
+            senders.remove(j);
+            failed = true;
+            continue;
+          }
+          final byte[] chunk = chunkData(frame);
+          if (chunk.length != length) {
+            throw new RuntimeException(getQualifiedName() + "Expected a chunk of " + length + " bytes from "
+                + child.getId() + " but received " + chunk.length + " bytes");
+          }
+          sendToNode(Utils.EMPTY_BYTE_ARR, msgType, child);
+          if (!failed) {
+            reduction.add(chunk);
+          }
+          j++;
+        }
+        if (failed) {
+          if (chunkedSend != null) {
+            chunkedSend.abort();
+          }
+          continue;
+        }
+
+        if (ownData != null) {
+          reduction.add(Arrays.copyOfRange(ownData, offset, offset + length));
+        }
+        final byte[] reducedSegment = dataCodec.encode(reduction.get());
+        if (reducedSegment.length != length) {
+          throw new RuntimeException(getQualifiedName() + dataCodec.getClass().getSimpleName()
+              + " encoded a reduced segment of " + length + " bytes into " + reducedSegment.length + " bytes");
+        }
+        if (chunkedSend != null) {
+          chunkedSend.send(reducedSegment);
+        } else {
+          System.arraycopy(reducedSegment, 0, reduced, offset, length);
+        }
+      }
+      complete = true;
+    } finally {
+      if (chunkedSend != null) {
+        closeChunkedSends(Collections.singletonList(chunkedSend), complete && !failed);
+      }
+    }
+
+    final T retVal = failed || chunkedSend != null ? null : dataCodec.decode(reduced);
+    LOG.exiting("OperatorTopologyStructImpl", "reduceSegments", getQualifiedName());
+    return retVal;
+  }
+
+  /**
+   * @return whether the first frames received from the children, and {@code ownData}
+   * if it is not null, are all chunked along the same boundaries
+   */
+  private boolean isSegmentable(final byte[] ownData, final List<GroupCommunicationMessage> firstFrames,
+                                final int chunkLength) {
+    if (firstFrames.isEmpty()) {
+      return false;
+    }
+    final GroupCommunicationMessage reference = firstFrames.get(0);
+    for (final GroupCommunicationMessage frame : firstFrames) {
+      if (!frame.isChunk() || chunkCount(frame) != chunkCount(reference)
+          || chunkedLength(frame) != chunkedLength(reference)
+          || chunkData(frame).length != chunkData(reference).length) {
+        return false;
+      }
+    }
+    return ownData == null
+        || isChunked(ownData, chunkLength) && ownData.length == chunkedLength(reference)
+        && chunkData(reference).length == chunkLength;
+  }
+
   @Override
   public <T> T recvFromChildren(final ReduceFunction<T> redFunc, final Codec<T> dataCodec) {
     LOG.entering("OperatorTopologyStructImpl", "recvFromChildren", new Object[]{getQualifiedName(), redFunc,
         dataCodec});
-    final List<T> retLst = new ArrayList<>(2);
+    if (dataCodec instanceof SegmentableCodec) {
+      final T retVal = reduceSegments(null, redFunc, (SegmentableCodec<T>) dataCodec, null);
+      LOG.exiting("OperatorTopologyStructImpl", "recvFromChildren", getQualifiedName());
+      return retVal;
+    }
+    final Reduction<T> reduction = new Reduction<>(redFunc, dataCodec, reduceExecutor);
     for (final NodeStruct child : children) {
       childrenToRcvFrom.add(child.getId());
     }
@@ -348,35 +798,31 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
           ReefNetworkGroupCommProtos.GroupCommMessage.Type.Reduce);
 
       if (retVal != null) {
-        retLst.add(dataCodec.decode(retVal));
-        if (retLst.size() == 2) {
-          final T redVal = redFunc.apply(retLst);
-          retLst.clear();
-          retLst.add(redVal);
-        }
+        reduction.add(retVal);
       }
       childrenToRcvFrom.remove(child.getId());
     }
-    final T retVal = retLst.isEmpty() ? null : retLst.get(0);
+    final T retVal = reduction.get();
     LOG.exiting("OperatorTopologyStructImpl", "recvFromChildren", getQualifiedName());
     return retVal;
   }
 
   /**
-   * Receive data from all children as a single byte array.
-   * Messages from children are simply byte-concatenated.
+   * Receive data from all children as a list of segments, one for each child
+   * that sent data, in the order they arrived. The segments are not copied
+   * into a single array, so the caller decides if and where to merge them.
    * This method is currently used only by the Gather operator.
    *
-   * @return gathered data as a byte array
+   * @return gathered data as a list of byte arrays
    */
   @Override
-  public byte[] recvFromChildren() {
+  public List<byte[]> recvFromChildren() {
     LOG.entering("OperatorTopologyStructImpl", "recvFromChildren", getQualifiedName());
     for (final NodeStruct child : children) {
       childrenToRcvFrom.add(child.getId());
     }
 
-    byte[] retVal = new byte[0];
+    final List<byte[]> retVal = new ArrayList<>(children.size());
     while (!childrenToRcvFrom.isEmpty()) {
       LOG.finest(getQualifiedName() + "Waiting for some child to send data");
       final NodeStruct child = nodesWithDataTakeUnsafe();
@@ -384,7 +830,7 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
           ReefNetworkGroupCommProtos.GroupCommMessage.Type.Gather);
 
       if (receivedVal != null) {
-        retVal = ArrayUtils.addAll(retVal, receivedVal);
+        retVal.add(receivedVal);
       }
       childrenToRcvFrom.remove(child.getId());
     }
@@ -641,4 +1087,90 @@ public class OperatorTopologyStructImpl implements OperatorTopologyStruct {
   private String getQualifiedName() {
     return Utils.simpleName(groupName) + ":" + Utils.simpleName(operName) + ":" + selfId + ":ver(" + version + ") - ";
   }
+
+  /**
+   * Streams the chunks of one pipelined message to a node, keeping at most
+   * {@link #PIPELINE_WINDOW} chunks un-ACKed.
+   */
+  private final class ChunkedSend {
+
+    private final NodeStruct node;
+    private final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType;
+    private final int totalLength;
+    private final int numChunks;
+
+    private int sent = 0;
+    private int unacked = 0;
+    private boolean alive = true;
+    private boolean aborted = false;
+
+    ChunkedSend(final NodeStruct node, final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType,
+                final int totalLength, final int numChunks) {
+      this.node = node;
+      this.msgType = msgType;
+      this.totalLength = totalLength;
+      this.numChunks = numChunks;
+    }
+
+    /**
+     * Send the next chunk, first waiting for an ACK if the window is full.
+     * Chunks are dropped once the node has died or the message was aborted.
+     */
+    void send(final byte[] chunk) {
+      if (unacked == PIPELINE_WINDOW) {
+        awaitAck();
+      }
+      if (!alive || aborted) {
+        return;
+      }
+      sendFrame(chunkHeader(sent, numChunks, totalLength), chunk);
+      sent++;
+      unacked++;
+    }
+
+    /**
+     * Wait until every chunk sent so far has been ACKed.
+     */
+    void finish() {
+      while (unacked > 0) {
+        awaitAck();
+      }
+    }
+
+    /**
+     * Tell the node that no more chunks will follow, so that it stops waiting for them,
+     * and wait for the ACKs of the chunks it received before. Does nothing if already aborted.
+     */
+    void abort() {
+      if (aborted) {
+        return;
+      }
+      aborted = true;
+      if (alive) {
+        LOG.fine(getQualifiedName() + "Aborting " + msgType + " msg to " + node.getId() + " after " + sent + " of "
+            + numChunks + " chunks");
+        sendFrame(chunkHeader(ABORTED_CHUNK, numChunks, totalLength));
+      }
+      finish();
+    }
+
+    private void sendFrame(final byte[]... frame) {
+      try {
+        sender.send(Utils.bldChunkGCM(groupName, operName, msgType, selfId, version, node.getId(),
+            node.getVersion(), frame));
+      } catch (final NetworkException e) {
+        throw new RuntimeException("NetworkException while sending chunk " + sent + " of " + msgType
+            + " data from " + selfId + " to " + node.getId(), e);
+      }
+    }
+
+    private void awaitAck() {
+      if (alive && receiveFromNode(node, true) == null) {
+        LOG.fine(getQualifiedName() + "Node " + node.getId() + " died while receiving chunks of a " + msgType
+            + " msg");
+        alive = false;
+      }
+      unacked--;
+    }
+  }
 }
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.task;
+
+import org.apache.reef.io.network.group.api.operators.Reduce.InPlaceReduceFunction;
+import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
+import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.wake.impl.DefaultThreadFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+/**
+ * Reduces encoded values one at a time, as they are received from children.
+ * <p>
+ * Without an executor every value is decoded and combined on the calling thread.
+ * With one, values are decoded on the executor and every decoded value is combined
+ * with whichever partial result is waiting, if any. Independent pairs are thus
+ * combined in parallel, in a tree-like fashion, without collecting values in a list.
+ */
+public final class Reduction<T> {
+
+  private static final Logger LOG = Logger.getLogger(Reduction.class.getName());
+
+  private static final long WORKER_KEEP_ALIVE_SECONDS = 60;
+
+  private final ReduceFunction<T> redFunc;
+  private final Codec<T> dataCodec;
+  private final ExecutorService executor;
+
+  private final AtomicReference<T> pending = new AtomicReference<>();
+  private final List<Future<?>> combiners = new ArrayList<>();
+
+  /**
+   * @param executor executor to decode and combine values on, or null to do so on the calling thread
+   */
+  public Reduction(final ReduceFunction<T> redFunc, final Codec<T> dataCodec, final ExecutorService executor) {
+    this.redFunc = redFunc;
+    this.dataCodec = dataCodec;
+    this.executor = executor;
+  }
+
+  /**
+   * Decode {@code data} and combine it into the reduction.
+   */
+  public void add(final byte[] data) {
+    if (executor == null) {
+      final T value = dataCodec.decode(data);
+      final T partial = pending.get();
+      pending.set(partial == null ? value : combine(redFunc, partial, value));
+      return;
+    }
+
+    combiners.add(executor.submit(new Runnable() {
+      @Override
+      public void run() {
+        T value = dataCodec.decode(data);
+        while (true) {
+          final T partial = pending.getAndSet(null);
+          if (partial != null) {
+            value = combine(redFunc, partial, value);
+          } else if (pending.compareAndSet(null, value)) {
+            return;
+          }
+        }
+      }
+    }));
+  }
+
+  /**
+   * Wait for all values added so far to be combined.
+   *
+   * @return the reduced value, or null if no value was added
+   */
+  public T get() {
+    LOG.entering("Reduction", "get", combiners.size());
+    try {
+      for (final Future<?> combiner : combiners) {
+        combiner.get();
+      }
+    } catch (final InterruptedException e) {
+      throw new RuntimeException("InterruptedException while waiting for values to be reduced", e);
+    } catch (final ExecutionException e) {
+      throw new RuntimeException("Exception while reducing values", e.getCause());
+    }
+    combiners.clear();
+    final T retVal = pending.getAndSet(null);
+    LOG.exiting("Reduction", "get");
+    return retVal;
+  }
+
+  /**
+   * Combine {@code element} into {@code accumulator}. {@link InPlaceReduceFunction}s
+   * may modify the accumulator, so it must be a value owned by the caller.
+   *
+   * @return the combined value
+   */
+  public static <T> T combine(final ReduceFunction<T> redFunc, final T accumulator, final T element) {
+    if (redFunc instanceof InPlaceReduceFunction) {
+      return ((InPlaceReduceFunction<T>) redFunc).reduceInto(accumulator, element);
+    }
+    final List<T> vals = new ArrayList<>(2);
+    vals.add(accumulator);
+    vals.add(element);
+    return redFunc.apply(vals);
+  }
+
+  /**
+   * Create an executor for parallel reduction whose threads exit when idle.
+   *
+   * @param name name prefix of the worker threads
+   * @param numThreads number of worker threads
+   * @return the executor, or null if {@code numThreads} is not positive
+   */
+  public static ExecutorService newExecutor(final String name, final int numThreads) {
+    if (numThreads <= 0) {
+      return null;
+    }
+    final ThreadPoolExecutor executor = new ThreadPoolExecutor(numThreads, numThreads,
+        WORKER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+        new DefaultThreadFactory(name));
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+}
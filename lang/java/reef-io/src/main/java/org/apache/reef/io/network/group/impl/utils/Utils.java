@@ -24,6 +24,7 @@ import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos;
 import org.apache.reef.tang.annotations.Name;
 
 import java.util.Iterator;
+import java.util.List;
 
 /**
  * Utility class for group communications.
@@ -43,6 +44,19 @@ public final class Utils {
         dstVersion, data);
   }
 
+  /**
+   * Build a message carrying one chunk of a pipelined message.
+   */
+  public static GroupCommunicationMessage bldChunkGCM(final Class<? extends Name<String>> groupName,
+                                                      final Class<? extends Name<String>> operName,
+                                                      final ReefNetworkGroupCommProtos.GroupCommMessage.Type msgType,
+                                                      final String from, final int srcVersion,
+                                                      final String to, final int dstVersion, final byte[]... data) {
+
+    return new GroupCommunicationMessage(groupName.getName(), operName.getName(), msgType, from, srcVersion, to,
+        dstVersion, data, true);
+  }
+
   public static Class<? extends Name<String>> getClass(final String className) {
     try {
       return (Class<? extends Name<String>>) Class.forName(className);
@@ -63,6 +77,25 @@ public final class Utils {
     return (gcm.getMsgsCount() == 1) ? gcm.getData()[0] : null;
   }
 
+  /**
+   * Concatenate byte arrays into a single array that is allocated once.
+   * @param segments byte arrays to concatenate
+   * @return the concatenation of segments
+   */
+  public static byte[] concat(final List<byte[]> segments) {
+    int length = 0;
+    for (final byte[] segment : segments) {
+      length += segment.length;
+    }
+    final byte[] retVal = new byte[length];
+    int offset = 0;
+    for (final byte[] segment : segments) {
+      System.arraycopy(segment, 0, retVal, offset, segment.length);
+      offset += segment.length;
+    }
+    return retVal;
+  }
+
   /**
    * Extract a group communication message object from a message.
    * @param msg
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.vector;
+
+import org.apache.reef.io.network.group.api.operators.Reduce;
+
+import javax.inject.Inject;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Codec for double[] vectors that writes the elements as raw little-endian bytes, without a header.
+ * Every multiple of 8 bytes of an encoding decodes on its own, so large vectors can be
+ * reduced segment by segment by a Reduce operator.
+ */
+public final class DoubleArrayCodec implements Reduce.SegmentableCodec<double[]> {
+
+  private static final int ELEMENT_SIZE = Double.SIZE / Byte.SIZE;
+
+  @Inject
+  public DoubleArrayCodec() {
+  }
+
+  @Override
+  public byte[] encode(final double[] obj) {
+    final ByteBuffer buffer = ByteBuffer.allocate(obj.length * ELEMENT_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    buffer.asDoubleBuffer().put(obj);
+    return buffer.array();
+  }
+
+  @Override
+  public double[] decode(final byte[] buf) {
+    if (buf.length % ELEMENT_SIZE != 0) {
+      throw new RuntimeException("Cannot decode " + buf.length + " bytes into a double[]");
+    }
+    final double[] retVal = new double[buf.length / ELEMENT_SIZE];
+    ByteBuffer.wrap(buf).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(retVal);
+    return retVal;
+  }
+
+  @Override
+  public int getSegmentAlignment() {
+    return ELEMENT_SIZE;
+  }
+}
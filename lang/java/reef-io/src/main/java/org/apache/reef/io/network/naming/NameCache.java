@@ -20,19 +20,36 @@ package org.apache.reef.io.network.naming;
 
 import org.apache.reef.util.cache.Cache;
 import org.apache.reef.util.cache.CacheImpl;
+import org.apache.reef.util.cache.CurrentTime;
 import org.apache.reef.util.cache.SystemTime;
 import org.apache.reef.wake.Identifier;
 
 import java.net.InetSocketAddress;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 
 /**
  * Naming cache implementation.
+ * <p>
+ * Addresses pushed by the name server for subscribed identifiers are kept until the name
+ * server reports a change, as the name server only pushes changes. As a safety net against a
+ * lost notification, a pushed address also expires after {@code PUSHED_TIMEOUT_FACTOR} times the
+ * timeout without a new push; it is then fetched again like any other. Addresses fetched on a
+ * miss expire after the timeout.
  */
 public class NameCache implements Cache<Identifier, InetSocketAddress> {
 
+  /**
+   * How many times longer than fetched addresses the pushed addresses are kept.
+   */
+  static final int PUSHED_TIMEOUT_FACTOR = 10;
+
   private final Cache<Identifier, InetSocketAddress> cache;
+  private final ConcurrentMap<Identifier, PushedAddress> pushed = new ConcurrentHashMap<>();
+  private final CurrentTime currentTime;
+  private final long pushedTimeout;
 
   /**
    * Constructs a naming cache.
@@ -40,7 +57,19 @@ public class NameCache implements Cache<Identifier, InetSocketAddress> {
    * @param timeout a cache entry timeout after write
    */
   public NameCache(final long timeout) {
-    cache = new CacheImpl<>(new SystemTime(), timeout);
+    this(new SystemTime(), timeout);
+  }
+
+  /**
+   * Constructs a naming cache.
+   *
+   * @param currentTime class that returns the current time for timeout purposes
+   * @param timeout     a cache entry timeout after write
+   */
+  NameCache(final CurrentTime currentTime, final long timeout) {
+    this.cache = new CacheImpl<>(currentTime, timeout);
+    this.currentTime = currentTime;
+    this.pushedTimeout = PUSHED_TIMEOUT_FACTOR * timeout;
   }
 
   /**
@@ -54,9 +83,29 @@ public class NameCache implements Cache<Identifier, InetSocketAddress> {
   @Override
   public InetSocketAddress get(final Identifier key,
                                final Callable<InetSocketAddress> valueFetcher) throws ExecutionException {
+    final PushedAddress entry = pushed.get(key);
+    if (entry != null) {
+      if (currentTime.now() <= entry.pushTime + pushedTimeout) {
+        return entry.addr;
+      }
+      pushed.remove(key, entry);
+    }
     return cache.get(key, valueFetcher);
   }
 
+  /**
+   * Sets the address of an identifier, as pushed by the name server. The entry is kept until
+   * it is invalidated, or expires if it is not pushed again for {@code PUSHED_TIMEOUT_FACTOR}
+   * times the timeout.
+   *
+   * @param key  an identifier
+   * @param addr an Internet socket address
+   */
+  public void put(final Identifier key, final InetSocketAddress addr) {
+    pushed.put(key, new PushedAddress(addr, currentTime.now()));
+    cache.invalidate(key);
+  }
+
   /**
    * Invalidates the entry for an identifier.
    *
@@ -64,7 +113,29 @@ public class NameCache implements Cache<Identifier, InetSocketAddress> {
    */
   @Override
   public void invalidate(final Identifier key) {
+    pushed.remove(key);
     cache.invalidate(key);
   }
 
+  /**
+   * Drops all the addresses pushed by the name server, e.g. when the subscriptions were lost
+   * and changes may have been missed. Fetched addresses are kept.
+   */
+  public void invalidatePushed() {
+    pushed.clear();
+  }
+
+  /**
+   * An address pushed by the name server, with the time it was pushed.
+   */
+  private static final class PushedAddress {
+
+    private final InetSocketAddress addr;
+    private final long pushTime;
+
+    PushedAddress(final InetSocketAddress addr, final long pushTime) {
+      this.addr = addr;
+      this.pushTime = pushTime;
+    }
+  }
 }
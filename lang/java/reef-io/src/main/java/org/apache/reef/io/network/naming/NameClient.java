@@ -18,8 +18,11 @@
  */
 package org.apache.reef.io.network.naming;
 
+import org.apache.reef.io.naming.NameAssignment;
 import org.apache.reef.io.network.naming.exception.NamingRuntimeException;
 import org.apache.reef.io.network.naming.parameters.*;
+import org.apache.reef.io.network.naming.serialization.NamingBatchRegisterResponse;
+import org.apache.reef.io.network.naming.serialization.NamingChangeNotification;
 import org.apache.reef.io.network.naming.serialization.NamingLookupResponse;
 import org.apache.reef.io.network.naming.serialization.NamingMessage;
 import org.apache.reef.io.network.naming.serialization.NamingRegisterResponse;
@@ -37,6 +40,7 @@ import org.apache.reef.wake.remote.transport.TransportFactory;
 import javax.inject.Inject;
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.logging.Level;
@@ -76,16 +80,18 @@ public final class NameClient implements NameResolver {
       final TransportFactory tpFactory) {
 
     final BlockingQueue<NamingLookupResponse> replyLookupQueue = new LinkedBlockingQueue<>();
-    final BlockingQueue<NamingRegisterResponse> replyRegisterQueue = new LinkedBlockingQueue<>();
+    final BlockingQueue<NamingMessage> replyRegisterQueue = new LinkedBlockingQueue<>();
     final Codec<NamingMessage> codec = NamingCodecFactory.createFullCodec(factory);
+    final NameCache cache = new NameCache(timeout);
 
     this.transport = tpFactory.newInstance(localAddressProvider.getLocalAddress(), 0,
         new SyncStage<>(new NamingClientEventHandler(
-            new NamingResponseHandler(replyLookupQueue, replyRegisterQueue), codec)),
+            new NamingResponseHandler(replyLookupQueue, replyRegisterQueue,
+                new NamingChangeNotificationHandler(cache)), codec)),
         null, retryCount, retryTimeout);
 
     this.lookupClient = new NameLookupClient(serverAddr, serverPort, timeout, factory,
-        retryCount, retryTimeout, replyLookupQueue, this.transport);
+        retryCount, retryTimeout, replyLookupQueue, cache, this.transport);
 
     this.registryClient = new NameRegistryClient(serverAddr, serverPort, timeout,
         factory, replyRegisterQueue, this.transport);
@@ -104,6 +110,15 @@ public final class NameClient implements NameResolver {
     this.registryClient.register(id, addr);
   }
 
+  /**
+   * Registers a batch of (identifier, address) mappings in a single request.
+   *
+   * @param nas the name assignments
+   */
+  public void register(final List<NameAssignment> nas) throws Exception {
+    this.registryClient.register(nas);
+  }
+
   /**
    * Unregisters an identifier.
    *
@@ -125,6 +140,35 @@ public final class NameClient implements NameResolver {
     return this.lookupClient.lookup(id);
   }
 
+  /**
+   * Finds addresses for identifiers with a single request to the name server, and caches them.
+   *
+   * @param ids the identifiers
+   * @return the name assignments of the identifiers that are registered
+   */
+  public List<NameAssignment> lookup(final List<Identifier> ids) throws Exception {
+    return this.lookupClient.lookup(ids);
+  }
+
+  /**
+   * Subscribes to the changes of the identifiers starting with a prefix, so that their
+   * addresses are pushed by the name server instead of being looked up again after a timeout.
+   *
+   * @param prefix an identifier prefix
+   */
+  public void subscribe(final String prefix) throws Exception {
+    this.lookupClient.subscribe(prefix);
+  }
+
+  /**
+   * Ends a subscription made with {@link #subscribe}.
+   *
+   * @param prefix an identifier prefix
+   */
+  public void unsubscribe(final String prefix) throws Exception {
+    this.lookupClient.unsubscribe(prefix);
+  }
+
   /**
    * Retrieves an address for an identifier remotely.
    *
@@ -186,12 +230,15 @@ class NamingResponseHandler implements EventHandler<NamingMessage> {
   private static final Logger LOG = Logger.getLogger(NamingResponseHandler.class.getName());
 
   private final BlockingQueue<NamingLookupResponse> replyLookupQueue;
-  private final BlockingQueue<NamingRegisterResponse> replyRegisterQueue;
+  private final BlockingQueue<NamingMessage> replyRegisterQueue;
+  private final EventHandler<NamingChangeNotification> changeHandler;
 
   NamingResponseHandler(final BlockingQueue<NamingLookupResponse> replyLookupQueue,
-                        final BlockingQueue<NamingRegisterResponse> replyRegisterQueue) {
+                        final BlockingQueue<NamingMessage> replyRegisterQueue,
+                        final EventHandler<NamingChangeNotification> changeHandler) {
     this.replyLookupQueue = replyLookupQueue;
     this.replyRegisterQueue = replyRegisterQueue;
+    this.changeHandler = changeHandler;
   }
 
   @Override
@@ -200,10 +247,12 @@ class NamingResponseHandler implements EventHandler<NamingMessage> {
       if (!replyLookupQueue.offer((NamingLookupResponse) value)) {
         LOG.log(Level.FINEST, "Element {0} was not added to the queue", value);
       }
-    } else if (value instanceof NamingRegisterResponse) {
-      if (!replyRegisterQueue.offer((NamingRegisterResponse) value)) {
+    } else if (value instanceof NamingRegisterResponse || value instanceof NamingBatchRegisterResponse) {
+      if (!replyRegisterQueue.offer(value)) {
         LOG.log(Level.FINEST, "Element {0} was not added to the queue", value);
       }
+    } else if (value instanceof NamingChangeNotification) {
+      changeHandler.onNext((NamingChangeNotification) value);
     } else {
       throw new NamingRuntimeException("Unknown naming response message");
     }
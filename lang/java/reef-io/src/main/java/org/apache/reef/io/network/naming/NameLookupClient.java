@@ -27,11 +27,13 @@ import org.apache.reef.io.network.naming.parameters.NameResolverNameServerAddr;
 import org.apache.reef.io.network.naming.parameters.NameResolverNameServerPort;
 import org.apache.reef.io.network.naming.parameters.NameResolverRetryCount;
 import org.apache.reef.io.network.naming.parameters.NameResolverRetryTimeout;
+import org.apache.reef.io.network.naming.serialization.NamingChangeNotification;
 import org.apache.reef.io.network.naming.serialization.NamingLookupRequest;
 import org.apache.reef.io.network.naming.serialization.NamingLookupResponse;
 import org.apache.reef.io.network.naming.serialization.NamingMessage;
+import org.apache.reef.io.network.naming.serialization.NamingSubscribeRequest;
+import org.apache.reef.io.network.naming.serialization.NamingUnsubscribeRequest;
 import org.apache.reef.tang.annotations.Parameter;
-import org.apache.reef.util.cache.Cache;
 import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.Identifier;
 import org.apache.reef.wake.IdentifierFactory;
@@ -46,12 +48,16 @@ import org.apache.reef.wake.remote.transport.TransportFactory;
 import org.apache.reef.wake.remote.transport.netty.LoggingLinkListener;
 
 import javax.inject.Inject;
+import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
@@ -68,9 +74,11 @@ public final class NameLookupClient implements Stage, NamingLookup {
   private final Codec<NamingMessage> codec;
   private final BlockingQueue<NamingLookupResponse> replyQueue;
   private final long timeout;
-  private final Cache<Identifier, InetSocketAddress> cache;
+  private final NameCache cache;
   private final int retryCount;
   private final int retryTimeout;
+  private final Set<String> subscriptions = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+  private volatile Link<NamingMessage> subscriptionLink;
 
 
   /**
@@ -83,6 +91,7 @@ public final class NameLookupClient implements Stage, NamingLookup {
    * @param retryCount a count of retrying lookup
    * @param retryTimeout retry timeout
    * @param replyQueue a reply queue
+   * @param cache      a cache that name change notifications arriving on the transport are applied to
    * @param transport  a transport
    */
   NameLookupClient(final String serverAddr,
@@ -92,10 +101,11 @@ public final class NameLookupClient implements Stage, NamingLookup {
                           final int retryCount,
                           final int retryTimeout,
                           final BlockingQueue<NamingLookupResponse> replyQueue,
+                          final NameCache cache,
                           final Transport transport) {
     this.serverSocketAddr = new InetSocketAddress(serverAddr, serverPort);
     this.timeout = timeout;
-    this.cache = new NameCache(timeout);
+    this.cache = cache;
     this.codec = NamingCodecFactory.createFullCodec(factory);
     this.replyQueue = replyQueue;
     this.retryCount = retryCount;
@@ -130,7 +140,8 @@ public final class NameLookupClient implements Stage, NamingLookup {
 
     this.transport = tpFactory.newInstance(localAddressProvider.getLocalAddress(), 0,
             new SyncStage<>(new NamingLookupClientHandler(
-                    new NamingLookupResponseHandler(this.replyQueue), this.codec)),
+                    new NamingLookupResponseHandler(this.replyQueue),
+                    new NamingChangeNotificationHandler(this.cache), this.codec)),
             null, retryCount, retryTimeout);
 
     this.retryCount = retryCount;
@@ -146,35 +157,78 @@ public final class NameLookupClient implements Stage, NamingLookup {
   @Override
   public InetSocketAddress lookup(final Identifier id) throws Exception {
 
+    checkSubscriptions();
     return cache.get(id, new Callable<InetSocketAddress>() {
 
       @Override
       public InetSocketAddress call() throws Exception {
-        final int origRetryCount = NameLookupClient.this.retryCount;
-        int retriesLeft = origRetryCount;
-        while (true) {
-          try {
+        return withRetries(id, new Callable<InetSocketAddress>() {
+          @Override
+          public InetSocketAddress call() throws Exception {
             return remoteLookup(id);
-          } catch (final NamingException e) {
-            if (retriesLeft <= 0) {
-              throw e;
-            } else {
-              final int currentRetryTimeout = NameLookupClient.this.retryTimeout
-                  * (origRetryCount - retriesLeft + 1);
-              LOG.log(Level.WARNING,
-                  "Caught Naming Exception while looking up " + id
-                      + " with Name Server. Will retry " + retriesLeft
-                      + " time(s) after waiting for " + currentRetryTimeout + " msec.");
-              Thread.sleep(currentRetryTimeout);
-              --retriesLeft;
-            }
           }
-        }
+        });
       }
 
     });
   }
 
+  /**
+   * Finds addresses for identifiers with a single request to the name server, and caches them.
+   *
+   * @param ids the identifiers
+   * @return the name assignments of the identifiers that are registered
+   */
+  public List<NameAssignment> lookup(final List<Identifier> ids) throws Exception {
+    checkSubscriptions();
+    final List<NameAssignment> nas = withRetries(ids, new Callable<List<NameAssignment>>() {
+      @Override
+      public List<NameAssignment> call() throws Exception {
+        return remoteLookup(ids);
+      }
+    });
+    for (final NameAssignment na : nas) {
+      cache.invalidate(na.getIdentifier());
+      cache.get(na.getIdentifier(), new Callable<InetSocketAddress>() {
+        @Override
+        public InetSocketAddress call() {
+          return na.getAddress();
+        }
+      });
+    }
+    return nas;
+  }
+
+  /**
+   * Calls the lookup, retrying it on a NamingException.
+   *
+   * @param what the identifiers being looked up, for logging
+   * @param lookup the lookup to call
+   * @return the result of the lookup
+   */
+  private <T> T withRetries(final Object what, final Callable<T> lookup) throws Exception {
+    final int origRetryCount = this.retryCount;
+    int retriesLeft = origRetryCount;
+    while (true) {
+      try {
+        return lookup.call();
+      } catch (final NamingException e) {
+        if (retriesLeft <= 0) {
+          throw e;
+        } else {
+          final int currentRetryTimeout = this.retryTimeout
+              * (origRetryCount - retriesLeft + 1);
+          LOG.log(Level.WARNING,
+              "Caught Naming Exception while looking up " + what
+                  + " with Name Server. Will retry " + retriesLeft
+                  + " time(s) after waiting for " + currentRetryTimeout + " msec.");
+          Thread.sleep(currentRetryTimeout);
+          --retriesLeft;
+        }
+      }
+    }
+  }
+
   /**
    * Retrieves an address for an identifier remotely.
    *
@@ -183,14 +237,29 @@ public final class NameLookupClient implements Stage, NamingLookup {
    * @throws Exception
    */
   public InetSocketAddress remoteLookup(final Identifier id) throws Exception {
+    final List<NameAssignment> list = remoteLookup(Arrays.asList(id));
+    if (list.isEmpty()) {
+      throw new NamingException("Cannot find " + id + " from the name server");
+    } else {
+      return list.get(0).getAddress();
+    }
+  }
+
+  /**
+   * Retrieves addresses for identifiers remotely, in a single request.
+   *
+   * @param ids the identifiers
+   * @return the name assignments of the identifiers that are registered
+   * @throws Exception
+   */
+  public List<NameAssignment> remoteLookup(final List<Identifier> ids) throws Exception {
     // the lookup is not thread-safe, because concurrent replies may
     // be read by the wrong thread.
     // TODO: better fix uses a map of id's after REEF-198
     synchronized (this) {
 
-      LOG.log(Level.INFO, "Looking up {0} on NameServer {1}", new Object[]{id, serverSocketAddr});
+      LOG.log(Level.INFO, "Looking up {0} identifier(s) on NameServer {1}", new Object[]{ids.size(), serverSocketAddr});
 
-      final List<Identifier> ids = Arrays.asList(id);
       final Link<NamingMessage> link = transport.open(serverSocketAddr, codec,
           new LoggingLinkListener<NamingMessage>());
       link.write(new NamingLookupRequest(ids));
@@ -206,11 +275,79 @@ public final class NameLookupClient implements Stage, NamingLookup {
         }
       }
 
-      final List<NameAssignment> list = resp.getNameAssignments();
-      if (list.isEmpty()) {
-        throw new NamingException("Cannot find " + id + " from the name server");
-      } else {
-        return list.get(0).getAddress();
+      if (resp == null) {
+        throw new NamingException("Timed out looking up " + ids.size() + " identifier(s) on the name server");
+      }
+      return resp.getNameAssignments();
+    }
+  }
+
+  /**
+   * Subscribes to the changes of the identifiers starting with a prefix. The name server
+   * pushes their registrations and un-registrations, which are then cached until they change.
+   *
+   * @param prefix an identifier prefix
+   * @throws Exception
+   */
+  public void subscribe(final String prefix) throws Exception {
+    LOG.log(Level.FINE, "Subscribing to {0} on NameServer {1}", new Object[]{prefix, serverSocketAddr});
+    synchronized (subscriptions) {
+      final Link<NamingMessage> link = transport.open(serverSocketAddr, codec,
+          new LoggingLinkListener<NamingMessage>());
+      link.write(new NamingSubscribeRequest(prefix));
+      subscriptions.add(prefix);
+      subscriptionLink = link;
+    }
+  }
+
+  /**
+   * Subscribes again if the connection the subscriptions were made on is gone. The name server
+   * drops the subscriptions of a lost connection, so the pushed addresses may be stale: they are
+   * dropped, and the name server sends the current registrations when subscribed again.
+   */
+  private void checkSubscriptions() {
+    if (subscriptions.isEmpty() || isSubscriptionLinkOpen()) {
+      return;
+    }
+    synchronized (subscriptions) {
+      if (subscriptions.isEmpty() || isSubscriptionLinkOpen()) {
+        return;
+      }
+      LOG.log(Level.INFO, "Lost the connection to NameServer {0}, subscribing again", serverSocketAddr);
+      cache.invalidatePushed();
+      try {
+        final Link<NamingMessage> link = transport.open(serverSocketAddr, codec,
+            new LoggingLinkListener<NamingMessage>());
+        for (final String prefix : subscriptions) {
+          link.write(new NamingSubscribeRequest(prefix));
+        }
+        subscriptionLink = link;
+      } catch (final IOException e) {
+        LOG.log(Level.WARNING, "Failed to subscribe again on NameServer " + serverSocketAddr, e);
+      }
+    }
+  }
+
+  /**
+   * @return true if the connection the subscriptions were made on is still the one to the name server.
+   */
+  private boolean isSubscriptionLinkOpen() {
+    final Link<NamingMessage> link = transport.get(serverSocketAddr);
+    return link != null && link == subscriptionLink;
+  }
+
+  /**
+   * Ends a subscription made with {@link #subscribe}.
+   *
+   * @param prefix an identifier prefix
+   * @throws Exception
+   */
+  public void unsubscribe(final String prefix) throws Exception {
+    synchronized (subscriptions) {
+      if (subscriptions.remove(prefix)) {
+        final Link<NamingMessage> link = transport.open(serverSocketAddr, codec,
+            new LoggingLinkListener<NamingMessage>());
+        link.write(new NamingUnsubscribeRequest(prefix));
       }
     }
   }
@@ -220,6 +357,15 @@ public final class NameLookupClient implements Stage, NamingLookup {
    */
   @Override
   public void close() throws Exception {
+    synchronized (subscriptions) {
+      // the name server drops the subscriptions of a lost connection by itself
+      if (isSubscriptionLinkOpen()) {
+        for (final String prefix : subscriptions) {
+          subscriptionLink.write(new NamingUnsubscribeRequest(prefix));
+        }
+      }
+      subscriptions.clear();
+    }
     // Should not close transport as we did not
     // create it
   }
@@ -231,16 +377,25 @@ public final class NameLookupClient implements Stage, NamingLookup {
 class NamingLookupClientHandler implements EventHandler<TransportEvent> {
 
   private final EventHandler<NamingLookupResponse> handler;
+  private final EventHandler<NamingChangeNotification> changeHandler;
   private final Codec<NamingMessage> codec;
 
-  NamingLookupClientHandler(final EventHandler<NamingLookupResponse> handler, final Codec<NamingMessage> codec) {
+  NamingLookupClientHandler(final EventHandler<NamingLookupResponse> handler,
+                            final EventHandler<NamingChangeNotification> changeHandler,
+                            final Codec<NamingMessage> codec) {
     this.handler = handler;
+    this.changeHandler = changeHandler;
     this.codec = codec;
   }
 
   @Override
   public void onNext(final TransportEvent value) {
-    handler.onNext((NamingLookupResponse) codec.decode(value.getData()));
+    final NamingMessage message = codec.decode(value.getData());
+    if (message instanceof NamingChangeNotification) {
+      changeHandler.onNext((NamingChangeNotification) message);
+    } else {
+      handler.onNext((NamingLookupResponse) message);
+    }
   }
 
 }
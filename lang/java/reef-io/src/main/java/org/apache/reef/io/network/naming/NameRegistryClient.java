@@ -18,11 +18,12 @@
  */
 package org.apache.reef.io.network.naming;
 
+import org.apache.reef.io.naming.NameAssignment;
 import org.apache.reef.io.naming.NamingRegistry;
 import org.apache.reef.io.network.naming.exception.NamingException;
+import org.apache.reef.io.network.naming.serialization.NamingBatchRegisterRequest;
 import org.apache.reef.io.network.naming.serialization.NamingMessage;
 import org.apache.reef.io.network.naming.serialization.NamingRegisterRequest;
-import org.apache.reef.io.network.naming.serialization.NamingRegisterResponse;
 import org.apache.reef.io.network.naming.serialization.NamingUnregisterRequest;
 import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.Tang;
@@ -44,6 +45,7 @@ import org.apache.reef.wake.remote.transport.netty.NettyMessagingTransport;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
@@ -60,7 +62,7 @@ public class NameRegistryClient implements Stage, NamingRegistry {
   private final SocketAddress serverSocketAddr;
   private final Transport transport;
   private final Codec<NamingMessage> codec;
-  private final BlockingQueue<NamingRegisterResponse> replyQueue;
+  private final BlockingQueue<NamingMessage> replyQueue;
   private final long timeout;
 
   /**
@@ -109,7 +111,7 @@ public class NameRegistryClient implements Stage, NamingRegistry {
 
   NameRegistryClient(final String serverAddr, final int serverPort,
                             final long timeout, final IdentifierFactory factory,
-                            final BlockingQueue<NamingRegisterResponse> replyQueue,
+                            final BlockingQueue<NamingMessage> replyQueue,
                             final Transport transport) {
     this.serverSocketAddr = new InetSocketAddress(serverAddr, serverPort);
     this.timeout = timeout;
@@ -126,17 +128,33 @@ public class NameRegistryClient implements Stage, NamingRegistry {
    */
   @Override
   public void register(final Identifier id, final InetSocketAddress addr) throws Exception {
+    LOG.log(Level.FINE, "Register {0} : {1}", new Object[]{id, addr});
+    request(new NamingRegisterRequest(new NameAssignmentTuple(id, addr)));
+  }
+
+  /**
+   * Registers a batch of (identifier, address) mappings in a single request.
+   *
+   * @param nas the name assignments
+   */
+  public void register(final List<NameAssignment> nas) throws Exception {
+    LOG.log(Level.FINE, "Register {0} name assignments", nas.size());
+    request(new NamingBatchRegisterRequest(nas));
+  }
+
+  /**
+   * Sends a registration request and waits for its response.
+   */
+  private void request(final NamingMessage request) throws Exception {
 
     // needed to keep threads from reading the wrong response
     // TODO: better fix matches replies to threads with a map after REEF-198
     synchronized (this) {
 
-      LOG.log(Level.FINE, "Register {0} : {1}", new Object[]{id, addr});
-
       final Link<NamingMessage> link = this.transport.open(
           this.serverSocketAddr, this.codec, new LoggingLinkListener<NamingMessage>());
 
-      link.write(new NamingRegisterRequest(new NameAssignmentTuple(id, addr)));
+      link.write(request);
 
       for (;;) {
         try {
@@ -178,10 +196,10 @@ public class NameRegistryClient implements Stage, NamingRegistry {
 class NamingRegistryClientHandler implements EventHandler<TransportEvent> {
   private static final Logger LOG = Logger.getLogger(NamingRegistryClientHandler.class.getName());
 
-  private final EventHandler<NamingRegisterResponse> handler;
+  private final EventHandler<NamingMessage> handler;
   private final Codec<NamingMessage> codec;
 
-  NamingRegistryClientHandler(final EventHandler<NamingRegisterResponse> handler, final Codec<NamingMessage> codec) {
+  NamingRegistryClientHandler(final EventHandler<NamingMessage> handler, final Codec<NamingMessage> codec) {
     this.handler = handler;
     this.codec = codec;
   }
@@ -189,24 +207,24 @@ class NamingRegistryClientHandler implements EventHandler<TransportEvent> {
   @Override
   public void onNext(final TransportEvent value) {
     LOG.log(Level.FINE, value.toString());
-    handler.onNext((NamingRegisterResponse) codec.decode(value.getData()));
+    handler.onNext(codec.decode(value.getData()));
   }
 }
 
 /**
  * Naming register response handler.
  */
-class NamingRegistryResponseHandler implements EventHandler<NamingRegisterResponse> {
+class NamingRegistryResponseHandler implements EventHandler<NamingMessage> {
   private static final Logger LOG = Logger.getLogger(NamingRegistryResponseHandler.class.getName());
 
-  private final BlockingQueue<NamingRegisterResponse> replyQueue;
+  private final BlockingQueue<NamingMessage> replyQueue;
 
-  NamingRegistryResponseHandler(final BlockingQueue<NamingRegisterResponse> replyQueue) {
+  NamingRegistryResponseHandler(final BlockingQueue<NamingMessage> replyQueue) {
     this.replyQueue = replyQueue;
   }
 
   @Override
-  public void onNext(final NamingRegisterResponse value) {
+  public void onNext(final NamingMessage value) {
     if (!replyQueue.offer(value)) {
       LOG.log(Level.FINEST, "Element {0} was not added to the queue", value);
     }
@@ -29,29 +29,56 @@ import org.apache.reef.wake.Identifier;
 import org.apache.reef.wake.IdentifierFactory;
 import org.apache.reef.wake.impl.MultiEventHandler;
 import org.apache.reef.wake.impl.SyncStage;
+import org.apache.reef.wake.impl.ThreadPoolStage;
 import org.apache.reef.wake.remote.Codec;
 import org.apache.reef.wake.remote.RemoteConfiguration;
 import org.apache.reef.wake.remote.address.LocalAddressProvider;
 import org.apache.reef.wake.remote.impl.TransportEvent;
+import org.apache.reef.wake.remote.transport.Link;
 import org.apache.reef.wake.remote.transport.Transport;
 import org.apache.reef.wake.remote.transport.netty.NettyMessagingTransport;
 import org.apache.reef.webserver.ReefEventStateManager;
 
 import javax.inject.Inject;
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Naming server implementation.
+ * <p>
+ * Registrations are kept in a concurrent map, so that requests from different clients do not
+ * contend on a single lock. Registration requests are handled on the transport thread, which keeps
+ * the registrations and un-registrations of each client in order, while lookups are answered by a
+ * pool of threads.
+ * <p>
+ * Clients can subscribe to identifier prefixes. A subscriber first gets the current registrations
+ * under the prefix and then every registration and un-registration under it, pushed over its link.
+ * A change to an identifier and the notifications for it are made under a lock for that identifier,
+ * so that subscribers get the changes to an identifier in the order they were made. Subscribers whose
+ * connection is gone are dropped.
  */
 public final class NameServerImpl implements NameServer {
 
   private static final Logger LOG = Logger.getLogger(NameServer.class.getName());
 
+  /**
+   * Number of locks the identifiers are spread over.
+   */
+  private static final int NUM_ID_LOCKS = 64;
+
   private final Transport transport;
-  private final Map<Identifier, InetSocketAddress> idToAddrMap;
+  private final ConcurrentMap<Identifier, InetSocketAddress> idToAddrMap;
+  private final ThreadPoolStage<NamingLookupRequest> lookupStage;
+  private final ConcurrentMap<String, ConcurrentMap<SocketAddress, Link<byte[]>>> subscriptions;
+  private final Codec<NamingMessage> codec;
+  private final Lock[] idLocks = new Lock[NUM_ID_LOCKS];
   private final ReefEventStateManager reefEventStateManager;
   private final int port;
   private final LocalAddressProvider localAddressProvider;
@@ -59,6 +86,7 @@ public final class NameServerImpl implements NameServer {
   /**
    * @param port    a listening port number
    * @param factory an identifier factory
+   * @param lookupThreads the number of threads answering lookup requests
    * @param localAddressProvider a local address provider
    * Constructs a name server
    */
@@ -66,14 +94,22 @@ public final class NameServerImpl implements NameServer {
   private NameServerImpl(
       @Parameter(NameServerParameters.NameServerPort.class) final int port,
       @Parameter(NameServerParameters.NameServerIdentifierFactory.class) final IdentifierFactory factory,
+      @Parameter(NameServerParameters.NameServerLookupThreads.class) final int lookupThreads,
       final LocalAddressProvider localAddressProvider) {
 
     final Injector injector = Tang.Factory.getTang().newInjector();
 
     this.localAddressProvider = localAddressProvider;
     this.reefEventStateManager = null;
-    final Codec<NamingMessage> codec = NamingCodecFactory.createFullCodec(factory);
-    final EventHandler<NamingMessage> handler = createEventHandler(codec);
+    this.idToAddrMap = new ConcurrentHashMap<>();
+    this.subscriptions = new ConcurrentHashMap<>();
+    this.codec = NamingCodecFactory.createFullCodec(factory);
+    for (int i = 0; i < idLocks.length; i++) {
+      idLocks[i] = new ReentrantLock();
+    }
+    this.lookupStage = new ThreadPoolStage<>("NameServerLookupStage",
+        new NamingLookupRequestHandler(this, codec), lookupThreads);
+    final EventHandler<NamingMessage> handler = createEventHandler();
 
     injector.bindVolatileParameter(RemoteConfiguration.HostAddress.class, localAddressProvider.getLocalAddress());
     injector.bindVolatileParameter(RemoteConfiguration.Port.class, port);
@@ -87,19 +123,21 @@ public final class NameServerImpl implements NameServer {
     }
 
     this.port = transport.getListeningPort();
-    this.idToAddrMap = Collections.synchronizedMap(new HashMap<Identifier, InetSocketAddress>());
 
     LOG.log(Level.FINE, "NameServer starting, listening at port {0}", this.port);
   }
 
-  private EventHandler<NamingMessage> createEventHandler(final Codec<NamingMessage> codec) {
+  private EventHandler<NamingMessage> createEventHandler() {
 
     final Map<Class<? extends NamingMessage>, EventHandler<? extends NamingMessage>>
         clazzToHandlerMap = new HashMap<>();
 
-    clazzToHandlerMap.put(NamingLookupRequest.class, new NamingLookupRequestHandler(this, codec));
+    clazzToHandlerMap.put(NamingLookupRequest.class, lookupStage);
     clazzToHandlerMap.put(NamingRegisterRequest.class, new NamingRegisterRequestHandler(this, codec));
+    clazzToHandlerMap.put(NamingBatchRegisterRequest.class, new NamingBatchRegisterRequestHandler(this, codec));
     clazzToHandlerMap.put(NamingUnregisterRequest.class, new NamingUnregisterRequestHandler(this));
+    clazzToHandlerMap.put(NamingSubscribeRequest.class, new NamingSubscribeRequestHandler(this));
+    clazzToHandlerMap.put(NamingUnsubscribeRequest.class, new NamingUnsubscribeRequestHandler(this));
     final EventHandler<NamingMessage> handler = new MultiEventHandler<>(clazzToHandlerMap);
 
     return handler;
@@ -118,6 +156,7 @@ public final class NameServerImpl implements NameServer {
   @Override
   public void close() throws Exception {
     transport.close();
+    lookupStage.close();
   }
 
   /**
@@ -129,7 +168,36 @@ public final class NameServerImpl implements NameServer {
   @Override
   public void register(final Identifier id, final InetSocketAddress addr) {
     LOG.log(Level.FINE, "id: " + id + " addr: " + addr);
-    idToAddrMap.put(id, addr);
+    final List<Lock> locks = lockIdentifiers(Collections.singletonList(id));
+    try {
+      idToAddrMap.put(id, addr);
+      notifySubscribers(Collections.<NameAssignment>singletonList(new NameAssignmentTuple(id, addr)),
+          Collections.<Identifier>emptyList());
+    } finally {
+      unlock(locks);
+    }
+  }
+
+  /**
+   * Registers (identifier, address) mappings locally, notifying subscribers once for all of them.
+   *
+   * @param nas the name assignments
+   */
+  void register(final List<NameAssignment> nas) {
+    LOG.log(Level.FINE, "{0} name assignments", nas.size());
+    final List<Identifier> ids = new ArrayList<>(nas.size());
+    for (final NameAssignment na : nas) {
+      ids.add(na.getIdentifier());
+    }
+    final List<Lock> locks = lockIdentifiers(ids);
+    try {
+      for (final NameAssignment na : nas) {
+        idToAddrMap.put(na.getIdentifier(), na.getAddress());
+      }
+      notifySubscribers(nas, Collections.<Identifier>emptyList());
+    } finally {
+      unlock(locks);
+    }
   }
 
   /**
@@ -140,7 +208,136 @@ public final class NameServerImpl implements NameServer {
   @Override
   public void unregister(final Identifier id) {
     LOG.log(Level.FINE, "id: " + id);
-    idToAddrMap.remove(id);
+    final List<Lock> locks = lockIdentifiers(Collections.singletonList(id));
+    try {
+      if (idToAddrMap.remove(id) != null) {
+        notifySubscribers(Collections.<NameAssignment>emptyList(), Collections.singletonList(id));
+      }
+    } finally {
+      unlock(locks);
+    }
+  }
+
+  /**
+   * Subscribes a link to the changes of the identifiers starting with a prefix,
+   * and sends it the current registrations under the prefix.
+   *
+   * @param prefix an identifier prefix
+   * @param link   the link of the subscriber
+   */
+  void subscribe(final String prefix, final Link<byte[]> link) {
+    LOG.log(Level.FINE, "prefix: {0} link: {1}", new Object[]{prefix, link});
+    ConcurrentMap<SocketAddress, Link<byte[]>> links = subscriptions.get(prefix);
+    if (links == null) {
+      subscriptions.putIfAbsent(prefix, new ConcurrentHashMap<SocketAddress, Link<byte[]>>());
+      links = subscriptions.get(prefix);
+    }
+    // the snapshot is sent under the same lock as notifications, so a change that
+    // is missing from the snapshot reaches the subscriber after it
+    synchronized (link) {
+      links.put(link.getRemoteAddress(), link);
+      final List<NameAssignment> snapshot = new ArrayList<>();
+      for (final Map.Entry<Identifier, InetSocketAddress> entry : idToAddrMap.entrySet()) {
+        if (entry.getKey().toString().startsWith(prefix)) {
+          snapshot.add(new NameAssignmentTuple(entry.getKey(), entry.getValue()));
+        }
+      }
+      link.write(codec.encode(new NamingChangeNotification(snapshot, Collections.<Identifier>emptyList())));
+    }
+  }
+
+  /**
+   * Ends the subscription of a link to a prefix.
+   *
+   * @param prefix an identifier prefix
+   * @param link   the link of the subscriber
+   */
+  void unsubscribe(final String prefix, final Link<byte[]> link) {
+    LOG.log(Level.FINE, "prefix: {0} link: {1}", new Object[]{prefix, link});
+    final ConcurrentMap<SocketAddress, Link<byte[]>> links = subscriptions.get(prefix);
+    if (links != null) {
+      links.remove(link.getRemoteAddress());
+    }
+  }
+
+  /**
+   * Pushes registrations and un-registrations to the subscribers of the prefixes they fall under.
+   */
+  private void notifySubscribers(final List<NameAssignment> registered, final List<Identifier> unregistered) {
+    for (final Map.Entry<String, ConcurrentMap<SocketAddress, Link<byte[]>>> entry : subscriptions.entrySet()) {
+      if (entry.getValue().isEmpty()) {
+        continue;
+      }
+      final String prefix = entry.getKey();
+      final List<NameAssignment> matchingRegistered = new ArrayList<>();
+      for (final NameAssignment na : registered) {
+        if (na.getIdentifier().toString().startsWith(prefix)) {
+          matchingRegistered.add(na);
+        }
+      }
+      final List<Identifier> matchingUnregistered = new ArrayList<>();
+      for (final Identifier id : unregistered) {
+        if (id.toString().startsWith(prefix)) {
+          matchingUnregistered.add(id);
+        }
+      }
+      if (matchingRegistered.isEmpty() && matchingUnregistered.isEmpty()) {
+        continue;
+      }
+      final byte[] notification = codec.encode(new NamingChangeNotification(matchingRegistered, matchingUnregistered));
+      for (final Link<byte[]> link : entry.getValue().values()) {
+        notifySubscriber(link, notification);
+      }
+    }
+  }
+
+  /**
+   * Writes a notification to a subscriber. If the connection of the subscriber is gone
+   * or the write fails, the subscriber is dropped from all prefixes.
+   */
+  private void notifySubscriber(final Link<byte[]> link, final byte[] notification) {
+    final SocketAddress remoteAddress = link.getRemoteAddress();
+    boolean failed = transport.get(remoteAddress) == null;
+    if (!failed) {
+      try {
+        synchronized (link) {
+          link.write(notification);
+        }
+      } catch (final RuntimeException e) {
+        LOG.log(Level.WARNING, "Failed to notify subscriber " + remoteAddress, e);
+        failed = true;
+      }
+    }
+    if (failed) {
+      LOG.log(Level.FINE, "Dropping subscriber {0}", remoteAddress);
+      for (final ConcurrentMap<SocketAddress, Link<byte[]>> links : subscriptions.values()) {
+        links.remove(remoteAddress, link);
+      }
+    }
+  }
+
+  /**
+   * Acquires the locks of the given identifiers, in a fixed order so that concurrent callers cannot deadlock.
+   *
+   * @return the acquired locks, to be released with {@link #unlock(List)}
+   */
+  private List<Lock> lockIdentifiers(final Collection<Identifier> ids) {
+    final SortedSet<Integer> indexes = new TreeSet<>();
+    for (final Identifier id : ids) {
+      indexes.add((id.hashCode() & Integer.MAX_VALUE) % idLocks.length);
+    }
+    final List<Lock> locks = new ArrayList<>(indexes.size());
+    for (final int index : indexes) {
+      idLocks[index].lock();
+      locks.add(idLocks[index]);
+    }
+    return locks;
+  }
+
+  private static void unlock(final List<Lock> locks) {
+    for (final Lock lock : locks) {
+      lock.unlock();
+    }
   }
 
   /**
@@ -250,6 +447,27 @@ class NamingRegisterRequestHandler implements EventHandler<NamingRegisterRequest
   }
 }
 
+/**
+ * Naming batch register request handler.
+ */
+class NamingBatchRegisterRequestHandler implements EventHandler<NamingBatchRegisterRequest> {
+
+  private final NameServerImpl server;
+  private final Codec<NamingMessage> codec;
+
+  NamingBatchRegisterRequestHandler(final NameServerImpl server, final Codec<NamingMessage> codec) {
+    this.server = server;
+    this.codec = codec;
+  }
+
+  @Override
+  public void onNext(final NamingBatchRegisterRequest value) {
+    server.register(value.getNameAssignments());
+    final byte[] resp = codec.encode(new NamingBatchRegisterResponse());
+    value.getLink().write(resp);
+  }
+}
+
 /**
  * Naming unregister request handler.
  */
@@ -266,3 +484,37 @@ class NamingUnregisterRequestHandler implements EventHandler<NamingUnregisterReq
     server.unregister(value.getIdentifier());
   }
 }
+
+/**
+ * Naming subscribe request handler.
+ */
+class NamingSubscribeRequestHandler implements EventHandler<NamingSubscribeRequest> {
+
+  private final NameServerImpl server;
+
+  NamingSubscribeRequestHandler(final NameServerImpl server) {
+    this.server = server;
+  }
+
+  @Override
+  public void onNext(final NamingSubscribeRequest value) {
+    server.subscribe(value.getPrefix(), value.getLink());
+  }
+}
+
+/**
+ * Naming unsubscribe request handler.
+ */
+class NamingUnsubscribeRequestHandler implements EventHandler<NamingUnsubscribeRequest> {
+
+  private final NameServerImpl server;
+
+  NamingUnsubscribeRequestHandler(final NameServerImpl server) {
+    this.server = server;
+  }
+
+  @Override
+  public void onNext(final NamingUnsubscribeRequest value) {
+    server.unsubscribe(value.getPrefix(), value.getLink());
+  }
+}
@@ -37,4 +37,9 @@ public class NameServerParameters {
   public class NameServerIdentifierFactory implements Name<IdentifierFactory> {
   }
 
+  @NamedParameter(doc = "number of threads answering lookup requests", default_value = "4",
+      short_name = "name_lookup_threads")
+  public class NameServerLookupThreads implements Name<Integer> {
+  }
+
 }
@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.naming;
+
+import org.apache.reef.io.naming.NameAssignment;
+import org.apache.reef.io.network.naming.serialization.NamingChangeNotification;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.Identifier;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Naming change notification handler, which applies pushed changes to a name cache.
+ */
+class NamingChangeNotificationHandler implements EventHandler<NamingChangeNotification> {
+  private static final Logger LOG = Logger.getLogger(NamingChangeNotificationHandler.class.getName());
+
+  private final NameCache cache;
+
+  NamingChangeNotificationHandler(final NameCache cache) {
+    this.cache = cache;
+  }
+
+  @Override
+  public void onNext(final NamingChangeNotification value) {
+    LOG.log(Level.FINE, "{0} registered, {1} unregistered",
+        new Object[]{value.getRegistered().size(), value.getUnregistered().size()});
+    for (final NameAssignment na : value.getRegistered()) {
+      cache.put(na.getIdentifier(), na.getAddress());
+    }
+    for (final Identifier id : value.getUnregistered()) {
+      cache.invalidate(id);
+    }
+  }
+}
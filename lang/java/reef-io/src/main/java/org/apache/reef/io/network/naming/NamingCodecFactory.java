@@ -32,7 +32,7 @@ import java.util.Map;
 final class NamingCodecFactory {
 
   /**
-   * Creates a codec only for lookup.
+   * Creates a codec only for lookup and name change subscriptions.
    *
    * @param factory an identifier factory
    * @return a codec
@@ -42,6 +42,9 @@ final class NamingCodecFactory {
         = new HashMap<>();
     clazzToCodecMap.put(NamingLookupRequest.class, new NamingLookupRequestCodec(factory));
     clazzToCodecMap.put(NamingLookupResponse.class, new NamingLookupResponseCodec(factory));
+    clazzToCodecMap.put(NamingSubscribeRequest.class, new NamingSubscribeRequestCodec());
+    clazzToCodecMap.put(NamingUnsubscribeRequest.class, new NamingUnsubscribeRequestCodec());
+    clazzToCodecMap.put(NamingChangeNotification.class, new NamingChangeNotificationCodec(factory));
     final Codec<NamingMessage> codec = new MultiCodec<>(clazzToCodecMap);
     return codec;
   }
@@ -58,6 +61,8 @@ final class NamingCodecFactory {
     clazzToCodecMap.put(NamingRegisterRequest.class, new NamingRegisterRequestCodec(factory));
     clazzToCodecMap.put(NamingRegisterResponse.class,
         new NamingRegisterResponseCodec(new NamingRegisterRequestCodec(factory)));
+    clazzToCodecMap.put(NamingBatchRegisterRequest.class, new NamingBatchRegisterRequestCodec(factory));
+    clazzToCodecMap.put(NamingBatchRegisterResponse.class, new NamingBatchRegisterResponseCodec());
     clazzToCodecMap.put(NamingUnregisterRequest.class, new NamingUnregisterRequestCodec(factory));
     final Codec<NamingMessage> codec = new MultiCodec<>(clazzToCodecMap);
     return codec;
@@ -74,9 +79,14 @@ final class NamingCodecFactory {
         = new HashMap<>();
     clazzToCodecMap.put(NamingLookupRequest.class, new NamingLookupRequestCodec(factory));
     clazzToCodecMap.put(NamingLookupResponse.class, new NamingLookupResponseCodec(factory));
+    clazzToCodecMap.put(NamingSubscribeRequest.class, new NamingSubscribeRequestCodec());
+    clazzToCodecMap.put(NamingUnsubscribeRequest.class, new NamingUnsubscribeRequestCodec());
+    clazzToCodecMap.put(NamingChangeNotification.class, new NamingChangeNotificationCodec(factory));
     clazzToCodecMap.put(NamingRegisterRequest.class, new NamingRegisterRequestCodec(factory));
     clazzToCodecMap.put(NamingRegisterResponse.class,
         new NamingRegisterResponseCodec(new NamingRegisterRequestCodec(factory)));
+    clazzToCodecMap.put(NamingBatchRegisterRequest.class, new NamingBatchRegisterRequestCodec(factory));
+    clazzToCodecMap.put(NamingBatchRegisterResponse.class, new NamingBatchRegisterResponseCodec());
     clazzToCodecMap.put(NamingUnregisterRequest.class, new NamingUnregisterRequestCodec(factory));
     final Codec<NamingMessage> codec = new MultiCodec<>(clazzToCodecMap);
     return codec;
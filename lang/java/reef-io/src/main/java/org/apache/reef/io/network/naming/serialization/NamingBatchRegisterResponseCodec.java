@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.naming.serialization;
+
+import org.apache.reef.wake.remote.Codec;
+
+/**
+ * Naming batch registration response codec. The response has no content.
+ */
+public final class NamingBatchRegisterResponseCodec implements Codec<NamingBatchRegisterResponse> {
+
+  private static final byte[] EMPTY = new byte[0];
+
+  /**
+   * Encodes a naming batch registration response to bytes.
+   *
+   * @param obj the naming batch registration response
+   * @return an empty byte array
+   */
+  @Override
+  public byte[] encode(final NamingBatchRegisterResponse obj) {
+    return EMPTY;
+  }
+
+  /**
+   * Decodes a naming batch registration response from the bytes.
+   *
+   * @param buf the byte array
+   * @return a naming batch registration response
+   */
+  @Override
+  public NamingBatchRegisterResponse decode(final byte[] buf) {
+    return new NamingBatchRegisterResponse();
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.naming.serialization;
+
+import org.apache.reef.io.naming.NameAssignment;
+import org.apache.reef.io.network.naming.NameAssignmentTuple;
+import org.apache.reef.io.network.naming.avro.AvroNamingAssignment;
+import org.apache.reef.io.network.naming.avro.AvroNamingChangeNotification;
+import org.apache.reef.wake.Identifier;
+import org.apache.reef.wake.IdentifierFactory;
+import org.apache.reef.wake.remote.Codec;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Naming change notification codec.
+ */
+public final class NamingChangeNotificationCodec implements Codec<NamingChangeNotification> {
+
+  private final IdentifierFactory factory;
+
+  /**
+   * Constructs a naming change notification codec.
+   *
+   * @param factory the identifier factory
+   */
+  public NamingChangeNotificationCodec(final IdentifierFactory factory) {
+    this.factory = factory;
+  }
+
+  /**
+   * Encodes the naming change notification to bytes.
+   *
+   * @param obj the naming change notification
+   * @return a byte array
+   */
+  @Override
+  public byte[] encode(final NamingChangeNotification obj) {
+    final List<AvroNamingAssignment> registered = new ArrayList<>(obj.getRegistered().size());
+    for (final NameAssignment nameAssignment : obj.getRegistered()) {
+      registered.add(AvroNamingAssignment.newBuilder()
+          .setId(nameAssignment.getIdentifier().toString())
+          .setHost(nameAssignment.getAddress().getHostName())
+          .setPort(nameAssignment.getAddress().getPort())
+          .build());
+    }
+    final List<CharSequence> unregistered = new ArrayList<>(obj.getUnregistered().size());
+    for (final Identifier id : obj.getUnregistered()) {
+      unregistered.add(id.toString());
+    }
+    return AvroUtils.toBytes(AvroNamingChangeNotification.newBuilder()
+        .setRegistered(registered)
+        .setUnregistered(unregistered)
+        .build(), AvroNamingChangeNotification.class);
+  }
+
+  /**
+   * Decodes the bytes to a naming change notification.
+   *
+   * @param buf the byte array
+   * @return a naming change notification
+   */
+  @Override
+  public NamingChangeNotification decode(final byte[] buf) {
+    final AvroNamingChangeNotification result = AvroUtils.fromBytes(buf, AvroNamingChangeNotification.class);
+    final List<NameAssignment> registered = new ArrayList<>(result.getRegistered().size());
+    for (final AvroNamingAssignment tuple : result.getRegistered()) {
+      registered.add(new NameAssignmentTuple(
+          factory.getNewInstance(tuple.getId().toString()),
+          new InetSocketAddress(tuple.getHost().toString(), tuple.getPort())));
+    }
+    final List<Identifier> unregistered = new ArrayList<>(result.getUnregistered().size());
+    for (final CharSequence id : result.getUnregistered()) {
+      unregistered.add(factory.getNewInstance(id.toString()));
+    }
+    return new NamingChangeNotification(registered, unregistered);
+  }
+}
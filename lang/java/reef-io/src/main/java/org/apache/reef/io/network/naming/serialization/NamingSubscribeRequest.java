@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.naming.serialization;
+
+/**
+ * Naming subscription request. The name server answers it with a {@link NamingChangeNotification}
+ * of the current registrations under the prefix, and then pushes every change under the prefix.
+ */
+public class NamingSubscribeRequest extends NamingMessage {
+  private final String prefix;
+
+  /**
+   * Constructs a naming subscription request.
+   *
+   * @param prefix the identifier prefix
+   */
+  public NamingSubscribeRequest(final String prefix) {
+    this.prefix = prefix;
+  }
+
+  /**
+   * Gets the identifier prefix.
+   *
+   * @return an identifier prefix
+   */
+  public String getPrefix() {
+    return prefix;
+  }
+}
@@ -18,6 +18,7 @@
  */
 package org.apache.reef.io.network.group;
 
+import org.apache.reef.io.network.group.impl.GroupCommNameTable;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
 import org.apache.reef.io.network.group.impl.GroupCommunicationMessageCodec;
 import org.apache.reef.io.network.group.impl.utils.Utils;
@@ -33,7 +34,9 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.util.List;
 import java.util.Random;
+import java.util.Set;
 
 /**
  *
@@ -72,4 +75,113 @@ public class GroupCommunicationMessageCodecTest {
         codec.decodeFromStream(new DataInputStream(new ByteArrayInputStream(baos.toByteArray())));
     Assert.assertEquals("decodeFromStream(encodeToStream(msg)): ", expMsg, actMsg2);
   }
+
+  @Test(timeout = 1000)
+  public final void testCompactHeaderOffByDefault() throws InjectionException {
+    final GroupCommunicationMessageCodec codec =
+        Tang.Factory.getTang().newInjector().getInstance(GroupCommunicationMessageCodec.class);
+    final GroupCommunicationMessage msg = Utils.bldVersionedGCM(GroupName.class, OperName.class,
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.Reduce, "From", 0, "To", 1, new byte[8]);
+    Assert.assertArrayEquals("default header: ", new GroupCommunicationMessageCodec().encode(msg), codec.encode(msg));
+  }
+
+  @Test(timeout = 1000)
+  public final void testCompactHeader() {
+    final GroupCommNameTable nameTable = new GroupCommNameTable();
+    nameTable.register(GroupName.class.getName());
+    nameTable.register(OperName.class.getName());
+    nameTable.register("From");
+    nameTable.freeze();
+    nameTable.register("To");
+    Assert.assertEquals("name registered after freeze: ", 3, nameTable.getId("To"));
+
+    final GroupCommunicationMessage expMsg = Utils.bldVersionedGCM(GroupName.class, OperName.class,
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.Reduce, "From", 0, "To", 1, new byte[8]);
+    final GroupCommunicationMessageCodec codec = new GroupCommunicationMessageCodec(nameTable);
+    final byte[] compact = codec.encode(expMsg);
+    final GroupCommunicationMessage actMsg = codec.decode(compact);
+    Assert.assertEquals("decode(encode(msg)): ", expMsg, actMsg);
+    Assert.assertSame("interned group name: ", nameTable.getName(nameTable.getId(GroupName.class.getName())),
+        actMsg.getGroupname());
+    Assert.assertSame("interned destination: ", nameTable.getName(3), actMsg.getDestid());
+    Assert.assertTrue("compact header is smaller: ",
+        compact.length < new GroupCommunicationMessageCodec().encode(expMsg).length);
+  }
+
+  @Test(timeout = 1000)
+  public final void testNamesAddedAfterDestination() {
+    final GroupCommNameTable driverTable = new GroupCommNameTable();
+    driverTable.register(GroupName.class.getName());
+    driverTable.register(OperName.class.getName());
+    final Set<String> frozenNames = driverTable.freeze();
+    driverTable.register("Early");
+    final List<String> earlyNames = driverTable.getAddedNames();
+    driverTable.register("Late");
+    final List<String> lateNames = driverTable.getAddedNames();
+
+    final GroupCommNameTable earlyTable = evaluatorTable(frozenNames, earlyNames);
+    final GroupCommNameTable lateTable = evaluatorTable(frozenNames, lateNames);
+    Assert.assertEquals("added name keeps the driver ID: ", driverTable.getId("Late"), lateTable.getId("Late"));
+    Assert.assertEquals("name added after this task: ", -1, earlyTable.getId("Late"));
+
+    final GroupCommunicationMessage toEarly = Utils.bldVersionedGCM(GroupName.class, OperName.class,
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.Reduce, "Late", 0, "Early", 1, new byte[8]);
+    Assert.assertEquals("Late to Early: ", toEarly,
+        new GroupCommunicationMessageCodec(earlyTable).decode(new GroupCommunicationMessageCodec(lateTable)
+            .encode(toEarly)));
+    final GroupCommunicationMessage toLate = Utils.bldVersionedGCM(GroupName.class, OperName.class,
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.Broadcast, "Early", 0, "Late", 1, new byte[8]);
+    Assert.assertEquals("Early to Late: ", toLate,
+        new GroupCommunicationMessageCodec(lateTable).decode(new GroupCommunicationMessageCodec(earlyTable)
+            .encode(toLate)));
+  }
+
+  @Test(timeout = 1000)
+  public final void testDecodesBothHeaders() {
+    final GroupCommNameTable nameTable = new GroupCommNameTable();
+    nameTable.register(GroupName.class.getName());
+    nameTable.freeze();
+    final GroupCommunicationMessage msg = Utils.bldVersionedGCM(GroupName.class, OperName.class,
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.Gather, "From", 0, "To", 1, new byte[8]);
+    final GroupCommunicationMessageCodec compactCodec = new GroupCommunicationMessageCodec(nameTable, true);
+    final GroupCommunicationMessageCodec stringCodec = new GroupCommunicationMessageCodec(nameTable, false);
+    Assert.assertEquals("string header: ", msg, compactCodec.decode(stringCodec.encode(msg)));
+    Assert.assertEquals("compact header: ", msg, stringCodec.decode(compactCodec.encode(msg)));
+  }
+
+  private static GroupCommNameTable evaluatorTable(final Set<String> frozenNames, final List<String> addedNames) {
+    final GroupCommNameTable nameTable = new GroupCommNameTable();
+    for (final String name : frozenNames) {
+      nameTable.register(name);
+    }
+    nameTable.freeze();
+    nameTable.addNames(addedNames);
+    return nameTable;
+  }
+
+  @Test(timeout = 1000)
+  public final void testChunkFlag() {
+    final GroupCommNameTable nameTable = new GroupCommNameTable();
+    nameTable.register(GroupName.class.getName());
+    nameTable.freeze();
+
+    final GroupCommunicationMessage chunk = Utils.bldChunkGCM(GroupName.class, OperName.class,
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.TopologyChanges, "From", 0, "To", 1, new byte[12],
+        new byte[8]);
+    final GroupCommunicationMessage plain = Utils.bldVersionedGCM(GroupName.class, OperName.class,
+        ReefNetworkGroupCommProtos.GroupCommMessage.Type.TopologyChanges, "From", 0, "To", 1, new byte[12],
+        new byte[8]);
+    Assert.assertFalse("chunk flag is part of equality: ", plain.equals(chunk));
+    assertChunkFlagRoundTrip(new GroupCommunicationMessageCodec(), chunk, plain);
+    assertChunkFlagRoundTrip(new GroupCommunicationMessageCodec(nameTable), chunk, plain);
+  }
+
+  private static void assertChunkFlagRoundTrip(final GroupCommunicationMessageCodec codec,
+                                               final GroupCommunicationMessage chunk,
+                                               final GroupCommunicationMessage plain) {
+    final GroupCommunicationMessage actChunk = codec.decode(codec.encode(chunk));
+    Assert.assertTrue("decoded chunk is flagged: ", actChunk.isChunk());
+    Assert.assertEquals("decode(encode(chunk)): ", chunk, actChunk);
+    Assert.assertFalse("decoded plain msg is not flagged: ", codec.decode(codec.encode(plain)).isChunk());
+  }
 }
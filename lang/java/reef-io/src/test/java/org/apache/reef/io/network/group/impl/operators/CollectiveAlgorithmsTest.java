@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.operators;
+
+import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
+import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.io.serialization.SerializableCodec;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link CollectiveAlgorithms}, with tasks running on threads that exchange messages in memory.
+ */
+public final class CollectiveAlgorithmsTest {
+
+  private static final int MAX_GROUP_SIZE = 9;
+
+  private final Codec<Integer> codec = new SerializableCodec<>();
+
+  private final ReduceFunction<Integer> sumFunction = new ReduceFunction<Integer>() {
+    @Override
+    public Integer apply(final Iterable<Integer> elements) {
+      int sum = 0;
+      for (final Integer element : elements) {
+        sum += element;
+      }
+      return sum;
+    }
+  };
+
+  /**
+   * Check that every task gets the sum of all elements, for groups of power of two and other sizes.
+   */
+  @Test
+  public void testAllReduce() throws Exception {
+    for (int size = 1; size <= MAX_GROUP_SIZE; size++) {
+      final List<String> members = getMembers(size);
+      final List<Integer> results = runOnAllTasks(members, new TaskBody<Integer>() {
+        @Override
+        public Integer run(final PeerChannel channel, final int rank) throws Exception {
+          return CollectiveAlgorithms.allReduce(channel, members, members.get(rank), rank + 1, sumFunction, codec);
+        }
+      });
+      for (final Integer result : results) {
+        assertEquals("allreduce result in a group of " + size, size * (size + 1) / 2, (int) result);
+      }
+    }
+  }
+
+  /**
+   * Check that every task gets the elements of all tasks in rank order.
+   */
+  @Test
+  public void testAllGather() throws Exception {
+    for (int size = 1; size <= MAX_GROUP_SIZE; size++) {
+      final List<String> members = getMembers(size);
+      final List<Integer> expected = new ArrayList<>(size);
+      for (int rank = 0; rank < size; rank++) {
+        expected.add(rank * 10);
+      }
+      final List<List<Integer>> results = runOnAllTasks(members, new TaskBody<List<Integer>>() {
+        @Override
+        public List<Integer> run(final PeerChannel channel, final int rank) throws Exception {
+          return CollectiveAlgorithms.allGather(channel, members, members.get(rank), rank * 10, codec);
+        }
+      });
+      for (final List<Integer> result : results) {
+        assertEquals("allgather result in a group of " + size, expected, result);
+      }
+    }
+  }
+
+  /**
+   * Check that every task gets its share of the element-wise sums, including tasks that get no elements.
+   */
+  @Test
+  public void testReduceScatter() throws Exception {
+    for (int size = 1; size <= MAX_GROUP_SIZE; size++) {
+      final List<String> members = getMembers(size);
+      final List<Integer> counts = new ArrayList<>(size);
+      int total = 0;
+      for (int rank = 0; rank < size; rank++) {
+        counts.add(rank % 3);
+        total += rank % 3;
+      }
+      final int numElements = total;
+      final List<List<Integer>> results = runOnAllTasks(members, new TaskBody<List<Integer>>() {
+        @Override
+        public List<Integer> run(final PeerChannel channel, final int rank) throws Exception {
+          final List<Integer> elements = new ArrayList<>(numElements);
+          for (int i = 0; i < numElements; i++) {
+            elements.add(rank * 100 + i);
+          }
+          return CollectiveAlgorithms.reduceScatter(channel, members, members.get(rank), elements, counts,
+              sumFunction, codec);
+        }
+      });
+      int offset = 0;
+      for (int rank = 0; rank < size; rank++) {
+        final List<Integer> expected = new ArrayList<>(counts.get(rank));
+        for (int i = offset; i < offset + counts.get(rank); i++) {
+          expected.add(100 * size * (size - 1) / 2 + size * i);
+        }
+        assertEquals("reducescatter result of task " + rank + " in a group of " + size, expected, results.get(rank));
+        offset += counts.get(rank);
+      }
+    }
+  }
+
+  private static List<String> getMembers(final int size) {
+    final String[] members = new String[size];
+    for (int rank = 0; rank < size; rank++) {
+      members[rank] = "task" + rank;
+    }
+    return Arrays.asList(members);
+  }
+
+  private static <T> List<T> runOnAllTasks(final List<String> members, final TaskBody<T> body) throws Exception {
+    final ConcurrentMap<String, BlockingQueue<byte[][]>> links = new ConcurrentHashMap<>();
+    final ExecutorService pool = Executors.newFixedThreadPool(members.size());
+    try {
+      final List<Future<T>> futures = new ArrayList<>(members.size());
+      for (int rank = 0; rank < members.size(); rank++) {
+        final int taskRank = rank;
+        final PeerChannel channel = new InMemoryChannel(members.get(rank), links);
+        futures.add(pool.submit(new Callable<T>() {
+          @Override
+          public T call() throws Exception {
+            return body.run(channel, taskRank);
+          }
+        }));
+      }
+      final List<T> results = new ArrayList<>(members.size());
+      for (final Future<T> future : futures) {
+        results.add(future.get(10, TimeUnit.SECONDS));
+      }
+      return results;
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private interface TaskBody<T> {
+    T run(PeerChannel channel, int rank) throws Exception;
+  }
+
+  private static final class InMemoryChannel implements PeerChannel {
+
+    private final String selfId;
+    private final ConcurrentMap<String, BlockingQueue<byte[][]>> links;
+
+    private InMemoryChannel(final String selfId, final ConcurrentMap<String, BlockingQueue<byte[][]>> links) {
+      this.selfId = selfId;
+      this.links = links;
+    }
+
+    @Override
+    public void send(final String dstId, final byte[]... data) {
+      getLink(selfId, dstId).add(data);
+    }
+
+    @Override
+    public byte[][] receive(final String srcId) throws InterruptedException {
+      return getLink(srcId, selfId).take();
+    }
+
+    private BlockingQueue<byte[][]> getLink(final String srcId, final String dstId) {
+      final String key = srcId + "->" + dstId;
+      links.putIfAbsent(key, new LinkedBlockingQueue<byte[][]>());
+      return links.get(key);
+    }
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.operators;
+
+import org.apache.reef.exception.evaluator.NetworkException;
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.utils.Utils;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos.GroupCommMessage.Type;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the timeout, failure and reset handling of {@link PeerExchange}.
+ */
+public final class PeerExchangeTest {
+
+  private static final long LONG_TIMEOUT = 60000;
+  private static final long SHORT_TIMEOUT = 100;
+
+  @NamedParameter
+  static final class GroupName implements Name<String> {
+  }
+
+  @NamedParameter
+  static final class OperName implements Name<String> {
+  }
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Check that a receive fails once it waited for longer than the timeout.
+   */
+  @Test
+  public void testReceiveTimesOut() throws Exception {
+    final PeerExchange exchange = newExchange("0", new Sender(null), SHORT_TIMEOUT);
+    exchange.begin(Arrays.asList("0", "1"));
+    try {
+      exchange.receive("1");
+      fail("receive should time out");
+    } catch (final NetworkException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("Timed out"));
+    }
+  }
+
+  /**
+   * Check that a failure notification wakes up a waiting receive, long before the timeout.
+   */
+  @Test
+  public void testFailureWakesUpReceive() throws Exception {
+    final PeerExchange exchange = newExchange("0", new Sender(null), LONG_TIMEOUT);
+    exchange.begin(Arrays.asList("0", "1"));
+    final Future<byte[][]> result = executor.submit(new Callable<byte[][]>() {
+      @Override
+      public byte[][] call() throws Exception {
+        return exchange.receive("1");
+      }
+    });
+    Thread.sleep(SHORT_TIMEOUT);
+    exchange.onControlMessage(Utils.bldVersionedGCM(GroupName.class, OperName.class, Type.ChildDead, "1", 0, "0", 0));
+    try {
+      result.get(LONG_TIMEOUT / 2, TimeUnit.MILLISECONDS);
+      fail("receive should fail after the failure notification");
+    } catch (final ExecutionException e) {
+      assertTrue(e.getCause().toString(), e.getCause() instanceof NetworkException);
+    }
+  }
+
+  /**
+   * Check that a message of an exchange that was cut short, delivered once the members changed,
+   * is not taken for a message of the new exchange.
+   */
+  @Test
+  public void testMembersChangeDropsStaleMessages() throws Exception {
+    final LoopbackSender sender = new LoopbackSender();
+    final PeerExchange exchange0 = newExchange("0", sender, SHORT_TIMEOUT);
+    final PeerExchange exchange1 = newExchange("1", new Sender(null), SHORT_TIMEOUT);
+    sender.setDestination(exchange1);
+
+    final List<String> oldMembers = Arrays.asList("0", "1", "2");
+    exchange0.begin(oldMembers);
+    exchange1.begin(oldMembers);
+    sender.hold();
+    exchange0.send("1", new byte[]{1});
+
+    final List<String> newMembers = Arrays.asList("0", "1");
+    exchange0.begin(newMembers);
+    exchange1.begin(newMembers);
+    sender.release();
+    try {
+      exchange1.receive("0");
+      fail("the message of the previous exchange should be dropped");
+    } catch (final NetworkException e) {
+      assertTrue(e.getMessage(), e.getMessage().contains("Timed out"));
+    }
+
+    exchange0.send("1", new byte[]{2});
+    assertArrayEquals(new byte[]{2}, exchange1.receive("0")[0]);
+  }
+
+  private static PeerExchange newExchange(final String selfId, final Sender sender, final long timeout) {
+    return new PeerExchange(GroupName.class, OperName.class, selfId, 0, sender, Type.AllReduce, timeout);
+  }
+
+  /**
+   * Delivers every message directly to the {@link PeerExchange} of the destination,
+   * or holds them back until they are released.
+   */
+  private static final class LoopbackSender extends Sender {
+
+    private final List<GroupCommunicationMessage> held = new ArrayList<>();
+    private PeerExchange destination;
+    private boolean holding = false;
+
+    LoopbackSender() {
+      super(null);
+    }
+
+    void setDestination(final PeerExchange destination) {
+      this.destination = destination;
+    }
+
+    void hold() {
+      holding = true;
+    }
+
+    void release() {
+      holding = false;
+      for (final GroupCommunicationMessage msg : held) {
+        destination.onNext(msg);
+      }
+      held.clear();
+    }
+
+    @Override
+    public void send(final GroupCommunicationMessage msg) {
+      if (holding) {
+        held.add(msg);
+      } else {
+        destination.onNext(msg);
+      }
+    }
+  }
+}
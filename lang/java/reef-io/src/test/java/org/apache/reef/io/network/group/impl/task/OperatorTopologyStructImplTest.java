@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.task;
+
+import org.apache.reef.io.network.group.impl.GroupCommunicationMessage;
+import org.apache.reef.io.network.group.impl.operators.Sender;
+import org.apache.reef.io.network.group.impl.utils.Utils;
+import org.apache.reef.io.network.group.impl.vector.IntArrayCodec;
+import org.apache.reef.io.network.group.impl.vector.IntArrayReduceFunction;
+import org.apache.reef.io.network.proto.ReefNetworkGroupCommProtos.GroupCommMessage.Type;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for the pipelined Broadcast and Reduce of {@link OperatorTopologyStructImpl},
+ * with every task of a tree running in this JVM.
+ */
+public final class OperatorTopologyStructImplTest {
+
+  private static final int CHUNK_SIZE = 64;
+  private static final int VECTOR_LENGTH = 100;
+  private static final int FAILED_CHUNK = 2;
+  private static final long TIMEOUT_SECONDS = 10;
+
+  @NamedParameter
+  static final class GroupName implements Name<String> {
+  }
+
+  @NamedParameter
+  static final class OperName implements Name<String> {
+  }
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+  private final IntArrayCodec codec = new IntArrayCodec();
+  private final IntArrayReduceFunction sum = new IntArrayReduceFunction.Sum();
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Check that every task of a tree receives a broadcast that is pipelined in many chunks.
+   */
+  @Test
+  public void testBroadcast() throws Exception {
+    final OperatorTopologyStructImpl[] tasks = buildTree(new LocalSender(), -1, 0, 0, 1, 1, 2, 2);
+    final byte[] data = new byte[CHUNK_SIZE * 15 + 1];
+    new Random().nextBytes(data);
+    final List<Future<byte[]>> received = receiveBroadcast(tasks, 1, 2, 3, 4, 5, 6);
+    sendBroadcast(tasks[0], data);
+    for (final Future<byte[]> future : received) {
+      assertArrayEquals(data, future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+  }
+
+  /**
+   * Check that the root of a tree receives the element-wise sum of the vectors of all other tasks,
+   * reduced chunk by chunk.
+   */
+  @Test
+  public void testReduce() throws Exception {
+    final OperatorTopologyStructImpl[] tasks = buildTree(new LocalSender(), -1, 0, 0, 1, 1, 2, 2);
+    final List<Future<Void>> sent = sendReduce(tasks, 1, 2, 3, 4, 5, 6);
+    final int[] expected = new int[VECTOR_LENGTH];
+    Arrays.fill(expected, 1 + 2 + 3 + 4 + 5 + 6);
+    assertArrayEquals(expected, receiveReduce(tasks[0]).get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    awaitAll(sent);
+  }
+
+  /**
+   * Check that an interior task aborts the broadcast for its children when its parent
+   * dies midway, so that neither waits forever for the remaining chunks.
+   */
+  @Test
+  public void testBroadcastParentDiesMidway() throws Exception {
+    final LocalSender sender = new LocalSender("0", "1", Type.ParentDead);
+    final OperatorTopologyStructImpl[] tasks = buildTree(sender, -1, 0, 1);
+    final List<Future<byte[]>> received = receiveBroadcast(tasks, 1, 2);
+    sendBroadcast(tasks[0], new byte[CHUNK_SIZE * 8]);
+    for (final Future<byte[]> future : received) {
+      assertNull(future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+  }
+
+  /**
+   * Check that the whole reduction fails when a child dies midway, instead of reducing
+   * the remaining chunks without it, and that the other children still finish sending.
+   */
+  @Test
+  public void testReduceChildDiesMidway() throws Exception {
+    final LocalSender sender = new LocalSender("2", "0", Type.ChildDead);
+    final OperatorTopologyStructImpl[] tasks = buildTree(sender, -1, 0, 0);
+    final List<Future<Void>> sent = sendReduce(tasks, 1, 2);
+    assertNull(receiveReduce(tasks[0]).get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    sent.get(0).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Check that an interior task aborts its reduction towards its parent when one of its
+   * children dies midway, so that the failure reaches the root.
+   */
+  @Test
+  public void testReduceAbortedByInteriorTask() throws Exception {
+    final LocalSender sender = new LocalSender("2", "1", Type.ChildDead);
+    final OperatorTopologyStructImpl[] tasks = buildTree(sender, -1, 0, 1, 0);
+    final List<Future<Void>> sent = sendReduce(tasks, 1, 2, 3);
+    assertNull(receiveReduce(tasks[0]).get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    sent.get(0).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    sent.get(2).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+  }
+
+  /**
+   * Build a tree of tasks, where task i is named "i" and {@code parents[i]} is the index
+   * of its parent, or -1 for the root.
+   */
+  private static OperatorTopologyStructImpl[] buildTree(final LocalSender sender, final int... parents) {
+    final OperatorTopologyStructImpl[] tasks = new OperatorTopologyStructImpl[parents.length];
+    for (int i = 0; i < tasks.length; i++) {
+      tasks[i] = new OperatorTopologyStructImpl(GroupName.class, OperName.class, Integer.toString(i), "driver",
+          sender, 0, CHUNK_SIZE, null);
+    }
+    for (int i = 0; i < tasks.length; i++) {
+      if (parents[i] >= 0) {
+        final String parentId = Integer.toString(parents[i]);
+        final String childId = Integer.toString(i);
+        tasks[i].update(Utils.bldVersionedGCM(GroupName.class, OperName.class, Type.ParentAdd, parentId, 0,
+            childId, 0));
+        tasks[parents[i]].update(Utils.bldVersionedGCM(GroupName.class, OperName.class, Type.ChildAdd, childId, 0,
+            parentId, 0));
+      }
+    }
+    sender.setTasks(tasks);
+    return tasks;
+  }
+
+  private void sendBroadcast(final OperatorTopologyStructImpl root, final byte[] data) {
+    executor.submit(new Runnable() {
+      @Override
+      public void run() {
+        root.sendToChildren(data, Type.Broadcast);
+      }
+    });
+  }
+
+  private List<Future<byte[]>> receiveBroadcast(final OperatorTopologyStructImpl[] tasks, final int... receivers) {
+    final List<Future<byte[]>> retVal = new ArrayList<>(receivers.length);
+    for (final int receiver : receivers) {
+      retVal.add(executor.submit(new Callable<byte[]>() {
+        @Override
+        public byte[] call() {
+          return tasks[receiver].recvFromParentAndSendToChildren(Type.Broadcast);
+        }
+      }));
+    }
+    return retVal;
+  }
+
+  /**
+   * Let every task in {@code senders} reduce a vector filled with its own index,
+   * together with the data of its children, and send the result to its parent.
+   */
+  private List<Future<Void>> sendReduce(final OperatorTopologyStructImpl[] tasks, final int... senders) {
+    final List<Future<Void>> retVal = new ArrayList<>(senders.length);
+    for (final int index : senders) {
+      retVal.add(executor.submit(new Callable<Void>() {
+        @Override
+        public Void call() {
+          final int[] vector = new int[VECTOR_LENGTH];
+          Arrays.fill(vector, index);
+          tasks[index].recvFromChildrenAndSendToParent(vector, sum, codec);
+          return null;
+        }
+      }));
+    }
+    return retVal;
+  }
+
+  private Future<int[]> receiveReduce(final OperatorTopologyStructImpl root) {
+    return executor.submit(new Callable<int[]>() {
+      @Override
+      public int[] call() {
+        return root.recvFromChildren(sum, codec);
+      }
+    });
+  }
+
+  private static void awaitAll(final List<? extends Future<?>> futures) throws Exception {
+    for (final Future<?> future : futures) {
+      future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+  }
+
+  /**
+   * Delivers every message straight to the task it is addressed to. Optionally lets
+   * one task die midway: its {@link #FAILED_CHUNK}-th chunk to a given task is replaced
+   * by the control message that announces its death, and nothing it sends afterwards
+   * is delivered.
+   */
+  private static final class LocalSender extends Sender {
+
+    private final String deadId;
+    private final String notifiedId;
+    private final Type deathType;
+
+    private OperatorTopologyStructImpl[] tasks;
+    private int chunksToNotified = 0;
+    private boolean dead = false;
+
+    LocalSender() {
+      this(null, null, null);
+    }
+
+    LocalSender(final String deadId, final String notifiedId, final Type deathType) {
+      super(null);
+      this.deadId = deadId;
+      this.notifiedId = notifiedId;
+      this.deathType = deathType;
+    }
+
+    void setTasks(final OperatorTopologyStructImpl[] tasks) {
+      this.tasks = tasks;
+    }
+
+    @Override
+    public synchronized void send(final GroupCommunicationMessage msg) {
+      final OperatorTopologyStructImpl dst = tasks[Integer.parseInt(msg.getDestid())];
+      if (msg.getSrcid().equals(deadId)) {
+        if (dead) {
+          return;
+        }
+        if (msg.getDestid().equals(notifiedId) && msg.isChunk() && chunksToNotified++ == FAILED_CHUNK) {
+          dead = true;
+          dst.addAsData(Utils.bldVersionedGCM(GroupName.class, OperName.class, deathType, deadId, 0,
+              notifiedId, 0));
+          return;
+        }
+      }
+      dst.addAsData(msg);
+    }
+  }
+}
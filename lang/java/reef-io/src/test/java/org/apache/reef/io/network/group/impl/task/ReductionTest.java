@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.task;
+
+import org.apache.reef.io.network.group.api.operators.Reduce.InPlaceReduceFunction;
+import org.apache.reef.io.network.group.api.operators.Reduce.ReduceFunction;
+import org.apache.reef.io.serialization.Codec;
+import org.apache.reef.io.serialization.SerializableCodec;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests for {@link Reduction}.
+ */
+public final class ReductionTest {
+
+  private static final int NUM_VALUES = 100;
+
+  private final Codec<long[]> codec = new SerializableCodec<>();
+
+  private final ReduceFunction<long[]> sumFunction = new ReduceFunction<long[]>() {
+    @Override
+    public long[] apply(final Iterable<long[]> elements) {
+      final long[] sum = new long[1];
+      for (final long[] element : elements) {
+        sum[0] += element[0];
+      }
+      return sum;
+    }
+  };
+
+  private final InPlaceReduceFunction<long[]> inPlaceSumFunction = new InPlaceReduceFunction<long[]>() {
+    @Override
+    public long[] apply(final Iterable<long[]> elements) {
+      return sumFunction.apply(elements);
+    }
+
+    @Override
+    public long[] reduceInto(final long[] accumulator, final long[] element) {
+      accumulator[0] += element[0];
+      return accumulator;
+    }
+  };
+
+  /**
+   * Check that nothing is reduced when no value is added.
+   */
+  @Test
+  public void testEmpty() {
+    assertNull(new Reduction<>(sumFunction, codec, null).get());
+  }
+
+  /**
+   * Check reduction on the calling thread, with both kinds of reduce functions.
+   */
+  @Test
+  public void testSequential() {
+    assertEquals(expectedSum(), reduce(sumFunction, null));
+    assertEquals(expectedSum(), reduce(inPlaceSumFunction, null));
+  }
+
+  /**
+   * Check reduction on a worker pool, with both kinds of reduce functions.
+   */
+  @Test
+  public void testParallel() {
+    final ExecutorService executor = Reduction.newExecutor("ReductionTest", 4);
+    try {
+      assertEquals(expectedSum(), reduce(sumFunction, executor));
+      assertEquals(expectedSum(), reduce(inPlaceSumFunction, executor));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private long reduce(final ReduceFunction<long[]> reduceFunction, final ExecutorService executor) {
+    final Reduction<long[]> reduction = new Reduction<>(reduceFunction, codec, executor);
+    for (int i = 1; i <= NUM_VALUES; i++) {
+      reduction.add(codec.encode(new long[]{i}));
+    }
+    return reduction.get()[0];
+  }
+
+  private static long expectedSum() {
+    return (long) NUM_VALUES * (NUM_VALUES + 1) / 2;
+  }
+}
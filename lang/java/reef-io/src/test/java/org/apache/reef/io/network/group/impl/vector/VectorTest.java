@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.group.impl.vector;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for the primitive-array codecs and reduce functions.
+ */
+public final class VectorTest {
+
+  private static final double DELTA = 0;
+
+  /**
+   * Check that the codecs round-trip vectors, including empty ones.
+   */
+  @Test
+  public void testCodecs() {
+    final DoubleArrayCodec doubleCodec = new DoubleArrayCodec();
+    final double[] doubles = {1.5, -2, Double.MAX_VALUE, Double.NaN};
+    assertArrayEquals(doubles, doubleCodec.decode(doubleCodec.encode(doubles)), DELTA);
+    assertEquals(0, doubleCodec.decode(doubleCodec.encode(new double[0])).length);
+
+    final FloatArrayCodec floatCodec = new FloatArrayCodec();
+    final float[] floats = {1.5f, -2, Float.MIN_VALUE};
+    assertArrayEquals(floats, floatCodec.decode(floatCodec.encode(floats)), (float) DELTA);
+
+    final IntArrayCodec intCodec = new IntArrayCodec();
+    final int[] ints = {1, -2, Integer.MAX_VALUE};
+    assertArrayEquals(ints, intCodec.decode(intCodec.encode(ints)));
+  }
+
+  /**
+   * Check that every aligned segment of an encoding decodes to the corresponding elements.
+   */
+  @Test
+  public void testSegments() {
+    final DoubleArrayCodec codec = new DoubleArrayCodec();
+    final double[] vector = {1, 2, 3, 4, 5};
+    final byte[] encoded = codec.encode(vector);
+    final int alignment = codec.getSegmentAlignment();
+    assertArrayEquals(new double[]{2, 3}, codec.decode(Arrays.copyOfRange(encoded, alignment, 3 * alignment)), DELTA);
+  }
+
+  /**
+   * Check the element-wise reduce functions, and that apply leaves its inputs untouched.
+   */
+  @Test
+  public void testReduceFunctions() {
+    final double[] first = {1, 5};
+    final double[] second = {3, 2};
+    assertArrayEquals(new double[]{4, 7},
+        new DoubleArrayReduceFunction.Sum().apply(Arrays.asList(first, second)), DELTA);
+    assertArrayEquals(new double[]{1, 5}, first, DELTA);
+    assertArrayEquals(new double[]{3, 5},
+        new DoubleArrayReduceFunction.Max().apply(Arrays.asList(first, second)), DELTA);
+    assertArrayEquals(new float[]{1, 2},
+        new FloatArrayReduceFunction.Min().apply(Arrays.asList(new float[]{1, 5}, new float[]{3, 2})), (float) DELTA);
+    assertArrayEquals(new int[]{4, 7},
+        new IntArrayReduceFunction.Sum().reduceInto(new int[]{1, 5}, new int[]{3, 2}));
+  }
+
+  /**
+   * Check that vectors of different lengths are rejected.
+   */
+  @Test(expected = RuntimeException.class)
+  public void testLengthMismatch() {
+    new IntArrayReduceFunction.Sum().reduceInto(new int[1], new int[2]);
+  }
+}
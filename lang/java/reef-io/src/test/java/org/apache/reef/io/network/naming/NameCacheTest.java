@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.io.network.naming;
+
+import org.apache.reef.io.network.util.StringIdentifierFactory;
+import org.apache.reef.util.cache.CurrentTime;
+import org.apache.reef.wake.Identifier;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for {@link NameCache}.
+ */
+public class NameCacheTest {
+
+  private static final long TIMEOUT = 1000;
+
+  private final Identifier id = new StringIdentifierFactory().getNewInstance("Task1");
+  private final InetSocketAddress pushedAddr = new InetSocketAddress("localhost", 7001);
+  private final InetSocketAddress fetchedAddr = new InetSocketAddress("localhost", 7002);
+
+  private final AtomicInteger fetches = new AtomicInteger();
+  private final Callable<InetSocketAddress> fetcher = new Callable<InetSocketAddress>() {
+    @Override
+    public InetSocketAddress call() {
+      fetches.incrementAndGet();
+      return fetchedAddr;
+    }
+  };
+
+  private long now = 0;
+  private final CurrentTime currentTime = new CurrentTime() {
+    @Override
+    public long now() {
+      return now;
+    }
+  };
+
+  /**
+   * Check that a pushed address outlives the timeout of fetched addresses,
+   * and is fetched again once the safety net expiry passes.
+   */
+  @Test
+  public final void testPushedAddressExpires() throws Exception {
+    final NameCache cache = new NameCache(currentTime, TIMEOUT);
+    cache.put(id, pushedAddr);
+    now = TIMEOUT + 1;
+    Assert.assertEquals(pushedAddr, cache.get(id, fetcher));
+    now = NameCache.PUSHED_TIMEOUT_FACTOR * TIMEOUT;
+    Assert.assertEquals(pushedAddr, cache.get(id, fetcher));
+    Assert.assertEquals(0, fetches.get());
+
+    now = NameCache.PUSHED_TIMEOUT_FACTOR * TIMEOUT + 1;
+    Assert.assertEquals(fetchedAddr, cache.get(id, fetcher));
+    Assert.assertEquals(1, fetches.get());
+  }
+
+  /**
+   * Check that dropping the pushed addresses makes them fetched again.
+   */
+  @Test
+  public final void testInvalidatePushed() throws Exception {
+    final NameCache cache = new NameCache(currentTime, TIMEOUT);
+    cache.put(id, pushedAddr);
+    cache.invalidatePushed();
+    Assert.assertEquals(fetchedAddr, cache.get(id, fetcher));
+    Assert.assertEquals(1, fetches.get());
+  }
+
+  /**
+   * Check that pushing an address again renews it.
+   */
+  @Test
+  public final void testPushRenewsAddress() throws Exception {
+    final NameCache cache = new NameCache(currentTime, TIMEOUT);
+    cache.put(id, fetchedAddr);
+    now = TIMEOUT;
+    cache.put(id, pushedAddr);
+    now = (NameCache.PUSHED_TIMEOUT_FACTOR + 1) * TIMEOUT;
+    Assert.assertEquals(pushedAddr, cache.get(id, fetcher));
+    Assert.assertEquals(0, fetches.get());
+  }
+}
@@ -35,7 +35,9 @@ import org.junit.Test;
 import org.junit.rules.TestName;
 
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.*;
@@ -396,6 +398,171 @@ public class NamingTest {
     }
   }
 
+  /**
+   * Registers and resolves identifiers at the scale of a large job starting up,
+   * using batch requests, and logs how long each step takes.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testBatchRegisterAndLookup() throws Exception {
+
+    LOG.log(Level.FINEST, this.name.getMethodName());
+
+    final int numIds = 2000;
+    final String localAddress = localAddressProvider.getLocalAddress();
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(NameServerParameters.NameServerIdentifierFactory.class, this.factory);
+    injector.bindVolatileInstance(LocalAddressProvider.class, this.localAddressProvider);
+    try (final NameServer server = injector.getInstance(NameServer.class)) {
+      this.port = server.getPort();
+
+      final Map<Identifier, InetSocketAddress> idToAddrMap = new HashMap<>();
+      final List<NameAssignment> nas = new ArrayList<>(numIds);
+      for (int i = 0; i < numIds; i++) {
+        final Identifier id = this.factory.getNewInstance("task" + i);
+        final InetSocketAddress addr = new InetSocketAddress(localAddress, 7000 + i);
+        idToAddrMap.put(id, addr);
+        nas.add(new NameAssignmentTuple(id, addr));
+      }
+
+      final Configuration nameResolverConf = NameResolverConfiguration.CONF
+          .set(NameResolverConfiguration.NAME_SERVER_HOSTNAME, localAddress)
+          .set(NameResolverConfiguration.NAME_SERVICE_PORT, this.port)
+          .set(NameResolverConfiguration.CACHE_TIMEOUT, TTL)
+          .set(NameResolverConfiguration.RETRY_TIMEOUT, RETRY_TIMEOUT)
+          .set(NameResolverConfiguration.RETRY_COUNT, RETRY_COUNT)
+          .build();
+
+      try (final NameClient client
+               = Tang.Factory.getTang().newInjector(nameResolverConf).getInstance(NameClient.class)) {
+        final long startRegister = System.currentTimeMillis();
+        client.register(nas);
+        final long startLookup = System.currentTimeMillis();
+        final List<NameAssignment> resp = client.lookup(new ArrayList<>(idToAddrMap.keySet()));
+        final long end = System.currentTimeMillis();
+        LOG.log(Level.INFO, "Registered {0} identifiers in {1} ms and resolved them in {2} ms",
+            new Object[]{numIds, startLookup - startRegister, end - startLookup});
+
+        final Map<Identifier, InetSocketAddress> respMap = new HashMap<>();
+        for (final NameAssignment na : resp) {
+          respMap.put(na.getIdentifier(), na.getAddress());
+        }
+        Assert.assertTrue(isEqual(idToAddrMap, respMap));
+        final Identifier lastId = this.factory.getNewInstance("task" + (numIds - 1));
+        Assert.assertEquals(idToAddrMap.get(lastId), client.lookup(lastId));
+      }
+    }
+  }
+
+  /**
+   * NameClient subscription test: a subscribed client sees an identifier move
+   * right away instead of after its cache entry expires.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testNameSubscription() throws Exception {
+
+    LOG.log(Level.FINEST, this.name.getMethodName());
+
+    final String localAddress = localAddressProvider.getLocalAddress();
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(NameServerParameters.NameServerIdentifierFactory.class, this.factory);
+    injector.bindVolatileInstance(LocalAddressProvider.class, this.localAddressProvider);
+    try (final NameServer server = injector.getInstance(NameServer.class)) {
+      this.port = server.getPort();
+
+      final Configuration nameResolverConf = NameResolverConfiguration.CONF
+          .set(NameResolverConfiguration.NAME_SERVER_HOSTNAME, localAddress)
+          .set(NameResolverConfiguration.NAME_SERVICE_PORT, this.port)
+          .set(NameResolverConfiguration.CACHE_TIMEOUT, TTL)
+          .set(NameResolverConfiguration.RETRY_TIMEOUT, RETRY_TIMEOUT)
+          .set(NameResolverConfiguration.RETRY_COUNT, RETRY_COUNT)
+          .build();
+
+      try (final NameClient client
+               = Tang.Factory.getTang().newInjector(nameResolverConf).getInstance(NameClient.class)) {
+        final Identifier id = this.factory.getNewInstance("task1");
+        final InetSocketAddress addr1 = new InetSocketAddress(localAddress, 7001);
+        final InetSocketAddress addr2 = new InetSocketAddress(localAddress, 7002);
+
+        client.subscribe("task");
+        server.register(id, addr1);
+        Assert.assertTrue(waitForAddress(client, id, addr1));
+
+        // the cache entry would not expire before TTL, so only a pushed change can be seen here
+        server.register(id, addr2);
+        Assert.assertTrue(waitForAddress(client, id, addr2));
+      }
+    }
+  }
+
+  /**
+   * NameClient subscription test: a client whose connection to the name server is lost
+   * subscribes again, instead of keeping the addresses pushed before.
+   *
+   * @throws Exception
+   */
+  @Test
+  public void testNameResubscription() throws Exception {
+
+    LOG.log(Level.FINEST, this.name.getMethodName());
+
+    final String localAddress = localAddressProvider.getLocalAddress();
+    final Identifier id = this.factory.getNewInstance("task1");
+    final InetSocketAddress addr1 = new InetSocketAddress(localAddress, 7001);
+    final InetSocketAddress addr2 = new InetSocketAddress(localAddress, 7002);
+
+    final Injector injector = Tang.Factory.getTang().newInjector();
+    injector.bindVolatileParameter(NameServerParameters.NameServerIdentifierFactory.class, this.factory);
+    injector.bindVolatileInstance(LocalAddressProvider.class, this.localAddressProvider);
+    final NameServer server = injector.getInstance(NameServer.class);
+    this.port = server.getPort();
+
+    final Configuration nameResolverConf = NameResolverConfiguration.CONF
+        .set(NameResolverConfiguration.NAME_SERVER_HOSTNAME, localAddress)
+        .set(NameResolverConfiguration.NAME_SERVICE_PORT, this.port)
+        .set(NameResolverConfiguration.CACHE_TIMEOUT, TTL)
+        .set(NameResolverConfiguration.RETRY_TIMEOUT, RETRY_TIMEOUT)
+        .set(NameResolverConfiguration.RETRY_COUNT, RETRY_COUNT)
+        .build();
+
+    try (final NameClient client
+             = Tang.Factory.getTang().newInjector(nameResolverConf).getInstance(NameClient.class)) {
+      client.subscribe("task");
+      server.register(id, addr1);
+      Assert.assertTrue(waitForAddress(client, id, addr1));
+      server.close();
+
+      // a name server restarted on the same port only knows the new address
+      final Injector newInjector = Tang.Factory.getTang().newInjector();
+      newInjector.bindVolatileParameter(NameServerParameters.NameServerIdentifierFactory.class, this.factory);
+      newInjector.bindVolatileParameter(NameServerParameters.NameServerPort.class, this.port);
+      newInjector.bindVolatileInstance(LocalAddressProvider.class, this.localAddressProvider);
+      try (final NameServer newServer = newInjector.getInstance(NameServer.class)) {
+        newServer.register(id, addr2);
+        Assert.assertTrue(waitForAddress(client, id, addr2));
+
+        // the new subscription gets the changes pushed
+        newServer.register(id, addr1);
+        Assert.assertTrue(waitForAddress(client, id, addr1));
+      }
+    }
+  }
+
+  private boolean waitForAddress(final NameClient client, final Identifier id, final InetSocketAddress expected)
+      throws Exception {
+    final long deadline = System.currentTimeMillis() + TTL / 3;
+    while (System.currentTimeMillis() < deadline) {
+      if (expected.equals(client.lookup(id))) {
+        return true;
+      }
+      Thread.sleep(10);
+    }
+    return false;
+  }
+
   private boolean isEqual(final Map<Identifier, InetSocketAddress> map1,
                           final Map<Identifier, InetSocketAddress> map2) {
 
@@ -30,6 +30,7 @@ import org.apache.reef.runtime.common.driver.resourcemanager.ResourceAllocationE
 import org.apache.reef.runtime.common.driver.resourcemanager.ResourceEventImpl;
 import org.apache.reef.runtime.common.driver.resourcemanager.RuntimeStatusEvent;
 import org.apache.reef.runtime.common.driver.resourcemanager.RuntimeStatusEventImpl;
+import org.apache.reef.runtime.common.files.ClassHierarchySnapshotWriter;
 import org.apache.reef.runtime.common.files.FileResource;
 import org.apache.reef.runtime.common.files.REEFFileNames;
 import org.apache.reef.runtime.common.parameters.JVMHeapSlack;
@@ -68,6 +69,7 @@ public final class ResourceManager {
   private final ConfigurationSerializer configurationSerializer;
   private final RemoteManager remoteManager;
   private final REEFFileNames fileNames;
+  private final ClassHierarchySnapshotWriter classHierarchySnapshotWriter;
   private final double jvmHeapFactor;
   private final LoggingScopeFactory loggingScopeFactory;
 
@@ -82,6 +84,7 @@ public final class ResourceManager {
       final ConfigurationSerializer configurationSerializer,
       final RemoteManager remoteManager,
       final REEFFileNames fileNames,
+      final ClassHierarchySnapshotWriter classHierarchySnapshotWriter,
       final LoggingScopeFactory loggingScopeFactory) {
 
     this.theContainers = containerManager;
@@ -90,6 +93,7 @@ public final class ResourceManager {
     this.configurationSerializer = configurationSerializer;
     this.remoteManager = remoteManager;
     this.fileNames = fileNames;
+    this.classHierarchySnapshotWriter = classHierarchySnapshotWriter;
     this.jvmHeapFactor = 1.0 - jvmHeapSlack;
     this.loggingScopeFactory = loggingScopeFactory;
 
@@ -175,6 +179,7 @@ public final class ResourceManager {
         } catch (final IOException | BindException e) {
           throw new RuntimeException("Unable to write configuration.", e);
         }
+        this.classHierarchySnapshotWriter.writeTo(evaluatorConfigurationFile.getParentFile());
       }
 
       try (final LoggingScope lc = this.loggingScopeFactory
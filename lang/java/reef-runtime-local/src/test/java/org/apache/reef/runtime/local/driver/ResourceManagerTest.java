@@ -25,6 +25,7 @@ import org.apache.reef.runtime.common.driver.resourcemanager.NodeDescriptorEvent
 import org.apache.reef.runtime.common.driver.resourcemanager.ResourceAllocationEvent;
 import org.apache.reef.runtime.common.driver.resourcemanager.ResourceStatusEvent;
 import org.apache.reef.runtime.common.driver.resourcemanager.RuntimeStatusEvent;
+import org.apache.reef.runtime.common.files.ClassHierarchySnapshotWriter;
 import org.apache.reef.runtime.common.files.REEFFileNames;
 import org.apache.reef.runtime.common.utils.RemoteManager;
 import org.apache.reef.runtime.local.client.parameters.MaxNumberOfEvaluators;
@@ -66,6 +67,7 @@ public class ResourceManagerTest {
   private EventHandler<ResourceAllocationEvent> mockResourceAllocationHandler;
   private EventHandler<RuntimeStatusEvent> mockRuntimeStatusHandler;
   private REEFFileNames filenames;
+  private ClassHierarchySnapshotWriter classHierarchySnapshotWriter;
   private ContainerManager containerManager;
   private ConfigurationSerializer configurationSerializer;
   private static final double JVM_HEAP_SLACK = 0.1;
@@ -88,6 +90,7 @@ public class ResourceManagerTest {
     injector.bindVolatileParameter(RuntimeParameters.RuntimeStatusHandler.class, mockRuntimeStatusHandler);
     configurationSerializer = injector.getInstance(ConfigurationSerializer.class);
     filenames = injector.getInstance(REEFFileNames.class);
+    classHierarchySnapshotWriter = injector.getInstance(ClassHierarchySnapshotWriter.class);
     loggingScopeFactory = injector.getInstance(LoggingScopeFactory.class);
   }
 
@@ -127,7 +130,8 @@ public class ResourceManagerTest {
     containerManager = injector.getInstance(ContainerManager.class);
     sendNodeDescriptors();
     resourceManager = new ResourceManager(containerManager, mockResourceAllocationHandler, mockRuntimeStatusHandler,
-        JVM_HEAP_SLACK, configurationSerializer, remoteManager, filenames, loggingScopeFactory);
+        JVM_HEAP_SLACK, configurationSerializer, remoteManager, filenames, classHierarchySnapshotWriter,
+        loggingScopeFactory);
     final ResourceRequestEvent request = ResourceRequestEventImpl.newBuilder().setResourceCount(1).setVirtualCores(1)
         .setMemorySize(64).build();
     // When
@@ -144,7 +148,7 @@ public class ResourceManagerTest {
     // not sending notifications, there are no available free slots in the container manager
     resourceManager = new ResourceManager(containerManager, mockResourceAllocationHandler, mockRuntimeStatusHandler,
         JVM_HEAP_SLACK, configurationSerializer, remoteManager,
-        filenames, loggingScopeFactory);
+        filenames, classHierarchySnapshotWriter, loggingScopeFactory);
     final ResourceRequestEvent request = ResourceRequestEventImpl.newBuilder().setResourceCount(2).setVirtualCores(1)
         .setMemorySize(64).build();
     // When
@@ -165,7 +169,7 @@ public class ResourceManagerTest {
     sendNodeDescriptors();
     resourceManager = new ResourceManager(containerManager, mockResourceAllocationHandler, mockRuntimeStatusHandler,
         JVM_HEAP_SLACK, configurationSerializer, remoteManager,
-        filenames, loggingScopeFactory);
+        filenames, classHierarchySnapshotWriter, loggingScopeFactory);
     final ResourceRequestEvent request = ResourceRequestEventImpl.newBuilder().setResourceCount(2).setVirtualCores(1)
         .setMemorySize(64).addRackName(availableRacks.get(0)).addRackName(availableRacks.get(1)).build();
     // When
@@ -186,7 +190,7 @@ public class ResourceManagerTest {
     sendNodeDescriptors();
     resourceManager = new ResourceManager(containerManager, mockResourceAllocationHandler, mockRuntimeStatusHandler,
         JVM_HEAP_SLACK, configurationSerializer, remoteManager,
-        filenames, loggingScopeFactory);
+        filenames, classHierarchySnapshotWriter, loggingScopeFactory);
     final ResourceRequestEvent request = ResourceRequestEventImpl.newBuilder().setResourceCount(2).setVirtualCores(1)
         .setMemorySize(64).build();
     // When
@@ -207,7 +211,7 @@ public class ResourceManagerTest {
     sendNodeDescriptors();
     resourceManager = new ResourceManager(containerManager, mockResourceAllocationHandler, mockRuntimeStatusHandler,
         JVM_HEAP_SLACK, configurationSerializer, remoteManager,
-        filenames, loggingScopeFactory);
+        filenames, classHierarchySnapshotWriter, loggingScopeFactory);
     final ResourceRequestEvent request = ResourceRequestEventImpl.newBuilder().setResourceCount(3).setVirtualCores(1)
         .setMemorySize(64).addRackName("dc1/*").addRackName("/dc2/*").build();
     // When
@@ -230,7 +234,7 @@ public class ResourceManagerTest {
     sendNodeDescriptors();
     resourceManager = new ResourceManager(containerManager, mockResourceAllocationHandler, mockRuntimeStatusHandler,
         JVM_HEAP_SLACK, configurationSerializer, remoteManager,
-        filenames, loggingScopeFactory);
+        filenames, classHierarchySnapshotWriter, loggingScopeFactory);
     final ResourceRequestEvent request = ResourceRequestEventImpl.newBuilder().setResourceCount(3).setVirtualCores(1)
         .setMemorySize(64).addNodeName("Node-8").build();
     // When
@@ -260,7 +264,7 @@ public class ResourceManagerTest {
     sendNodeDescriptors();
     resourceManager = new ResourceManager(containerManager, mockResourceAllocationHandler, mockRuntimeStatusHandler,
         JVM_HEAP_SLACK, configurationSerializer, remoteManager,
-        filenames, loggingScopeFactory);
+        filenames, classHierarchySnapshotWriter, loggingScopeFactory);
     final ResourceRequestEvent request = ResourceRequestEventImpl.newBuilder().setResourceCount(3).setVirtualCores(1)
         .setMemorySize(64).addRackName("/dc3/rack1").addRackName("/*").build();
     // When
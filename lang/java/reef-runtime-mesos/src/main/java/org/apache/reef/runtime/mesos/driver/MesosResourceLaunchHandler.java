@@ -23,6 +23,7 @@ import org.apache.reef.annotations.audience.Private;
 import org.apache.reef.driver.evaluator.EvaluatorProcess;
 import org.apache.reef.runtime.common.driver.api.ResourceLaunchEvent;
 import org.apache.reef.runtime.common.driver.api.ResourceLaunchHandler;
+import org.apache.reef.runtime.common.files.ClassHierarchySnapshotWriter;
 import org.apache.reef.runtime.common.files.ClasspathProvider;
 import org.apache.reef.runtime.common.files.JobJarMaker;
 import org.apache.reef.runtime.common.files.REEFFileNames;
@@ -50,6 +51,7 @@ import java.util.logging.Logger;
 @Private
 final class MesosResourceLaunchHandler implements ResourceLaunchHandler {
   private final ConfigurationSerializer configurationSerializer;
+  private final ClassHierarchySnapshotWriter classHierarchySnapshotWriter;
   private final RemoteManager remoteManager;
   private final REEFFileNames fileNames;
   private final ClasspathProvider classpath;
@@ -59,12 +61,14 @@ final class MesosResourceLaunchHandler implements ResourceLaunchHandler {
 
   @Inject
   MesosResourceLaunchHandler(final ConfigurationSerializer configurationSerializer,
+                             final ClassHierarchySnapshotWriter classHierarchySnapshotWriter,
                              final RemoteManager remoteManager,
                              final REEFFileNames fileNames,
                              final REEFExecutors executors,
                              final ClasspathProvider classpath,
                              @Parameter(JVMHeapSlack.class) final double jvmHeapSlack) {
     this.configurationSerializer = configurationSerializer;
+    this.classHierarchySnapshotWriter = classHierarchySnapshotWriter;
     this.remoteManager = remoteManager;
     this.fileNames = fileNames;
     this.executors = executors;
@@ -88,6 +92,7 @@ final class MesosResourceLaunchHandler implements ResourceLaunchHandler {
       final File configurationFile = new File(
           localStagingFolder, this.fileNames.getEvaluatorConfigurationName());
       this.configurationSerializer.toFile(evaluatorConfiguration, configurationFile);
+      this.classHierarchySnapshotWriter.writeTo(localStagingFolder);
 
       JobJarMaker.copy(resourceLaunchEvent.getFileSet(), localStagingFolder);
 
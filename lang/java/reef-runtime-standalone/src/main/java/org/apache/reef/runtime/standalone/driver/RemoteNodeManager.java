@@ -27,6 +27,7 @@ import org.apache.reef.runtime.common.driver.evaluator.pojos.State;
 import org.apache.reef.runtime.common.driver.resourcemanager.ResourceAllocationEvent;
 import org.apache.reef.runtime.common.driver.resourcemanager.ResourceEventImpl;
 import org.apache.reef.runtime.common.driver.resourcemanager.RuntimeStatusEventImpl;
+import org.apache.reef.runtime.common.files.ClassHierarchySnapshotWriter;
 import org.apache.reef.runtime.common.files.FileResource;
 import org.apache.reef.runtime.common.files.REEFFileNames;
 import org.apache.reef.runtime.common.parameters.JVMHeapSlack;
@@ -66,6 +67,7 @@ public final class RemoteNodeManager {
 
   private final ConfigurationSerializer configurationSerializer;
   private final REEFFileNames fileNames;
+  private final ClassHierarchySnapshotWriter classHierarchySnapshotWriter;
   private final double jvmHeapFactor;
   private final REEFEventHandlers reefEventHandlers;
   private final String errorHandlerRID;
@@ -79,6 +81,7 @@ public final class RemoteNodeManager {
   @Inject
   RemoteNodeManager(final ConfigurationSerializer configurationSerializer,
                     final REEFFileNames fileNames,
+                    final ClassHierarchySnapshotWriter classHierarchySnapshotWriter,
                     final RemoteManager remoteManager,
                     final REEFEventHandlers reefEventHandlers,
                     final ReefRunnableProcessObserver processObserver,
@@ -89,6 +92,7 @@ public final class RemoteNodeManager {
                     @Parameter(SshPortNum.class) final int sshPortNum) {
     this.configurationSerializer = configurationSerializer;
     this.fileNames = fileNames;
+    this.classHierarchySnapshotWriter = classHierarchySnapshotWriter;
     this.processObserver = processObserver;
     this.errorHandlerRID = remoteManager.getMyIdentifier();
     this.reefEventHandlers = reefEventHandlers;
@@ -177,6 +181,7 @@ public final class RemoteNodeManager {
         } catch (final IOException | BindException e) {
           throw new RuntimeException("Unable to write configuration.", e);
         }
+        this.classHierarchySnapshotWriter.writeTo(evaluatorConfigurationFile.getParentFile());
 
         // Copy files to remote node
         final Channel channel = sshSession.openChannel("exec");
@@ -23,6 +23,7 @@ import org.apache.hadoop.yarn.api.records.LocalResource;
 import org.apache.reef.annotations.audience.DriverSide;
 import org.apache.reef.io.TempFileCreator;
 import org.apache.reef.runtime.common.driver.api.ResourceLaunchEvent;
+import org.apache.reef.runtime.common.files.ClassHierarchySnapshotWriter;
 import org.apache.reef.runtime.common.files.JobJarMaker;
 import org.apache.reef.runtime.common.files.REEFFileNames;
 import org.apache.reef.runtime.common.parameters.DeleteTempFiles;
@@ -50,6 +51,7 @@ final class EvaluatorSetupHelper {
 
   private final REEFFileNames fileNames;
   private final ConfigurationSerializer configurationSerializer;
+  private final ClassHierarchySnapshotWriter classHierarchySnapshotWriter;
   private final TempFileCreator tempFileCreator;
   private final UploaderToJobFolder uploader;
   private final GlobalJarUploader globalJarUploader;
@@ -59,6 +61,7 @@ final class EvaluatorSetupHelper {
   EvaluatorSetupHelper(
       final REEFFileNames fileNames,
       final ConfigurationSerializer configurationSerializer,
+      final ClassHierarchySnapshotWriter classHierarchySnapshotWriter,
       final TempFileCreator tempFileCreator,
       @Parameter(DeleteTempFiles.class) final boolean deleteTempFiles,
       final UploaderToJobFolder uploader,
@@ -69,6 +72,7 @@ final class EvaluatorSetupHelper {
 
     this.fileNames = fileNames;
     this.configurationSerializer = configurationSerializer;
+    this.classHierarchySnapshotWriter = classHierarchySnapshotWriter;
     this.uploader = uploader;
   }
 
@@ -103,6 +107,7 @@ final class EvaluatorSetupHelper {
     // Write the configuration
     final File configurationFile = new File(localStagingFolder, this.fileNames.getEvaluatorConfigurationName());
     this.configurationSerializer.toFile(makeEvaluatorConfiguration(resourceLaunchEvent), configurationFile);
+    this.classHierarchySnapshotWriter.writeTo(localStagingFolder);
 
     // Copy files to the staging folder
     JobJarMaker.copy(resourceLaunchEvent.getFileSet(), localStagingFolder);
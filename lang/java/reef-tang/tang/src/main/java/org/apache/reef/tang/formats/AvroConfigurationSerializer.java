@@ -57,6 +57,14 @@ public final class AvroConfigurationSerializer implements ConfigurationSerialize
    * Copied from <code>org.apache.avro.io.JsonDecoder.CHARSET</code>
    */
   private static final String JSON_CHARSET = "ISO-8859-1";
+  /**
+   * The Charset used to map the bytes of the binary encoding to the characters of a String, one to one.
+   */
+  private static final String BINARY_STRING_CHARSET = "ISO-8859-1";
+  /**
+   * Marks the Strings produced by toBinaryString(). JSON encoded configurations start with '{' instead.
+   */
+  private static final String BINARY_STRING_PREFIX = "avro-binary:";
   public static final String JAVA = "Java";
   public static final String CS = "Cs";
 
@@ -131,6 +139,9 @@ public final class AvroConfigurationSerializer implements ConfigurationSerialize
   }
 
   private static AvroConfiguration avroFromString(final String theString) throws IOException {
+    if (theString.startsWith(BINARY_STRING_PREFIX)) {
+      return avroFromBytes(theString.substring(BINARY_STRING_PREFIX.length()).getBytes(BINARY_STRING_CHARSET));
+    }
     final JsonDecoder decoder = DecoderFactory.get().jsonDecoder(AvroConfiguration.getClassSchema(), theString);
     final SpecificDatumReader<AvroConfiguration> reader = new SpecificDatumReader<>(AvroConfiguration.class);
     return reader.read(null, decoder);
@@ -256,6 +267,22 @@ public final class AvroConfigurationSerializer implements ConfigurationSerialize
     return result;
   }
 
+  /**
+   * Produce a String that holds the binary Avro encoding of the given configuration.
+   * It is smaller and faster to parse than the JSON produced by toString(), but it is not human readable.
+   * fromString() accepts both.
+   * @param configuration Tang configuration to convert into a String.
+   * @return A String that holds the binary encoding of the given Tang configuration.
+   */
+  @Override
+  public String toBinaryString(final Configuration configuration) {
+    try {
+      return BINARY_STRING_PREFIX + new String(toByteArray(configuration), BINARY_STRING_CHARSET);
+    } catch (final IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   /**
    * Converts a given AvroConfiguration to Configuration.
    *
@@ -68,6 +68,17 @@ public interface ConfigurationSerializer {
    */
   String toString(final Configuration configuration);
 
+  /**
+   * Writes the Configuration as a compact, binary String.
+   * <p>
+   * This is meant for Configurations that are nested inside other Configurations,
+   * e.g. as the value of a named parameter. fromString() reads both String forms.
+   *
+   * @param configuration the Configuration to be converted
+   * @return a binary String representation of the Configuration
+   */
+  String toBinaryString(final Configuration configuration);
+
 
   /**
    * Loads a Configuration from a File created with toFile().
@@ -133,7 +144,7 @@ public interface ConfigurationSerializer {
       throws IOException, BindException;
 
   /**
-   * Decodes a String generated via toString().
+   * Decodes a String generated via toString() or toBinaryString().
    *
    * @param theString to be parsed
    * @return the Configuration stored in theString.
@@ -143,7 +154,7 @@ public interface ConfigurationSerializer {
   Configuration fromString(final String theString) throws IOException, BindException;
 
   /**
-   * Decodes a String generated via toString().
+   * Decodes a String generated via toString() or toBinaryString().
    *
    * @param theString      to be parsed
    * @param classHierarchy used to validate the configuration against
@@ -20,6 +20,7 @@ package org.apache.reef.tang.implementation.java;
 
 import org.apache.reef.tang.ClassHierarchy;
 import org.apache.reef.tang.ExternalConstructor;
+import org.apache.reef.tang.InjectionFuture;
 import org.apache.reef.tang.JavaClassHierarchy;
 import org.apache.reef.tang.annotations.Name;
 import org.apache.reef.tang.annotations.NamedParameter;
@@ -28,6 +29,9 @@ import org.apache.reef.tang.exceptions.ClassHierarchyException;
 import org.apache.reef.tang.exceptions.NameResolutionException;
 import org.apache.reef.tang.exceptions.ParseException;
 import org.apache.reef.tang.formats.ParameterParser;
+import org.apache.reef.tang.implementation.InjectionPlan;
+import org.apache.reef.tang.implementation.types.ClassNodeImpl;
+import org.apache.reef.tang.implementation.types.NamedParameterNodeImpl;
 import org.apache.reef.tang.types.*;
 import org.apache.reef.tang.util.MonotonicTreeMap;
 import org.apache.reef.tang.util.ReflectionUtilities;
@@ -36,6 +40,8 @@ import java.lang.reflect.Type;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class ClassHierarchyImpl implements JavaClassHierarchy {
   // TODO Want to add a "register namespace" method, but Java is not designed
@@ -72,6 +78,26 @@ public class ClassHierarchyImpl implements JavaClassHierarchy {
    * sanity check short names so that name clashes get resolved.
    */
   private final Map<String, NamedParameterNode<?>> shortNames = new MonotonicTreeMap<>();
+  /**
+   * Nodes already returned by getNode(), by the name they were requested
+   * with.  Lookups of these nodes do not take the lock.
+   */
+  private final ConcurrentMap<String, Node> registeredNodes = new ConcurrentHashMap<>();
+  /**
+   * Java constructors already resolved by getConstructor(), shared by all
+   * injectors that use this class hierarchy.  The keys compare ConstructorDefs
+   * by identity, as ConstructorDef.equals() ignores the order of arguments.
+   */
+  private final ConcurrentMap<ConstructorDefKey, java.lang.reflect.Constructor<?>> constructors =
+      new ConcurrentHashMap<>();
+  /**
+   * Injection plans shared by injectors whose configurations lead to the same
+   * plans, keyed by InjectorImpl's description of such configurations.  The
+   * table is simply dropped when it grows beyond MAX_PLAN_CONFIGURATIONS.
+   */
+  private final ConcurrentMap<Object, ConcurrentMap<Node, InjectionPlan<?>>> injectionPlans =
+      new ConcurrentHashMap<>();
+  private static final int MAX_PLAN_CONFIGURATIONS = 256;
 
   @SuppressWarnings("unchecked")
   public ClassHierarchyImpl() {
@@ -190,6 +216,52 @@ public class ClassHierarchyImpl implements JavaClassHierarchy {
     return ReflectionUtilities.classForName(name, loader);
   }
 
+  /**
+   * Return the Java constructor described by a ConstructorDef of this class
+   * hierarchy, with access checks disabled.  Resolving the classes and the
+   * constructor is only done the first time; later calls hit a cache.
+   */
+  @SuppressWarnings("unchecked")
+  <T> java.lang.reflect.Constructor<T> getConstructor(final ConstructorDef<T> def)
+      throws ClassNotFoundException, NoSuchMethodException {
+    final ConstructorDefKey key = new ConstructorDefKey(def);
+    final java.lang.reflect.Constructor<T> cached = (java.lang.reflect.Constructor<T>) constructors.get(key);
+    if (cached != null) {
+      return cached;
+    }
+    final Class<T> clazz = (Class<T>) classForName(def.getClassName());
+    final ConstructorArg[] args = def.getArgs();
+    final Class<?>[] parameterTypes = new Class[args.length];
+    for (int i = 0; i < args.length; i++) {
+      if (args[i].isInjectionFuture()) {
+        parameterTypes[i] = InjectionFuture.class;
+      } else {
+        parameterTypes[i] = classForName(args[i].getType());
+      }
+    }
+    final java.lang.reflect.Constructor<T> cons = clazz.getDeclaredConstructor(parameterTypes);
+    cons.setAccessible(true);
+    final java.lang.reflect.Constructor<?> previous = constructors.putIfAbsent(key, cons);
+    return previous == null ? cons : (java.lang.reflect.Constructor<T>) previous;
+  }
+
+  /**
+   * Return the table of injection plans shared by all injectors whose
+   * configurations have the given key.
+   */
+  ConcurrentMap<Node, InjectionPlan<?>> getInjectionPlans(final Object configurationKey) {
+    final ConcurrentMap<Node, InjectionPlan<?>> plans = injectionPlans.get(configurationKey);
+    if (plans != null) {
+      return plans;
+    }
+    if (injectionPlans.size() >= MAX_PLAN_CONFIGURATIONS) {
+      injectionPlans.clear();
+    }
+    final ConcurrentMap<Node, InjectionPlan<?>> newPlans = new ConcurrentHashMap<>();
+    final ConcurrentMap<Node, InjectionPlan<?>> previous = injectionPlans.putIfAbsent(configurationKey, newPlans);
+    return previous == null ? newPlans : previous;
+  }
+
   private <T, U> Node buildPathToNode(final Class<U> clazz)
       throws ClassHierarchyException {
     final String[] path = clazz.getName().split("\\$");
@@ -254,7 +326,15 @@ public class ClassHierarchyImpl implements JavaClassHierarchy {
   }
 
   @Override
-  public synchronized Node getNode(final String name) throws NameResolutionException {
+  public Node getNode(final String name) throws NameResolutionException {
+    final Node registered = registeredNodes.get(name);
+    if (registered != null) {
+      return registered;
+    }
+    return registerNode(name);
+  }
+
+  private synchronized Node registerNode(final String name) throws NameResolutionException {
     final Node n = register(name);
     if (n == null) {
       // This will never succeed; it just generates a nice exception.
@@ -262,9 +342,78 @@ public class ClassHierarchyImpl implements JavaClassHierarchy {
       throw new IllegalStateException("IMPLEMENTATION BUG: Register failed, "
           + "but getAlreadyBoundNode succeeded!");
     }
+    registeredNodes.put(name, n);
     return n;
   }
 
+  /**
+   * Add the nodes of a class hierarchy snapshot, e.g. one written by a
+   * ClassHierarchySerializer for the same classpath, so that getNode() finds
+   * them without reflecting on the classes.  Nodes that are already
+   * registered are kept, and classes that the class loader of this hierarchy
+   * cannot find are skipped together with their inner classes.
+   * <p>
+   * The snapshot is trusted: its nodes are not checked against the classes.
+   */
+  public synchronized void preload(final ClassHierarchy snapshot) {
+    final Map<ClassNode<?>, ClassNode<?>> classNodes = new HashMap<>();
+    preloadChildren(namespace, snapshot.getNamespace(), classNodes);
+    for (final Map.Entry<ClassNode<?>, ClassNode<?>> entry : classNodes.entrySet()) {
+      @SuppressWarnings("unchecked") final ClassNode<Object> node = (ClassNode<Object>) entry.getValue();
+      for (final ClassNode<?> snapshotImpl : entry.getKey().getKnownImplementations()) {
+        try {
+          final Node impl = getAlreadyBoundNode(snapshotImpl.getFullName());
+          if (impl instanceof ClassNode && !node.getKnownImplementations().contains(impl)) {
+            @SuppressWarnings("unchecked") final ClassNode<Object> classImpl = (ClassNode<Object>) impl;
+            node.putImpl(classImpl);
+          }
+        } catch (final NameResolutionException e) {
+          // The implementation was skipped, as it is not on our classpath
+        }
+      }
+    }
+  }
+
+  /**
+   * Copy the children of snapshotParent that are missing under parent, and
+   * record each class node of the snapshot along with its copy.
+   */
+  @SuppressWarnings("unchecked")
+  private void preloadChildren(final Node parent, final Node snapshotParent,
+                               final Map<ClassNode<?>, ClassNode<?>> classNodes) {
+    for (final Node child : snapshotParent.getChildren()) {
+      // Only classes are nodes of a Java class hierarchy; skip anything this
+      // loader cannot find, as getNode() would not be able to load it either.
+      if (!(child instanceof ClassNode || child instanceof NamedParameterNode)
+          || loader.getResource(child.getFullName().replace('.', '/') + ".class") == null) {
+        continue;
+      }
+      // The root package keys its children by their full names
+      Node node = parent.get(parent == namespace ? child.getFullName() : child.getName());
+      if (node == null) {
+        if (child instanceof NamedParameterNode) {
+          final NamedParameterNode<?> np = (NamedParameterNode<?>) child;
+          final NamedParameterNode<?> copy = new NamedParameterNodeImpl<>(parent, np.getName(), np.getFullName(),
+              np.getFullArgName(), np.getSimpleArgName(), np.isSet(), np.isList(), np.getDocumentation(),
+              np.getShortName(), np.getDefaultInstanceAsStrings());
+          if (copy.getShortName() != null && !shortNames.containsKey(copy.getShortName())) {
+            shortNames.put(copy.getShortName(), copy);
+          }
+          node = copy;
+        } else {
+          final ClassNode<Object> cn = (ClassNode<Object>) child;
+          node = new ClassNodeImpl<>(parent, cn.getName(), cn.getFullName(), cn.isUnit(),
+              cn.isInjectionCandidate(), cn.isExternalConstructor(), cn.getInjectableConstructors(),
+              cn.getAllConstructors(), cn.getDefaultImplementation());
+        }
+      }
+      if (node instanceof ClassNode) {
+        classNodes.put((ClassNode<?>) child, (ClassNode<?>) node);
+      }
+      preloadChildren(node, child, classNodes);
+    }
+  }
+
   private Node getAlreadyBoundNode(final String name) throws NameResolutionException {
     Node root = namespace;
     final String[] toks = name.split("\\$");
@@ -447,4 +596,25 @@ public class ClassHierarchyImpl implements JavaClassHierarchy {
       return new ClassHierarchyImpl(myJars.toArray(new URL[0]));
     }
   }
+
+  /**
+   * Wraps a ConstructorDef so that it is hashed and compared by identity.
+   */
+  private static final class ConstructorDefKey {
+    private final ConstructorDef<?> def;
+
+    private ConstructorDefKey(final ConstructorDef<?> def) {
+      this.def = def;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      return o instanceof ConstructorDefKey && ((ConstructorDefKey) o).def == def;
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(def);
+    }
+  }
 }
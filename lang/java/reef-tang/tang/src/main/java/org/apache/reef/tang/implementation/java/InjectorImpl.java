@@ -30,6 +30,7 @@ import org.apache.reef.tang.util.TracingMonotonicTreeMap;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
+import java.util.concurrent.ConcurrentMap;
 
 public class InjectorImpl implements Injector {
   static final InjectionPlan<?> BUILDING = new InjectionPlan<Object>(null) {
@@ -78,10 +79,17 @@ public class InjectorImpl implements Injector {
   private final Map<NamedParameterNode<?>, Object> namedParameterInstances = new TracingMonotonicTreeMap<>();
   private final Configuration c;
   private final ClassHierarchy namespace;
-  private final JavaClassHierarchy javaNamespace;
+  private final ClassHierarchyImpl javaNamespace;
   private final Set<InjectionFuture<?>> pendingFutures = new HashSet<>();
   private boolean concurrentModificationGuard = false;
   private Aspect aspect;
+  /**
+   * Set once an instance or parameter is bound to this injector (or the one
+   * it was forked from) without going through the configuration.  Such
+   * bindings can change the plans, so these injectors do not use shared plans.
+   */
+  private boolean hasVolatileBindings = false;
+  private ConcurrentMap<Node, InjectionPlan<?>> sharedPlans = null;
 
   public InjectorImpl(final Configuration c) throws BindException {
     this.c = c;
@@ -126,6 +134,7 @@ public class InjectorImpl implements Injector {
           .getNode(np.getFullName());
       i.namedParameterInstances.put(newNp, o);
     }
+    i.hasVolatileBindings = old.hasVolatileBindings;
     // Fork the aspect (if any)
     if (old.aspect != null) {
       i.bindAspect(old.aspect.createChildAspect());
@@ -509,10 +518,85 @@ public class InjectorImpl implements Injector {
     return isParameterSet(name.getName());
   }
 
+  /**
+   * Describe the parts of the configuration that decide the shape of
+   * injection plans.  Named parameters bound to plain values only contribute
+   * their names, as shared plans look these values up at injection time;
+   * this way, configurations that only differ in e.g. a task identifier
+   * share their plans.
+   */
+  private Object getPlanConfigurationKey() {
+    final Map<Node, Object> impls = new HashMap<>();
+    for (final ClassNode<?> cn : c.getBoundImplementations()) {
+      impls.put(cn, c.getBoundImplementation(cn));
+    }
+    final Map<Node, Object> externalConstructors = new HashMap<>();
+    for (final ClassNode<?> cn : c.getBoundConstructors()) {
+      externalConstructors.put(cn, c.getBoundConstructor(cn));
+    }
+    final Map<Node, Object> legacyConstructors = new HashMap<>();
+    for (final ClassNode<?> cn : c.getLegacyConstructors()) {
+      legacyConstructors.put(cn, c.getLegacyConstructor(cn));
+    }
+    final Map<Node, Object> parameters = new HashMap<>();
+    for (final NamedParameterNode<?> np : c.getNamedParameters()) {
+      final Object value = parseBoundNamedParameter(np);
+      parameters.put(np, value instanceof Node ? value : Boolean.TRUE);
+    }
+    final Map<Node, Object> sets = new HashMap<>();
+    for (final NamedParameterNode<Set<?>> np : c.getBoundSets()) {
+      sets.put(np, new HashSet<>(c.getBoundSet(np)));
+    }
+    final Map<Node, Object> lists = new HashMap<>();
+    for (final NamedParameterNode<List<?>> np : c.getBoundLists()) {
+      lists.put(np, new ArrayList<>(c.getBoundList(np)));
+    }
+    return Arrays.asList(impls, externalConstructors, legacyConstructors, parameters, sets, lists);
+  }
+
+  /**
+   * Return the plan for n that is shared by all injectors with an equivalent
+   * configuration, building and sharing it if needed.  Shared plans are built
+   * by a fresh injector, so they do not depend on the instances held by this
+   * one; injectFromPlan() still checks those instances at every node.
+   *
+   * @return null if this injector has volatile bindings, or if the shared plan
+   * is not injectable, in which case the caller should build its own plan.
+   */
+  private InjectionPlan<?> getSharedInjectionPlan(final Node n) {
+    if (hasVolatileBindings) {
+      return null;
+    }
+    if (sharedPlans == null) {
+      sharedPlans = javaNamespace.getInjectionPlans(getPlanConfigurationKey());
+    }
+    final InjectionPlan<?> plan = sharedPlans.get(n);
+    if (plan != null) {
+      return plan;
+    }
+    final InjectionPlan<?> newPlan;
+    try {
+      newPlan = new InjectorImpl(c).getInjectionPlan(n);
+    } catch (final BindException e) {
+      throw new IllegalStateException("Unexpected error creating an injector for " + n, e);
+    }
+    if (!newPlan.isFeasible() || newPlan.isAmbiguous()) {
+      return null;
+    }
+    final InjectionPlan<?> previous = sharedPlans.putIfAbsent(n, newPlan);
+    return previous == null ? newPlan : previous;
+  }
+
   private <U> U getInstance(final Node n) throws InjectionException {
     assertNotConcurrent();
-    @SuppressWarnings("unchecked") final InjectionPlan<U> plan = (InjectionPlan<U>) getInjectionPlan(n);
-    final U u = (U) injectFromPlan(plan);
+    @SuppressWarnings("unchecked") final InjectionPlan<U> sharedPlan = (InjectionPlan<U>) getSharedInjectionPlan(n);
+    final U u;
+    if (sharedPlan != null) {
+      u = injectFromPlan(sharedPlan, true);
+    } else {
+      @SuppressWarnings("unchecked") final InjectionPlan<U> plan = (InjectionPlan<U>) getInjectionPlan(n);
+      u = injectFromPlan(plan, false);
+    }
 
     while (!pendingFutures.isEmpty()) {
       final Iterator<InjectionFuture<?>> i = pendingFutures.iterator();
@@ -551,26 +635,6 @@ public class InjectorImpl implements Injector {
     return getNamedInstance(clazz);
   }
 
-  private <T> java.lang.reflect.Constructor<T> getConstructor(
-      final ConstructorDef<T> constructor) throws ClassNotFoundException,
-      NoSuchMethodException, SecurityException {
-    @SuppressWarnings("unchecked") final Class<T> clazz =
-        (Class<T>) javaNamespace.classForName(constructor.getClassName());
-    final ConstructorArg[] args = constructor.getArgs();
-    final Class<?>[] parameterTypes = new Class[args.length];
-    for (int i = 0; i < args.length; i++) {
-      if (args[i].isInjectionFuture()) {
-        parameterTypes[i] = InjectionFuture.class;
-      } else {
-        parameterTypes[i] = javaNamespace.classForName(args[i].getType());
-      }
-    }
-    final java.lang.reflect.Constructor<T> cons = clazz
-        .getDeclaredConstructor(parameterTypes);
-    cons.setAccessible(true);
-    return cons;
-  }
-
   /**
    * This gets really nasty now that constructors can invoke operations on us.
    * The upshot is that we should check to see if instances have been
@@ -585,11 +649,14 @@ public class InjectorImpl implements Injector {
    * problem).
    *
    * @param plan
+   * @param resolveParameters true if plan is a shared plan, whose named
+   *                          parameter values are looked up in this injector
    * @return
    * @throws InjectionException
    */
   @SuppressWarnings("unchecked")
-  private <T> T injectFromPlan(final InjectionPlan<T> plan) throws InjectionException {
+  private <T> T injectFromPlan(final InjectionPlan<T> plan, final boolean resolveParameters)
+      throws InjectionException {
 
     if (!plan.isFeasible()) {
       throw new InjectionException("Cannot inject " + plan.getNode().getFullName() + ": "
@@ -615,6 +682,12 @@ public class InjectorImpl implements Injector {
     } else if (plan instanceof JavaInstance) {
       // TODO: Must be named parameter node.  Check.
 //      throw new IllegalStateException("Instance from plan not in Injector's set of instances?!?");
+      if (resolveParameters && plan.getNode() instanceof NamedParameterNode) {
+        final T boundInstance = parseBoundNamedParameter((NamedParameterNode<T>) plan.getNode());
+        if (boundInstance != null) {
+          return boundInstance;
+        }
+      }
       return ((JavaInstance<T>) plan).getInstance();
     } else if (plan instanceof Constructor) {
       final Constructor<T> constructor = (Constructor<T>) plan;
@@ -622,14 +695,14 @@ public class InjectorImpl implements Injector {
       final InjectionPlan<?>[] argPlans = constructor.getArgs();
 
       for (int i = 0; i < argPlans.length; i++) {
-        args[i] = injectFromPlan(argPlans[i]);
+        args[i] = injectFromPlan(argPlans[i], resolveParameters);
       }
       try {
         concurrentModificationGuard = true;
         T ret;
         try {
           final ConstructorDef<T> def = constructor.getConstructorDef();
-          final java.lang.reflect.Constructor<T> construct = getConstructor(def);
+          final java.lang.reflect.Constructor<T> construct = javaNamespace.getConstructor(def);
 
           if (aspect != null) {
             ret = aspect.inject(def, construct, args);
@@ -658,19 +731,19 @@ public class InjectorImpl implements Injector {
       }
     } else if (plan instanceof Subplan) {
       final Subplan<T> ambiguous = (Subplan<T>) plan;
-      return injectFromPlan(ambiguous.getDelegatedPlan());
+      return injectFromPlan(ambiguous.getDelegatedPlan(), resolveParameters);
     } else if (plan instanceof SetInjectionPlan) {
       final SetInjectionPlan<T> setPlan = (SetInjectionPlan<T>) plan;
       final Set<T> ret = new MonotonicHashSet<>();
       for (final InjectionPlan<T> subplan : setPlan.getEntryPlans()) {
-        ret.add(injectFromPlan(subplan));
+        ret.add(injectEntryFromPlan(subplan, resolveParameters));
       }
       return (T) ret;
     } else if (plan instanceof ListInjectionPlan) {
       final ListInjectionPlan<T> listPlan = (ListInjectionPlan<T>) plan;
       final List<T> ret = new ArrayList<>();
       for (final InjectionPlan<T> subplan : listPlan.getEntryPlans()) {
-        ret.add(injectFromPlan(subplan));
+        ret.add(injectEntryFromPlan(subplan, resolveParameters));
       }
       return (T) ret;
     } else {
@@ -678,6 +751,19 @@ public class InjectorImpl implements Injector {
     }
   }
 
+  /**
+   * Inject an entry of a set or list.  Entries given as values are part of
+   * the plan, even in shared plans.
+   */
+  @SuppressWarnings("unchecked")
+  private <T> T injectEntryFromPlan(final InjectionPlan<T> plan, final boolean resolveParameters)
+      throws InjectionException {
+    if (plan instanceof JavaInstance) {
+      return ((JavaInstance<T>) plan).getInstance();
+    }
+    return injectFromPlan(plan, resolveParameters);
+  }
+
   @Override
   public <T> void bindVolatileInstance(final Class<T> cl, final T o) throws BindException {
     bindVolatileInstanceNoCopy(cl, o);
@@ -700,6 +786,7 @@ public class InjectorImpl implements Injector {
             + old + " new value is " + o);
       }
       instances.put(cn, o);
+      hasVolatileBindings = true;
     } else {
       throw new IllegalArgumentException("Expected Class but got " + cl
           + " (probably a named parameter).");
@@ -720,6 +807,7 @@ public class InjectorImpl implements Injector {
       }
       try {
         namedParameterInstances.put(np, o);
+        hasVolatileBindings = true;
       } catch (final IllegalArgumentException e) {
         throw new BindException(
             "Attempt to bind named parameter " + ReflectionUtilities.getFullName(cl) + " failed. "
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tang.implementation.java;
+
+import org.apache.reef.tang.ConfigurationBuilder;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.DefaultImplementation;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.tang.types.ClassNode;
+import org.apache.reef.tang.types.NamedParameterNode;
+import org.apache.reef.tang.types.Node;
+import org.apache.reef.tang.util.ReflectionUtilities;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.inject.Inject;
+
+/**
+ * Test that a class hierarchy can be populated from a snapshot of another one.
+ */
+public class TestClassHierarchyPreload {
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testPreloadedNodesAreUsed() throws Exception {
+    final ClassHierarchyImpl snapshot = new ClassHierarchyImpl();
+    snapshot.getNode(Service.class);
+    snapshot.getNode(ServiceImpl.class);
+    snapshot.getNode(Greeting.class);
+
+    final ClassHierarchyImpl ch = new ClassHierarchyImpl();
+    ch.preload(snapshot);
+
+    final Node service = ch.getNode(Service.class);
+    Assert.assertNotSame(snapshot.getNode(Service.class), service);
+    Assert.assertSame(service, ch.getNamespace().get(ReflectionUtilities.getFullName(TestClassHierarchyPreload.class))
+        .get(Service.class.getSimpleName()));
+    Assert.assertTrue(((ClassNode<Service>) service).getKnownImplementations()
+        .contains(ch.getNode(ServiceImpl.class)));
+
+    final NamedParameterNode<String> greeting = (NamedParameterNode<String>) ch.getNode(Greeting.class);
+    Assert.assertEquals("hello", greeting.getDefaultInstanceAsStrings()[0]);
+    Assert.assertEquals("greeting", greeting.getShortName());
+  }
+
+  @Test
+  public void testInjectWithPreloadedHierarchy() throws Exception {
+    final ClassHierarchyImpl snapshot = new ClassHierarchyImpl();
+    snapshot.getNode(Service.class);
+    snapshot.getNode(ServiceImpl.class);
+
+    final ClassHierarchyImpl ch = new ClassHierarchyImpl();
+    ch.preload(snapshot);
+    final ConfigurationBuilder cb = Tang.Factory.getTang().newConfigurationBuilder(ch);
+    cb.bind(ReflectionUtilities.getFullName(Greeting.class), "hi");
+    final Injector injector = Tang.Factory.getTang().newInjector(cb.build());
+
+    Assert.assertEquals("hi", injector.getInstance(Service.class).greet());
+  }
+
+  @Test
+  public void testPreloadKeepsRegisteredNodes() throws Exception {
+    final ClassHierarchyImpl snapshot = new ClassHierarchyImpl();
+    snapshot.getNode(ServiceImpl.class);
+
+    final ClassHierarchyImpl ch = new ClassHierarchyImpl();
+    final Node registered = ch.getNode(ServiceImpl.class);
+    ch.preload(snapshot);
+    ch.preload(snapshot);
+
+    Assert.assertSame(registered, ch.getNode(ServiceImpl.class));
+  }
+
+  @NamedParameter(default_value = "hello", short_name = "greeting")
+  static final class Greeting implements Name<String> {
+  }
+
+  @DefaultImplementation(ServiceImpl.class)
+  interface Service {
+    String greet();
+  }
+
+  static final class ServiceImpl implements Service {
+    private final String greeting;
+
+    @Inject
+    ServiceImpl(@Parameter(Greeting.class) final String greeting) {
+      this.greeting = greeting;
+    }
+
+    @Override
+    public String greet() {
+      return greeting;
+    }
+  }
+}
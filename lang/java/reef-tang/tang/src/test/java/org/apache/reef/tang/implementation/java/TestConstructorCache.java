@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tang.implementation.java;
+
+import org.apache.reef.tang.Aspect;
+import org.apache.reef.tang.InjectionFuture;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.exceptions.BindException;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.apache.reef.tang.types.ClassNode;
+import org.apache.reef.tang.types.ConstructorDef;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.inject.Inject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Test that resolved constructors are shared by the injectors of a class hierarchy.
+ */
+public class TestConstructorCache {
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testConstructorIsResolvedOnce() throws Exception {
+    final ClassHierarchyImpl ch = (ClassHierarchyImpl) Tang.Factory.getTang().getDefaultClassHierarchy();
+    final ClassNode<Top> node = (ClassNode<Top>) ch.getNode(Top.class);
+    final ConstructorDef<Top> def = node.getInjectableConstructors()[0];
+
+    final Constructor<Top> cons = ch.getConstructor(def);
+    Assert.assertEquals(Top.class, cons.getDeclaringClass());
+    Assert.assertSame(cons, ch.getConstructor(def));
+  }
+
+  @Test
+  public void testAspectAcrossInjectors() throws BindException, InjectionException {
+    final CountingAspect aspect = new CountingAspect();
+
+    final Injector first = Tang.Factory.getTang().newInjector();
+    first.bindAspect(aspect);
+    final Top firstTop = first.getInstance(Top.class);
+    Assert.assertEquals(3, aspect.count);
+
+    final Injector second = Tang.Factory.getTang().newInjector();
+    second.bindAspect(aspect);
+    final Top secondTop = second.getInstance(Top.class);
+    Assert.assertEquals(6, aspect.count);
+
+    Assert.assertNotSame(firstTop, secondTop);
+    Assert.assertNotNull(secondTop.middle.leaf);
+  }
+
+  static final class CountingAspect implements Aspect {
+    private int count = 0;
+
+    @Override
+    public <T> T inject(final ConstructorDef<T> def, final Constructor<T> constructor, final Object[] args)
+        throws InvocationTargetException, IllegalAccessException, IllegalArgumentException, InstantiationException {
+      count++;
+      return constructor.newInstance(args);
+    }
+
+    @Override
+    public <T> void injectionFutureInstantiated(final InjectionFuture<T> f, final T t) {
+    }
+
+    @Override
+    public Aspect createChildAspect() {
+      return this;
+    }
+  }
+
+  static final class Leaf {
+    @Inject
+    Leaf() {
+    }
+  }
+
+  static final class Middle {
+    private final Leaf leaf;
+
+    @Inject
+    Middle(final Leaf leaf) {
+      this.leaf = leaf;
+    }
+  }
+
+  static final class Top {
+    private final Middle middle;
+
+    @Inject
+    Top(final Middle middle) {
+      this.middle = middle;
+    }
+  }
+}
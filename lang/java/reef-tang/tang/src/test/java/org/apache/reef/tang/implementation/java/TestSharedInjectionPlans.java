@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.tang.implementation.java;
+
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.DefaultImplementation;
+import org.apache.reef.tang.annotations.Name;
+import org.apache.reef.tang.annotations.NamedParameter;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.tang.exceptions.BindException;
+import org.apache.reef.tang.exceptions.InjectionException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.inject.Inject;
+
+/**
+ * Test that injectors with equivalent configurations share injection plans
+ * without sharing parameter values, bindings or instances.
+ */
+public class TestSharedInjectionPlans {
+
+  private static Configuration conf(final String id) throws BindException {
+    return Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(Id.class, id)
+        .build();
+  }
+
+  @Test
+  public void testParameterValuesAreNotShared() throws BindException, InjectionException {
+    final Task first = Tang.Factory.getTang().newInjector(conf("first")).getInstance(Task.class);
+    final Task second = Tang.Factory.getTang().newInjector(conf("second")).getInstance(Task.class);
+    Assert.assertEquals("first", first.id);
+    Assert.assertEquals("second", second.id);
+    Assert.assertEquals(10, second.retries);
+  }
+
+  @Test
+  public void testForkedInjectors() throws BindException, InjectionException {
+    final Injector parent = Tang.Factory.getTang().newInjector();
+    final Service service = parent.getInstance(Service.class);
+
+    final Task first = parent.forkInjector(conf("first")).getInstance(Task.class);
+    final Task second = parent.forkInjector(conf("second")).getInstance(Task.class);
+    Assert.assertEquals("first", first.id);
+    Assert.assertEquals("second", second.id);
+    Assert.assertSame(service, first.service);
+    Assert.assertSame(service, second.service);
+  }
+
+  @Test
+  public void testImplementationBindingsAreNotShared() throws BindException, InjectionException {
+    final Configuration other = Tang.Factory.getTang().newConfigurationBuilder(conf("other"))
+        .bindImplementation(Service.class, OtherService.class)
+        .build();
+    Assert.assertEquals(DefaultService.class,
+        Tang.Factory.getTang().newInjector(conf("default")).getInstance(Task.class).service.getClass());
+    Assert.assertEquals(OtherService.class,
+        Tang.Factory.getTang().newInjector(other).getInstance(Task.class).service.getClass());
+  }
+
+  @Test
+  public void testVolatileBindings() throws BindException, InjectionException {
+    Tang.Factory.getTang().newInjector(conf("first")).getInstance(Task.class);
+
+    final Injector injector = Tang.Factory.getTang().newInjector(conf("volatile"));
+    final Service service = new OtherService();
+    injector.bindVolatileInstance(Service.class, service);
+    injector.bindVolatileParameter(Retries.class, 3);
+    final Task task = injector.getInstance(Task.class);
+    Assert.assertEquals("volatile", task.id);
+    Assert.assertEquals(3, task.retries);
+    Assert.assertSame(service, task.service);
+
+    final Task forked = injector.forkInjector().getInstance(Task.class);
+    Assert.assertEquals(3, forked.retries);
+    Assert.assertSame(service, forked.service);
+  }
+
+  @NamedParameter
+  static final class Id implements Name<String> {
+  }
+
+  @NamedParameter(default_value = "10")
+  static final class Retries implements Name<Integer> {
+  }
+
+  @DefaultImplementation(DefaultService.class)
+  interface Service {
+  }
+
+  static final class DefaultService implements Service {
+    @Inject
+    DefaultService() {
+    }
+  }
+
+  static final class OtherService implements Service {
+    @Inject
+    OtherService() {
+    }
+  }
+
+  static final class Task {
+    private final String id;
+    private final int retries;
+    private final Service service;
+
+    @Inject
+    Task(@Parameter(Id.class) final String id,
+         @Parameter(Retries.class) final int retries,
+         final Service service) {
+      this.id = id;
+      this.retries = retries;
+      this.service = service;
+    }
+  }
+}
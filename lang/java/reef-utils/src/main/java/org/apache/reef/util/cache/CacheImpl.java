@@ -21,20 +21,29 @@ package org.apache.reef.util.cache;
 import org.apache.reef.util.Optional;
 
 import javax.inject.Inject;
+import java.util.Queue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Implementation that supports expire-after-write.
- * Entries that have expired are collected and invalidated on get calls.
- * This obviates the need for a separate thread to invalidate expired entries, at
- * the cost of some increase in get call latency.
- * The invalidation sweep is only initiated after an interval (expireCheckInterval)
- * has passed, and at most one invalidation sweep is run at a time.
+ * Implementation that supports expire-after-write and an optional maximum size.
+ *
+ * Every loaded entry is appended to a write-order queue. As all entries share the same
+ * timeout, the head of that queue is always the next entry to expire, so expired entries
+ * are collected from the head on get calls without scanning the whole map, and at most
+ * {@link #MAX_EXPIRATIONS_PER_GET} of them per call. A get also checks the entry it finds,
+ * so an expired value is never returned even before it has been collected.
+ * At most one maintenance pass is run at a time; other callers skip it.
+ *
+ * When a maximum size is given, entries are evicted from the head of the same queue
+ * using a second-chance (CLOCK) approximation of LRU: an entry that was read since it
+ * was last examined is moved to the tail instead of being evicted.
+ * The bound is approximate while gets run concurrently.
  *
  * Operations on a single key are linearizable. The argument is:
  * 1. The putIfAbsent call in get guarantees that loadAndGet is called exactly once
@@ -44,15 +53,27 @@ import java.util.Map.Entry;
  *    returns null then it happened after the remove (and a new value will be loaded);
  *    else if it returns non-null then it happened before the remove
  *    (and the previous value will be returned).
+ * Expiry and eviction only use remove(key, value), so they never remove a newer value.
  */
 public final class CacheImpl<K, V> implements Cache<K, V> {
+  /**
+   * Upper bound on the number of expired entries collected by a single get call.
+   */
+  static final int MAX_EXPIRATIONS_PER_GET = 64;
+
   private final ConcurrentMap<K, WrappedValue<V>> internalMap;
+  private final Queue<Entry<K, V>> writeOrder;
   private final CurrentTime currentTime;
   private final long timeoutMillis;
-  private final long expireCheckInterval;
-  private final AtomicBoolean expireInProgress;
+  private final long maximumSize;
+  private final AtomicBoolean maintenanceInProgress;
 
-  private long expireCheckedTime;
+  private final AtomicLong hitCount = new AtomicLong();
+  private final AtomicLong missCount = new AtomicLong();
+  private final AtomicLong loadFailureCount = new AtomicLong();
+  private final AtomicLong totalLoadTimeNanos = new AtomicLong();
+  private final AtomicLong expirationCount = new AtomicLong();
+  private final AtomicLong evictionCount = new AtomicLong();
 
   /**
    * Construct an expire-after-write cache.
@@ -63,27 +84,54 @@ public final class CacheImpl<K, V> implements Cache<K, V> {
   @Inject
   public CacheImpl(final CurrentTime currentTime,
                    final long timeoutMillis) {
+    this(currentTime, timeoutMillis, Long.MAX_VALUE);
+  }
+
+  /**
+   * Construct an expire-after-write cache that holds at most maximumSize entries.
+   *
+   * @param currentTime   class that returns the current time for timeout purposes
+   * @param timeoutMillis a cache entry timeout after write
+   * @param maximumSize   the number of entries above which entries are evicted
+   */
+  public CacheImpl(final CurrentTime currentTime,
+                   final long timeoutMillis,
+                   final long maximumSize) {
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+    }
     this.internalMap = new ConcurrentHashMap<>();
+    this.writeOrder = new ConcurrentLinkedQueue<>();
     this.currentTime = currentTime;
     this.timeoutMillis = timeoutMillis;
-    this.expireCheckInterval = timeoutMillis / 2;
-    this.expireInProgress = new AtomicBoolean(false);
-
-    this.expireCheckedTime = currentTime.now();
+    this.maximumSize = maximumSize;
+    this.maintenanceInProgress = new AtomicBoolean(false);
   }
 
   @Override
   public V get(final K key, final Callable<V> valueFetcher) throws ExecutionException {
-    // Before get, try to invalidate as many expired as possible
-    expireEntries();
+    // Before get, collect a bounded number of expired entries
+    runMaintenance(false);
+
+    while (true) {
+      final WrappedValue<V> newWrappedValue = new WrappedValue<>(valueFetcher, currentTime);
+      final WrappedValue<V> existingWrappedValue = internalMap.putIfAbsent(key, newWrappedValue);
 
-    final WrappedValue<V> newWrappedValue = new WrappedValue<>(valueFetcher, currentTime);
-    final WrappedValue<V> existingWrappedValue = internalMap.putIfAbsent(key, newWrappedValue);
+      if (existingWrappedValue == null) {
+        // If absent, compute and return
+        return load(key, newWrappedValue);
+      }
+
+      if (isExpired(existingWrappedValue, currentTime.now())) {
+        // Not collected yet; remove it and try again
+        if (internalMap.remove(key, existingWrappedValue)) {
+          expirationCount.incrementAndGet();
+        }
+        continue;
+      }
 
-    if (existingWrappedValue == null) {
-      // If absent, compute and return
-      return newWrappedValue.loadAndGet();
-    } else {
+      hitCount.incrementAndGet();
+      existingWrappedValue.markAccessed();
       final Optional<V> existingValue = existingWrappedValue.getValue();
       if (existingValue.isPresent()) {
         // If value already exists, get (without locking) and return
@@ -95,30 +143,115 @@ public final class CacheImpl<K, V> implements Cache<K, V> {
     }
   }
 
-  private void expireEntries() {
-    if (expireInProgress.compareAndSet(false, true)) {
-      final long now = currentTime.now();
-      if (expireCheckedTime + expireCheckInterval < now) {
-        expireEntriesAtTime(now);
-        expireCheckedTime = now;
+  private V load(final K key, final WrappedValue<V> wrappedValue) throws ExecutionException {
+    missCount.incrementAndGet();
+    final long startNanos = System.nanoTime();
+    final V value;
+    try {
+      value = wrappedValue.loadAndGet();
+    } catch (final ExecutionException e) {
+      // Do not keep a failed load, so that the next get tries again
+      loadFailureCount.incrementAndGet();
+      internalMap.remove(key, wrappedValue);
+      throw e;
+    } finally {
+      totalLoadTimeNanos.addAndGet(System.nanoTime() - startNanos);
+    }
+    writeOrder.add(new Entry<>(key, wrappedValue));
+    if (internalMap.size() > maximumSize) {
+      runMaintenance(true);
+    }
+    return value;
+  }
+
+  private boolean isExpired(final WrappedValue<V> wrappedValue, final long now) {
+    final Optional<Long> writeTime = wrappedValue.getWriteTime();
+    return writeTime.isPresent() && writeTime.get() + timeoutMillis < now;
+  }
+
+  private void runMaintenance(final boolean evict) {
+    if (maintenanceInProgress.compareAndSet(false, true)) {
+      try {
+        expireEntries(currentTime.now());
+        if (evict) {
+          evictEntries();
+        }
+      } finally {
+        maintenanceInProgress.set(false);
       }
-      expireInProgress.compareAndSet(true, false);
     }
   }
 
-  private void expireEntriesAtTime(final long now) {
-    for (final Entry<K, WrappedValue<V>> entry : internalMap.entrySet()) {
-      if (entry.getValue() != null) {
-        final Optional<Long> writeTime = entry.getValue().getWriteTime();
-        if (writeTime.isPresent() && writeTime.get() + timeoutMillis < now) {
-          invalidate(entry.getKey());
+  /**
+   * Collect expired entries from the head of the write-order queue.
+   * Stops at the first live entry that has not expired, as all entries behind it were written later
+   * (apart from entries given a second chance by eviction, which are collected by get or a later pass).
+   */
+  private void expireEntries(final long now) {
+    for (int i = 0; i < MAX_EXPIRATIONS_PER_GET; i++) {
+      final Entry<K, V> head = writeOrder.peek();
+      if (head == null) {
+        return;
+      }
+      if (isLive(head)) {
+        if (!isExpired(head.value, now)) {
+          return;
+        }
+        if (internalMap.remove(head.key, head.value)) {
+          expirationCount.incrementAndGet();
         }
       }
+      writeOrder.poll();
+    }
+  }
+
+  private void evictEntries() {
+    // Every entry gets at most one second chance per pass, so this budget is enough
+    // unless gets keep marking entries concurrently
+    long budget = 2L * internalMap.size() + 1;
+    while (internalMap.size() > maximumSize && budget-- > 0) {
+      final Entry<K, V> head = writeOrder.poll();
+      if (head == null) {
+        return;
+      }
+      if (!isLive(head)) {
+        continue;
+      }
+      if (head.value.clearAccessed()) {
+        writeOrder.add(head);
+      } else if (internalMap.remove(head.key, head.value)) {
+        evictionCount.incrementAndGet();
+      }
     }
   }
 
+  private boolean isLive(final Entry<K, V> entry) {
+    return internalMap.get(entry.key) == entry.value;
+  }
+
   @Override
   public void invalidate(final K key) {
     internalMap.remove(key);
   }
+
+  /**
+   * @return a snapshot of the hit, miss, load, expiration and eviction counters
+   */
+  public CacheStats getStats() {
+    return new CacheStats(hitCount.get(), missCount.get(), loadFailureCount.get(),
+        totalLoadTimeNanos.get(), expirationCount.get(), evictionCount.get());
+  }
+
+  /**
+   * A loaded entry in the write-order queue. The entry is stale once the key maps to another value.
+   */
+  private static final class Entry<K, V> {
+    private final K key;
+    private final WrappedValue<V> value;
+
+    private Entry(final K key, final WrappedValue<V> value) {
+      this.key = key;
+      this.value = value;
+    }
+  }
 }
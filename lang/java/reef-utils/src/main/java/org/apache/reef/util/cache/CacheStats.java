@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.util.cache;
+
+/**
+ * An immutable snapshot of the statistics of a {@link CacheImpl}.
+ */
+public final class CacheStats {
+  private final long hitCount;
+  private final long missCount;
+  private final long loadFailureCount;
+  private final long totalLoadTimeNanos;
+  private final long expirationCount;
+  private final long evictionCount;
+
+  CacheStats(final long hitCount,
+             final long missCount,
+             final long loadFailureCount,
+             final long totalLoadTimeNanos,
+             final long expirationCount,
+             final long evictionCount) {
+    this.hitCount = hitCount;
+    this.missCount = missCount;
+    this.loadFailureCount = loadFailureCount;
+    this.totalLoadTimeNanos = totalLoadTimeNanos;
+    this.expirationCount = expirationCount;
+    this.evictionCount = evictionCount;
+  }
+
+  /**
+   * @return the number of gets that returned a value loaded by another call,
+   * including gets that waited for a load in progress
+   */
+  public long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * @return the number of gets that ran their value fetcher
+   */
+  public long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * @return the number of value fetcher calls that threw or returned null
+   */
+  public long getLoadFailureCount() {
+    return loadFailureCount;
+  }
+
+  /**
+   * @return the total time spent in value fetchers, successful or not, in nanoseconds
+   */
+  public long getTotalLoadTimeNanos() {
+    return totalLoadTimeNanos;
+  }
+
+  /**
+   * @return the number of entries removed because they outlived the timeout
+   */
+  public long getExpirationCount() {
+    return expirationCount;
+  }
+
+  /**
+   * @return the number of entries removed to keep the cache within its maximum size
+   */
+  public long getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * @return the ratio of hits to all gets, or 1.0 if there were no gets
+   */
+  public double getHitRate() {
+    final long requestCount = hitCount + missCount;
+    return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+  }
+
+  /**
+   * @return the average time spent in a value fetcher, in nanoseconds
+   */
+  public double getAverageLoadTimeNanos() {
+    return missCount == 0 ? 0.0 : (double) totalLoadTimeNanos / missCount;
+  }
+
+  @Override
+  public String toString() {
+    return "CacheStats{hits=" + hitCount + ", misses=" + missCount + ", loadFailures=" + loadFailureCount
+        + ", totalLoadTimeNanos=" + totalLoadTimeNanos + ", expirations=" + expirationCount
+        + ", evictions=" + evictionCount + "}";
+  }
+}
@@ -31,8 +31,9 @@ final class WrappedValue<V> {
   private final Callable<V> valueFetcher;
   private final CurrentTime currentTime;
 
-  private Optional<V> value;
-  private Optional<Long> writeTime;
+  private volatile Optional<V> value;
+  private volatile Optional<Long> writeTime;
+  private volatile boolean accessed;
 
   /**
    * Construct a representation of a cached entry.
@@ -59,6 +60,23 @@ final class WrappedValue<V> {
     return value;
   }
 
+  /**
+   * Record that the value was read since the last eviction pass.
+   */
+  void markAccessed() {
+    accessed = true;
+  }
+
+  /**
+   * Clear the access mark.
+   * @return true if the value was read since the previous call
+   */
+  boolean clearAccessed() {
+    final boolean wasAccessed = accessed;
+    accessed = false;
+    return wasAccessed;
+  }
+
   /**
    * Must only be called once, by the thread that created this WrappedValue.
    * @return The value returned by valueFetcher
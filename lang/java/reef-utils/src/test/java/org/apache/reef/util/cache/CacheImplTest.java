@@ -21,9 +21,11 @@ package org.apache.reef.util.cache;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 /**
  * Test basic access of CacheImpl.
@@ -128,4 +130,81 @@ public final class CacheImplTest {
     final int getSecondValue = cache.get(key, new ImmediateInteger(secondValue));
     assertEquals(secondValue, getSecondValue);
   }
+
+  /**
+   * Test that a size-bounded cache evicts entries that were not read recently, and keeps those that were.
+   */
+  @Test
+  public void testMaximumSize() throws ExecutionException {
+    final int maximumSize = 10;
+    final CacheImpl<String, Integer> boundedCache = new CacheImpl<>(currentTime, timeoutMillis, maximumSize);
+
+    for (int i = 0; i < maximumSize; i++) {
+      assertEquals(i, (int) boundedCache.get("key" + i, new ImmediateInteger(i)));
+    }
+    // Read key0 so that it gets a second chance when the cache overflows
+    assertEquals(0, (int) boundedCache.get("key0", new ImmediateInteger(-1)));
+
+    assertEquals(maximumSize, (int) boundedCache.get("key" + maximumSize, new ImmediateInteger(maximumSize)));
+    assertEquals(1, boundedCache.getStats().getEvictionCount());
+
+    // key0 was recently read and is still cached; key1 was the least recently used and was evicted
+    assertEquals(0, (int) boundedCache.get("key0", new ImmediateInteger(-1)));
+    assertEquals(-1, (int) boundedCache.get("key1", new ImmediateInteger(-1)));
+  }
+
+  /**
+   * Test that expired entries are collected without a get on their own key, and that statistics are counted.
+   */
+  @Test
+  public void testStatsAndExpiration() throws ExecutionException {
+    final long[] now = {0};
+    final CurrentTime manualTime = new CurrentTime() {
+      @Override
+      public long now() {
+        return now[0];
+      }
+    };
+    final CacheImpl<String, Integer> manualCache = new CacheImpl<>(manualTime, timeoutMillis);
+
+    final int numKeys = 3 * CacheImpl.MAX_EXPIRATIONS_PER_GET;
+    for (int i = 0; i < numKeys; i++) {
+      manualCache.get("key" + i, new ImmediateInteger(i));
+      manualCache.get("key" + i, new ImmediateInteger(-1));
+    }
+    assertEquals(numKeys, manualCache.getStats().getHitCount());
+    assertEquals(numKeys, manualCache.getStats().getMissCount());
+    assertEquals(0.5, manualCache.getStats().getHitRate(), 0.0);
+
+    now[0] = timeoutMillis + 1;
+    for (int i = 0; i < 3; i++) {
+      manualCache.get("otherKey", new ImmediateInteger(i));
+    }
+    assertEquals(numKeys, manualCache.getStats().getExpirationCount());
+    assertEquals(numKeys + 1, manualCache.getStats().getMissCount());
+  }
+
+  /**
+   * Test that a failed load is not cached, so the next get computes the value again.
+   */
+  @Test
+  public void testFailedLoadIsRetried() throws ExecutionException {
+    final String key = "testFailedLoadIsRetried";
+    final int value = 20;
+
+    try {
+      cache.get(key, new Callable<Integer>() {
+        @Override
+        public Integer call() throws Exception {
+          throw new IllegalStateException("Failed load");
+        }
+      });
+      fail("Expected an ExecutionException");
+    } catch (final ExecutionException e) {
+      assertEquals(IllegalStateException.class, e.getCause().getClass());
+    }
+
+    assertEquals(value, (int) cache.get(key, new ImmediateInteger(value)));
+    assertEquals(1, ((CacheImpl<String, Integer>) cache).getStats().getLoadFailureCount());
+  }
 }
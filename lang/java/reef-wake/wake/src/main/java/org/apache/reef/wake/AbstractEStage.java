@@ -19,8 +19,10 @@
 package org.apache.reef.wake;
 
 import org.apache.reef.wake.metrics.Meter;
+import org.apache.reef.wake.metrics.StageLatency;
 
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * An {@link EStage} that implements metering.
@@ -38,6 +40,16 @@ public abstract class AbstractEStage<T> implements EStage<T> {
    */
   private final Meter outMeter;
 
+  /**
+   * the largest number of pending events seen so far.
+   */
+  private final AtomicLong pendingHighWatermark;
+
+  /**
+   * queue wait and execution time histograms.
+   */
+  private final StageLatency latency;
+
   /**
    * Constructs an abstract estage.
    *
@@ -48,6 +60,8 @@ public abstract class AbstractEStage<T> implements EStage<T> {
     this.name = stageName;
     this.inMeter = new Meter(stageName + "_in");
     this.outMeter = new Meter(stageName + "_out");
+    this.pendingHighWatermark = new AtomicLong(0);
+    this.latency = new StageLatency(stageName);
   }
 
   /**
@@ -68,6 +82,34 @@ public abstract class AbstractEStage<T> implements EStage<T> {
     return outMeter;
   }
 
+  /**
+   * Gets the latency metrics of this stage.
+   *
+   * @return the latency metrics
+   */
+  public StageLatency getLatency() {
+    return latency;
+  }
+
+  /**
+   * Gets the number of events that entered this stage and have not left it yet.
+   * Upstream stages can compare it against their own limits to throttle.
+   *
+   * @return the number of pending events
+   */
+  public long getPendingCount() {
+    return inMeter.getCount() - outMeter.getCount();
+  }
+
+  /**
+   * Gets the largest number of pending events observed since this stage was created.
+   *
+   * @return the pending events high watermark
+   */
+  public long getPendingHighWatermark() {
+    return pendingHighWatermark.get();
+  }
+
   /**
    * Updates the input meter.
    * <p>
@@ -76,6 +118,34 @@ public abstract class AbstractEStage<T> implements EStage<T> {
    */
   protected void beforeOnNext() {
     inMeter.mark(1);
+    final long pending = getPendingCount();
+    long watermark = pendingHighWatermark.get();
+    while (pending > watermark && !pendingHighWatermark.compareAndSet(watermark, pending)) {
+      watermark = pendingHighWatermark.get();
+    }
+  }
+
+  /**
+   * Gets the time an event enters the stage, for the latency metrics.
+   * <p>
+   * Stages that record latencies call this along with {@link #beforeOnNext()}.
+   *
+   * @return the current time if latencies are being recorded, 0 otherwise
+   */
+  protected long enqueueTime() {
+    return latency.now();
+  }
+
+  /**
+   * Records how long the event waited in the queue.
+   * <p>
+   * Stages that queue events call this when the handler picks an event up.
+   *
+   * @param enqueueTime the value returned by {@link #enqueueTime()} for the event
+   * @return the time the handler picked the event up if latencies are being recorded, 0 otherwise
+   */
+  protected long beginExecution(final long enqueueTime) {
+    return latency.recordQueueWait(enqueueTime);
   }
 
   /**
@@ -88,4 +158,15 @@ public abstract class AbstractEStage<T> implements EStage<T> {
     outMeter.mark(1);
   }
 
+  /**
+   * Records how long the handler took, and updates the output meter.
+   *
+   * @param startTime the time the handler picked the event up, as returned by
+   *                  {@link #beginExecution(long)}, or by {@link #enqueueTime()} if the stage does not queue
+   */
+  protected void afterOnNext(final long startTime) {
+    latency.recordExecution(startTime);
+    afterOnNext();
+  }
+
 }
@@ -43,6 +43,13 @@ public final class StageConfiguration {
   public static final class StageHandler implements Name<EventHandler<?>> {
   }
 
+  /**
+   * The batch event handler for the stage.
+   */
+  @NamedParameter(doc = "The batch event handler for the stage.")
+  public static final class StageBatchHandler implements Name<BatchEventHandler<?>> {
+  }
+
   /**
    * The error handler for the stage.
    */
@@ -57,6 +64,14 @@ public final class StageConfiguration {
   public static final class NumberOfThreads implements Name<Integer> {
   }
 
+  /**
+   * Whether the stage runs each event on its own virtual thread, if the JVM supports them.
+   */
+  @NamedParameter(doc = "Whether the stage runs each event on its own virtual thread, if the JVM supports them.",
+      default_value = "false")
+  public static final class UseVirtualThreads implements Name<Boolean> {
+  }
+
   /**
    * The capacity for the stage.
    */
@@ -64,6 +79,30 @@ public final class StageConfiguration {
   public static final class Capacity implements Name<Integer> {
   }
 
+  /**
+   * The policy of a bounded stage when its queue is full.
+   */
+  @NamedParameter(doc = "The policy of a bounded stage when its queue is full: "
+      + "BLOCK, DROP_OLDEST, DROP_NEWEST or SPILL_TO_ERROR_HANDLER.", default_value = "BLOCK")
+  public static final class QueueOverflowPolicy implements Name<String> {
+  }
+
+  /**
+   * The maximum number of events a batching stage hands to its handler at once.
+   */
+  @NamedParameter(doc = "The maximum number of events a batching stage hands to its handler at once.",
+      default_value = "1024")
+  public static final class MaxBatchSize implements Name<Integer> {
+  }
+
+  /**
+   * How long a batching stage waits for a batch to fill up, in microseconds.
+   */
+  @NamedParameter(doc = "How long a batching stage waits for a batch to fill up, in microseconds.",
+      default_value = "0")
+  public static final class MaxBatchLatency implements Name<Long> {
+  }
+
   /**
    * The executor service for the stage.
    */
@@ -32,6 +32,10 @@ public final class WakeParameters {
 
   public static final long REMOTE_EXECUTOR_SHUTDOWN_TIMEOUT = 10000;
 
+  public static final int REMOTE_SEND_QUEUE_CAPACITY = 10000;
+
+  public static final int REMOTE_REORDER_WINDOW = 1 << 16;
+
   /**
    * Maximum frame length unit.
    */
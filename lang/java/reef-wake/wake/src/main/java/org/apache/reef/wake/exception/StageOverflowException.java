@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.exception;
+
+/**
+ * Thrown or passed to the error handler when a bounded stage cannot accept an event.
+ */
+public final class StageOverflowException extends WakeRuntimeException {
+
+  private static final long serialVersionUID = 1L;
+
+  private final transient Object event;
+
+  /**
+   * Constructs a new stage overflow exception for the rejected event.
+   *
+   * @param stageName the name of the stage that rejected the event
+   * @param event     the rejected event
+   */
+  public StageOverflowException(final String stageName, final Object event) {
+    super(stageName + " queue is full, rejecting event " + event);
+    this.event = event;
+  }
+
+  /**
+   * Gets the event that the stage could not accept.
+   *
+   * @return the rejected event
+   */
+  public Object getEvent() {
+    return event;
+  }
+}
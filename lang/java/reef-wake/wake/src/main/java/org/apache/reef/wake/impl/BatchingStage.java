@@ -0,0 +1,382 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.impl;
+
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.AbstractEStage;
+import org.apache.reef.wake.BatchEventHandler;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.StageConfiguration.Capacity;
+import org.apache.reef.wake.StageConfiguration.ErrorHandler;
+import org.apache.reef.wake.StageConfiguration.MaxBatchLatency;
+import org.apache.reef.wake.StageConfiguration.MaxBatchSize;
+import org.apache.reef.wake.StageConfiguration.StageBatchHandler;
+import org.apache.reef.wake.StageConfiguration.StageName;
+import org.apache.reef.wake.WakeParameters;
+import org.apache.reef.wake.exception.WakeRuntimeException;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Stage that hands events to a batch event handler on a single thread.
+ * <p>
+ * Callers append events to a lock-free ring buffer and only wake the drainer thread when it is idle.
+ * The drainer takes up to maxBatchSize events at a time, optionally waiting up to maxBatchLatency
+ * microseconds for a batch to fill up, so the cost of waking a thread is shared by the whole batch.
+ * Events are delivered in the order they were added to the ring buffer.
+ * onNext() blocks while the ring buffer is full, and throws IllegalStateException once the stage is closed.
+ * Events that were added while the stage closed and that the drainer no longer handled are reported
+ * to the error handler.
+ *
+ * @param <T> type
+ */
+public final class BatchingStage<T> extends AbstractEStage<T> {
+
+  private static final Logger LOG = Logger.getLogger(BatchingStage.class.getName());
+
+  private static final long SHUTDOWN_TIMEOUT = WakeParameters.EXECUTOR_SHUTDOWN_TIMEOUT;
+
+  /**
+   * Upper bound on an idle wait, in case a wake-up gets lost.
+   */
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final BatchEventHandler<T> handler;
+  private final EventHandler<Throwable> errorHandler;
+  private final MpscRingBuffer<T> ringBuffer;
+  private final int maxBatchSize;
+  private final long maxBatchLatencyNanos;
+  private final AtomicBoolean sleeping = new AtomicBoolean(false);
+  private final Thread thread;
+
+  /**
+   * Callers waiting for room in the ring buffer. The drainer only takes the lock to signal them
+   * while there are any, so onNext() stays lock-free while the ring buffer has room.
+   */
+  private final AtomicInteger waitingCallers = new AtomicInteger(0);
+  private final Lock notFullLock = new ReentrantLock();
+  private final Condition notFull = notFullLock.newCondition();
+
+  /**
+   * Constructs a batching stage.
+   *
+   * @param handler         the batch event handler to execute
+   * @param capacity        the ring buffer capacity; it is rounded up to a power of two
+   * @param maxBatchSize    the maximum number of events in a batch
+   * @param maxBatchLatency how long to wait for a batch to fill up, in microseconds
+   * @throws WakeRuntimeException
+   */
+  @Inject
+  public BatchingStage(@Parameter(StageBatchHandler.class) final BatchEventHandler<T> handler,
+                       @Parameter(Capacity.class) final int capacity,
+                       @Parameter(MaxBatchSize.class) final int maxBatchSize,
+                       @Parameter(MaxBatchLatency.class) final long maxBatchLatency) {
+    this(handler.getClass().getName(), handler, capacity, maxBatchSize, maxBatchLatency, null);
+  }
+
+  /**
+   * Constructs a batching stage.
+   *
+   * @param name            the stage name
+   * @param handler         the batch event handler to execute
+   * @param capacity        the ring buffer capacity; it is rounded up to a power of two
+   * @param maxBatchSize    the maximum number of events in a batch
+   * @param maxBatchLatency how long to wait for a batch to fill up, in microseconds
+   * @throws WakeRuntimeException
+   */
+  @Inject
+  public BatchingStage(@Parameter(StageName.class) final String name,
+                       @Parameter(StageBatchHandler.class) final BatchEventHandler<T> handler,
+                       @Parameter(Capacity.class) final int capacity,
+                       @Parameter(MaxBatchSize.class) final int maxBatchSize,
+                       @Parameter(MaxBatchLatency.class) final long maxBatchLatency) {
+    this(name, handler, capacity, maxBatchSize, maxBatchLatency, null);
+  }
+
+  /**
+   * Constructs a batching stage.
+   *
+   * @param name            the stage name
+   * @param handler         the batch event handler to execute
+   * @param capacity        the ring buffer capacity; it is rounded up to a power of two
+   * @param maxBatchSize    the maximum number of events in a batch
+   * @param maxBatchLatency how long to wait for a batch to fill up, in microseconds
+   * @param errorHandler    the error handler
+   * @throws WakeRuntimeException
+   */
+  @Inject
+  public BatchingStage(@Parameter(StageName.class) final String name,
+                       @Parameter(StageBatchHandler.class) final BatchEventHandler<T> handler,
+                       @Parameter(Capacity.class) final int capacity,
+                       @Parameter(MaxBatchSize.class) final int maxBatchSize,
+                       @Parameter(MaxBatchLatency.class) final long maxBatchLatency,
+                       @Parameter(ErrorHandler.class) final EventHandler<Throwable> errorHandler) {
+    super(name);
+    if (maxBatchSize <= 0) {
+      throw new WakeRuntimeException(name + " maxBatchSize " + maxBatchSize + " is less than or equal to 0");
+    }
+    if (maxBatchLatency < 0) {
+      throw new WakeRuntimeException(name + " maxBatchLatency " + maxBatchLatency + " is less than 0");
+    }
+    this.handler = handler;
+    this.errorHandler = errorHandler;
+    this.ringBuffer = new MpscRingBuffer<>(capacity);
+    this.maxBatchSize = maxBatchSize;
+    this.maxBatchLatencyNanos = TimeUnit.MICROSECONDS.toNanos(maxBatchLatency);
+    this.thread = new Thread(new Drainer());
+    this.thread.setName("BatchingStage<" + name + ">");
+    this.thread.start();
+    StageManager.instance().register(this);
+  }
+
+  /**
+   * Appends the event to the ring buffer, waiting for room if it is full.
+   *
+   * @param value the event
+   * @throws IllegalStateException if the stage is closed
+   */
+  @Override
+  public void onNext(final T value) {
+    beforeOnNext();
+    if (closed.get()) {
+      afterOnNext();
+      throw new IllegalStateException(name + " is closed");
+    }
+    if (!ringBuffer.offer(value)) {
+      awaitRoom(value);
+    }
+    wakeDrainer();
+    if (closed.get()) {
+      rejectStranded(value);
+    }
+  }
+
+  /**
+   * Waits until the event fits into the ring buffer.
+   *
+   * @throws IllegalStateException if the stage is closed or the caller is interrupted while waiting
+   */
+  private void awaitRoom(final T value) {
+    notFullLock.lock();
+    waitingCallers.incrementAndGet();
+    try {
+      while (!ringBuffer.offer(value)) {
+        if (closed.get()) {
+          afterOnNext();
+          throw new IllegalStateException(name + " is closed");
+        }
+        wakeDrainer();
+        notFull.await();
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      afterOnNext();
+      throw new IllegalStateException(name + " interrupted while waiting for room in the ring buffer", e);
+    } finally {
+      waitingCallers.decrementAndGet();
+      notFullLock.unlock();
+    }
+  }
+
+  /**
+   * Signals the callers waiting for room, if there are any.
+   */
+  private void signalNotFull() {
+    if (waitingCallers.get() > 0) {
+      notFullLock.lock();
+      try {
+        notFull.signalAll();
+      } finally {
+        notFullLock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Removes the events added while the stage was closing, after the drainer handled its last batch.
+   * They would otherwise stay in the ring buffer forever. The caller's own event fails with an exception;
+   * the events of other callers, whose onNext() has already returned, go to the error handler.
+   *
+   * @param value the caller's event
+   * @throws IllegalStateException if the caller's event was stranded
+   */
+  private void rejectStranded(final T value) {
+    if (Thread.currentThread() == thread) {
+      return; // the drainer handles the event itself
+    }
+    try {
+      thread.join(SHUTDOWN_TIMEOUT);
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (thread.isAlive()) {
+      return;
+    }
+    final List<T> stranded = new ArrayList<>();
+    synchronized (ringBuffer) {
+      ringBuffer.drainTo(stranded, Integer.MAX_VALUE);
+    }
+    if (stranded.isEmpty()) {
+      return;
+    }
+    getOutMeter().mark(stranded.size());
+    boolean ownEvent = false;
+    int othersDropped = 0;
+    for (final T event : stranded) {
+      if (!ownEvent && event == value) {
+        ownEvent = true;
+      } else {
+        othersDropped++;
+      }
+    }
+    if (othersDropped > 0) {
+      final IllegalStateException e =
+          new IllegalStateException(name + " is closed; dropped " + othersDropped + " events");
+      if (errorHandler != null) {
+        errorHandler.onNext(e);
+      } else {
+        LOG.log(Level.SEVERE, name + " Events added while closing", e);
+      }
+    }
+    if (ownEvent) {
+      throw new IllegalStateException(name + " is closed");
+    }
+  }
+
+  /**
+   * Closes the stage after the events already in the ring buffer have been handled.
+   *
+   * @throws Exception
+   */
+  @Override
+  public void close() throws Exception {
+    if (closed.compareAndSet(false, true)) {
+      LockSupport.unpark(thread);
+      signalNotFull();
+      thread.join(SHUTDOWN_TIMEOUT);
+      if (thread.isAlive()) {
+        LOG.log(Level.SEVERE, "Closing BatchingStage {0}: drainer did not terminate in {1} ms. Dropping {2} events",
+            new Object[] {name, SHUTDOWN_TIMEOUT, ringBuffer.size()});
+        thread.interrupt();
+      }
+    }
+  }
+
+  /**
+   * Gets the number of events waiting in the ring buffer.
+   *
+   * @return the queue length
+   */
+  public int getQueueLength() {
+    return ringBuffer.size();
+  }
+
+  private void wakeDrainer() {
+    if (sleeping.get() && sleeping.compareAndSet(true, false)) {
+      LockSupport.unpark(thread);
+    }
+  }
+
+  /**
+   * Takes batches of events from the ring buffer and provides them to the handler.
+   */
+  private final class Drainer implements Runnable {
+
+    private final List<T> batch = new ArrayList<>(maxBatchSize);
+
+    @Override
+    public void run() {
+      while (!Thread.currentThread().isInterrupted()) {
+        ringBuffer.drainTo(batch, maxBatchSize);
+        signalNotFull();
+        if (batch.isEmpty()) {
+          if (closed.get() && ringBuffer.isEmpty()) {
+            break;
+          }
+          park(IDLE_PARK_NANOS);
+          continue;
+        }
+        fillBatch();
+        deliver();
+      }
+      LOG.log(Level.FINEST, "{0} Closing Drainer", name);
+    }
+
+    /**
+     * Waits up to maxBatchLatency for more events, until the batch is full.
+     */
+    private void fillBatch() {
+      if (maxBatchLatencyNanos == 0) {
+        return;
+      }
+      final long deadline = System.nanoTime() + maxBatchLatencyNanos;
+      while (batch.size() < maxBatchSize && !closed.get()) {
+        final long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          break;
+        }
+        if (ringBuffer.drainTo(batch, maxBatchSize - batch.size()) == 0) {
+          park(remaining);
+        } else {
+          signalNotFull();
+        }
+      }
+    }
+
+    private void deliver() {
+      final int size = batch.size();
+      try {
+        handler.onNext(batch);
+      } catch (final Throwable t) {
+        if (errorHandler != null) {
+          errorHandler.onNext(t);
+        } else {
+          // Not rethrown: this is the only thread that drains the ring buffer.
+          LOG.log(Level.SEVERE, name + " Exception from batch event handler", t);
+        }
+      } finally {
+        batch.clear();
+        getOutMeter().mark(size);
+      }
+    }
+
+    /**
+     * Parks the drainer until a caller adds an event or the timeout expires.
+     * The sleeping flag is raised before re-checking the ring buffer, so a wake-up cannot be lost.
+     */
+    private void park(final long nanos) {
+      sleeping.set(true);
+      if (ringBuffer.isEmpty() && !closed.get()) {
+        LockSupport.parkNanos(BatchingStage.this, nanos);
+      }
+      sleeping.set(false);
+    }
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.impl;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer.
+ * <p>
+ * Producers claim a slot by advancing the producer index with a CAS and then publish the element
+ * into it. The consumer owns the consumer index and clears each slot before releasing it, so a
+ * producer that observes free space always finds an empty slot.
+ *
+ * @param <T> type
+ */
+public final class MpscRingBuffer<T> {
+
+  private final AtomicReferenceArray<T> buffer;
+  private final int mask;
+  private final AtomicLong producerIndex = new AtomicLong(0);
+  private final AtomicLong consumerIndex = new AtomicLong(0);
+
+  /**
+   * Constructs a ring buffer.
+   *
+   * @param capacity the minimum capacity; it is rounded up to a power of two
+   * @throws IllegalArgumentException if the capacity is not positive or too large
+   */
+  public MpscRingBuffer(final int capacity) {
+    if (capacity <= 0 || capacity > (1 << 30)) {
+      throw new IllegalArgumentException("Invalid ring buffer capacity " + capacity);
+    }
+    final int size = Integer.highestOneBit(capacity - 1) << 1;
+    this.buffer = new AtomicReferenceArray<>(Math.max(1, size));
+    this.mask = buffer.length() - 1;
+  }
+
+  /**
+   * Gets the capacity of the buffer.
+   *
+   * @return the capacity
+   */
+  public int capacity() {
+    return mask + 1;
+  }
+
+  /**
+   * Adds an element. Can be called from any thread.
+   *
+   * @param element the element, not null
+   * @return false if the buffer is full
+   */
+  public boolean offer(final T element) {
+    if (element == null) {
+      throw new NullPointerException("Null elements are not allowed");
+    }
+    while (true) {
+      final long index = producerIndex.get();
+      if (index - consumerIndex.get() > mask) {
+        return false;
+      }
+      if (producerIndex.compareAndSet(index, index + 1)) {
+        buffer.lazySet((int) index & mask, element);
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Removes the oldest element. Must only be called from the consumer thread.
+   *
+   * @return the oldest element, or null if the buffer is empty
+   */
+  public T poll() {
+    final long index = consumerIndex.get();
+    final int offset = (int) index & mask;
+    T element = buffer.get(offset);
+    if (element == null) {
+      if (index == producerIndex.get()) {
+        return null;
+      }
+      // a producer has claimed the slot but has not published the element yet
+      do {
+        element = buffer.get(offset);
+      } while (element == null);
+    }
+    buffer.lazySet(offset, null);
+    consumerIndex.lazySet(index + 1);
+    return element;
+  }
+
+  /**
+   * Moves up to limit elements into the collection. Must only be called from the consumer thread.
+   *
+   * @param target the collection to add the elements to
+   * @param limit  the maximum number of elements to move
+   * @return the number of elements moved
+   */
+  public int drainTo(final Collection<? super T> target, final int limit) {
+    int count = 0;
+    while (count < limit) {
+      final T element = poll();
+      if (element == null) {
+        break;
+      }
+      target.add(element);
+      ++count;
+    }
+    return count;
+  }
+
+  /**
+   * Gets the number of elements in the buffer. The result is only an estimate while producers are active.
+   *
+   * @return the number of elements
+   */
+  public int size() {
+    return (int) Math.max(0, producerIndex.get() - consumerIndex.get());
+  }
+
+  /**
+   * Checks whether the buffer is empty.
+   *
+   * @return true if there are no claimed elements
+   */
+  public boolean isEmpty() {
+    return producerIndex.get() == consumerIndex.get();
+  }
+}
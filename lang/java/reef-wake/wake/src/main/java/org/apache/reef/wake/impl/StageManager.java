@@ -18,7 +18,9 @@
  */
 package org.apache.reef.wake.impl;
 
+import org.apache.reef.wake.AbstractEStage;
 import org.apache.reef.wake.Stage;
+import org.apache.reef.wake.metrics.StageLatency;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -38,6 +40,7 @@ public final class StageManager implements Stage {
 
   private final List<Stage> stages = Collections.synchronizedList(new ArrayList<Stage>());
   private final AtomicBoolean closed = new AtomicBoolean(false);
+  private volatile boolean latencyTracking = false;
 
   private StageManager() {
     LOG.log(Level.FINE, "StageManager adds a shutdown hook");
@@ -63,7 +66,63 @@ public final class StageManager implements Stage {
 
   public void register(final Stage stage) {
     LOG.log(Level.FINEST, "StageManager adds stage {0}", stage);
-    this.stages.add(stage);
+    synchronized (this.stages) {
+      if (stage instanceof AbstractEStage) {
+        ((AbstractEStage<?>) stage).getLatency().setEnabled(this.latencyTracking);
+      }
+      this.stages.add(stage);
+    }
+  }
+
+  /**
+   * Gets a snapshot of the registered stages.
+   *
+   * @return the registered stages, in registration order
+   */
+  public List<Stage> getStages() {
+    synchronized (this.stages) {
+      return new ArrayList<>(this.stages);
+    }
+  }
+
+  /**
+   * Gets the latency metrics of all registered stages that record them.
+   *
+   * @return the latency metrics, in registration order of the stages
+   */
+  public List<StageLatency> getStageLatencies() {
+    final List<StageLatency> latencies = new ArrayList<>();
+    for (final Stage stage : getStages()) {
+      if (stage instanceof AbstractEStage) {
+        latencies.add(((AbstractEStage<?>) stage).getLatency());
+      }
+    }
+    return latencies;
+  }
+
+  /**
+   * Starts or stops recording latencies in all registered stages, and in the stages registered later.
+   *
+   * @param enabled true to start recording, false to stop
+   */
+  public void setLatencyTracking(final boolean enabled) {
+    synchronized (this.stages) {
+      this.latencyTracking = enabled;
+      for (final Stage stage : this.stages) {
+        if (stage instanceof AbstractEStage) {
+          ((AbstractEStage<?>) stage).getLatency().setEnabled(enabled);
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks whether newly registered stages record latencies.
+   *
+   * @return true if newly registered stages record latencies
+   */
+  public boolean isLatencyTracking() {
+    return this.latencyTracking;
   }
 
   @Override
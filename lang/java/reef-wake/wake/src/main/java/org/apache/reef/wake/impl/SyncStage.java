@@ -89,6 +89,7 @@ public final class SyncStage<T> extends AbstractEStage<T> {
   @SuppressWarnings("checkstyle:illegalcatch")
   public void onNext(final T value) {
     beforeOnNext();
+    final long startTime = enqueueTime();
     try {
       handler.onNext(value);
     } catch (final Throwable t) {
@@ -99,7 +100,7 @@ public final class SyncStage<T> extends AbstractEStage<T> {
         throw t;
       }
     }
-    afterOnNext();
+    afterOnNext(startTime);
   }
 
   /**
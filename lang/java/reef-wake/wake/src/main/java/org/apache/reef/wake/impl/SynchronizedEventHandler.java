@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.impl;
+
+import org.apache.reef.wake.EventHandler;
+
+/**
+ * An event handler that passes events to the wrapped handler one at a time.
+ * Use it for handlers that are not thread-safe but can be called from many threads,
+ * e.g. remote message handlers.
+ *
+ * @param <T> type
+ */
+public final class SynchronizedEventHandler<T> implements EventHandler<T> {
+
+  private final EventHandler<T> handler;
+
+  /**
+   * Constructs a synchronized event handler.
+   *
+   * @param handler the event handler to serialize calls to
+   */
+  public SynchronizedEventHandler(final EventHandler<T> handler) {
+    this.handler = handler;
+  }
+
+  /**
+   * Passes the event to the wrapped handler, after any other event being handled completes.
+   *
+   * @param value an event
+   */
+  @Override
+  public void onNext(final T value) {
+    synchronized (this) {
+      handler.onNext(value);
+    }
+  }
+}
@@ -23,12 +23,16 @@ import org.apache.reef.wake.AbstractEStage;
 import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.StageConfiguration.*;
 import org.apache.reef.wake.WakeParameters;
+import org.apache.reef.wake.exception.StageOverflowException;
 import org.apache.reef.wake.exception.WakeRuntimeException;
+import org.apache.reef.wake.metrics.Meter;
 
 import javax.inject.Inject;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
@@ -36,6 +40,14 @@ import java.util.logging.Logger;
 
 /**
  * Stage that executes an event handler with a thread pool.
+ * <p>
+ * By default the queue of the stage is unbounded. A stage constructed with a positive capacity
+ * holds at most that many events besides the numThreads events that are running, and applies its
+ * {@link OverflowPolicy} to events that arrive while it is full. With virtual threads no event waits
+ * for a thread, so the capacity bounds the number of events in flight instead.
+ * <p>
+ * Stages whose handlers block can opt in to running every event on its own virtual thread,
+ * when the JVM supports them.
  *
  * @param <T> type
  */
@@ -45,10 +57,29 @@ public final class ThreadPoolStage<T> extends AbstractEStage<T> {
 
   private static final long SHUTDOWN_TIMEOUT = WakeParameters.EXECUTOR_SHUTDOWN_TIMEOUT;
 
+  /**
+   * How long, in milliseconds, DROP_OLDEST waits for a permit before it looks for a queued event to drop again,
+   * when all permits are held by running events.
+   */
+  private static final long DROP_OLDEST_WAIT = 10;
+
   private final EventHandler<T> handler;
   private final EventHandler<Throwable> errorHandler;
   private final ExecutorService executor;
   private final int numThreads;
+  private final int capacity;
+  private final OverflowPolicy overflowPolicy;
+  private final boolean virtualThreads;
+
+  /**
+   * Permits for queued and running events, or null if the queue is unbounded.
+   */
+  private final Semaphore permits;
+
+  /**
+   * Counts the events dropped or spilled to the error handler on overflow.
+   */
+  private final Meter droppedMeter;
 
   /**
    * Constructs a thread-pool stage.
@@ -77,17 +108,193 @@ public final class ThreadPoolStage<T> extends AbstractEStage<T> {
                          @Parameter(StageHandler.class) final EventHandler<T> handler,
                          @Parameter(NumberOfThreads.class) final int numThreads,
                          @Parameter(ErrorHandler.class) final EventHandler<Throwable> errorHandler) {
+    this(name, handler, numThreads, 0, OverflowPolicy.BLOCK, false, errorHandler);
+  }
+
+  /**
+   * Constructs a bounded thread-pool stage, or one that runs each event on its own virtual thread.
+   *
+   * @param name              the stage name
+   * @param handler           the event handler to execute
+   * @param numThreads        the number of threads to use without virtual threads
+   * @param capacity          the number of events the stage holds besides those running, or 0 for no bound;
+   *                          with virtual threads, the number of events in flight
+   * @param overflowPolicy    the name of the {@link OverflowPolicy} to apply when the stage is full
+   * @param useVirtualThreads whether to run each event on a new virtual thread if the JVM supports it
+   * @throws WakeRuntimeException
+   */
+  @Inject
+  public ThreadPoolStage(@Parameter(StageName.class) final String name,
+                         @Parameter(StageHandler.class) final EventHandler<T> handler,
+                         @Parameter(NumberOfThreads.class) final int numThreads,
+                         @Parameter(Capacity.class) final int capacity,
+                         @Parameter(QueueOverflowPolicy.class) final String overflowPolicy,
+                         @Parameter(UseVirtualThreads.class) final boolean useVirtualThreads) {
+    this(name, handler, numThreads, capacity, overflowPolicy, useVirtualThreads, null);
+  }
+
+  /**
+   * Constructs a bounded thread-pool stage, or one that runs each event on its own virtual thread.
+   *
+   * @param name              the stage name
+   * @param handler           the event handler to execute
+   * @param numThreads        the number of threads to use without virtual threads
+   * @param capacity          the number of events the stage holds besides those running, or 0 for no bound;
+   *                          with virtual threads, the number of events in flight
+   * @param overflowPolicy    the name of the {@link OverflowPolicy} to apply when the stage is full
+   * @param useVirtualThreads whether to run each event on a new virtual thread if the JVM supports it
+   * @param errorHandler      the error handler; required by {@link OverflowPolicy#SPILL_TO_ERROR_HANDLER}
+   * @throws WakeRuntimeException
+   */
+  @Inject
+  public ThreadPoolStage(@Parameter(StageName.class) final String name,
+                         @Parameter(StageHandler.class) final EventHandler<T> handler,
+                         @Parameter(NumberOfThreads.class) final int numThreads,
+                         @Parameter(Capacity.class) final int capacity,
+                         @Parameter(QueueOverflowPolicy.class) final String overflowPolicy,
+                         @Parameter(UseVirtualThreads.class) final boolean useVirtualThreads,
+                         @Parameter(ErrorHandler.class) final EventHandler<Throwable> errorHandler) {
+    this(name, handler, numThreads, capacity, parseOverflowPolicy(name, overflowPolicy), useVirtualThreads,
+        errorHandler);
+  }
+
+  /**
+   * Constructs a thread-pool stage.
+   * <p>
+   * With virtual threads, every event runs on a new virtual thread and a positive capacity bounds
+   * the number of events in flight. {@link OverflowPolicy#DROP_OLDEST} needs queued events to drop,
+   * so a bounded stage with that policy uses numThreads platform threads, as it does if the JVM
+   * does not support virtual threads.
+   */
+  private ThreadPoolStage(final String name,
+                          final EventHandler<T> handler,
+                          final int numThreads,
+                          final int capacity,
+                          final OverflowPolicy overflowPolicy,
+                          final boolean useVirtualThreads,
+                          final EventHandler<Throwable> errorHandler) {
     super(name);
     this.handler = handler;
     this.errorHandler = errorHandler;
     if (numThreads <= 0) {
       throw new WakeRuntimeException(name + " numThreads " + numThreads + " is less than or equal to 0");
     }
+    if (capacity < 0) {
+      throw new WakeRuntimeException(name + " capacity " + capacity + " is less than 0");
+    }
+    if (capacity > 0 && overflowPolicy == OverflowPolicy.SPILL_TO_ERROR_HANDLER && errorHandler == null) {
+      throw new WakeRuntimeException(name + " overflow policy " + overflowPolicy + " requires an error handler");
+    }
     this.numThreads = numThreads;
-    this.executor = Executors.newFixedThreadPool(numThreads, new DefaultThreadFactory(name));
+    this.capacity = capacity;
+    this.overflowPolicy = overflowPolicy;
+    this.droppedMeter = new Meter(name + "_dropped");
+    if (useVirtualThreads && !VirtualThreads.isSupported()) {
+      LOG.log(Level.INFO, "{0}: virtual threads are not supported by this JVM, using {1} platform threads",
+          new Object[] {name, numThreads});
+      this.virtualThreads = false;
+    } else if (useVirtualThreads && capacity > 0 && overflowPolicy == OverflowPolicy.DROP_OLDEST) {
+      LOG.log(Level.INFO, "{0}: overflow policy {1} needs a queue, using {2} platform threads",
+          new Object[] {name, overflowPolicy, numThreads});
+      this.virtualThreads = false;
+    } else {
+      this.virtualThreads = useVirtualThreads;
+    }
+    if (this.virtualThreads && capacity == 0) {
+      this.permits = null;
+      this.executor = VirtualThreads.newThreadPerTaskExecutor(name);
+    } else if (this.virtualThreads) {
+      this.permits = new Semaphore(capacity);
+      this.executor = VirtualThreads.newThreadPerTaskExecutor(name);
+    } else if (capacity == 0) {
+      this.permits = null;
+      this.executor = Executors.newFixedThreadPool(numThreads, new DefaultThreadFactory(name));
+    } else {
+      // Every queued or running event holds a permit, so the executor queue can never overflow by itself.
+      this.permits = new Semaphore(capacity + numThreads);
+      this.executor = new ThreadPoolExecutor(numThreads, numThreads, 0L, TimeUnit.MILLISECONDS,
+          new ArrayBlockingQueue<Runnable>(capacity + numThreads), new DefaultThreadFactory(name));
+    }
     StageManager.instance().register(this);
   }
 
+  /**
+   * Creates a builder for a thread-pool stage, to set a capacity, an overflow policy or virtual threads.
+   *
+   * @param name       the stage name
+   * @param handler    the event handler to execute
+   * @param numThreads the number of threads to use without virtual threads
+   * @param <T>        type
+   * @return the builder
+   */
+  public static <T> Builder<T> newBuilder(final String name, final EventHandler<T> handler, final int numThreads) {
+    return new Builder<>(name, handler, numThreads);
+  }
+
+  /**
+   * Builder for a thread-pool stage. By default the stage is unbounded, blocks on overflow,
+   * uses platform threads and has no error handler.
+   *
+   * @param <T> type
+   */
+  public static final class Builder<T> {
+    private final String name;
+    private final EventHandler<T> handler;
+    private final int numThreads;
+    private int capacity = 0;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    private boolean useVirtualThreads = false;
+    private EventHandler<Throwable> errorHandler = null;
+
+    private Builder(final String name, final EventHandler<T> handler, final int numThreads) {
+      this.name = name;
+      this.handler = handler;
+      this.numThreads = numThreads;
+    }
+
+    /**
+     * @param capacity the number of events the stage holds besides those running, or 0 for no bound;
+     *                 with virtual threads, the number of events in flight
+     */
+    public Builder<T> setCapacity(final int capacity) {
+      this.capacity = capacity;
+      return this;
+    }
+
+    /**
+     * @param overflowPolicy the policy to apply when the stage is full
+     */
+    public Builder<T> setOverflowPolicy(final OverflowPolicy overflowPolicy) {
+      this.overflowPolicy = overflowPolicy;
+      return this;
+    }
+
+    /**
+     * @param useVirtualThreads whether to run each event on a new virtual thread if the JVM supports it
+     */
+    public Builder<T> setUseVirtualThreads(final boolean useVirtualThreads) {
+      this.useVirtualThreads = useVirtualThreads;
+      return this;
+    }
+
+    /**
+     * @param errorHandler the error handler; required by {@link OverflowPolicy#SPILL_TO_ERROR_HANDLER}
+     */
+    public Builder<T> setErrorHandler(final EventHandler<Throwable> errorHandler) {
+      this.errorHandler = errorHandler;
+      return this;
+    }
+
+    /**
+     * @return a new thread-pool stage
+     * @throws WakeRuntimeException if the settings are invalid
+     */
+    public ThreadPoolStage<T> build() {
+      return new ThreadPoolStage<>(name, handler, numThreads, capacity, overflowPolicy, useVirtualThreads,
+          errorHandler);
+    }
+  }
+
   /**
    * Constructs a thread-pool stage.
    *
@@ -163,24 +370,44 @@ public final class ThreadPoolStage<T> extends AbstractEStage<T> {
     this.handler = handler;
     this.errorHandler = errorHandler;
     this.numThreads = 0;
+    this.capacity = 0;
+    this.overflowPolicy = OverflowPolicy.BLOCK;
+    this.virtualThreads = false;
+    this.permits = null;
+    this.droppedMeter = new Meter(name + "_dropped");
     this.executor = executor;
     StageManager.instance().register(this);
   }
 
+  private static OverflowPolicy parseOverflowPolicy(final String stageName, final String policy) {
+    try {
+      return OverflowPolicy.valueOf(policy);
+    } catch (final IllegalArgumentException e) {
+      throw new WakeRuntimeException(stageName + " unknown overflow policy " + policy, e);
+    }
+  }
+
   /**
    * Handles the event using a thread in the thread pool.
+   * If the stage is bounded and full, the overflow policy decides what happens to the event.
    *
    * @param value the event
+   * @throws StageOverflowException if the caller is interrupted while waiting for room in the queue
    */
   @Override
   @SuppressWarnings("checkstyle:illegalcatch")
   public void onNext(final T value) {
     beforeOnNext();
+    final long enqueueTime = enqueueTime();
+    if (permits != null && !acquirePermit(value)) {
+      return;
+    }
     try {
       executor.submit(new Runnable() {
 
         @Override
         public void run() {
+          final long startTime = beginExecution(enqueueTime);
           try {
             handler.onNext(value);
           } catch (final Throwable t) {
@@ -191,7 +418,8 @@ public final class ThreadPoolStage<T> extends AbstractEStage<T> {
               throw t;
             }
           } finally {
-            afterOnNext();
+            afterOnNext(startTime);
+            releasePermits(1);
           }
         }
 
@@ -199,11 +427,74 @@ public final class ThreadPoolStage<T> extends AbstractEStage<T> {
     } catch (final Exception e) {
       LOG.log(Level.SEVERE, "Encountered error when submitting to executor in ThreadPoolStage.");
       afterOnNext();
+      releasePermits(1);
       throw e;
     }
 
   }
 
+  /**
+   * Reserves room in the queue for an event, applying the overflow policy if there is none.
+   *
+   * @param value the event
+   * @return true if the event should be submitted, false if it has been dropped or spilled
+   */
+  private boolean acquirePermit(final T value) {
+    switch (overflowPolicy) {
+    case BLOCK:
+      try {
+        permits.acquire();
+        return true;
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        afterOnNext();
+        throw new StageOverflowException(name, value);
+      }
+    case DROP_OLDEST:
+      try {
+        while (!permits.tryAcquire()) {
+          if (((ThreadPoolExecutor) executor).getQueue().poll() != null) {
+            // the oldest event will never run, so it gives its permit to the new one
+            droppedMeter.mark(1);
+            afterOnNext();
+            permits.release();
+          } else if (permits.tryAcquire(DROP_OLDEST_WAIT, TimeUnit.MILLISECONDS)) {
+            // nothing queued to drop: every permit is held by a running event, wait for one to finish
+            return true;
+          }
+        }
+        return true;
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        afterOnNext();
+        throw new StageOverflowException(name, value);
+      }
+    case DROP_NEWEST:
+      if (permits.tryAcquire()) {
+        return true;
+      }
+      droppedMeter.mark(1);
+      afterOnNext();
+      return false;
+    case SPILL_TO_ERROR_HANDLER:
+      if (permits.tryAcquire()) {
+        return true;
+      }
+      droppedMeter.mark(1);
+      afterOnNext();
+      errorHandler.onNext(new StageOverflowException(name, value));
+      return false;
+    default:
+      throw new WakeRuntimeException(name + " unknown overflow policy " + overflowPolicy);
+    }
+  }
+
+  private void releasePermits(final int count) {
+    if (permits != null) {
+      permits.release(count);
+    }
+  }
+
   /**
    * Closes resources.
    */
@@ -225,6 +516,8 @@ public final class ThreadPoolStage<T> extends AbstractEStage<T> {
 
       if (!isTerminated) {
         final List<Runnable> droppedRunnables = executor.shutdownNow();
+        // unblock callers waiting for room in the queue; they will see the executor shut down.
+        releasePermits(droppedRunnables.size());
         LOG.log(Level.SEVERE,
             "Closing ThreadPoolStage {0}: Executor did not terminate in {1} ms. Dropping {2} tasks",
             new Object[] {this.name, SHUTDOWN_TIMEOUT, droppedRunnables.size()});
@@ -240,9 +533,62 @@ public final class ThreadPoolStage<T> extends AbstractEStage<T> {
    * @return the queue length
    */
   public int getQueueLength() {
+    if (virtualThreads) {
+      return 0;
+    }
     return ((ThreadPoolExecutor) executor).getQueue().size();
   }
 
+  /**
+   * Checks whether this stage runs each event on its own virtual thread.
+   *
+   * @return true if the stage uses virtual threads
+   */
+  public boolean isUsingVirtualThreads() {
+    return virtualThreads;
+  }
+
+  /**
+   * Gets the maximum number of events the stage holds besides those running on its threads,
+   * or, with virtual threads, the maximum number of events in flight.
+   *
+   * @return the capacity, or 0 if the queue is unbounded
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+
+  /**
+   * Gets the number of events this stage can still accept before its overflow policy kicks in,
+   * counting free threads as well as free room in the queue.
+   *
+   * @return the remaining capacity, or Integer.MAX_VALUE if the queue is unbounded
+   */
+  public int getRemainingCapacity() {
+    if (permits == null) {
+      return Integer.MAX_VALUE;
+    }
+    return permits.availablePermits();
+  }
+
+  /**
+   * Gets the overflow policy of this stage.
+   *
+   * @return the overflow policy
+   */
+  public OverflowPolicy getOverflowPolicy() {
+    return overflowPolicy;
+  }
+
+  /**
+   * Gets the meter of events dropped or spilled to the error handler because the queue was full.
+   *
+   * @return the dropped events meter
+   */
+  public Meter getDroppedMeter() {
+    return droppedMeter;
+  }
+
   /**
    * Gets the active count of this stage.
    * @return the active count
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.impl;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Access to virtual threads when the JVM provides them.
+ * <p>
+ * Wake is compiled for older JVMs, so the virtual thread API is looked up by reflection once.
+ * On a JVM without virtual threads, or where they are a disabled preview feature,
+ * {@link #isSupported()} returns false and callers fall back to platform threads.
+ */
+public final class VirtualThreads {
+
+  private static final Logger LOG = Logger.getLogger(VirtualThreads.class.getName());
+
+  private static final Method OF_VIRTUAL;
+  private static final Method BUILDER_NAME;
+  private static final Method BUILDER_FACTORY;
+  private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+  static {
+    Method ofVirtual = null;
+    Method builderName = null;
+    Method builderFactory = null;
+    Method newThreadPerTaskExecutor = null;
+    try {
+      final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      ofVirtual = Thread.class.getMethod("ofVirtual");
+      builderName = builderClass.getMethod("name", String.class, long.class);
+      builderFactory = builderClass.getMethod("factory");
+      newThreadPerTaskExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+      // preview builds of the API throw when preview features are disabled
+      ofVirtual.invoke(null);
+    } catch (final ReflectiveOperationException e) {
+      LOG.log(Level.FINE, "Virtual threads are not available on this JVM", e);
+      ofVirtual = null;
+    }
+    OF_VIRTUAL = ofVirtual;
+    BUILDER_NAME = builderName;
+    BUILDER_FACTORY = builderFactory;
+    NEW_THREAD_PER_TASK_EXECUTOR = newThreadPerTaskExecutor;
+  }
+
+  /**
+   * Empty private constructor to prohibit instantiation of utility class.
+   */
+  private VirtualThreads() {
+  }
+
+  /**
+   * Checks whether the JVM supports virtual threads.
+   *
+   * @return true if virtual threads can be created
+   */
+  public static boolean isSupported() {
+    return OF_VIRTUAL != null;
+  }
+
+  /**
+   * Creates a factory of virtual threads named like the ones of {@link DefaultThreadFactory}.
+   *
+   * @param prefix the name prefix of the created threads
+   * @return the thread factory
+   * @throws UnsupportedOperationException if the JVM does not support virtual threads
+   */
+  public static ThreadFactory newThreadFactory(final String prefix) {
+    if (!isSupported()) {
+      throw new UnsupportedOperationException("Virtual threads are not available on this JVM");
+    }
+    try {
+      final Object builder = BUILDER_NAME.invoke(OF_VIRTUAL.invoke(null), prefix + ":vthread-", 0L);
+      return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+    } catch (final IllegalAccessException | InvocationTargetException e) {
+      throw new UnsupportedOperationException("Cannot create a virtual thread factory", e);
+    }
+  }
+
+  /**
+   * Creates an executor that runs each task on a new virtual thread.
+   *
+   * @param prefix the name prefix of the created threads
+   * @return the executor
+   * @throws UnsupportedOperationException if the JVM does not support virtual threads
+   */
+  public static ExecutorService newThreadPerTaskExecutor(final String prefix) {
+    final ThreadFactory factory = newThreadFactory(prefix);
+    try {
+      return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, factory);
+    } catch (final IllegalAccessException | InvocationTargetException e) {
+      throw new UnsupportedOperationException("Cannot create a virtual thread executor", e);
+    }
+  }
+}
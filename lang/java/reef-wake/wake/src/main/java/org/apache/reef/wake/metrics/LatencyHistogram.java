@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * An {@link Histogram} of latencies ({@code >=0}) with log-linear binning, in the style of HdrHistogram.
+ * Values below 64 get a bin each; above that, every power of two is split into 64 equal bins,
+ * so a value is reported within 1/64 (about 1.6%) of its true value.
+ * Values above 2^44 (about 4.9 hours in nanoseconds) all go to the last bin.
+ * Updates are lock-free and do not allocate.
+ */
+public class LatencyHistogram implements Histogram {
+
+  private static final int SUB_BUCKET_BITS = 6;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int MAX_VALUE_BITS = 44;
+  private static final long MAX_TRACKABLE_VALUE = (1L << MAX_VALUE_BITS) - 1;
+  private static final int NUM_BINS = (MAX_VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+  private final AtomicLong count = new AtomicLong(0);
+  private final AtomicLong sum = new AtomicLong(0);
+  private final AtomicLong max = new AtomicLong(0);
+  private final AtomicLongArray values = new AtomicLongArray(NUM_BINS);
+
+  /**
+   * Updates the value.
+   *
+   * @param value the new value; negative values are recorded as 0
+   */
+  @Override
+  public void update(final long value) {
+    final long clamped = value < 0 ? 0 : Math.min(value, MAX_TRACKABLE_VALUE);
+    values.incrementAndGet(getIndex(clamped));
+    count.incrementAndGet();
+    sum.addAndGet(clamped);
+    long current = max.get();
+    while (clamped > current && !max.compareAndSet(current, clamped)) {
+      current = max.get();
+    }
+  }
+
+  /**
+   * Returns the number of recorded values.
+   *
+   * @return the number of recorded values
+   */
+  @Override
+  public long getCount() {
+    return count.get();
+  }
+
+  /**
+   * Returns the number of values in the bin.
+   *
+   * @param index the bin index
+   * @return the number of values in the bin
+   */
+  @Override
+  public long getValue(final int index) {
+    return values.get(index);
+  }
+
+  /**
+   * Returns the number of bins.
+   *
+   * @return the number of bins
+   */
+  @Override
+  public int getNumBins() {
+    return NUM_BINS;
+  }
+
+  /**
+   * Returns the mean of the recorded values.
+   *
+   * @return the mean, or 0 if nothing has been recorded
+   */
+  public double getMean() {
+    final long n = count.get();
+    return n == 0 ? 0.0 : (double) sum.get() / n;
+  }
+
+  /**
+   * Returns the largest recorded value.
+   *
+   * @return the largest recorded value, or 0 if nothing has been recorded
+   */
+  public long getMax() {
+    return max.get();
+  }
+
+  /**
+   * Returns the value below which the given percentage of the recorded values fall.
+   * The result is the upper end of the bin that holds that value.
+   *
+   * @param percentile the percentile, between 0 and 100
+   * @return the value at the percentile, or 0 if nothing has been recorded
+   */
+  public long getValueAtPercentile(final double percentile) {
+    final long n = count.get();
+    if (n == 0) {
+      return 0;
+    }
+    final long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * n));
+    long seen = 0;
+    for (int i = 0; i < NUM_BINS; ++i) {
+      seen += values.get(i);
+      if (seen >= rank) {
+        return Math.min(getHighestValue(i), max.get());
+      }
+    }
+    return max.get();
+  }
+
+  /**
+   * Returns the bin of a value.
+   *
+   * @param value a value between 0 and the largest trackable value
+   * @return the bin index
+   */
+  static int getIndex(final long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    final int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - 1 - SUB_BUCKET_BITS;
+    return (shift + 1) * SUB_BUCKET_COUNT + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+  }
+
+  /**
+   * Returns the largest value that falls into a bin.
+   *
+   * @param index the bin index
+   * @return the largest value of the bin
+   */
+  static long getHighestValue(final int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+    final int shift = index / SUB_BUCKET_COUNT - 1;
+    final long lowest = (long) (index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT) << shift;
+    return lowest + (1L << shift) - 1;
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.metrics;
+
+/**
+ * Latency metrics of a stage: how long events wait in the stage's queue,
+ * and how long the stage's handler takes to process them, in nanoseconds.
+ * <p>
+ * Tracking is off until enabled, and can be switched on and off at any time.
+ * While it is off, the stage only pays for a volatile read per event.
+ */
+public final class StageLatency {
+
+  private final String name;
+  private final LatencyHistogram queueWait = new LatencyHistogram();
+  private final LatencyHistogram execution = new LatencyHistogram();
+
+  private volatile boolean enabled = false;
+
+  /**
+   * Constructs the latency metrics of a stage.
+   *
+   * @param name the stage name
+   */
+  public StageLatency(final String name) {
+    this.name = name;
+  }
+
+  /**
+   * Gets the name of the stage.
+   *
+   * @return the stage name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Checks whether latencies are being recorded.
+   *
+   * @return true if latencies are being recorded
+   */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Starts or stops recording latencies.
+   *
+   * @param enabled true to start recording, false to stop
+   */
+  @SuppressWarnings("checkstyle:hiddenfield")
+  public void setEnabled(final boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Gets the histogram of the times events spent in the queue before the handler picked them up.
+   *
+   * @return the queue wait histogram
+   */
+  public LatencyHistogram getQueueWait() {
+    return queueWait;
+  }
+
+  /**
+   * Gets the histogram of the times the handler spent processing events.
+   *
+   * @return the execution time histogram
+   */
+  public LatencyHistogram getExecution() {
+    return execution;
+  }
+
+  /**
+   * Gets the current time, if recording is on.
+   *
+   * @return the current time in nanoseconds, or 0 if latencies are not being recorded
+   */
+  public long now() {
+    return enabled ? System.nanoTime() : 0;
+  }
+
+  /**
+   * Records the time an event spent in the queue, and gets the time its processing starts.
+   *
+   * @param enqueueTime the time the event was queued, as returned by {@link #now()}
+   * @return the current time in nanoseconds, or 0 if latencies are not being recorded
+   */
+  public long recordQueueWait(final long enqueueTime) {
+    final long now = now();
+    if (now != 0 && enqueueTime != 0) {
+      queueWait.update(now - enqueueTime);
+    }
+    return now;
+  }
+
+  /**
+   * Records the time the handler spent processing an event.
+   *
+   * @param startTime the time processing started, as returned by {@link #now()}
+   */
+  public void recordExecution(final long startTime) {
+    if (startTime != 0 && enabled) {
+      execution.update(System.nanoTime() - startTime);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s queue wait p50/p99/p999/max %d/%d/%d/%d ns, execution p50/p99/p999/max %d/%d/%d/%d ns",
+        name,
+        queueWait.getValueAtPercentile(50), queueWait.getValueAtPercentile(99),
+        queueWait.getValueAtPercentile(99.9), queueWait.getMax(),
+        execution.getValueAtPercentile(50), execution.getValueAtPercentile(99),
+        execution.getValueAtPercentile(99.9), execution.getMax());
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Encoder that can write an object straight into a Netty buffer.
+ * <p>
+ * Links of the Netty transport call {@link #encodeTo(Object, ByteBuf)} with a pooled buffer that already
+ * holds the frame header, so the encoded bytes are not copied again before they reach the socket.
+ * Plain encoders are copied into such a buffer from the array returned by {@link #encode(Object)}.
+ *
+ * @param <T> The type of the objects serialized
+ */
+public interface ByteBufEncoder<T> extends Encoder<T> {
+
+  /**
+   * Encodes the given object by appending its bytes to the buffer.
+   * It must write the same bytes as {@link #encode(Object)} would return.
+   *
+   * @param obj an object to be encoded
+   * @param buf the buffer to write to, starting at its writer index
+   */
+  void encodeTo(T obj, ByteBuf buf);
+}
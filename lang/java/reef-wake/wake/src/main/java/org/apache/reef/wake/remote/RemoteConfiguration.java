@@ -97,6 +97,118 @@ public final class RemoteConfiguration {
     // Intentionally empty       
   }
 
+  /**
+   * Whether or not remote messages reach their handlers concurrently.
+   * By default, handlers see one message at a time; enable this only if all registered handlers are thread-safe.
+   */
+  @NamedParameter(doc = "Whether or not remote messages are dispatched to their handlers concurrently.",
+      default_value = "false")
+  public static final class ConcurrentDispatch implements Name<Boolean> {
+    // Intentionally empty
+  }
+
+  /**
+   * Whether or not links coalesce writes and flush them in batches.
+   */
+  @NamedParameter(doc = "Whether or not links coalesce writes and flush them in batches.", default_value = "false")
+  public static final class CoalesceWrites implements Name<Boolean> {
+    // Intentionally empty
+  }
+
+  /**
+   * The number of bytes a coalescing link writes before it flushes.
+   */
+  @NamedParameter(doc = "The number of bytes a coalescing link writes before it flushes.", default_value = "65536")
+  public static final class CoalesceMaxBytes implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * How long a coalescing link waits for more messages before it flushes, in microseconds.
+   */
+  @NamedParameter(doc = "How long a coalescing link waits for more messages before it flushes, in microseconds.",
+      default_value = "0")
+  public static final class CoalesceMaxDelay implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * Whether or not the transport uses native epoll; it falls back to NIO where epoll is unavailable.
+   */
+  @NamedParameter(doc = "Whether or not the transport uses native epoll; "
+      + "it falls back to NIO where epoll is unavailable.", default_value = "false")
+  public static final class NativeTransport implements Name<Boolean> {
+    // Intentionally empty
+  }
+
+  /**
+   * The number of threads that accept connections of the transport server.
+   */
+  @NamedParameter(doc = "The number of threads that accept connections of the transport server.", default_value = "3")
+  public static final class ServerBossThreads implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * The number of event loop threads of the transport server.
+   */
+  @NamedParameter(doc = "The number of event loop threads of the transport server.", default_value = "20")
+  public static final class ServerWorkerThreads implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * The number of event loop threads of the transport client.
+   */
+  @NamedParameter(doc = "The number of event loop threads of the transport client.", default_value = "10")
+  public static final class ClientWorkerThreads implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * Whether or not to disable Nagle's algorithm on transport connections.
+   */
+  @NamedParameter(doc = "Whether or not to disable Nagle's algorithm on transport connections.", default_value = "true")
+  public static final class TcpNoDelay implements Name<Boolean> {
+    // Intentionally empty
+  }
+
+  /**
+   * The socket send buffer size of transport connections; 0 keeps the system default.
+   */
+  @NamedParameter(doc = "The socket send buffer size of transport connections; 0 keeps the system default.",
+      default_value = "0")
+  public static final class SendBufferSize implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * The socket receive buffer size of transport connections; 0 keeps the system default.
+   */
+  @NamedParameter(doc = "The socket receive buffer size of transport connections; 0 keeps the system default.",
+      default_value = "0")
+  public static final class ReceiveBufferSize implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * The number of pending outbound bytes above which a transport connection stops being writable.
+   */
+  @NamedParameter(doc = "The number of pending outbound bytes above which a transport connection "
+      + "stops being writable.", default_value = "65536")
+  public static final class WriteBufferHighWaterMark implements Name<Integer> {
+    // Intentionally empty
+  }
+
+  /**
+   * The number of pending outbound bytes below which a transport connection becomes writable again.
+   */
+  @NamedParameter(doc = "The number of pending outbound bytes below which a transport connection "
+      + "becomes writable again.", default_value = "32768")
+  public static final class WriteBufferLowWaterMark implements Name<Integer> {
+    // Intentionally empty
+  }
+
   /**
    * Client stage for messaging transport.
    */
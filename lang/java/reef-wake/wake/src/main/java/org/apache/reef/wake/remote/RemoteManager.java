@@ -45,6 +45,10 @@ public interface RemoteManager extends Stage {
    * arrive from sourceIdentifier.
    * <p>
    * Calling this method twice overrides the initial registration.
+   * <p>
+   * The handler sees one message at a time, unless {@link RemoteConfiguration.ConcurrentDispatch} is set;
+   * then it can be called concurrently, and should be wrapped in a
+   * {@link org.apache.reef.wake.impl.SynchronizedEventHandler} if it is not thread-safe.
    *
    * @param <T> type of event
    * @param <U> type of message
@@ -62,6 +66,10 @@ public interface RemoteManager extends Stage {
    * from any source.
    * <p>
    * If there is an EventHandler registered for this EventType
+   * <p>
+   * The handler sees one message at a time, unless {@link RemoteConfiguration.ConcurrentDispatch} is set;
+   * then it can be called concurrently, and should be wrapped in a
+   * {@link org.apache.reef.wake.impl.SynchronizedEventHandler} if it is not thread-safe.
    *
    * @param <T> a type of remote message of event
    * @param <U> a type of message
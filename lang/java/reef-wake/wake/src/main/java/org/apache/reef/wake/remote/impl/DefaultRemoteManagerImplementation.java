@@ -21,6 +21,7 @@ package org.apache.reef.wake.remote.impl;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.wake.EStage;
 import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.WakeParameters;
 import org.apache.reef.wake.impl.StageManager;
 import org.apache.reef.wake.remote.*;
 import org.apache.reef.wake.remote.address.LocalAddressProvider;
@@ -77,6 +78,7 @@ public final class DefaultRemoteManagerImplementation implements RemoteManager {
         @Parameter(RemoteConfiguration.MessageCodec.class) final Codec<T> codec,
         @Parameter(RemoteConfiguration.ErrorHandler.class) final EventHandler<Throwable> errorHandler,
         @Parameter(RemoteConfiguration.OrderingGuarantee.class) final boolean orderingGuarantee,
+        @Parameter(RemoteConfiguration.ConcurrentDispatch.class) final boolean concurrentDispatch,
         @Parameter(RemoteConfiguration.NumberOfTries.class) final int numberOfTries,
         @Parameter(RemoteConfiguration.RetryTimeout.class) final int retryTimeout,
         final LocalAddressProvider localAddressProvider,
@@ -84,7 +86,7 @@ public final class DefaultRemoteManagerImplementation implements RemoteManager {
         final TcpPortProvider tcpPortProvider) {
 
     this.name = name;
-    this.handlerContainer = new HandlerContainer<>(name, codec);
+    this.handlerContainer = new HandlerContainer<>(name, codec, concurrentDispatch);
 
     this.reRecvStage = orderingGuarantee ?
         new OrderedRemoteReceiverStage(this.handlerContainer, errorHandler) :
@@ -97,7 +99,8 @@ public final class DefaultRemoteManagerImplementation implements RemoteManager {
 
     this.myIdentifier = new SocketRemoteIdentifier((InetSocketAddress)this.transport.getLocalAddress());
 
-    this.reSendStage = new RemoteSenderStage(codec, this.transport, 10);
+    this.reSendStage = new RemoteSenderStage(
+        codec, this.transport, WakeParameters.REMOTE_SEND_QUEUE_CAPACITY, errorHandler);
 
     StageManager.instance().register(this);
 
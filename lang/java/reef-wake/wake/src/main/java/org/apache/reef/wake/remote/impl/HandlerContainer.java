@@ -26,6 +26,7 @@ import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
 import org.apache.reef.wake.remote.transport.Transport;
 
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
@@ -35,29 +36,41 @@ import java.util.logging.Logger;
  * Main logic to dispatch messages.
  * An event handler that receives a remote message with a binary payload,
  * decodes a message from the blob, and dispatches that message to a proper handler.
+ * <p>
+ * Messages are decoded and their handlers looked up without any locks. By default, each handler sees
+ * one message at a time, so handlers need not be thread-safe, while messages for other handlers are
+ * handled meanwhile. With concurrent dispatch, messages can reach a handler concurrently, even messages
+ * of the same type; handlers that must see one message at a time then have to be wrapped in a
+ * SynchronizedEventHandler.
+ * Ordering per sender is up to the receiver stage (see OrderedRemoteReceiverStage).
  */
 final class HandlerContainer<T> implements EventHandler<RemoteEvent<byte[]>> {
 
   private static final Logger LOG = Logger.getLogger(HandlerContainer.class.getName());
 
-  private final ConcurrentMap<Class<? extends T>,
-      EventHandler<RemoteMessage<? extends T>>> msgTypeToHandlerMap = new ConcurrentHashMap<>();
-
-  private final ConcurrentMap<Tuple2<RemoteIdentifier, Class<? extends T>>,
-      EventHandler<? extends T>> tupleToHandlerMap = new ConcurrentHashMap<>();
+  /**
+   * Handlers of each message type. Entries are added on the first subscription and never removed,
+   * so a message is dispatched with one lookup by its class, and one by its sender's address.
+   */
+  private final ConcurrentMap<Class<?>, MessageTypeHandlers<T>> dispatchTable = new ConcurrentHashMap<>();
 
   private final Codec<T> codec;
   private final String name;
+  private final boolean concurrentDispatch;
 
   private Transport transport;
 
-  HandlerContainer(final String name, final Codec<T> codec) {
+  /**
+   * @param concurrentDispatch whether or not messages can reach their handlers concurrently.
+   */
+  HandlerContainer(final String name, final Codec<T> codec, final boolean concurrentDispatch) {
 
     this.name = name;
     this.codec = codec;
+    this.concurrentDispatch = concurrentDispatch;
 
-    LOG.log(Level.FINER, "Instantiated HandlerContainer {0} with codec {1}",
-        new String[] {this.name, this.codec.getClass().getCanonicalName()});
+    LOG.log(Level.FINER, "Instantiated HandlerContainer {0} with codec {1}, concurrent dispatch {2}",
+        new Object[] {this.name, this.codec.getClass().getCanonicalName(), this.concurrentDispatch});
   }
 
   void setTransport(final Transport transport) {
@@ -80,7 +93,7 @@ final class HandlerContainer<T> implements EventHandler<RemoteEvent<byte[]>> {
     final Tuple2<RemoteIdentifier, Class<? extends T>> tuple =
         new Tuple2<RemoteIdentifier, Class<? extends T>>(sourceIdentifier, messageType);
 
-    this.tupleToHandlerMap.put(tuple, theHandler);
+    this.getHandlers(messageType).sourceHandlers.put(getSocketAddress(sourceIdentifier), theHandler);
 
     LOG.log(Level.FINER,
         "Add handler for tuple: {0},{1}",
@@ -99,7 +112,7 @@ final class HandlerContainer<T> implements EventHandler<RemoteEvent<byte[]>> {
       final Class<? extends T> messageType,
       final EventHandler<RemoteMessage<? extends T>> theHandler) {
 
-    this.msgTypeToHandlerMap.put(messageType, theHandler);
+    this.getHandlers(messageType).messageHandler = theHandler;
 
     LOG.log(Level.FINER, "Add handler for class: {0}", messageType.getName());
 
@@ -125,15 +138,16 @@ final class HandlerContainer<T> implements EventHandler<RemoteEvent<byte[]>> {
    * @deprecated [REEF-1544] Prefer using SubscriptionHandler and the corresponding methods
    * instead of the old Subscription class. Remove method after release 0.16.
    */
+  @SuppressWarnings("unchecked")
   public void unsubscribe(final Subscription<T> subscription) {
     final T token = subscription.getToken();
     LOG.log(Level.FINER, "RemoteManager: {0} token {1}", new Object[]{this.name, token});
     if (token instanceof Exception) {
       this.transport.registerErrorHandler(null);
     } else if (token instanceof Tuple2) {
-      this.tupleToHandlerMap.remove(token);
+      this.removeTupleHandler((Tuple2<RemoteIdentifier, Class<? extends T>>) token);
     } else if (token instanceof Class) {
-      this.msgTypeToHandlerMap.remove(token);
+      this.removeMessageHandler((Class<? extends T>) token);
     } else {
       throw new RemoteRuntimeException(
           "Unknown subscription type: " + subscription.getClass().getName());
@@ -146,7 +160,7 @@ final class HandlerContainer<T> implements EventHandler<RemoteEvent<byte[]>> {
         @Override
         public void unsubscribe(final Class<? extends T> token) {
           LOG.log(Level.FINER, "Unsubscribe: {0} class {1}", new Object[] {name, token.getCanonicalName()});
-          msgTypeToHandlerMap.remove(token);
+          removeMessageHandler(token);
         }
       };
 
@@ -157,7 +171,7 @@ final class HandlerContainer<T> implements EventHandler<RemoteEvent<byte[]>> {
         public void unsubscribe(final Tuple2<RemoteIdentifier, Class<? extends T>> token) {
           LOG.log(Level.FINER, "Unsubscribe: {0} tuple {1},{2}",
               new Object[] {name, token.getT1(), token.getT2().getCanonicalName()});
-          tupleToHandlerMap.remove(token);
+          removeTupleHandler(token);
         }
       };
 
@@ -173,11 +187,12 @@ final class HandlerContainer<T> implements EventHandler<RemoteEvent<byte[]>> {
 
   /**
    * Dispatch message received from the remote to proper event handler.
+   * Decoding and lookups take no locks, and lookups do not allocate.
    * @param value Remote message, encoded as byte[].
    */
   @Override
-  @SuppressWarnings("checkstyle:diamondoperatorforvariabledefinition")
-  public synchronized void onNext(final RemoteEvent<byte[]> value) {
+  @SuppressWarnings("unchecked")
+  public void onNext(final RemoteEvent<byte[]> value) {
 
     LOG.log(Level.FINER, "RemoteManager: {0} value: {1}", new Object[] {this.name, value});
 
@@ -187,34 +202,95 @@ final class HandlerContainer<T> implements EventHandler<RemoteEvent<byte[]>> {
     LOG.log(Level.FINEST, "RemoteManager: {0} decoded event {1} :: {2}",
         new Object[] {this.name, clazz.getCanonicalName(), decodedEvent});
 
-    // check remote identifier and message type
-    final SocketRemoteIdentifier id = new SocketRemoteIdentifier((InetSocketAddress)value.remoteAddress());
+    final MessageTypeHandlers<T> handlers = this.dispatchTable.get(clazz);
 
-    final Tuple2<RemoteIdentifier, Class<?>> tuple = new Tuple2<RemoteIdentifier, Class<?>>(id, clazz);
+    if (handlers != null) {
 
-    final EventHandler<T> tupleHandler = (EventHandler<T>) this.tupleToHandlerMap.get(tuple);
+      // check remote identifier and message type
+      if (!handlers.sourceHandlers.isEmpty()) {
 
-    if (tupleHandler != null) {
+        final EventHandler<T> tupleHandler = (EventHandler<T>) handlers.sourceHandlers.get(value.remoteAddress());
 
-      LOG.log(Level.FINER, "Tuple handler: {0},{1}",
-          new Object[] {tuple.getT1(), tuple.getT2().getCanonicalName()});
+        if (tupleHandler != null) {
 
-      tupleHandler.onNext(decodedEvent);
+          LOG.log(Level.FINER, "Tuple handler: {0},{1}",
+              new Object[] {value.remoteAddress(), clazz.getCanonicalName()});
 
-    } else {
+          this.deliver(tupleHandler, decodedEvent);
+          return;
+        }
+      }
 
-      final EventHandler<RemoteMessage<? extends T>> messageHandler = this.msgTypeToHandlerMap.get(clazz);
+      final EventHandler<RemoteMessage<? extends T>> messageHandler = handlers.messageHandler;
 
-      if (messageHandler == null) {
-        final RuntimeException ex = new RemoteRuntimeException(
-            "Unknown message type in dispatch: " + clazz.getCanonicalName() + " from " + id);
-        LOG.log(Level.WARNING, "Unknown message type in dispatch.", ex);
-        throw ex;
+      if (messageHandler != null) {
+
+        LOG.log(Level.FINER, "Message handler: {0}", clazz.getCanonicalName());
+
+        final SocketRemoteIdentifier id = new SocketRemoteIdentifier((InetSocketAddress) value.remoteAddress());
+        this.deliver(messageHandler, new DefaultRemoteMessage<T>(id, decodedEvent));
+        return;
       }
+    }
 
-      LOG.log(Level.FINER, "Message handler: {0}", clazz.getCanonicalName());
+    final RuntimeException ex = new RemoteRuntimeException(
+        "Unknown message type in dispatch: " + clazz.getCanonicalName() + " from " + value.remoteAddress());
+    LOG.log(Level.WARNING, "Unknown message type in dispatch.", ex);
+    throw ex;
+  }
 
-      messageHandler.onNext(new DefaultRemoteMessage(id, decodedEvent));
+  /**
+   * Pass an event to its handler. Unless dispatch is concurrent, only that handler is locked,
+   * so that it sees one event at a time while other handlers are called.
+   */
+  private <E> void deliver(final EventHandler<E> handler, final E event) {
+    if (this.concurrentDispatch) {
+      handler.onNext(event);
+    } else {
+      synchronized (handler) {
+        handler.onNext(event);
+      }
     }
   }
+
+  private MessageTypeHandlers<T> getHandlers(final Class<? extends T> messageType) {
+    final MessageTypeHandlers<T> handlers = this.dispatchTable.get(messageType);
+    if (handlers != null) {
+      return handlers;
+    }
+    final MessageTypeHandlers<T> newHandlers = new MessageTypeHandlers<>();
+    final MessageTypeHandlers<T> oldHandlers = this.dispatchTable.putIfAbsent(messageType, newHandlers);
+    return oldHandlers != null ? oldHandlers : newHandlers;
+  }
+
+  private void removeMessageHandler(final Class<? extends T> messageType) {
+    final MessageTypeHandlers<T> handlers = this.dispatchTable.get(messageType);
+    if (handlers != null) {
+      handlers.messageHandler = null;
+    }
+  }
+
+  private void removeTupleHandler(final Tuple2<RemoteIdentifier, Class<? extends T>> tuple) {
+    final MessageTypeHandlers<T> handlers = this.dispatchTable.get(tuple.getT2());
+    if (handlers != null) {
+      handlers.sourceHandlers.remove(getSocketAddress(tuple.getT1()));
+    }
+  }
+
+  private static SocketAddress getSocketAddress(final RemoteIdentifier identifier) {
+    if (!(identifier instanceof SocketRemoteIdentifier)) {
+      throw new RemoteRuntimeException("Unsupported remote identifier: " + identifier);
+    }
+    return ((SocketRemoteIdentifier) identifier).getSocketAddress();
+  }
+
+  /**
+   * The handlers of one message type: one per sender address, and one for any sender.
+   */
+  private static final class MessageTypeHandlers<T> {
+
+    private final ConcurrentMap<SocketAddress, EventHandler<? extends T>> sourceHandlers = new ConcurrentHashMap<>();
+
+    private volatile EventHandler<RemoteMessage<? extends T>> messageHandler;
+  }
 }
@@ -27,7 +27,11 @@ import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
 
 import java.net.SocketAddress;
 import java.util.List;
-import java.util.concurrent.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -62,10 +66,10 @@ public class OrderedRemoteReceiverStage implements EStage<TransportEvent> {
     final ConcurrentMap<SocketAddress, OrderedEventStream> streamMap = new ConcurrentHashMap<>();
 
     final ThreadPoolStage<OrderedEventStream> pullStage = new ThreadPoolStage<>(
-        new OrderedPullEventHandler(handler), this.pullExecutor, errorHandler);
+        new OrderedPullEventHandler(handler, errorHandler), this.pullExecutor, errorHandler);
 
     this.pushStage = new ThreadPoolStage<>(
-        new OrderedPushEventHandler(streamMap, pullStage), this.pushExecutor, errorHandler); // for decoupling
+        new OrderedPushEventHandler(streamMap, pullStage, errorHandler), this.pushExecutor, errorHandler);
   }
 
   @Override
@@ -105,12 +109,15 @@ class OrderedPushEventHandler implements EventHandler<TransportEvent> {
   private final RemoteEventCodec<byte[]> codec;
   private final ConcurrentMap<SocketAddress, OrderedEventStream> streamMap; // per remote address
   private final ThreadPoolStage<OrderedEventStream> pullStage;
+  private final EventHandler<Throwable> errorHandler;
 
   OrderedPushEventHandler(final ConcurrentMap<SocketAddress, OrderedEventStream> streamMap,
-                          final ThreadPoolStage<OrderedEventStream> pullStage) {
+                          final ThreadPoolStage<OrderedEventStream> pullStage,
+                          final EventHandler<Throwable> errorHandler) {
     this.codec = new RemoteEventCodec<>(new ByteCodec());
     this.streamMap = streamMap;
     this.pullStage = pullStage;
+    this.errorHandler = errorHandler;
   }
 
   @Override
@@ -133,8 +140,17 @@ class OrderedPushEventHandler implements EventHandler<TransportEvent> {
         stream = streamMap.get(addr);
       }
     }
-    stream.add(re);
-    pullStage.onNext(stream);
+    final boolean ready;
+    try {
+      ready = stream.add(re);
+    } catch (final RemoteRuntimeException e) {
+      errorHandler.onNext(e);
+      return;
+    }
+    if (ready) {
+      // the stream went from idle to ready: it needs a drainer
+      pullStage.onNext(stream);
+    }
   }
 }
 
@@ -143,56 +159,137 @@ class OrderedPullEventHandler implements EventHandler<OrderedEventStream> {
   private static final Logger LOG = Logger.getLogger(OrderedPullEventHandler.class.getName());
 
   private final EventHandler<RemoteEvent<byte[]>> handler;
+  private final EventHandler<Throwable> errorHandler;
 
-  OrderedPullEventHandler(final EventHandler<RemoteEvent<byte[]>> handler) {
+  OrderedPullEventHandler(final EventHandler<RemoteEvent<byte[]>> handler,
+                          final EventHandler<Throwable> errorHandler) {
     this.handler = handler;
+    this.errorHandler = errorHandler;
   }
 
+  /**
+   * Drains the stream. At most one drainer runs per stream, so events are handled in order without locking.
+   * A failing event is reported to the error handler, and the drainer moves on to the next one.
+   */
   @Override
+  @SuppressWarnings("checkstyle:illegalcatch")
   public void onNext(final OrderedEventStream stream) {
     if (LOG.isLoggable(Level.FINER)) {
       LOG.log(Level.FINER, "{0}", stream);
     }
 
-    synchronized (stream) {
-      RemoteEvent<byte[]> event;
-      while ((event = stream.consume()) != null) {
+    RemoteEvent<byte[]> event;
+    while ((event = stream.consume()) != null) {
+      try {
         handler.onNext(event);
+      } catch (final Throwable t) {
+        errorHandler.onNext(t);
       }
     }
   }
 }
 
+/**
+ * Reorder buffer of the events from one remote address.
+ * Events are stored in a ring indexed by their sequence number, so an event that arrives in order
+ * is appended in constant time. The ring grows if an event arrives too far ahead of the next one to consume,
+ * up to the reorder window; events further ahead are rejected.
+ * The stream also tracks whether a drainer is scheduled for it, so only one drainer runs at a time.
+ */
 class OrderedEventStream {
   private static final Logger LOG = Logger.getLogger(OrderedEventStream.class.getName());
-  private final BlockingQueue<RemoteEvent<byte[]>> queue; // a queue of remote events
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final int maxCapacity; // the reorder window; a power of two
+
+  private RemoteEvent<byte[]>[] ring; // events indexed by sequence number; the length is a power of two
   private long nextSeq; // the number of the next event to consume
+  private boolean draining; // whether a drainer is scheduled or running
 
   OrderedEventStream() {
-    queue = new PriorityBlockingQueue<>(11, new RemoteEventComparator<byte[]>());
+    this(WakeParameters.REMOTE_REORDER_WINDOW);
+  }
+
+  /**
+   * @param maxCapacity how far ahead of the next event to consume an event can be at least;
+   *                    it is rounded up to a power of two
+   * @throws IllegalArgumentException if the capacity is not positive or too large
+   */
+  @SuppressWarnings("unchecked")
+  OrderedEventStream(final int maxCapacity) {
+    if (maxCapacity <= 0 || maxCapacity > (1 << 30)) {
+      throw new IllegalArgumentException("Invalid reorder window " + maxCapacity);
+    }
+    this.maxCapacity = Math.max(1, Integer.highestOneBit(maxCapacity - 1) << 1);
+    ring = new RemoteEvent[Math.min(INITIAL_CAPACITY, this.maxCapacity)];
     nextSeq = 0;
+    draining = false;
   }
 
-  synchronized void add(final RemoteEvent<byte[]> event) {
-    queue.add(event);
+  /**
+   * Adds an event to the stream.
+   *
+   * @param event the event
+   * @return true if the caller must schedule a drainer, i.e. the next event is ready and no drainer is scheduled
+   * @throws RemoteRuntimeException if the event is beyond the reorder window
+   */
+  synchronized boolean add(final RemoteEvent<byte[]> event) {
+    final long seq = event.getSeq();
+    if (seq < nextSeq) {
+      LOG.log(Level.WARNING, "Dropping event with sequence {0} that is already consumed; expected {1} or higher",
+          new Object[]{seq, nextSeq});
+      return false;
+    }
+    if (seq - nextSeq >= maxCapacity) {
+      throw new RemoteRuntimeException("Dropping event with sequence " + seq + " from " + event.remoteAddress()
+          + ": it is more than " + maxCapacity + " events ahead of the next one, " + nextSeq);
+    }
+
+    while (seq - nextSeq >= ring.length) {
+      grow();
+    }
+
+    final int index = (int) seq & (ring.length - 1);
+    if (ring[index] != null) {
+      LOG.log(Level.WARNING, "Dropping event with duplicate sequence {0}", seq);
+      return false;
+    }
+    ring[index] = event;
+
+    if (!draining && seq == nextSeq) {
+      draining = true;
+      return true;
+    }
+    return false;
   }
 
+  /**
+   * Consumes the next event in sequence.
+   * When there is none, the drainer is done: the next add() of that event schedules a new one.
+   *
+   * @return the next event, or null if it has not arrived yet
+   */
   synchronized RemoteEvent<byte[]> consume() {
-    RemoteEvent<byte[]> event = queue.peek();
-    if (event != null) {
-
-      if (event.getSeq() == nextSeq) {
-        event = queue.poll();
-        ++nextSeq;
-        return event;
-      } else {
-        LOG.log(Level.FINER, "Event sequence is {0} does not match expected {1}",
-            new Object[]{event.getSeq(), nextSeq});
-      }
-    } else {
-      LOG.log(Level.FINER, "Event is null");
+    final int index = (int) nextSeq & (ring.length - 1);
+    final RemoteEvent<byte[]> event = ring[index];
+    if (event == null) {
+      LOG.log(Level.FINER, "Event with sequence {0} has not arrived yet", nextSeq);
+      draining = false;
+      return null;
     }
+    ring[index] = null;
+    ++nextSeq;
+    return event;
+  }
 
-    return null;
+  @SuppressWarnings("unchecked")
+  private void grow() {
+    final RemoteEvent<byte[]>[] newRing = new RemoteEvent[ring.length * 2];
+    for (final RemoteEvent<byte[]> event : ring) {
+      if (event != null) {
+        newRing[(int) event.getSeq() & (newRing.length - 1)] = event;
+      }
+    }
+    ring = newRing;
   }
 }
@@ -18,6 +18,8 @@
  */
 package org.apache.reef.wake.remote.impl;
 
+import io.netty.buffer.ByteBuf;
+import org.apache.reef.wake.remote.ByteBufEncoder;
 import org.apache.reef.wake.remote.Codec;
 
 /**
@@ -25,7 +27,7 @@ import org.apache.reef.wake.remote.Codec;
  *
  * @param <T> type
  */
-public class RemoteEventCodec<T> implements Codec<RemoteEvent<T>> {
+public class RemoteEventCodec<T> implements Codec<RemoteEvent<T>>, ByteBufEncoder<RemoteEvent<T>> {
 
   private final RemoteEventEncoder<T> encoder;
   private final RemoteEventDecoder<T> decoder;
@@ -51,6 +53,17 @@ public class RemoteEventCodec<T> implements Codec<RemoteEvent<T>> {
     return encoder.encode(obj);
   }
 
+  /**
+   * Encodes the remote event object into the buffer.
+   *
+   * @param obj the remote event object
+   * @param buf the buffer
+   */
+  @Override
+  public void encodeTo(final RemoteEvent<T> obj, final ByteBuf buf) {
+    encoder.encodeTo(obj, buf);
+  }
+
   /**
    * Decodes a remote event object from the bytes.
    *
@@ -18,18 +18,29 @@
  */
 package org.apache.reef.wake.remote.impl;
 
-import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
 import org.apache.reef.wake.remote.Decoder;
 import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
 import org.apache.reef.wake.remote.proto.WakeRemoteProtos.WakeMessagePBuf;
 
+import java.io.IOException;
+
 /**
  * Remote event decoder using the WakeMessage protocol buffer.
+ * <p>
+ * The message is read field by field, so that the encoded event is copied only once out of the input.
  *
  * @param <T> type
  */
 public class RemoteEventDecoder<T> implements Decoder<RemoteEvent<T>> {
 
+  /**
+   * Tags of the WakeMessage fields; the lower three bits of a tag hold the wire type.
+   */
+  private static final int DATA_TAG = WakeMessagePBuf.DATA_FIELD_NUMBER << 3 | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+  private static final int SEQ_TAG = WakeMessagePBuf.SEQ_FIELD_NUMBER << 3 | WireFormat.WIRETYPE_VARINT;
+
   private final Decoder<T> decoder;
 
   /**
@@ -50,13 +61,31 @@ public class RemoteEventDecoder<T> implements Decoder<RemoteEvent<T>> {
    */
   @Override
   public RemoteEvent<T> decode(final byte[] data) {
-    final WakeMessagePBuf pbuf;
+    final CodedInputStream input = CodedInputStream.newInstance(data);
+    byte[] eventData = null;
+    long seq = 0;
+    boolean hasSeq = false;
     try {
-      pbuf = WakeMessagePBuf.parseFrom(data);
-      return new RemoteEvent<T>(null, null, pbuf.getSeq(), decoder.decode(pbuf.getData().toByteArray()));
-    } catch (final InvalidProtocolBufferException e) {
+      while (true) {
+        final int tag = input.readTag();
+        if (tag == 0) {
+          break;
+        } else if (tag == DATA_TAG) {
+          eventData = input.readRawBytes(input.readRawVarint32());
+        } else if (tag == SEQ_TAG) {
+          seq = input.readInt64();
+          hasSeq = true;
+        } else if (!input.skipField(tag)) {
+          break;
+        }
+      }
+    } catch (final IOException e) {
       throw new RemoteRuntimeException(e);
     }
+    if (eventData == null || !hasSeq) {
+      throw new RemoteRuntimeException("Message missing required fields: " + (eventData == null ? "data" : "seq"));
+    }
+    return new RemoteEvent<T>(null, null, seq, decoder.decode(eventData));
   }
 
 }
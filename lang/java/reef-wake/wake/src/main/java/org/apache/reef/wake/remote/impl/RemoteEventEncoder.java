@@ -18,17 +18,29 @@
  */
 package org.apache.reef.wake.remote.impl;
 
-import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.apache.reef.wake.remote.ByteBufEncoder;
 import org.apache.reef.wake.remote.Encoder;
 import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
 import org.apache.reef.wake.remote.proto.WakeRemoteProtos.WakeMessagePBuf;
 
 /**
  * Remote event encoder using the WakeMessage protocol buffer.
+ * <p>
+ * The message is written field by field, so that the encoded event is copied only once into the output.
  *
  * @param <T> type
  */
-public class RemoteEventEncoder<T> implements Encoder<RemoteEvent<T>> {
+public class RemoteEventEncoder<T> implements ByteBufEncoder<RemoteEvent<T>> {
+
+  /**
+   * Tags of the WakeMessage fields; the lower three bits of a tag hold the wire type.
+   */
+  private static final int DATA_TAG = WakeMessagePBuf.DATA_FIELD_NUMBER << 3 | WireFormat.WIRETYPE_LENGTH_DELIMITED;
+  private static final int SEQ_TAG = WakeMessagePBuf.SEQ_FIELD_NUMBER << 3 | WireFormat.WIRETYPE_VARINT;
 
   private final Encoder<T> encoder;
 
@@ -50,15 +62,52 @@ public class RemoteEventEncoder<T> implements Encoder<RemoteEvent<T>> {
    */
   @Override
   public byte[] encode(final RemoteEvent<T> obj) {
+    final byte[] data = encodeEvent(obj);
+    final byte[] message = new byte[CodedOutputStream.computeTagSize(WakeMessagePBuf.DATA_FIELD_NUMBER)
+        + CodedOutputStream.computeRawVarint32Size(data.length) + data.length
+        + CodedOutputStream.computeInt64Size(WakeMessagePBuf.SEQ_FIELD_NUMBER, obj.getSeq())];
+    final ByteBuf buf = Unpooled.wrappedBuffer(message);
+    buf.clear();
+    writeMessage(data, obj.getSeq(), buf);
+    return message;
+  }
+
+  /**
+   * Encodes the remote event object into the buffer.
+   *
+   * @param obj the remote event
+   * @param buf the buffer
+   * @throws RemoteRuntimeException
+   */
+  @Override
+  public void encodeTo(final RemoteEvent<T> obj, final ByteBuf buf) {
+    writeMessage(encodeEvent(obj), obj.getSeq(), buf);
+  }
+
+  private byte[] encodeEvent(final RemoteEvent<T> obj) {
     if (obj.getEvent() == null) {
       throw new RemoteRuntimeException("Event is null");
     }
+    return encoder.encode(obj.getEvent());
+  }
 
-    final WakeMessagePBuf.Builder builder = WakeMessagePBuf.newBuilder();
-    builder.setSeq(obj.getSeq());
-    builder.setData(ByteString.copyFrom(encoder.encode(obj.getEvent())));
-
-    return builder.build().toByteArray();
+  /**
+   * Writes the WakeMessage fields in the same order as WakeMessagePBuf does.
+   */
+  private static void writeMessage(final byte[] data, final long seq, final ByteBuf buf) {
+    writeVarint(DATA_TAG, buf);
+    writeVarint(data.length, buf);
+    buf.writeBytes(data);
+    writeVarint(SEQ_TAG, buf);
+    writeVarint(seq, buf);
   }
 
+  private static void writeVarint(final long value, final ByteBuf buf) {
+    long rest = value;
+    while ((rest & ~0x7FL) != 0) {
+      buf.writeByte((int) (rest & 0x7F) | 0x80);
+      rest >>>= 7;
+    }
+    buf.writeByte((int) rest);
+  }
 }
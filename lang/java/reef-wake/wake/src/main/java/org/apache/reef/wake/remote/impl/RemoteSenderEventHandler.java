@@ -25,14 +25,18 @@ import org.apache.reef.wake.remote.transport.Link;
 import org.apache.reef.wake.remote.transport.Transport;
 import org.apache.reef.wake.remote.transport.netty.LoggingLinkListener;
 
-import java.net.SocketAddress;
-import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.ArrayDeque;
+import java.util.Queue;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Remote sender event handler.
+ * <p>
+ * Until the link to the destination is open, events are queued, up to a bound, and the link is opened
+ * without blocking the sender. The queued events are written as soon as the link is open,
+ * and dropped, after notifying the error handler, if it cannot be opened.
+ * Events that do not fit in the queue are dropped and reported to the error handler.
  *
  * @param <T> type
  */
@@ -42,122 +46,144 @@ class RemoteSenderEventHandler<T> implements EventHandler<RemoteEvent<T>> {
 
   private final RemoteEventEncoder<T> encoder;
   private final Transport transport;
-  private final BlockingQueue<RemoteEvent<T>> queue;
-  private final AtomicReference<Link<byte[]>> linkRef;
-  private final ExecutorService executor;
+  private final int queueCapacity;
+  private final EventHandler<Throwable> errorHandler;
+
+  /**
+   * Events waiting for the link; guarded by this.
+   */
+  private final Queue<RemoteEvent<T>> queue = new ArrayDeque<>();
+
+  /**
+   * Whether the link is being opened; guarded by this.
+   */
+  private boolean connecting = false;
+
+  /**
+   * The link, set only after the queued events have been written to it.
+   */
+  private volatile Link<byte[]> link;
 
   /**
    * Constructs a remote sender event handler.
    *
-   * @param encoder   the encoder
-   * @param transport the transport to send events
-   * @param executor  the executor service used for creating channels
+   * @param encoder       the encoder
+   * @param transport     the transport to send events
+   * @param queueCapacity the number of events that can wait for the link
+   * @param errorHandler  the handler of connection failures
    */
-  RemoteSenderEventHandler(final Encoder<T> encoder, final Transport transport, final ExecutorService executor) {
+  RemoteSenderEventHandler(final Encoder<T> encoder, final Transport transport,
+                           final int queueCapacity, final EventHandler<Throwable> errorHandler) {
     this.encoder = new RemoteEventEncoder<>(encoder);
     this.transport = transport;
-    this.executor = executor;
-    this.linkRef = new AtomicReference<>();
-    this.queue = new LinkedBlockingQueue<>();
+    this.queueCapacity = queueCapacity;
+    this.errorHandler = errorHandler;
   }
 
-  void setLink(final Link<byte[]> link) {
-    LOG.log(Level.FINEST, "thread {0} link {1}", new Object[]{Thread.currentThread(), link});
-    linkRef.compareAndSet(null, link);
-    consumeQueue();
-  }
-
-  void consumeQueue() {
-    try {
-      RemoteEvent<T> event;
-      while ((event = queue.poll(0, TimeUnit.MICROSECONDS)) != null) {
+  /**
+   * Writes the queued events to the new link, then sends the following events directly.
+   *
+   * @param newLink the link to the destination
+   */
+  void setLink(final Link<byte[]> newLink) {
+    LOG.log(Level.FINEST, "thread {0} link {1}", new Object[]{Thread.currentThread(), newLink});
+    synchronized (this) {
+      while (!queue.isEmpty()) {
+        final RemoteEvent<T> event = queue.poll();
         LOG.log(Level.FINEST, "{0}", event);
-        linkRef.get().write(encoder.encode(event));
+        newLink.write(encoder.encode(event));
       }
-    } catch (final InterruptedException e) {
-      e.printStackTrace();
-      throw new RemoteRuntimeException(e);
+      link = newLink;
+      connecting = false;
     }
   }
 
+  /**
+   * Drops the queued events and reports that the link could not be opened.
+   *
+   * @param cause the cause of the failure
+   */
+  void connectFailed(final Exception cause) {
+    final int numDropped;
+    synchronized (this) {
+      numDropped = queue.size();
+      queue.clear();
+      connecting = false;
+    }
+    errorHandler.onNext(new RemoteRuntimeException(
+        "Could not open a link; dropped " + numDropped + " events", cause));
+  }
+
   /**
    * Handles the event to send to a remote node.
+   * If too many events are waiting for the link, the event is dropped and reported to the error handler.
    *
    * @param value the event
-   * @throws RemoteRuntimeException
    */
   @Override
   public void onNext(final RemoteEvent<T> value) {
-    try {
-      if (linkRef.get() == null) {
-        queue.add(value);
-
-        final Link<byte[]> link = transport.get(value.remoteAddress());
-        if (link != null) {
-          LOG.log(Level.FINEST, "transport get link: {0}", link);
-          setLink(link);
-          return;
+    Link<byte[]> currentLink = link;
+    if (currentLink == null) {
+      final boolean queueFull;
+      final boolean startConnect;
+      synchronized (this) {
+        currentLink = link;
+        queueFull = currentLink == null && queue.size() >= queueCapacity;
+        if (currentLink == null && !queueFull) {
+          queue.add(value);
+          startConnect = !connecting;
+          connecting = true;
+        } else {
+          startConnect = false;
         }
-
-        final ConnectFutureTask<Link<byte[]>> cf = new ConnectFutureTask<>(
-            new ConnectCallable(transport, value.localAddress(), value.remoteAddress()),
-            new ConnectEventHandler<T>(this));
-        executor.submit(cf);
-      } else {
-        // encode and write bytes
-        // consumeQueue();
-
-        if (LOG.isLoggable(Level.FINEST)) {
-          LOG.log(Level.FINEST, "Send an event from " + linkRef.get().getLocalAddress() + " to " +
-              linkRef.get().getRemoteAddress() + " value " + value);
+      }
+      if (queueFull) {
+        errorHandler.onNext(new RemoteRuntimeException("Link to " + value.remoteAddress() + " is not open and "
+            + queueCapacity + " events are waiting for it; dropped " + value));
+        return;
+      }
+      if (currentLink == null) {
+        if (startConnect) {
+          transport.openAsync(value.remoteAddress(), new ByteCodec(), new LoggingLinkListener<byte[]>(),
+              new ConnectEventHandler<>(this), new ConnectErrorHandler<>(this));
         }
-        linkRef.get().write(encoder.encode(value));
+        return;
       }
-    } catch (final RemoteRuntimeException ex2) {
-      ex2.printStackTrace();
-      throw ex2;
     }
-  }
-
 
+    // encode and write bytes
+    if (LOG.isLoggable(Level.FINEST)) {
+      LOG.log(Level.FINEST, "Send an event from " + currentLink.getLocalAddress() + " to " +
+          currentLink.getRemoteAddress() + " value " + value);
+    }
+    currentLink.write(encoder.encode(value));
+  }
 }
 
-class ConnectCallable implements Callable<Link<byte[]>> {
+class ConnectEventHandler<T> implements EventHandler<Link<byte[]>> {
 
-  private final Transport transport;
-  private final SocketAddress localAddress;
-  private final SocketAddress remoteAddress;
+  private final RemoteSenderEventHandler<T> handler;
 
-  ConnectCallable(final Transport transport, final SocketAddress localAddress, final SocketAddress remoteAddress) {
-    this.transport = transport;
-    this.localAddress = localAddress;
-    this.remoteAddress = remoteAddress;
+  ConnectEventHandler(final RemoteSenderEventHandler<T> handler) {
+    this.handler = handler;
   }
 
   @Override
-  public Link<byte[]> call() throws Exception {
-    return transport.open(remoteAddress,
-        new ByteCodec(),
-        new LoggingLinkListener<byte[]>());
+  public void onNext(final Link<byte[]> value) {
+    handler.setLink(value);
   }
 }
 
-class ConnectEventHandler<T> implements EventHandler<ConnectFutureTask<Link<byte[]>>> {
+class ConnectErrorHandler<T> implements EventHandler<Exception> {
 
   private final RemoteSenderEventHandler<T> handler;
 
-  ConnectEventHandler(final RemoteSenderEventHandler<T> handler) {
+  ConnectErrorHandler(final RemoteSenderEventHandler<T> handler) {
     this.handler = handler;
   }
 
   @Override
-  public void onNext(final ConnectFutureTask<Link<byte[]>> value) {
-    try {
-      handler.setLink(value.get());
-    } catch (InterruptedException | ExecutionException e) {
-      e.printStackTrace();
-      throw new RemoteRuntimeException(e);
-    }
+  public void onNext(final Exception value) {
+    handler.connectFailed(value);
   }
-
 }
@@ -21,15 +21,10 @@ package org.apache.reef.wake.remote.impl;
 import org.apache.reef.wake.EventHandler;
 import org.apache.reef.wake.Stage;
 import org.apache.reef.wake.WakeParameters;
-import org.apache.reef.wake.impl.DefaultThreadFactory;
+import org.apache.reef.wake.impl.LoggingEventHandler;
 import org.apache.reef.wake.remote.Encoder;
-import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
 import org.apache.reef.wake.remote.transport.Transport;
 
-import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -38,26 +33,41 @@ import java.util.logging.Logger;
  */
 public class RemoteSenderStage implements Stage {
 
-  private static final long SHUTDOWN_TIMEOUT = WakeParameters.REMOTE_EXECUTOR_SHUTDOWN_TIMEOUT;
-
   private static final Logger LOG = Logger.getLogger(RemoteSenderStage.class.getName());
 
-  private final ExecutorService executor;
   private final Encoder encoder;
   private final Transport transport;
+  private final int queueCapacity;
+  private final EventHandler<Throwable> errorHandler;
 
   /**
-   * Constructs a remote sender stage.
+   * Constructs a remote sender stage that logs connection failures.
    *
    * @param encoder    the encoder of the event
    * @param transport  the transport to send events
    * @param numThreads the number of threads
+   * @deprecated links are opened without blocking, so numThreads is ignored.
+   * Use {@link #RemoteSenderStage(Encoder, Transport, int, EventHandler)} instead.
    */
+  @Deprecated
   public RemoteSenderStage(final Encoder encoder, final Transport transport, final int numThreads) {
+    this(encoder, transport, WakeParameters.REMOTE_SEND_QUEUE_CAPACITY, new LoggingEventHandler<Throwable>());
+  }
+
+  /**
+   * Constructs a remote sender stage.
+   *
+   * @param encoder       the encoder of the event
+   * @param transport     the transport to send events
+   * @param queueCapacity the number of events a handler queues while its link is being opened
+   * @param errorHandler  the handler of connection failures
+   */
+  public RemoteSenderStage(final Encoder encoder, final Transport transport,
+                           final int queueCapacity, final EventHandler<Throwable> errorHandler) {
     this.encoder = encoder;
     this.transport = transport;
-    this.executor = Executors.newFixedThreadPool(
-        numThreads, new DefaultThreadFactory(RemoteSenderStage.class.getName()));
+    this.queueCapacity = queueCapacity;
+    this.errorHandler = errorHandler;
   }
 
   /**
@@ -66,7 +76,7 @@ public class RemoteSenderStage implements Stage {
    * @return a remote sender event handler
    */
   public <T> EventHandler<RemoteEvent<T>> getHandler() {
-    return new RemoteSenderEventHandler<T>(encoder, transport, executor);
+    return new RemoteSenderEventHandler<T>(encoder, transport, queueCapacity, errorHandler);
   }
 
   /**
@@ -75,17 +85,5 @@ public class RemoteSenderStage implements Stage {
   @Override
   public void close() throws Exception {
     LOG.log(Level.FINE, "close {0}", transport);
-    executor.shutdown();
-    try {
-      // wait for threads to finish for timeout
-      if (!executor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.MILLISECONDS)) {
-        LOG.log(Level.WARNING, "Executor did not terminate in {0} ms.", SHUTDOWN_TIMEOUT);
-        final List<Runnable> droppedRunnables = executor.shutdownNow();
-        LOG.log(Level.WARNING, "Executor dropped {0} tasks.", droppedRunnables.size());
-      }
-    } catch (final InterruptedException e) {
-      LOG.log(Level.WARNING, "Close interrupted", e);
-      throw new RemoteRuntimeException(e);
-    }
   }
 }
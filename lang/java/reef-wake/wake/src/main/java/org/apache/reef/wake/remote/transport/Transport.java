@@ -47,6 +47,22 @@ public interface Transport extends Stage {
   <T> Link<T> open(SocketAddress remoteAddr, Encoder<? super T> encoder, LinkListener<? super T> listener)
       throws IOException;
 
+  /**
+   * Opens a link for the remote address without blocking.
+   * The link handler receives the cached link right away if there is one. Otherwise the link is connected
+   * in the background, retrying with a growing delay, and the link handler receives it once it is connected.
+   * If it cannot be connected, the error handler receives the cause, and further attempts to open a link
+   * for the address fail immediately for a while.
+   *
+   * @param remoteAddr   the remote socket address
+   * @param encoder      the encoder
+   * @param listener     the link listener
+   * @param linkHandler  the handler that receives the link
+   * @param errorHandler the handler that receives the cause if the link cannot be opened
+   */
+  <T> void openAsync(SocketAddress remoteAddr, Encoder<? super T> encoder, LinkListener<? super T> listener,
+                     EventHandler<Link<T>> linkHandler, EventHandler<Exception> errorHandler);
+
   /**
    * Returns a link for the remote address if already cached; otherwise, returns null.
    *
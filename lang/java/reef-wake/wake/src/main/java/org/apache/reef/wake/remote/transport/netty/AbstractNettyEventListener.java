@@ -89,11 +89,21 @@ abstract class AbstractNettyEventListener implements NettyEventListener {
 
   protected abstract void exceptionCleanup(final ChannelHandlerContext ctx, Throwable cause);
 
+  /**
+   * Forgets the link of a closed channel. The link cached for the same address is kept
+   * if it belongs to another channel, e.g. when a redundant connection is closed.
+   */
   protected void closeChannel(final Channel channel) {
-    final LinkReference refRemoved =
-        channel != null && channel.remoteAddress() != null ?
-            this.addrToLinkRefMap.remove(channel.remoteAddress()) : null;
+    final SocketAddress remoteAddr = channel != null ? channel.remoteAddress() : null;
+    final LinkReference linkRef = remoteAddr != null ? this.addrToLinkRefMap.get(remoteAddr) : null;
+    final boolean removed = linkRef != null && !isLinkOfOtherChannel(linkRef, channel)
+        && this.addrToLinkRefMap.remove(remoteAddr, linkRef);
     LOG.log(Level.FINER, "Channel closed: {0}. Link ref found and removed: {1}",
-        new Object[]{channel, refRemoved != null});
+        new Object[]{channel, removed});
+  }
+
+  private static boolean isLinkOfOtherChannel(final LinkReference linkRef, final Channel channel) {
+    final Object link = linkRef.getLink();
+    return link instanceof NettyLink && ((NettyLink<?>) link).getChannel() != channel;
   }
 }
@@ -66,46 +66,79 @@ public class ChunkedReadWriteHandler extends ChunkedWriteHandler {
   @Override
   public void channelRead(final ChannelHandlerContext ctx, final Object msg) throws Exception {
 
-    if (msg instanceof byte[]) {
+    if (msg instanceof ByteBuf) {
+
+      // frames are copied once, straight into the array of the dechunked message
+      final ByteBuf data = (ByteBuf) msg;
+      try {
+        if (start) {
+          if (data.readableBytes() < INT_SIZE) {
+            expectedSize = 0;
+          } else {
+            expectedSize = Integer.reverseBytes(data.readInt());
+          }
+          startDechunking();
+        }
+        readBuffer.writeBytes(data);
+      } finally {
+        data.release();
+      }
+      finishDechunking(ctx);
+
+    } else if (msg instanceof byte[]) {
 
       final byte[] data = (byte[]) msg;
 
       if (start) {
         //LOG.log(Level.FINEST, "{0} Starting dechunking of a chunked write", curThrName);
         expectedSize = getSize(data);
-        // LOG.log(Level.FINEST, "Expected Size = {0}. Wrapping byte[{1}] into a ChannelBuffer",
-        // new Object[]{expectedSize,expectedSize});
-        retArr = new byte[expectedSize];
-        readBuffer = Unpooled.wrappedBuffer(retArr);
-        readBuffer.clear();
+        startDechunking();
         //if (LOG.isLoggable(Level.FINEST)) LOG.log(Level.FINEST, curThrName + "read buffer: cur sz = " +
         // readBuffer.writerIndex() + " + " + (data.length - INT_SIZE) + " bytes will added by current chunk");
         readBuffer.writeBytes(data, INT_SIZE, data.length - INT_SIZE);
         //if (LOG.isLoggable(Level.FINEST)) LOG.log(Level.FINEST, curThrName + "read buffer: new sz = " +
         // readBuffer.writerIndex());
-        start = false;
       } else {
         readBuffer.writeBytes(data);
       }
 
-      if (readBuffer.writerIndex() == expectedSize) {
-        //if (LOG.isLoggable(Level.FINEST)) LOG.log(Level.FINEST, "{0} Dechunking complete." +
-        // "Creating upstream msg event with the dechunked byte[{1}]", new Object[]{curThrName, expectedSize});
-        //if (LOG.isLoggable(Level.FINEST)) LOG.log(Level.FINEST, "Resetting state to begin another dechunking",
-        // curThrName);
-        final byte[] temp = retArr;
-        start = true;
-        expectedSize = 0;
-        readBuffer.release();
-        retArr = null;
-        //LOG.log(Level.FINEST, "{0} Sending dechunked message upstream", curThrName);
-        super.channelRead(ctx, temp);
-      }
+      finishDechunking(ctx);
     } else {
       super.channelRead(ctx, msg);
     }
   }
 
+  /**
+   * Allocates the array of the message whose first chunk arrived.
+   */
+  private void startDechunking() {
+    // LOG.log(Level.FINEST, "Expected Size = {0}. Wrapping byte[{1}] into a ChannelBuffer",
+    // new Object[]{expectedSize,expectedSize});
+    retArr = new byte[expectedSize];
+    readBuffer = Unpooled.wrappedBuffer(retArr);
+    readBuffer.clear();
+    start = false;
+  }
+
+  /**
+   * Sends the message upstream once all of its chunks arrived.
+   */
+  private void finishDechunking(final ChannelHandlerContext ctx) throws Exception {
+    if (readBuffer.writerIndex() == expectedSize) {
+      //if (LOG.isLoggable(Level.FINEST)) LOG.log(Level.FINEST, "{0} Dechunking complete." +
+      // "Creating upstream msg event with the dechunked byte[{1}]", new Object[]{expectedSize,expectedSize});
+      //if (LOG.isLoggable(Level.FINEST)) LOG.log(Level.FINEST, "Resetting state to begin another dechunking",
+      // curThrName);
+      final byte[] temp = retArr;
+      start = true;
+      expectedSize = 0;
+      readBuffer.release();
+      retArr = null;
+      //LOG.log(Level.FINEST, "{0} Sending dechunked message upstream", curThrName);
+      super.channelRead(ctx, temp);
+    }
+  }
+
   /**
    * Thread-safe since there is no shared instance state.
    * Just prepend size to the message and stream it through
@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.EventLoop;
+import io.netty.util.ReferenceCountUtil;
+import org.apache.reef.wake.remote.Encoder;
+import org.apache.reef.wake.remote.transport.LinkListener;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Netty link that coalesces writes.
+ *
+ * Messages are encoded on the caller thread and queued. A single task on the event loop of the channel
+ * writes all queued messages and flushes them together, so that many small messages share one system call.
+ * The channel is flushed at the latest after maxFlushBytes bytes were written.
+ * Messages still queued when the channel closes are released and reported to the link listener as failed.
+ */
+public final class CoalescingNettyLink<T> extends NettyLink<T> {
+
+  private static final Logger LOG = Logger.getLogger(CoalescingNettyLink.class.getName());
+
+  private final Queue<PendingWrite<T>> pendingWrites = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+  private final AtomicLong numFlushes = new AtomicLong(0);
+  private final AtomicLong numFlushedMessages = new AtomicLong(0);
+  private final int maxFlushBytes;
+  private final long maxFlushDelay;
+
+  private final Runnable drainTask = new Runnable() {
+    @Override
+    public void run() {
+      drain();
+    }
+  };
+
+  /**
+   * Constructs a coalescing link.
+   *
+   * @param channel       the channel
+   * @param encoder       the encoder
+   * @param listener      the link listener
+   * @param maxFlushBytes the number of written bytes after which the channel is flushed
+   * @param maxFlushDelay how long the first queued message waits for others before it is written, in microseconds
+   */
+  public CoalescingNettyLink(final Channel channel,
+                             final Encoder<? super T> encoder,
+                             final LinkListener<? super T> listener,
+                             final int maxFlushBytes,
+                             final long maxFlushDelay) {
+    super(channel, encoder, listener);
+    if (maxFlushBytes <= 0) {
+      throw new IllegalArgumentException("maxFlushBytes must be positive: " + maxFlushBytes);
+    }
+    if (maxFlushDelay < 0) {
+      throw new IllegalArgumentException("maxFlushDelay must not be negative: " + maxFlushDelay);
+    }
+    this.maxFlushBytes = maxFlushBytes;
+    this.maxFlushDelay = maxFlushDelay;
+    channel.closeFuture().addListener(new ChannelFutureListener() {
+      @Override
+      public void operationComplete(final ChannelFuture future) {
+        failPendingWrites(new ClosedChannelException());
+      }
+    });
+  }
+
+  /**
+   * Queues the message and schedules a flush on the event loop of the channel, if none is pending.
+   *
+   * @param message the message
+   */
+  @Override
+  public void write(final T message) {
+    LOG.log(Level.FINEST, "write {0} {1}", new Object[]{getChannel(), message});
+    pendingWrites.add(new PendingWrite<T>(message, encodeFrame(message)));
+    if (!getChannel().isOpen()) {
+      // the channel may have closed before the message was queued; nothing would drain it
+      failPendingWrites(new ClosedChannelException());
+      return;
+    }
+    if (drainScheduled.compareAndSet(false, true)) {
+      final EventLoop eventLoop = getChannel().eventLoop();
+      try {
+        if (maxFlushDelay > 0) {
+          eventLoop.schedule(drainTask, maxFlushDelay, TimeUnit.MICROSECONDS);
+        } else {
+          eventLoop.execute(drainTask);
+        }
+      } catch (final RejectedExecutionException e) {
+        drainScheduled.set(false);
+        failPendingWrites(e);
+      }
+    }
+  }
+
+  /**
+   * Gets the number of flushes issued by this link.
+   *
+   * @return the number of flushes
+   */
+  public long getNumFlushes() {
+    return numFlushes.get();
+  }
+
+  /**
+   * Gets the number of messages written by this link.
+   *
+   * @return the number of flushed messages
+   */
+  public long getNumFlushedMessages() {
+    return numFlushedMessages.get();
+  }
+
+  /**
+   * Gets the average number of messages per flush.
+   *
+   * @return the average number of messages per flush, or 0 if nothing was flushed yet
+   */
+  public double getMessagesPerFlush() {
+    final long flushes = numFlushes.get();
+    return flushes == 0 ? 0 : (double) numFlushedMessages.get() / flushes;
+  }
+
+  /**
+   * Writes the queued messages; runs on the event loop.
+   * After maxFlushBytes bytes it flushes and yields the event loop to other channels.
+   */
+  private void drain() {
+    // clear the flag first, so that a message queued after the last poll schedules another drain
+    drainScheduled.set(false);
+    final Channel channel = getChannel();
+    final LinkListener<? super T> listener = getListener();
+    int numBytes = 0;
+    int numMessages = 0;
+    while (true) {
+      final PendingWrite<T> pendingWrite = pendingWrites.poll();
+      if (pendingWrite == null) {
+        break;
+      }
+      if (listener != null) {
+        channel.write(pendingWrite.frame)
+            .addListener(new NettyChannelFutureListener<>(pendingWrite.message, listener));
+      } else {
+        channel.write(pendingWrite.frame);
+      }
+      numBytes += getFrameSize(pendingWrite.frame);
+      numMessages++;
+      if (numBytes >= maxFlushBytes) {
+        flush(channel, numMessages);
+        if (!pendingWrites.isEmpty() && drainScheduled.compareAndSet(false, true)) {
+          channel.eventLoop().execute(drainTask);
+        }
+        return;
+      }
+    }
+    if (numMessages > 0) {
+      flush(channel, numMessages);
+    }
+  }
+
+  /**
+   * Releases the frames of the queued messages, and reports the messages to the listener as failed.
+   *
+   * @param cause why the messages cannot be written
+   */
+  private void failPendingWrites(final Exception cause) {
+    final LinkListener<? super T> listener = getListener();
+    int numFailed = 0;
+    while (true) {
+      final PendingWrite<T> pendingWrite = pendingWrites.poll();
+      if (pendingWrite == null) {
+        break;
+      }
+      ReferenceCountUtil.release(pendingWrite.frame);
+      numFailed++;
+      if (listener != null) {
+        listener.onException(cause, getRemoteAddress(), pendingWrite.message);
+      }
+    }
+    if (numFailed > 0) {
+      LOG.log(Level.FINE, "failed {0} queued messages to {1}", new Object[]{numFailed, getChannel()});
+    }
+  }
+
+  private void flush(final Channel channel, final int numMessages) {
+    channel.flush();
+    numFlushes.incrementAndGet();
+    numFlushedMessages.addAndGet(numMessages);
+    LOG.log(Level.FINEST, "flushed {0} messages to {1}", new Object[]{numMessages, channel});
+  }
+
+  /**
+   * A message and its encoded frame waiting to be written.
+   */
+  private static final class PendingWrite<T> {
+    private final T message;
+    private final Object frame;
+
+    PendingWrite(final T message, final Object frame) {
+      this.message = message;
+      this.frame = frame;
+    }
+  }
+}
@@ -42,8 +42,16 @@ final class LinkReference {
     return this.link;
   }
 
-  synchronized void setLink(final Link<?> link) {
-    this.link = link;
+  /**
+   * Sets the link unless one is already set.
+   *
+   * @return the link that is set after the call
+   */
+  synchronized Link<?> setLinkIfAbsent(final Link<?> newLink) {
+    if (this.link == null) {
+      this.link = newLink;
+    }
+    return this.link;
   }
 
   AtomicInteger getConnectInProgress() {
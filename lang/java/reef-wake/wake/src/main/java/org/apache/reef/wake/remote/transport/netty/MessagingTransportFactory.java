@@ -20,6 +20,7 @@ package org.apache.reef.wake.remote.transport.netty;
 
 import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.Tang;
+import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.tang.exceptions.InjectionException;
 import org.apache.reef.wake.EStage;
 import org.apache.reef.wake.EventHandler;
@@ -39,10 +40,23 @@ import javax.inject.Inject;
 public final class MessagingTransportFactory implements TransportFactory {
 
   private final String localAddress;
+  private final boolean coalesceWrites;
+  private final int coalesceMaxBytes;
+  private final int coalesceMaxDelay;
+  private final NettyTransportOptions transportOptions;
 
   @Inject
-  private MessagingTransportFactory(final LocalAddressProvider localAddressProvider) {
+  private MessagingTransportFactory(
+      final LocalAddressProvider localAddressProvider,
+      @Parameter(RemoteConfiguration.CoalesceWrites.class) final boolean coalesceWrites,
+      @Parameter(RemoteConfiguration.CoalesceMaxBytes.class) final int coalesceMaxBytes,
+      @Parameter(RemoteConfiguration.CoalesceMaxDelay.class) final int coalesceMaxDelay,
+      final NettyTransportOptions transportOptions) {
     this.localAddress = localAddressProvider.getLocalAddress();
+    this.coalesceWrites = coalesceWrites;
+    this.coalesceMaxBytes = coalesceMaxBytes;
+    this.coalesceMaxDelay = coalesceMaxDelay;
+    this.transportOptions = transportOptions;
   }
 
   /**
@@ -64,6 +78,7 @@ public final class MessagingTransportFactory implements TransportFactory {
     injector.bindVolatileParameter(RemoteConfiguration.Port.class, port);
     injector.bindVolatileParameter(RemoteConfiguration.RemoteClientStage.class, new SyncStage<>(clientHandler));
     injector.bindVolatileParameter(RemoteConfiguration.RemoteServerStage.class, new SyncStage<>(serverHandler));
+    bindTransportSettings(injector);
 
     final Transport transport;
     try {
@@ -129,10 +144,23 @@ public final class MessagingTransportFactory implements TransportFactory {
     injector.bindVolatileParameter(RemoteConfiguration.NumberOfTries.class, numberOfTries);
     injector.bindVolatileParameter(RemoteConfiguration.RetryTimeout.class, retryTimeout);
     injector.bindVolatileInstance(TcpPortProvider.class, tcpPortProvider);
+    bindTransportSettings(injector);
     try {
       return injector.getInstance(NettyMessagingTransport.class);
     } catch (final InjectionException e) {
       throw new RuntimeException(e);
     }
   }
+
+  /**
+   * Passes the link and channel settings of this factory on to the transport.
+   *
+   * @param injector the injector that creates the transport
+   */
+  private void bindTransportSettings(final Injector injector) {
+    injector.bindVolatileParameter(RemoteConfiguration.CoalesceWrites.class, this.coalesceWrites);
+    injector.bindVolatileParameter(RemoteConfiguration.CoalesceMaxBytes.class, this.coalesceMaxBytes);
+    injector.bindVolatileParameter(RemoteConfiguration.CoalesceMaxDelay.class, this.coalesceMaxDelay);
+    injector.bindVolatileInstance(NettyTransportOptions.class, this.transportOptions);
+  }
 }
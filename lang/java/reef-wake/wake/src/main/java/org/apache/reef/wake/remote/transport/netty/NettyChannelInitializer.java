@@ -21,8 +21,6 @@ package org.apache.reef.wake.remote.transport.netty;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
-import io.netty.handler.codec.LengthFieldPrepender;
-import io.netty.handler.codec.bytes.ByteArrayDecoder;
 import io.netty.handler.codec.bytes.ByteArrayEncoder;
 
 /**
@@ -43,8 +41,7 @@ class NettyChannelInitializer extends ChannelInitializer<SocketChannel> {
   protected void initChannel(final SocketChannel ch) throws Exception {
     ch.pipeline()
         .addLast("frameDecoder", new LengthFieldBasedFrameDecoder(MAXFRAMELENGTH, 0, 4, 0, 4))
-        .addLast("bytesDecoder", new ByteArrayDecoder())
-        .addLast("frameEncoder", new LengthFieldPrepender(4))
+        .addLast("frameEncoder", new NettyFrameEncoder())
         .addLast("bytesEncoder", new ByteArrayEncoder())
         .addLast("chunker", new ChunkedReadWriteHandler())
         .addLast("handler", handlerFactory.createChannelInboundHandler());
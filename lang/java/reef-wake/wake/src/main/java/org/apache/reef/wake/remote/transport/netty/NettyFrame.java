@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DefaultByteBufHolder;
+
+/**
+ * A message that already carries its frame header.
+ * The chunker and the frame encoder pass it on without copying it.
+ */
+final class NettyFrame extends DefaultByteBufHolder {
+
+  /**
+   * The length of the frame header: the frame length, followed by the message size in little endian,
+   * as read by {@link ChunkedReadWriteHandler}.
+   */
+  static final int HEADER_SIZE = 2 * NettyLink.INT_SIZE;
+
+  /**
+   * The largest message that fits in a single frame.
+   */
+  static final int MAX_MESSAGE_SIZE = NettyChannelInitializer.MAXFRAMELENGTH - 1024 - NettyLink.INT_SIZE;
+
+  /**
+   * Wraps a buffer that starts with a frame header.
+   *
+   * @param content the frame
+   */
+  NettyFrame(final ByteBuf content) {
+    super(content);
+  }
+
+  /**
+   * Fills in the frame header reserved at the start of the buffer.
+   *
+   * @param buf the buffer with the header followed by the message
+   */
+  static void writeHeader(final ByteBuf buf) {
+    final int messageSize = buf.writerIndex() - HEADER_SIZE;
+    buf.setInt(0, messageSize + NettyLink.INT_SIZE);
+    buf.setInt(NettyLink.INT_SIZE, Integer.reverseBytes(messageSize));
+  }
+}
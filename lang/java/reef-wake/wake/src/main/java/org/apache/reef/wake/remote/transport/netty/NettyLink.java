@@ -18,10 +18,11 @@
  */
 package org.apache.reef.wake.remote.transport.netty;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufHolder;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
-import io.netty.channel.ChannelFuture;
-import io.netty.channel.ChannelFutureListener;
+import org.apache.reef.wake.remote.ByteBufEncoder;
 import org.apache.reef.wake.remote.Encoder;
 import org.apache.reef.wake.remote.transport.Link;
 import org.apache.reef.wake.remote.transport.LinkListener;
@@ -35,6 +36,9 @@ import java.util.logging.Logger;
  *
  * If you set a {@code LinkListener<T>}, it keeps message until writeAndFlush operation completes
  * and notifies whether the sent message transferred successfully through the listener.
+ *
+ * Messages are encoded into buffers of the channel allocator that already hold the frame header,
+ * directly if the encoder is a {@link ByteBufEncoder}.
  */
 public class NettyLink<T> implements Link<T> {
 
@@ -42,6 +46,7 @@ public class NettyLink<T> implements Link<T> {
   private static final Logger LOG = Logger.getLogger(NettyLink.class.getName());
   private final Channel channel;
   private final Encoder<? super T> encoder;
+  private final ByteBufEncoder<? super T> byteBufEncoder;
   private final LinkListener<? super T> listener;
 
   /**
@@ -61,10 +66,12 @@ public class NettyLink<T> implements Link<T> {
    * @param encoder  the encoder
    * @param listener the link listener
    */
+  @SuppressWarnings("unchecked")
   public NettyLink(final Channel channel,
                    final Encoder<? super T> encoder, final LinkListener<? super T> listener) {
     this.channel = channel;
     this.encoder = encoder;
+    this.byteBufEncoder = encoder instanceof ByteBufEncoder ? (ByteBufEncoder<? super T>) encoder : null;
     this.listener = listener;
   }
 
@@ -77,16 +84,86 @@ public class NettyLink<T> implements Link<T> {
   @Override
   public void write(final T message) {
     LOG.log(Level.FINEST, "write {0} {1}", new Object[]{channel, message});
-    final byte[] allData = encoder.encode(message);
-    // byte[] -> ByteBuf
-    if (listener !=  null) {
-      channel.writeAndFlush(Unpooled.wrappedBuffer(allData))
+    final Object frame = encodeFrame(message);
+    if (listener != null) {
+      channel.writeAndFlush(frame)
           .addListener(new NettyChannelFutureListener<>(message, listener));
     } else {
-      channel.writeAndFlush(Unpooled.wrappedBuffer(allData));
+      channel.writeAndFlush(frame);
     }
   }
 
+  /**
+   * Encodes the message into a buffer of the channel allocator, behind a frame header.
+   * A message too large for a single frame is returned as a plain buffer, which the pipeline chunks.
+   *
+   * @param message the message
+   * @return the encoded message, to be written to the channel
+   */
+  Object encodeFrame(final T message) {
+    if (byteBufEncoder == null) {
+      final byte[] data = encoder.encode(message);
+      if (data.length > NettyFrame.MAX_MESSAGE_SIZE) {
+        return Unpooled.wrappedBuffer(data);
+      }
+      final ByteBuf buf = channel.alloc().ioBuffer(NettyFrame.HEADER_SIZE + data.length);
+      buf.writerIndex(NettyFrame.HEADER_SIZE);
+      buf.writeBytes(data);
+      NettyFrame.writeHeader(buf);
+      return new NettyFrame(buf);
+    }
+
+    final ByteBuf buf = channel.alloc().ioBuffer();
+    boolean encoded = false;
+    try {
+      buf.writerIndex(NettyFrame.HEADER_SIZE);
+      byteBufEncoder.encodeTo(message, buf);
+      encoded = true;
+    } finally {
+      if (!encoded) {
+        buf.release();
+      }
+    }
+    final int size = buf.writerIndex() - NettyFrame.HEADER_SIZE;
+    if (size > NettyFrame.MAX_MESSAGE_SIZE) {
+      final byte[] data = new byte[size];
+      buf.getBytes(NettyFrame.HEADER_SIZE, data);
+      buf.release();
+      return Unpooled.wrappedBuffer(data);
+    }
+    NettyFrame.writeHeader(buf);
+    return new NettyFrame(buf);
+  }
+
+  /**
+   * Gets the number of bytes of an encoded message.
+   *
+   * @param frame the encoded message returned by {@link #encodeFrame(Object)}
+   * @return the number of bytes
+   */
+  static int getFrameSize(final Object frame) {
+    return frame instanceof ByteBufHolder
+        ? ((ByteBufHolder) frame).content().readableBytes() : ((ByteBuf) frame).readableBytes();
+  }
+
+  /**
+   * Gets the channel of this link.
+   *
+   * @return the channel
+   */
+  Channel getChannel() {
+    return channel;
+  }
+
+  /**
+   * Gets the link listener of this link.
+   *
+   * @return the link listener, or null if none was set
+   */
+  LinkListener<? super T> getListener() {
+    return listener;
+  }
+
   /**
    * Gets a local address of the link.
    *
@@ -112,23 +189,3 @@ public class NettyLink<T> implements Link<T> {
     return "localAddr: " + getLocalAddress() + " remoteAddr: " + getRemoteAddress();
   }
 }
-
-class NettyChannelFutureListener<T> implements ChannelFutureListener {
-
-  private final T message;
-  private LinkListener<T> listener;
-
-  NettyChannelFutureListener(final T message, final LinkListener<T> listener) {
-    this.message = message;
-    this.listener = listener;
-  }
-
-  @Override
-  public void operationComplete(final ChannelFuture channelFuture) throws Exception {
-    if (channelFuture.isSuccess()) {
-      listener.onSuccess(message);
-    } else {
-      listener.onException(channelFuture.cause(), channelFuture.channel().remoteAddress(), message);
-    }
-  }
-}
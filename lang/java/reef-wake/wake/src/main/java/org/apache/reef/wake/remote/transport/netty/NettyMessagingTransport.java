@@ -22,18 +22,14 @@ import io.netty.bootstrap.Bootstrap;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
-import io.netty.channel.ChannelOption;
+import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.DefaultChannelGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.util.concurrent.GlobalEventExecutor;
 import org.apache.reef.tang.annotations.Parameter;
 import org.apache.reef.wake.EStage;
 import org.apache.reef.wake.EventHandler;
-import org.apache.reef.wake.impl.DefaultThreadFactory;
 import org.apache.reef.wake.remote.Encoder;
 import org.apache.reef.wake.remote.RemoteConfiguration;
 import org.apache.reef.wake.remote.address.LocalAddressProvider;
@@ -51,9 +47,13 @@ import java.net.BindException;
 import java.net.ConnectException;
 import java.net.InetSocketAddress;
 import java.net.SocketAddress;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -72,11 +72,19 @@ public final class NettyMessagingTransport implements Transport {
 
   private static final Logger LOG = Logger.getLogger(CLASS_NAME);
 
-  private static final int SERVER_BOSS_NUM_THREADS = 3;
-  private static final int SERVER_WORKER_NUM_THREADS = 20;
-  private static final int CLIENT_WORKER_NUM_THREADS = 10;
+  /**
+   * The delay before the first reconnection of openAsync, in milliseconds; it doubles with every attempt.
+   */
+  private static final long INITIAL_RECONNECT_DELAY = 100;
+
 
   private final ConcurrentMap<SocketAddress, LinkReference> addrToLinkRefMap = new ConcurrentHashMap<>();
+  private final ConcurrentMap<SocketAddress, PendingConnect<?>> pendingConnects = new ConcurrentHashMap<>();
+
+  /**
+   * The time until which asynchronous connections to an address fail fast, after the last one failed.
+   */
+  private final ConcurrentMap<SocketAddress, Long> circuitOpenUntil = new ConcurrentHashMap<>();
 
   private final EventLoopGroup clientWorkerGroup;
   private final EventLoopGroup serverBossGroup;
@@ -98,6 +106,10 @@ public final class NettyMessagingTransport implements Transport {
   private final int numberOfTries;
   private final int retryTimeout;
 
+  private final boolean coalesceWrites;
+  private final int coalesceMaxBytes;
+  private final int coalesceMaxDelay;
+
   /**
    * Constructs a messaging transport.
    *
@@ -108,6 +120,11 @@ public final class NettyMessagingTransport implements Transport {
    * @param numberOfTries the number of tries of connection
    * @param retryTimeout  the timeout of reconnection
    * @param tcpPortProvider  gives an iterator that produces random tcp ports in a range
+   * @param localAddressProvider the provider of the local address
+   * @param coalesceWrites   whether the links coalesce writes and flush them in batches
+   * @param coalesceMaxBytes the number of bytes a coalescing link writes before it flushes
+   * @param coalesceMaxDelay how long a coalescing link waits for more messages, in microseconds
+   * @param transportOptions the event loop and socket options
    */
   @Inject
   private NettyMessagingTransport(
@@ -118,7 +135,11 @@ public final class NettyMessagingTransport implements Transport {
       @Parameter(RemoteConfiguration.NumberOfTries.class) final int numberOfTries,
       @Parameter(RemoteConfiguration.RetryTimeout.class) final int retryTimeout,
       final TcpPortProvider tcpPortProvider,
-      final LocalAddressProvider localAddressProvider) {
+      final LocalAddressProvider localAddressProvider,
+      @Parameter(RemoteConfiguration.CoalesceWrites.class) final boolean coalesceWrites,
+      @Parameter(RemoteConfiguration.CoalesceMaxBytes.class) final int coalesceMaxBytes,
+      @Parameter(RemoteConfiguration.CoalesceMaxDelay.class) final int coalesceMaxDelay,
+      final NettyTransportOptions transportOptions) {
 
     int p = port;
     if (p < 0) {
@@ -129,32 +150,27 @@ public final class NettyMessagingTransport implements Transport {
 
     this.numberOfTries = numberOfTries;
     this.retryTimeout = retryTimeout;
+    this.coalesceWrites = coalesceWrites;
+    this.coalesceMaxBytes = coalesceMaxBytes;
+    this.coalesceMaxDelay = coalesceMaxDelay;
     this.clientEventListener = new NettyClientEventListener(this.addrToLinkRefMap, clientStage);
     this.serverEventListener = new NettyServerEventListener(this.addrToLinkRefMap, serverStage);
 
-    this.serverBossGroup = new NioEventLoopGroup(SERVER_BOSS_NUM_THREADS,
-        new DefaultThreadFactory(CLASS_NAME + ":ServerBoss"));
-    this.serverWorkerGroup = new NioEventLoopGroup(SERVER_WORKER_NUM_THREADS,
-        new DefaultThreadFactory(CLASS_NAME + ":ServerWorker"));
-    this.clientWorkerGroup = new NioEventLoopGroup(CLIENT_WORKER_NUM_THREADS,
-        new DefaultThreadFactory(CLASS_NAME + ":ClientWorker"));
+    this.serverBossGroup = transportOptions.newServerBossGroup(CLASS_NAME);
+    this.serverWorkerGroup = transportOptions.newServerWorkerGroup(CLASS_NAME);
+    this.clientWorkerGroup = transportOptions.newClientWorkerGroup(CLASS_NAME);
 
     this.clientBootstrap = new Bootstrap();
     this.clientBootstrap.group(this.clientWorkerGroup)
-        .channel(NioSocketChannel.class)
         .handler(new NettyChannelInitializer(new NettyDefaultChannelHandlerFactory("client",
-            this.clientChannelGroup, this.clientEventListener)))
-        .option(ChannelOption.SO_REUSEADDR, true)
-        .option(ChannelOption.SO_KEEPALIVE, true);
+            this.clientChannelGroup, this.clientEventListener)));
+    transportOptions.configure(this.clientBootstrap);
 
     this.serverBootstrap = new ServerBootstrap();
     this.serverBootstrap.group(this.serverBossGroup, this.serverWorkerGroup)
-        .channel(NioServerSocketChannel.class)
         .childHandler(new NettyChannelInitializer(new NettyDefaultChannelHandlerFactory("server",
-            this.serverChannelGroup, this.serverEventListener)))
-        .option(ChannelOption.SO_BACKLOG, 128)
-        .option(ChannelOption.SO_REUSEADDR, true)
-        .childOption(ChannelOption.SO_KEEPALIVE, true);
+            this.serverChannelGroup, this.serverEventListener)));
+    transportOptions.configure(this.serverBootstrap);
 
     LOG.log(Level.FINE, "Binding to {0}", p);
 
@@ -227,6 +243,9 @@ public final class NettyMessagingTransport implements Transport {
     }
 
     this.clientWorkerGroup.shutdownGracefully().awaitUninterruptibly();
+    for (final PendingConnect<?> pending : this.pendingConnects.values()) {
+      complete(pending, null, new ConnectException("Transport closed before connecting to " + pending.remoteAddr));
+    }
     this.serverBossGroup.shutdownGracefully().awaitUninterruptibly();
     this.serverWorkerGroup.shutdownGracefully().awaitUninterruptibly();
 
@@ -299,8 +318,12 @@ public final class NettyMessagingTransport implements Transport {
         connectFuture = this.clientBootstrap.connect(remoteAddr);
         connectFuture.syncUninterruptibly();
 
-        link = new NettyLink<>(connectFuture.channel(), encoder, listener);
-        linkRef.setLink(link);
+        final Link<T> newLink = newLink(connectFuture.channel(), encoder, listener);
+        link = (Link<T>) linkRef.setLinkIfAbsent(newLink);
+        if (link != newLink) {
+          LOG.log(Level.FINE, "A link to {0} was opened meanwhile; closing the new channel", remoteAddr);
+          connectFuture.channel().close();
+        }
 
         synchronized (flag) {
           flag.compareAndSet(1, 2);
@@ -332,6 +355,129 @@ public final class NettyMessagingTransport implements Transport {
     return link;
   }
 
+  /**
+   * Opens a link for the remote address without blocking.
+   * Connection attempts are scheduled on the client event loop, with a delay that doubles after every failure
+   * up to retryTimeout, for as long as the blocking open would retry: numberOfTries times retryTimeout.
+   * Only one connection to an address is attempted at a time.
+   * After all attempts failed, further attempts for the address fail immediately for retryTimeout milliseconds.
+   *
+   * @param remoteAddr   the remote socket address
+   * @param encoder      the encoder
+   * @param listener     the link listener
+   * @param linkHandler  the handler that receives the link
+   * @param errorHandler the handler that receives the cause if the link cannot be opened
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public <T> void openAsync(final SocketAddress remoteAddr, final Encoder<? super T> encoder,
+                            final LinkListener<? super T> listener,
+                            final EventHandler<Link<T>> linkHandler, final EventHandler<Exception> errorHandler) {
+    while (true) {
+      final Link<T> link = get(remoteAddr);
+      if (link != null) {
+        linkHandler.onNext(link);
+        return;
+      }
+
+      final Long openUntil = this.circuitOpenUntil.get(remoteAddr);
+      final long now = System.currentTimeMillis();
+      if (openUntil != null && now < openUntil) {
+        errorHandler.onNext(new ConnectException("Connection to " + remoteAddr
+            + " failed recently; not retrying for " + (openUntil - now) + " ms"));
+        return;
+      }
+
+      final PendingConnect<T> newConnect = new PendingConnect<>(remoteAddr, encoder, listener,
+          now + (long) this.numberOfTries * this.retryTimeout);
+      final PendingConnect<T> prior = (PendingConnect<T>) this.pendingConnects.putIfAbsent(remoteAddr, newConnect);
+      if (prior == null) {
+        newConnect.addWaiter(linkHandler, errorHandler);
+        connect(newConnect, 0);
+        return;
+      }
+      if (prior.addWaiter(linkHandler, errorHandler)) {
+        return;
+      }
+      // the prior connection attempt has just finished; look at its outcome
+      this.pendingConnects.remove(remoteAddr, prior);
+    }
+  }
+
+  /**
+   * Attempts to connect without blocking, and schedules the next attempt if it fails.
+   */
+  @SuppressWarnings("unchecked")
+  private <T> void connect(final PendingConnect<T> pending, final int attempt) {
+    this.clientBootstrap.connect(pending.remoteAddr).addListener(new ChannelFutureListener() {
+      @Override
+      public void operationComplete(final ChannelFuture future) {
+        if (future.isSuccess()) {
+          final Link<T> newLink = newLink(future.channel(), pending.encoder, pending.listener);
+          final LinkReference newLinkRef = new LinkReference();
+          final LinkReference prior = addrToLinkRefMap.putIfAbsent(pending.remoteAddr, newLinkRef);
+          final Link<T> link = (Link<T>) (prior != null ? prior : newLinkRef).setLinkIfAbsent(newLink);
+          if (link != newLink) {
+            LOG.log(Level.FINE, "A link to {0} was opened meanwhile; closing the new channel", pending.remoteAddr);
+            future.channel().close();
+          }
+          circuitOpenUntil.remove(pending.remoteAddr);
+          complete(pending, link, null);
+          return;
+        }
+        final long delay = Math.min(retryTimeout, INITIAL_RECONNECT_DELAY << Math.min(attempt, 16));
+        if (System.currentTimeMillis() + delay <= pending.deadline) {
+          LOG.log(Level.WARNING, "Connection to {0} failed. Retry {1} in {2} ms",
+              new Object[]{pending.remoteAddr, attempt + 1, delay});
+          try {
+            clientWorkerGroup.schedule(new Runnable() {
+              @Override
+              public void run() {
+                connect(pending, attempt + 1);
+              }
+            }, delay, TimeUnit.MILLISECONDS);
+          } catch (final RejectedExecutionException e) {
+            complete(pending, null,
+                new ConnectException("Transport closed before connecting to " + pending.remoteAddr));
+          }
+        } else {
+          circuitOpenUntil.put(pending.remoteAddr, System.currentTimeMillis() + retryTimeout);
+          final Throwable cause = future.cause();
+          complete(pending, null, cause instanceof Exception ? (Exception) cause : new Exception(cause));
+        }
+      }
+    });
+  }
+
+  /**
+   * Hands the outcome of a connection to everyone waiting for it.
+   */
+  private <T> void complete(final PendingConnect<T> pending, final Link<T> link, final Exception cause) {
+    final List<EventHandler<Link<T>>> linkHandlers = new ArrayList<>();
+    final List<EventHandler<Exception>> errorHandlers = new ArrayList<>();
+    if (!pending.finish(linkHandlers, errorHandlers)) {
+      return;
+    }
+    this.pendingConnects.remove(pending.remoteAddr, pending);
+    if (link != null) {
+      for (final EventHandler<Link<T>> handler : linkHandlers) {
+        handler.onNext(link);
+      }
+    } else {
+      LOG.log(Level.WARNING, "Connection to " + pending.remoteAddr + " failed", cause);
+      for (final EventHandler<Exception> handler : errorHandlers) {
+        handler.onNext(cause);
+      }
+    }
+  }
+
+  private <T> Link<T> newLink(final Channel channel, final Encoder<? super T> encoder,
+                              final LinkListener<? super T> listener) {
+    return this.coalesceWrites
+        ? new CoalescingNettyLink<>(channel, encoder, listener, this.coalesceMaxBytes, this.coalesceMaxDelay)
+        : new NettyLink<>(channel, encoder, listener);
+  }
+
   /**
    * Returns a link for the remote address if already cached; otherwise, returns null.
    *
@@ -373,4 +519,57 @@ public final class NettyMessagingTransport implements Transport {
     this.clientEventListener.registerErrorHandler(handler);
     this.serverEventListener.registerErrorHandler(handler);
   }
+
+  /**
+   * A connection in progress and the handlers waiting for its outcome.
+   */
+  private static final class PendingConnect<T> {
+
+    private final SocketAddress remoteAddr;
+    private final Encoder<? super T> encoder;
+    private final LinkListener<? super T> listener;
+    private final long deadline;
+    private final List<EventHandler<Link<T>>> linkHandlers = new ArrayList<>();
+    private final List<EventHandler<Exception>> errorHandlers = new ArrayList<>();
+    private boolean finished = false;
+
+    PendingConnect(final SocketAddress remoteAddr, final Encoder<? super T> encoder,
+                   final LinkListener<? super T> listener, final long deadline) {
+      this.remoteAddr = remoteAddr;
+      this.encoder = encoder;
+      this.listener = listener;
+      this.deadline = deadline;
+    }
+
+    /**
+     * Adds handlers for the outcome of the connection.
+     *
+     * @return false if the connection has finished already
+     */
+    synchronized boolean addWaiter(final EventHandler<Link<T>> linkHandler,
+                                   final EventHandler<Exception> errorHandler) {
+      if (finished) {
+        return false;
+      }
+      linkHandlers.add(linkHandler);
+      errorHandlers.add(errorHandler);
+      return true;
+    }
+
+    /**
+     * Marks the connection as finished and hands out the waiting handlers.
+     *
+     * @return false if it was finished already
+     */
+    synchronized boolean finish(final List<EventHandler<Link<T>>> linkHandlersOut,
+                                final List<EventHandler<Exception>> errorHandlersOut) {
+      if (finished) {
+        return false;
+      }
+      finished = true;
+      linkHandlersOut.addAll(linkHandlers);
+      errorHandlersOut.addAll(errorHandlers);
+      return true;
+    }
+  }
 }
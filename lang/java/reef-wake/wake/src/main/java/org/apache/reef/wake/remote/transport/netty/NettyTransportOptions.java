@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.transport.netty;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.apache.reef.tang.annotations.Parameter;
+import org.apache.reef.wake.impl.DefaultThreadFactory;
+import org.apache.reef.wake.remote.RemoteConfiguration;
+
+import javax.inject.Inject;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Event loop and socket options of the Netty messaging transport.
+ * <p>
+ * With {@link RemoteConfiguration.NativeTransport} set, the transport runs on native epoll,
+ * if the JVM can load it, and on NIO otherwise.
+ */
+public final class NettyTransportOptions {
+
+  private static final Logger LOG = Logger.getLogger(NettyTransportOptions.class.getName());
+
+  /**
+   * The low water mark Netty starts with; a high water mark below it has to be set after the low one.
+   */
+  private static final int DEFAULT_WRITE_BUFFER_LOW_WATER_MARK = 32 * 1024;
+
+  private final boolean useEpoll;
+  private final int serverBossThreads;
+  private final int serverWorkerThreads;
+  private final int clientWorkerThreads;
+  private final boolean tcpNoDelay;
+  private final int sendBufferSize;
+  private final int receiveBufferSize;
+  private final int writeBufferHighWaterMark;
+  private final int writeBufferLowWaterMark;
+
+  @Inject
+  private NettyTransportOptions(
+      @Parameter(RemoteConfiguration.NativeTransport.class) final boolean nativeTransport,
+      @Parameter(RemoteConfiguration.ServerBossThreads.class) final int serverBossThreads,
+      @Parameter(RemoteConfiguration.ServerWorkerThreads.class) final int serverWorkerThreads,
+      @Parameter(RemoteConfiguration.ClientWorkerThreads.class) final int clientWorkerThreads,
+      @Parameter(RemoteConfiguration.TcpNoDelay.class) final boolean tcpNoDelay,
+      @Parameter(RemoteConfiguration.SendBufferSize.class) final int sendBufferSize,
+      @Parameter(RemoteConfiguration.ReceiveBufferSize.class) final int receiveBufferSize,
+      @Parameter(RemoteConfiguration.WriteBufferHighWaterMark.class) final int writeBufferHighWaterMark,
+      @Parameter(RemoteConfiguration.WriteBufferLowWaterMark.class) final int writeBufferLowWaterMark) {
+    if (serverBossThreads <= 0 || serverWorkerThreads <= 0 || clientWorkerThreads <= 0) {
+      throw new IllegalArgumentException("The number of event loop threads must be positive: boss "
+          + serverBossThreads + " server " + serverWorkerThreads + " client " + clientWorkerThreads);
+    }
+    if (writeBufferLowWaterMark < 0 || writeBufferLowWaterMark > writeBufferHighWaterMark) {
+      throw new IllegalArgumentException("Invalid write buffer water marks: low " + writeBufferLowWaterMark
+          + " high " + writeBufferHighWaterMark);
+    }
+
+    this.useEpoll = nativeTransport && Epoll.isAvailable();
+    if (nativeTransport && !this.useEpoll) {
+      LOG.log(Level.INFO, "Native epoll transport is unavailable, falling back to NIO");
+    }
+    this.serverBossThreads = serverBossThreads;
+    this.serverWorkerThreads = serverWorkerThreads;
+    this.clientWorkerThreads = clientWorkerThreads;
+    this.tcpNoDelay = tcpNoDelay;
+    this.sendBufferSize = sendBufferSize;
+    this.receiveBufferSize = receiveBufferSize;
+    this.writeBufferHighWaterMark = writeBufferHighWaterMark;
+    this.writeBufferLowWaterMark = writeBufferLowWaterMark;
+  }
+
+  /**
+   * Whether or not the transport runs on native epoll.
+   *
+   * @return true if the transport uses epoll, false if it uses NIO
+   */
+  public boolean isUsingEpoll() {
+    return useEpoll;
+  }
+
+  /**
+   * Creates the event loop group that accepts connections of the server.
+   *
+   * @param name the prefix of the thread names
+   * @return the event loop group
+   */
+  EventLoopGroup newServerBossGroup(final String name) {
+    return newEventLoopGroup(serverBossThreads, name + ":ServerBoss");
+  }
+
+  /**
+   * Creates the event loop group of the server connections.
+   *
+   * @param name the prefix of the thread names
+   * @return the event loop group
+   */
+  EventLoopGroup newServerWorkerGroup(final String name) {
+    return newEventLoopGroup(serverWorkerThreads, name + ":ServerWorker");
+  }
+
+  /**
+   * Creates the event loop group of the client connections.
+   *
+   * @param name the prefix of the thread names
+   * @return the event loop group
+   */
+  EventLoopGroup newClientWorkerGroup(final String name) {
+    return newEventLoopGroup(clientWorkerThreads, name + ":ClientWorker");
+  }
+
+  private EventLoopGroup newEventLoopGroup(final int numThreads, final String threadName) {
+    return useEpoll
+        ? new EpollEventLoopGroup(numThreads, new DefaultThreadFactory(threadName))
+        : new NioEventLoopGroup(numThreads, new DefaultThreadFactory(threadName));
+  }
+
+  /**
+   * Sets the channel type and the socket options of the client.
+   *
+   * @param bootstrap the client bootstrap
+   */
+  void configure(final Bootstrap bootstrap) {
+    final Class<? extends SocketChannel> channelClass =
+        useEpoll ? EpollSocketChannel.class : NioSocketChannel.class;
+    bootstrap.channel(channelClass)
+        .option(ChannelOption.SO_REUSEADDR, true)
+        .option(ChannelOption.SO_KEEPALIVE, true)
+        .option(ChannelOption.TCP_NODELAY, tcpNoDelay)
+        .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+    if (sendBufferSize > 0) {
+      bootstrap.option(ChannelOption.SO_SNDBUF, sendBufferSize);
+    }
+    if (receiveBufferSize > 0) {
+      bootstrap.option(ChannelOption.SO_RCVBUF, receiveBufferSize);
+    }
+    // options are applied in order, and the high water mark may never be below the low one
+    if (writeBufferHighWaterMark < DEFAULT_WRITE_BUFFER_LOW_WATER_MARK) {
+      bootstrap.option(ChannelOption.WRITE_BUFFER_LOW_WATER_MARK, writeBufferLowWaterMark)
+          .option(ChannelOption.WRITE_BUFFER_HIGH_WATER_MARK, writeBufferHighWaterMark);
+    } else {
+      bootstrap.option(ChannelOption.WRITE_BUFFER_HIGH_WATER_MARK, writeBufferHighWaterMark)
+          .option(ChannelOption.WRITE_BUFFER_LOW_WATER_MARK, writeBufferLowWaterMark);
+    }
+  }
+
+  /**
+   * Sets the channel type and the socket options of the server and of the connections it accepts.
+   *
+   * @param bootstrap the server bootstrap
+   */
+  void configure(final ServerBootstrap bootstrap) {
+    final Class<? extends ServerChannel> channelClass =
+        useEpoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+    bootstrap.channel(channelClass)
+        .option(ChannelOption.SO_BACKLOG, 128)
+        .option(ChannelOption.SO_REUSEADDR, true)
+        .option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT)
+        .childOption(ChannelOption.SO_KEEPALIVE, true)
+        .childOption(ChannelOption.TCP_NODELAY, tcpNoDelay)
+        .childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+    if (sendBufferSize > 0) {
+      bootstrap.childOption(ChannelOption.SO_SNDBUF, sendBufferSize);
+    }
+    if (receiveBufferSize > 0) {
+      // set on the listening socket as well, so that accepted connections can use a large TCP window
+      bootstrap.option(ChannelOption.SO_RCVBUF, receiveBufferSize)
+          .childOption(ChannelOption.SO_RCVBUF, receiveBufferSize);
+    }
+    if (writeBufferHighWaterMark < DEFAULT_WRITE_BUFFER_LOW_WATER_MARK) {
+      bootstrap.childOption(ChannelOption.WRITE_BUFFER_LOW_WATER_MARK, writeBufferLowWaterMark)
+          .childOption(ChannelOption.WRITE_BUFFER_HIGH_WATER_MARK, writeBufferHighWaterMark);
+    } else {
+      bootstrap.childOption(ChannelOption.WRITE_BUFFER_HIGH_WATER_MARK, writeBufferHighWaterMark)
+          .childOption(ChannelOption.WRITE_BUFFER_LOW_WATER_MARK, writeBufferLowWaterMark);
+    }
+  }
+}
@@ -31,7 +31,6 @@ import org.apache.reef.wake.time.runtime.event.*;
 
 import javax.inject.Inject;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -54,10 +53,11 @@ public final class RuntimeClock implements Clock {
   private final Timer timer;
 
   /**
-   * An ordered set of timed objects, in ascending order of their timestamps.
+   * An ordered collection of timed objects, in ascending order of their timestamps.
+   * Usually an instance of TreeSetSchedule; TimingWheelSchedule is cheaper with many alarms.
    * It also serves as the main synchronization monitor for the class.
    */
-  private final TreeSet<Time> schedule = new TreeSet<>();
+  private final Schedule schedule;
 
   /** Event handlers - populated with the injectable parameters provided to the RuntimeClock constructor. */
   private final PubSubEventHandler<Time> handlers = new PubSubEventHandler<>();
@@ -89,6 +89,7 @@ public final class RuntimeClock implements Clock {
   @Inject
   private RuntimeClock(
       final Timer timer,
+      final Schedule schedule,
       @Parameter(Clock.StartHandler.class)
           final InjectionFuture<Set<EventHandler<StartTime>>> startHandler,
       @Parameter(Clock.StopHandler.class)
@@ -101,6 +102,7 @@ public final class RuntimeClock implements Clock {
           final InjectionFuture<Set<EventHandler<IdleClock>>> idleHandler) {
 
     this.timer = timer;
+    this.schedule = schedule;
     this.startHandler = startHandler;
     this.stopHandler = stopHandler;
     this.runtimeStartHandler = runtimeStartHandler;
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.time.runtime;
+
+import org.apache.reef.tang.annotations.DefaultImplementation;
+import org.apache.reef.wake.time.Time;
+
+/**
+ * An ordered collection of timed events that the RuntimeClock draws from.
+ * Events come out in ascending order of their timestamps, with ties broken by Time.compareTo().
+ * Implementations need not be thread-safe: RuntimeClock uses the schedule instance
+ * as its synchronization monitor and only calls it while holding that monitor.
+ * Default implementation keeps the events in a red-black tree.
+ */
+@DefaultImplementation(TreeSetSchedule.class)
+public interface Schedule {
+
+  /**
+   * Add a new event to the schedule.
+   * @param event Event to add.
+   */
+  void add(final Time event);
+
+  /**
+   * Check if there are no events in the schedule.
+   * @return True if the schedule is empty, false otherwise.
+   */
+  boolean isEmpty();
+
+  /**
+   * Get the earliest event in the schedule without removing it.
+   * @return The earliest event, or null if the schedule is empty.
+   */
+  Time first();
+
+  /**
+   * Remove the earliest event from the schedule and return it.
+   * @return The earliest event, or null if the schedule is empty.
+   */
+  Time pollFirst();
+
+  /**
+   * Remove all events from the schedule.
+   */
+  void clear();
+}
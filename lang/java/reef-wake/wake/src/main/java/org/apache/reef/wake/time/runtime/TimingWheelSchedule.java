@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.time.runtime;
+
+import org.apache.reef.wake.time.Time;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Schedule that keeps events in a hierarchical timing wheel.
+ * Adding an event takes constant time no matter how many events are already scheduled.
+ * <p>
+ * Each level of the wheel has 64 slots, and a slot at level k covers 64^k milliseconds,
+ * so level 0 has one slot per millisecond. An event goes to the lowest level at which its timestamp
+ * agrees with the wheel's cursor on all higher bits. When the earliest event is requested,
+ * the first occupied slot (found with a per-level bitmap) is either moved in one batch into
+ * a small sorted set of expired events, or, if it is on a higher level, cascaded down the wheel.
+ * The sorted set keeps events with the same timestamp in the same order as the TreeSetSchedule.
+ * <p>
+ * Cursor only moves forward, and is not tied to the wall clock: it works with any Timer,
+ * including the LogicalTimer.
+ */
+public final class TimingWheelSchedule implements Schedule {
+
+  /** Number of timestamp bits that select a slot at each level of the wheel. */
+  private static final int SLOT_BITS = 6;
+
+  /** Number of slots at each level of the wheel. */
+  private static final int NUM_SLOTS = 1 << SLOT_BITS;
+
+  /** Number of levels needed to cover any non-negative timestamp. */
+  private static final int NUM_LEVELS = (Long.SIZE + SLOT_BITS - 1) / SLOT_BITS;
+
+  /** Events in the wheel, indexed by level and slot. Slots are allocated on first use. */
+  private final ArrayList<Time>[][] slots;
+
+  /** For each level, a bitmap of slots that hold at least one event. */
+  private final long[] occupied = new long[NUM_LEVELS];
+
+  /** Events with timestamps below the cursor, in ascending order. */
+  private final TreeSet<Time> expired = new TreeSet<>();
+
+  /** All events in the wheel have timestamps greater or equal to the cursor. */
+  private long cursor = 0;
+
+  /** Number of events in the wheel, not counting the expired ones. */
+  private int wheelSize = 0;
+
+  /**
+   * Instances of the schedule should only be created automatically by Tang.
+   */
+  @Inject
+  @SuppressWarnings("unchecked")
+  private TimingWheelSchedule() {
+    this.slots = new ArrayList[NUM_LEVELS][NUM_SLOTS];
+  }
+
+  @Override
+  public void add(final Time event) {
+
+    final long timestamp = event.getTimestamp();
+
+    if (timestamp < this.cursor) {
+      this.expired.add(event);
+      return;
+    }
+
+    if (this.wheelSize == 0) {
+      // Nothing in the wheel: jump straight to the new event, so it lands on the lowest level.
+      this.cursor = timestamp;
+    }
+
+    this.place(event);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.wheelSize == 0 && this.expired.isEmpty();
+  }
+
+  @Override
+  public Time first() {
+    this.advance();
+    return this.expired.isEmpty() ? null : this.expired.first();
+  }
+
+  @Override
+  public Time pollFirst() {
+    this.advance();
+    return this.expired.pollFirst();
+  }
+
+  @Override
+  public void clear() {
+    for (int level = 0; level < NUM_LEVELS; ++level) {
+      long bits = this.occupied[level];
+      while (bits != 0) {
+        this.slots[level][Long.numberOfTrailingZeros(bits)] = null;
+        bits &= bits - 1;
+      }
+      this.occupied[level] = 0;
+    }
+    this.wheelSize = 0;
+    this.expired.clear();
+  }
+
+  /**
+   * Put the event into the wheel, relative to the current cursor.
+   * @param event Event with a timestamp not below the cursor.
+   */
+  private void place(final Time event) {
+
+    final long timestamp = event.getTimestamp();
+    final long diff = timestamp ^ this.cursor;
+    final int level = diff == 0 ? 0 : (Long.SIZE - 1 - Long.numberOfLeadingZeros(diff)) / SLOT_BITS;
+    final int slot = (int) (timestamp >>> (level * SLOT_BITS)) & (NUM_SLOTS - 1);
+
+    ArrayList<Time> events = this.slots[level][slot];
+    if (events == null) {
+      events = new ArrayList<>();
+      this.slots[level][slot] = events;
+    }
+
+    events.add(event);
+    this.occupied[level] |= 1L << slot;
+    ++this.wheelSize;
+  }
+
+  /**
+   * Move the earliest events from the wheel into the expired set, if that set is empty.
+   * Slots on the higher levels are cascaded down until a level 0 slot comes up,
+   * and all events of that slot (they all have the same timestamp) expire at once.
+   */
+  private void advance() {
+
+    while (this.expired.isEmpty() && this.wheelSize > 0) {
+
+      for (int level = 0; level < NUM_LEVELS; ++level) {
+
+        final int shift = level * SLOT_BITS;
+        final long bits = this.occupied[level] & (-1L << this.currentSlot(level));
+        if (bits == 0) {
+          continue;
+        }
+
+        final int slot = Long.numberOfTrailingZeros(bits);
+        final long higherBits = shift + SLOT_BITS < Long.SIZE ? this.cursor & (-1L << (shift + SLOT_BITS)) : 0;
+        final long slotStart = higherBits | ((long) slot << shift);
+
+        if (level == 0) {
+          this.expired.addAll(this.takeSlot(0, slot));
+          this.cursor = slotStart + 1;
+          this.cascadeCurrentSlots();
+        } else {
+          this.cursor = slotStart;
+          for (final Time event : this.takeSlot(level, slot)) {
+            this.place(event);
+          }
+        }
+
+        break;
+      }
+    }
+  }
+
+  /**
+   * After the cursor moves to a new level 0 block, the higher level slots that the cursor
+   * points to may now hold events that belong on the lower levels: move them down, top to bottom.
+   * This way, the events on the higher levels are always later than any event on a lower level.
+   */
+  private void cascadeCurrentSlots() {
+    for (int level = NUM_LEVELS - 1; level > 0; --level) {
+      final int slot = this.currentSlot(level);
+      if ((this.occupied[level] & (1L << slot)) != 0) {
+        for (final Time event : this.takeSlot(level, slot)) {
+          this.place(event);
+        }
+      }
+    }
+  }
+
+  /**
+   * Get the slot that the cursor points to on the given level.
+   * @param level Level of the wheel.
+   * @return Slot index in the given level.
+   */
+  private int currentSlot(final int level) {
+    return (int) (this.cursor >>> (level * SLOT_BITS)) & (NUM_SLOTS - 1);
+  }
+
+  /**
+   * Remove all events from the given slot of the wheel.
+   * @param level Level of the wheel.
+   * @param slot Slot index in the given level.
+   * @return Events removed from the slot.
+   */
+  private List<Time> takeSlot(final int level, final int slot) {
+    final ArrayList<Time> events = this.slots[level][slot];
+    this.slots[level][slot] = null;
+    this.occupied[level] &= ~(1L << slot);
+    this.wheelSize -= events.size();
+    return events;
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.time.runtime;
+
+import org.apache.reef.wake.time.Time;
+
+import javax.inject.Inject;
+import java.util.TreeSet;
+
+/**
+ * Schedule that keeps all events in a TreeSet.
+ * Adding an event and removing the earliest one both take O(log n) time.
+ */
+public final class TreeSetSchedule implements Schedule {
+
+  /** An ordered set of timed objects, in ascending order of their timestamps. */
+  private final TreeSet<Time> events = new TreeSet<>();
+
+  /**
+   * Instances of the schedule should only be created automatically by Tang.
+   */
+  @Inject
+  private TreeSetSchedule() {
+  }
+
+  @Override
+  public void add(final Time event) {
+    this.events.add(event);
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return this.events.isEmpty();
+  }
+
+  @Override
+  public Time first() {
+    return this.events.isEmpty() ? null : this.events.first();
+  }
+
+  @Override
+  public Time pollFirst() {
+    return this.events.pollFirst();
+  }
+
+  @Override
+  public void clear() {
+    this.events.clear();
+  }
+}
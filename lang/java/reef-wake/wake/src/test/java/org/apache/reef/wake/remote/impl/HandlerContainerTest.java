@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.impl;
+
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.SynchronizedEventHandler;
+import org.apache.reef.wake.remote.RemoteMessage;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests for the serialized and concurrent dispatch of {@link HandlerContainer}.
+ */
+public final class HandlerContainerTest {
+
+  private static final int NUM_THREADS = 4;
+  private static final long TIMEOUT_SECONDS = 10;
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+  private final StringCodec codec = new StringCodec();
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Check that by default a handler sees one message at a time.
+   */
+  @Test
+  public void testSerializedDispatchByDefault() throws Exception {
+    final HandlerContainer<String> container = new HandlerContainer<>("test", codec, false);
+    final ConcurrencyTrackingHandler handler = new ConcurrencyTrackingHandler();
+    container.registerHandler(String.class, handler);
+
+    dispatchFromAllThreads(container);
+
+    Assert.assertEquals(NUM_THREADS, handler.getCount());
+    Assert.assertEquals(1, handler.getMaxActive());
+  }
+
+  /**
+   * Check that by default, a handler does not hold back the messages of another handler:
+   * the handlers for two senders wait for each other at a barrier.
+   */
+  @Test
+  public void testSerializedDispatchIsPerHandler() throws Exception {
+    final HandlerContainer<String> container = new HandlerContainer<>("test", codec, false);
+    final CyclicBarrier barrier = new CyclicBarrier(2);
+    final InetSocketAddress address1 = new InetSocketAddress("localhost", 1);
+    final InetSocketAddress address2 = new InetSocketAddress("localhost", 2);
+    container.registerHandler(new SocketRemoteIdentifier(address1), String.class, new EventHandler<String>() {
+      @Override
+      public void onNext(final String value) {
+        awaitOther(barrier);
+      }
+    });
+    container.registerHandler(String.class, new EventHandler<RemoteMessage<? extends String>>() {
+      @Override
+      public void onNext(final RemoteMessage<? extends String> value) {
+        awaitOther(barrier);
+      }
+    });
+
+    final List<Future<Void>> futures = new ArrayList<>(2);
+    futures.add(dispatch(container, address1, "from 1"));
+    futures.add(dispatch(container, address2, "from 2"));
+    for (final Future<Void> future : futures) {
+      future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+  }
+
+  /**
+   * Check that with concurrent dispatch, messages reach a handler at the same time:
+   * every call waits for all the others at a barrier.
+   */
+  @Test
+  public void testConcurrentDispatch() throws Exception {
+    final HandlerContainer<String> container = new HandlerContainer<>("test", codec, true);
+    final CyclicBarrier barrier = new CyclicBarrier(NUM_THREADS);
+    container.registerHandler(String.class, new EventHandler<RemoteMessage<? extends String>>() {
+      @Override
+      public void onNext(final RemoteMessage<? extends String> value) {
+        awaitOther(barrier);
+      }
+    });
+
+    dispatchFromAllThreads(container);
+  }
+
+  /**
+   * Check that with concurrent dispatch, a handler wrapped in a {@link SynchronizedEventHandler}
+   * still sees one message at a time.
+   */
+  @Test
+  public void testWrappedHandlerStaysSerialized() throws Exception {
+    final HandlerContainer<String> container = new HandlerContainer<>("test", codec, true);
+    final ConcurrencyTrackingHandler handler = new ConcurrencyTrackingHandler();
+    container.registerHandler(String.class, new SynchronizedEventHandler<RemoteMessage<? extends String>>(handler));
+
+    dispatchFromAllThreads(container);
+
+    Assert.assertEquals(NUM_THREADS, handler.getCount());
+    Assert.assertEquals(1, handler.getMaxActive());
+  }
+
+  private void dispatchFromAllThreads(final HandlerContainer<String> container) throws Exception {
+    final InetSocketAddress address = new InetSocketAddress("localhost", 0);
+    final List<Future<Void>> futures = new ArrayList<>(NUM_THREADS);
+    for (int i = 0; i < NUM_THREADS; i++) {
+      futures.add(dispatch(container, address, "message " + i));
+    }
+    for (final Future<Void> future : futures) {
+      future.get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+  }
+
+  private Future<Void> dispatch(final HandlerContainer<String> container, final InetSocketAddress address,
+                                final String message) {
+    final RemoteEvent<byte[]> event = new RemoteEvent<>(address, address, 0, codec.encode(message));
+    return executor.submit(new Callable<Void>() {
+      @Override
+      public Void call() {
+        container.onNext(event);
+        return null;
+      }
+    });
+  }
+
+  private static void awaitOther(final CyclicBarrier barrier) {
+    try {
+      barrier.await(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    } catch (final InterruptedException | BrokenBarrierException | TimeoutException e) {
+      throw new RuntimeException("Messages were not dispatched concurrently", e);
+    }
+  }
+
+  /**
+   * Records how many messages it handled, and the most it handled at the same time.
+   */
+  private static final class ConcurrencyTrackingHandler implements EventHandler<RemoteMessage<? extends String>> {
+
+    private final AtomicInteger active = new AtomicInteger(0);
+    private final AtomicInteger maxActive = new AtomicInteger(0);
+    private final AtomicInteger count = new AtomicInteger(0);
+
+    @Override
+    public void onNext(final RemoteMessage<? extends String> value) {
+      final int nowActive = active.incrementAndGet();
+      int max = maxActive.get();
+      while (nowActive > max && !maxActive.compareAndSet(max, nowActive)) {
+        max = maxActive.get();
+      }
+      try {
+        Thread.sleep(20);
+      } catch (final InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      count.incrementAndGet();
+      active.decrementAndGet();
+    }
+
+    int getCount() {
+      return count.get();
+    }
+
+    int getMaxActive() {
+      return maxActive.get();
+    }
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.remote.impl;
+
+import org.apache.reef.wake.remote.exception.RemoteRuntimeException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Tests for the reorder buffer of {@link OrderedRemoteReceiverStage}.
+ */
+public final class OrderedEventStreamTest {
+
+  private static final int WINDOW = 32;
+
+  private final InetSocketAddress address = new InetSocketAddress("localhost", 0);
+
+  /**
+   * Check that events arriving out of order within the window are consumed in sequence.
+   */
+  @Test
+  public void testReorderWithinWindow() {
+    final OrderedEventStream stream = new OrderedEventStream(WINDOW);
+    for (int seq = WINDOW - 1; seq > 0; --seq) {
+      Assert.assertFalse(stream.add(newEvent(seq)));
+    }
+    Assert.assertTrue(stream.add(newEvent(0)));
+    for (int seq = 0; seq < WINDOW; ++seq) {
+      Assert.assertEquals(seq, stream.consume().getSeq());
+    }
+    Assert.assertNull(stream.consume());
+  }
+
+  /**
+   * Check that an event beyond the window is rejected, and that the window moves on as events are consumed.
+   */
+  @Test
+  public void testRejectBeyondWindow() {
+    final OrderedEventStream stream = new OrderedEventStream(WINDOW);
+    try {
+      stream.add(newEvent(WINDOW));
+      Assert.fail("an event beyond the window should be rejected");
+    } catch (final RemoteRuntimeException e) {
+      Assert.assertTrue(e.getMessage(), e.getMessage().contains("ahead"));
+    }
+    Assert.assertTrue(stream.add(newEvent(0)));
+    Assert.assertEquals(0, stream.consume().getSeq());
+    Assert.assertFalse(stream.add(newEvent(WINDOW)));
+  }
+
+  /**
+   * Check that a window that is not a power of two is rounded up, so that the ring indexes stay distinct.
+   */
+  @Test
+  public void testWindowRoundedUp() {
+    assertReorders(new OrderedEventStream(WINDOW - 3), WINDOW);
+    assertReorders(new OrderedEventStream(3), 4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidWindow() {
+    new OrderedEventStream(0);
+  }
+
+  private void assertReorders(final OrderedEventStream stream, final int window) {
+    for (int seq = window - 1; seq > 0; --seq) {
+      Assert.assertFalse(stream.add(newEvent(seq)));
+    }
+    Assert.assertTrue(stream.add(newEvent(0)));
+    for (int seq = 0; seq < window; ++seq) {
+      Assert.assertEquals(seq, stream.consume().getSeq());
+    }
+    Assert.assertNull(stream.consume());
+  }
+
+  private RemoteEvent<byte[]> newEvent(final long seq) {
+    return new RemoteEvent<>(address, address, seq, new byte[0]);
+  }
+}
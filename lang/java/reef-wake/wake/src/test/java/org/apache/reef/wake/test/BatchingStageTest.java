@@ -0,0 +1,355 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.reef.wake.test;
+
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Injector;
+import org.apache.reef.tang.Tang;
+import org.apache.reef.wake.BatchEventHandler;
+import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.StageConfiguration;
+import org.apache.reef.wake.impl.BatchingStage;
+import org.apache.reef.wake.impl.SingleThreadStage;
+import org.apache.reef.wake.impl.ThreadPoolStage;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TestName;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Batching stage tests.
+ */
+public class BatchingStageTest {
+
+  private static final String LOG_PREFIX = "TEST ";
+  @Rule
+  public TestName name = new TestName();
+
+  @Test
+  public void testBatchingStageOrder() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final int numEvents = 10000;
+    final RecordingBatchHandler handler = new RecordingBatchHandler();
+    final BatchingStage<Integer> stage = new BatchingStage<>("Order", handler, 64, 16, 0);
+
+    for (int i = 0; i < numEvents; ++i) {
+      stage.onNext(i);
+    }
+    stage.close();
+
+    Assert.assertEquals(numEvents, handler.events.size());
+    for (int i = 0; i < numEvents; ++i) {
+      Assert.assertEquals(i, handler.events.get(i).intValue());
+    }
+    Assert.assertTrue(handler.maxBatch <= 16);
+    Assert.assertEquals(numEvents, stage.getOutMeter().getCount());
+  }
+
+  @Test
+  public void testBatchingStageMultipleProducers() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final int numThreads = 4;
+    final int numEvents = 50000;
+    final RecordingBatchHandler handler = new RecordingBatchHandler();
+    final BatchingStage<Integer> stage = new BatchingStage<>("MultipleProducers", handler, 128, 32, 100);
+
+    final Thread[] producers = new Thread[numThreads];
+    for (int t = 0; t < numThreads; ++t) {
+      final int offset = t * numEvents;
+      producers[t] = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int i = 0; i < numEvents; ++i) {
+            stage.onNext(offset + i);
+          }
+        }
+      });
+      producers[t].start();
+    }
+    for (final Thread producer : producers) {
+      producer.join();
+    }
+    stage.close();
+
+    Assert.assertEquals(numThreads * numEvents, handler.events.size());
+    final int[] last = new int[numThreads];
+    for (int t = 0; t < numThreads; ++t) {
+      last[t] = t * numEvents - 1;
+    }
+    for (final int event : handler.events) {
+      final int producer = event / numEvents;
+      Assert.assertEquals("events of one producer must stay in order", last[producer] + 1, event);
+      last[producer] = event;
+    }
+  }
+
+  @Test
+  public void testBatchingStageLatency() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final RecordingBatchHandler handler = new RecordingBatchHandler();
+    final BatchingStage<Integer> stage = new BatchingStage<>(
+        "Latency", handler, 64, 8, TimeUnit.SECONDS.toMicros(10));
+
+    for (int i = 0; i < 8; ++i) {
+      stage.onNext(i);
+    }
+    Assert.assertTrue("a full batch must not wait for the latency bound",
+        handler.firstBatch.await(5, TimeUnit.SECONDS));
+    stage.close();
+
+    Assert.assertEquals(8, handler.events.size());
+  }
+
+  @Test
+  public void testBatchingStageHandlerException() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final AtomicInteger errors = new AtomicInteger(0);
+    final AtomicInteger handled = new AtomicInteger(0);
+    final BatchEventHandler<Integer> handler = new BatchEventHandler<Integer>() {
+      @Override
+      public void onNext(final List<Integer> batch) {
+        handled.addAndGet(batch.size());
+        throw new IllegalStateException("expected");
+      }
+    };
+    final EventHandler<Throwable> errorHandler = new EventHandler<Throwable>() {
+      @Override
+      public void onNext(final Throwable value) {
+        errors.incrementAndGet();
+      }
+    };
+    final BatchingStage<Integer> stage = new BatchingStage<>("Exception", handler, 16, 1, 0, errorHandler);
+
+    for (int i = 0; i < 5; ++i) {
+      stage.onNext(i);
+    }
+    stage.close();
+
+    Assert.assertEquals(5, handled.get());
+    Assert.assertEquals(5, errors.get());
+  }
+
+  @Test
+  public void testBatchingStageHandlerError() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+    final BatchEventHandler<Integer> handler = new BatchEventHandler<Integer>() {
+      @Override
+      public void onNext(final List<Integer> batch) {
+        throw new AssertionError("expected");
+      }
+    };
+    final EventHandler<Throwable> errorHandler = new EventHandler<Throwable>() {
+      @Override
+      public void onNext(final Throwable value) {
+        errors.add(value);
+      }
+    };
+    final BatchingStage<Integer> stage = new BatchingStage<>("Error", handler, 16, 1, 0, errorHandler);
+
+    stage.onNext(0);
+    stage.onNext(1);
+    stage.close();
+
+    Assert.assertEquals(2, errors.size());
+    Assert.assertTrue(errors.get(0) instanceof AssertionError);
+  }
+
+  @Test
+  public void testBatchingStageBlocksWhenFull() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch handling = new CountDownLatch(1);
+    final AtomicInteger handled = new AtomicInteger(0);
+    final BatchEventHandler<Integer> handler = new BatchEventHandler<Integer>() {
+      @Override
+      public void onNext(final List<Integer> batch) {
+        handling.countDown();
+        try {
+          release.await();
+        } catch (final InterruptedException e) {
+          throw new RuntimeException(e);
+        }
+        handled.addAndGet(batch.size());
+      }
+    };
+    final BatchingStage<Integer> stage = new BatchingStage<>("Full", handler, 4, 1, 0);
+
+    stage.onNext(0);
+    Assert.assertTrue(handling.await(5, TimeUnit.SECONDS));
+    for (int i = 1; i <= 4; ++i) {
+      stage.onNext(i);
+    }
+    final Thread producer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        stage.onNext(5);
+      }
+    });
+    producer.start();
+    final long deadline = System.currentTimeMillis() + 5000;
+    while (producer.getState() != Thread.State.WAITING && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals("a caller must wait, not spin, while the ring buffer is full",
+        Thread.State.WAITING, producer.getState());
+
+    release.countDown();
+    producer.join(5000);
+    Assert.assertFalse(producer.isAlive());
+    stage.close();
+    Assert.assertEquals(6, handled.get());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testBatchingStageClosed() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final BatchingStage<Integer> stage = new BatchingStage<>("Closed", new RecordingBatchHandler(), 16, 4, 0);
+    stage.onNext(0);
+    stage.close();
+    stage.onNext(1);
+  }
+
+  @Test
+  public void testBatchingStageInjection() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final Configuration conf = Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(StageConfiguration.StageName.class, "InjectedBatchingStage")
+        .bindNamedParameter(StageConfiguration.StageBatchHandler.class, InjectableBatchHandler.class)
+        .bindNamedParameter(StageConfiguration.Capacity.class, "32")
+        .bindNamedParameter(StageConfiguration.MaxBatchSize.class, "4")
+        .bindImplementation(EStage.class, BatchingStage.class)
+        .build();
+    final Injector injector = Tang.Factory.getTang().newInjector(conf);
+
+    final EStage<Integer> stage = injector.getInstance(EStage.class);
+    final InjectableBatchHandler handler =
+        (InjectableBatchHandler) injector.getNamedInstance(StageConfiguration.StageBatchHandler.class);
+    for (int i = 0; i < 10; ++i) {
+      stage.onNext(i);
+    }
+    stage.close();
+
+    Assert.assertTrue(stage instanceof BatchingStage);
+    Assert.assertEquals(10, handler.count.get());
+  }
+
+  /**
+   * Compares the throughput of small events through the batching stage, the thread pool stage
+   * and the single thread stage.
+   */
+  @Test
+  public void testBatchingStageRate() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final int numEvents = 1000000;
+    final CountingHandler counter = new CountingHandler();
+
+    final BatchingStage<Integer> batchingStage = new BatchingStage<>("RateBatching", new BatchEventHandler<Integer>() {
+      @Override
+      public void onNext(final List<Integer> batch) {
+        for (final Integer event : batch) {
+          counter.onNext(event);
+        }
+      }
+    }, 4096, 1024, 0);
+    report("BatchingStage", batchingStage, counter, numEvents);
+
+    report("ThreadPoolStage", new ThreadPoolStage<>("RateThreadPool", counter, 1), counter, numEvents);
+    report("SingleThreadStage", new SingleThreadStage<>("RateSingleThread", counter, numEvents), counter, numEvents);
+  }
+
+  private void report(final String stageName, final EStage<Integer> stage, final CountingHandler counter,
+                      final int numEvents) throws Exception {
+    counter.reset(numEvents);
+    final long start = System.nanoTime();
+    final Integer event = 1;
+    for (int i = 0; i < numEvents; ++i) {
+      stage.onNext(event);
+    }
+    Assert.assertTrue(counter.done.await(60, TimeUnit.SECONDS));
+    final long elapsed = System.nanoTime() - start;
+    stage.close();
+    System.out.println("Note this is not a real test of throughput");
+    System.out.println(stageName + ": " + numEvents * 1e9 / elapsed + " events/sec");
+  }
+
+  final class RecordingBatchHandler implements BatchEventHandler<Integer> {
+    private final List<Integer> events = Collections.synchronizedList(new ArrayList<Integer>());
+    private final CountDownLatch firstBatch = new CountDownLatch(1);
+    private volatile int maxBatch = 0;
+
+    @Override
+    public void onNext(final List<Integer> batch) {
+      maxBatch = Math.max(maxBatch, batch.size());
+      events.addAll(batch);
+      firstBatch.countDown();
+    }
+  }
+
+  final class CountingHandler implements EventHandler<Integer> {
+    private final AtomicInteger remaining = new AtomicInteger(0);
+    private CountDownLatch done;
+
+    void reset(final int numEvents) {
+      remaining.set(numEvents);
+      done = new CountDownLatch(1);
+    }
+
+    @Override
+    public void onNext(final Integer value) {
+      if (remaining.decrementAndGet() == 0) {
+        done.countDown();
+      }
+    }
+  }
+
+  /**
+   * Batch handler instantiated by Tang.
+   */
+  static final class InjectableBatchHandler implements BatchEventHandler<Integer> {
+    private final AtomicInteger count = new AtomicInteger(0);
+
+    @Inject
+    InjectableBatchHandler() {
+    }
+
+    @Override
+    public void onNext(final List<Integer> batch) {
+      count.addAndGet(batch.size());
+    }
+  }
+}
@@ -20,7 +20,9 @@ package org.apache.reef.wake.test;
 
 
 import org.apache.reef.wake.metrics.Histogram;
+import org.apache.reef.wake.metrics.LatencyHistogram;
 import org.apache.reef.wake.metrics.UniformHistogram;
+import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestName;
@@ -52,4 +54,37 @@ public class MetricsTest {
       histogram.getValue(i);
     }
   }
+
+  @Test
+  public void testLatencyHistogram() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final LatencyHistogram histogram = new LatencyHistogram();
+    Assert.assertEquals(0, histogram.getValueAtPercentile(50));
+
+    for (long value = 1; value <= 1000000; ++value) {
+      histogram.update(value * 1000);
+    }
+
+    Assert.assertEquals(1000000, histogram.getCount());
+    Assert.assertEquals(1000000000L, histogram.getMax());
+    Assert.assertEquals(500000500.0, histogram.getMean(), 1.0);
+
+    // bins are at most 1/64 of their values wide
+    assertWithin(500000000L, histogram.getValueAtPercentile(50));
+    assertWithin(990000000L, histogram.getValueAtPercentile(99));
+    assertWithin(999000000L, histogram.getValueAtPercentile(99.9));
+    Assert.assertEquals(1000000000L, histogram.getValueAtPercentile(100));
+
+    long total = 0;
+    for (int i = 0; i < histogram.getNumBins(); ++i) {
+      total += histogram.getValue(i);
+    }
+    Assert.assertEquals(histogram.getCount(), total);
+  }
+
+  private static void assertWithin(final long expected, final long actual) {
+    Assert.assertTrue("expected about " + expected + " but was " + actual,
+        actual >= expected && actual <= expected + expected / 64);
+  }
 }
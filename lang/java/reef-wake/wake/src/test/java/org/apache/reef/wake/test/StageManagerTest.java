@@ -19,7 +19,10 @@
 package org.apache.reef.wake.test;
 
 import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.StageManager;
 import org.apache.reef.wake.impl.ThreadPoolStage;
+import org.apache.reef.wake.metrics.StageLatency;
+import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestName;
@@ -38,6 +41,49 @@ public class StageManagerTest {
     }
   }
 
+  @Test
+  public void testStageLatencyTracking() throws Exception {
+    final ThreadPoolStage<Void> untracked = new ThreadPoolStage<>(new TestEventHandler(), 1);
+    Assert.assertFalse(untracked.getLatency().isEnabled());
+
+    StageManager.instance().setLatencyTracking(true);
+    try {
+      Assert.assertTrue(untracked.getLatency().isEnabled());
+
+      final ThreadPoolStage<Void> stage = new ThreadPoolStage<>(new EventHandler<Void>() {
+        @Override
+        public void onNext(final Void value) {
+          try {
+            Thread.sleep(2);
+          } catch (final InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+        }
+      }, 1);
+      Assert.assertTrue(StageManager.instance().getStageLatencies().contains(stage.getLatency()));
+
+      final int numEvents = 20;
+      for (int i = 0; i < numEvents; ++i) {
+        stage.onNext(null);
+      }
+      stage.close();
+
+      final StageLatency latency = stage.getLatency();
+      Assert.assertEquals(numEvents, latency.getExecution().getCount());
+      Assert.assertEquals(numEvents, latency.getQueueWait().getCount());
+      Assert.assertTrue(latency.toString(), latency.getExecution().getValueAtPercentile(50) >= 2000000L);
+      // with one thread, the last event waits for all others to finish
+      Assert.assertTrue(latency.toString(), latency.getQueueWait().getMax() >= 2000000L * (numEvents - 1));
+    } finally {
+      StageManager.instance().setLatencyTracking(false);
+    }
+
+    Assert.assertFalse(untracked.getLatency().isEnabled());
+    untracked.onNext(null);
+    untracked.close();
+    Assert.assertEquals(0, untracked.getLatency().getExecution().getCount());
+  }
+
 }
 
 class TestEventHandler implements EventHandler<Void> {
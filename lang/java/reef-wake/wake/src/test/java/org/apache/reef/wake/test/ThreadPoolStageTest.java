@@ -18,17 +18,27 @@
  */
 package org.apache.reef.wake.test;
 
+import org.apache.reef.tang.Configuration;
+import org.apache.reef.tang.Tang;
 import org.apache.reef.wake.EStage;
 import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.StageConfiguration;
+import org.apache.reef.wake.exception.StageOverflowException;
 import org.apache.reef.wake.impl.MultiEventHandler;
+import org.apache.reef.wake.impl.OverflowPolicy;
 import org.apache.reef.wake.impl.SingleThreadStage;
 import org.apache.reef.wake.impl.ThreadPoolStage;
+import org.apache.reef.wake.impl.VirtualThreads;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestName;
 
+import javax.inject.Inject;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 /**
@@ -178,6 +188,274 @@ public class ThreadPoolStageTest {
     System.out.println("2: mean output throughput: " + stage2.getOutMeter().getMeanThp() + " events/sec");
   }
 
+  @Test
+  public void testBoundedThreadPoolStageDropNewest() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final CountDownLatch release = new CountDownLatch(1);
+    final List<Integer> processed = Collections.synchronizedList(new ArrayList<Integer>());
+    final ThreadPoolStage<Integer> stage = ThreadPoolStage.newBuilder(
+        "DropNewest", new LatchedEventHandler(release, processed), 1)
+        .setCapacity(2).setOverflowPolicy(OverflowPolicy.DROP_NEWEST).build();
+
+    for (int i = 0; i < 10; ++i) {
+      stage.onNext(i);
+    }
+    Assert.assertEquals(0, stage.getRemainingCapacity());
+    Assert.assertEquals(7, stage.getDroppedMeter().getCount());
+    Assert.assertEquals(3, stage.getPendingCount());
+
+    release.countDown();
+    stage.close();
+
+    Assert.assertEquals(Arrays.asList(0, 1, 2), processed);
+    Assert.assertEquals(0, stage.getPendingCount());
+  }
+
+  @Test
+  public void testBoundedThreadPoolStageDropOldest() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final List<Integer> processed = Collections.synchronizedList(new ArrayList<Integer>());
+    final ThreadPoolStage<Integer> stage = ThreadPoolStage.newBuilder(
+        "DropOldest", new LatchedEventHandler(release, processed, started), 1)
+        .setCapacity(2).setOverflowPolicy(OverflowPolicy.DROP_OLDEST).build();
+
+    stage.onNext(0);
+    Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+    for (int i = 1; i < 10; ++i) {
+      stage.onNext(i);
+    }
+    Assert.assertEquals(7, stage.getDroppedMeter().getCount());
+
+    release.countDown();
+    stage.close();
+
+    Assert.assertEquals(Arrays.asList(0, 8, 9), processed);
+  }
+
+  @Test
+  public void testBoundedThreadPoolStageDropOldestConcurrentProducers() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final int numProducers = 4;
+    final int eventsPerProducer = 50;
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final List<Integer> processed = Collections.synchronizedList(new ArrayList<Integer>());
+    final ThreadPoolStage<Integer> stage = ThreadPoolStage.newBuilder(
+        "DropOldestConcurrent", new LatchedEventHandler(release, processed, started), 1)
+        .setCapacity(2).setOverflowPolicy(OverflowPolicy.DROP_OLDEST).build();
+
+    stage.onNext(0);
+    Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+    // producers race to drop the same queued events; none of them may get stuck while the handler is blocked
+    final CountDownLatch producersDone = new CountDownLatch(numProducers);
+    for (int p = 0; p < numProducers; ++p) {
+      final int base = 1 + p * eventsPerProducer;
+      new Thread(new Runnable() {
+        @Override
+        public void run() {
+          for (int i = 0; i < eventsPerProducer; ++i) {
+            stage.onNext(base + i);
+          }
+          producersDone.countDown();
+        }
+      }).start();
+    }
+    Assert.assertTrue(producersDone.await(10, TimeUnit.SECONDS));
+
+    release.countDown();
+    stage.close();
+
+    Assert.assertEquals(3, processed.size());
+    Assert.assertEquals(numProducers * eventsPerProducer - 2, stage.getDroppedMeter().getCount());
+  }
+
+  @Test
+  public void testBoundedThreadPoolStageSpill() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final CountDownLatch release = new CountDownLatch(1);
+    final List<Integer> processed = Collections.synchronizedList(new ArrayList<Integer>());
+    final List<Object> spilled = Collections.synchronizedList(new ArrayList<>());
+    final EventHandler<Throwable> errorHandler = new EventHandler<Throwable>() {
+      @Override
+      public void onNext(final Throwable value) {
+        spilled.add(((StageOverflowException) value).getEvent());
+      }
+    };
+    final ThreadPoolStage<Integer> stage = ThreadPoolStage.newBuilder(
+        "Spill", new LatchedEventHandler(release, processed), 1)
+        .setCapacity(1).setOverflowPolicy(OverflowPolicy.SPILL_TO_ERROR_HANDLER).setErrorHandler(errorHandler)
+        .build();
+
+    for (int i = 0; i < 4; ++i) {
+      stage.onNext(i);
+    }
+
+    release.countDown();
+    stage.close();
+
+    Assert.assertEquals(Arrays.asList(0, 1), processed);
+    Assert.assertEquals(Arrays.<Object>asList(2, 3), spilled);
+  }
+
+  @Test
+  public void testBoundedThreadPoolStageBlock() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final CountDownLatch release = new CountDownLatch(1);
+    final List<Integer> processed = Collections.synchronizedList(new ArrayList<Integer>());
+    final ThreadPoolStage<Integer> stage = ThreadPoolStage.newBuilder(
+        "Block", new LatchedEventHandler(release, processed), 1)
+        .setCapacity(2).setOverflowPolicy(OverflowPolicy.BLOCK).build();
+
+    final Thread producer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        for (int i = 0; i < 10; ++i) {
+          stage.onNext(i);
+        }
+      }
+    });
+    producer.start();
+
+    while (stage.getRemainingCapacity() > 0) {
+      Thread.sleep(10);
+    }
+    Thread.sleep(100);
+    Assert.assertTrue(producer.isAlive());
+    // the blocked caller's event is pending as well
+    Assert.assertEquals(4, stage.getPendingCount());
+
+    release.countDown();
+    producer.join();
+    stage.close();
+
+    Assert.assertEquals(10, processed.size());
+    Assert.assertEquals(0, stage.getDroppedMeter().getCount());
+    Assert.assertEquals(4, stage.getPendingHighWatermark());
+  }
+
+  @Test
+  public void testVirtualThreadPoolStage() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final Set<TestEvent> procSet = Collections.synchronizedSet(new HashSet<TestEvent>());
+    final Set<TestEvent> orgSet = Collections.synchronizedSet(new HashSet<TestEvent>());
+
+    final EventHandler<TestEventA> eventHandler = new TestEventHandlerA(procSet);
+    final ThreadPoolStage<TestEventA> stage = ThreadPoolStage.newBuilder("Virtual", eventHandler, 2)
+        .setUseVirtualThreads(true).build();
+    Assert.assertEquals(VirtualThreads.isSupported(), stage.isUsingVirtualThreads());
+
+    for (int i = 0; i < 10; ++i) {
+      final TestEventA a = new TestEventA();
+      orgSet.add(a);
+
+      stage.onNext(a);
+    }
+
+    while (procSet.size() < 10) {
+      //
+    }
+
+    stage.close();
+
+    Assert.assertEquals(orgSet, procSet);
+  }
+
+  @Test
+  public void testVirtualThreadPoolStageInjection() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final Configuration conf = Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(StageConfiguration.StageName.class, "InjectedVirtual")
+        .bindNamedParameter(StageConfiguration.StageHandler.class, InjectableEventHandler.class)
+        .bindNamedParameter(StageConfiguration.NumberOfThreads.class, "2")
+        .bindNamedParameter(StageConfiguration.Capacity.class, "8")
+        .bindNamedParameter(StageConfiguration.UseVirtualThreads.class, "true")
+        .bindImplementation(EStage.class, ThreadPoolStage.class)
+        .build();
+
+    final ThreadPoolStage<?> stage = (ThreadPoolStage<?>) Tang.Factory.getTang().newInjector(conf)
+        .getInstance(EStage.class);
+    Assert.assertEquals(VirtualThreads.isSupported(), stage.isUsingVirtualThreads());
+    Assert.assertEquals(8, stage.getCapacity());
+    stage.close();
+  }
+
+  @Test
+  public void testDropOldestFallsBackToPlatformThreads() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final List<Integer> processed = Collections.synchronizedList(new ArrayList<Integer>());
+    final ThreadPoolStage<Integer> stage = ThreadPoolStage.newBuilder(
+        "DropOldestVirtual", new LatchedEventHandler(release, processed, started), 1)
+        .setCapacity(2).setOverflowPolicy(OverflowPolicy.DROP_OLDEST).setUseVirtualThreads(true).build();
+    Assert.assertFalse(stage.isUsingVirtualThreads());
+
+    stage.onNext(0);
+    Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+    for (int i = 1; i < 5; ++i) {
+      stage.onNext(i);
+    }
+    release.countDown();
+    stage.close();
+
+    Assert.assertEquals(Arrays.asList(0, 3, 4), processed);
+  }
+
+  /**
+   * Compares the throughput of a handler that blocks on the fixed thread pool and on virtual threads.
+   */
+  @Test
+  public void testBlockingHandlerRate() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final int numEvents = 2000;
+    final int numThreads = 16;
+    final boolean[] modes = {false, true};
+    for (final boolean useVirtualThreads : modes) {
+      final AtomicInteger remaining = new AtomicInteger(numEvents);
+      final CountDownLatch done = new CountDownLatch(1);
+      final EventHandler<Integer> blockingHandler = new EventHandler<Integer>() {
+        @Override
+        public void onNext(final Integer value) {
+          try {
+            Thread.sleep(5);
+          } catch (final InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+          if (remaining.decrementAndGet() == 0) {
+            done.countDown();
+          }
+        }
+      };
+      final ThreadPoolStage<Integer> stage =
+          ThreadPoolStage.newBuilder("BlockingRate", blockingHandler, numThreads)
+              .setUseVirtualThreads(useVirtualThreads).build();
+
+      final long start = System.nanoTime();
+      for (int i = 0; i < numEvents; ++i) {
+        stage.onNext(i);
+      }
+      Assert.assertTrue(done.await(60, TimeUnit.SECONDS));
+      final long elapsed = System.nanoTime() - start;
+      stage.close();
+
+      System.out.println("Note this is not a real test of throughput");
+      System.out.println("virtual threads " + stage.isUsingVirtualThreads() + ": "
+          + numEvents * 1e9 / elapsed + " blocked events/sec");
+    }
+  }
+
   class TestEvent {
   }
 
@@ -210,6 +488,43 @@ public class ThreadPoolStageTest {
     }
   }
 
+  class LatchedEventHandler implements EventHandler<Integer> {
+    private final CountDownLatch release;
+    private final List<Integer> processed;
+    private final CountDownLatch started;
+
+    LatchedEventHandler(final CountDownLatch release, final List<Integer> processed) {
+      this(release, processed, new CountDownLatch(1));
+    }
+
+    LatchedEventHandler(final CountDownLatch release, final List<Integer> processed, final CountDownLatch started) {
+      this.release = release;
+      this.processed = processed;
+      this.started = started;
+    }
+
+    public void onNext(final Integer e) {
+      started.countDown();
+      try {
+        release.await();
+      } catch (final InterruptedException ex) {
+        throw new RuntimeException(ex);
+      }
+      processed.add(e);
+    }
+  }
+
+  static final class InjectableEventHandler implements EventHandler<Integer> {
+
+    @Inject
+    InjectableEventHandler() {
+    }
+
+    public void onNext(final Integer e) {
+      // no op
+    }
+  }
+
   class TestEventHandlerB implements EventHandler<TestEventB> {
     private final Set<TestEvent> set;
 
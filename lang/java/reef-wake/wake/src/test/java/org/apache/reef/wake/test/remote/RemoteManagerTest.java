@@ -38,14 +38,18 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TestName;
 
+import java.net.ServerSocket;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
@@ -114,6 +118,58 @@ public class RemoteManagerTest {
     timer.close();
   }
 
+  @Test
+  public void testRemoteManagerDeadPeerTest() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    final Monitor monitor = new Monitor();
+    final TimerStage timer = new TimerStage(new TimeoutHandler(monitor), 5000, 5000);
+
+    final Map<Class<?>, Codec<?>> clazzToCodecMap = new HashMap<>();
+    clazzToCodecMap.put(StartEvent.class, new ObjectSerializableCodec<StartEvent>());
+    final Codec<?> codec = new MultiCodec<Object>(clazzToCodecMap);
+
+    final BlockingQueue<Throwable> errors = new LinkedBlockingQueue<>();
+    final String hostAddress = localAddressProvider.getLocalAddress();
+    final RemoteManager rm = this.remoteManagerFactory.getInstance(
+        "name", hostAddress, 0, codec, new EventHandler<Throwable>() {
+          @Override
+          public void onNext(final Throwable value) {
+            errors.add(value);
+          }
+        }, false, 2, 500,
+        localAddressProvider, Tang.Factory.getTang().newInjector().getInstance(TcpPortProvider.class));
+
+    final int deadPort;
+    try (final ServerSocket socket = new ServerSocket(0)) {
+      deadPort = socket.getLocalPort();
+    }
+    final RemoteIdentifier deadId = new DefaultRemoteIdentifierFactoryImplementation()
+        .getNewInstance("socket://" + hostAddress + ":" + deadPort);
+
+    final AtomicInteger counter = new AtomicInteger(0);
+    rm.registerHandler(StartEvent.class, new EventHandler<RemoteMessage<StartEvent>>() {
+      @Override
+      public void onNext(final RemoteMessage<StartEvent> value) {
+        counter.incrementAndGet();
+        monitor.mnotify();
+      }
+    });
+
+    // sending to a dead peer neither blocks nor keeps the events to the live one waiting
+    rm.getHandler(deadId, StartEvent.class).onNext(new StartEvent());
+    rm.getHandler(rm.getMyIdentifier(), StartEvent.class).onNext(new StartEvent());
+    monitor.mwait();
+    Assert.assertEquals(1, counter.get());
+
+    // the events to the dead peer are dropped and reported
+    Assert.assertNotNull(errors.poll(5, TimeUnit.SECONDS));
+
+    rm.close();
+    timer.close();
+  }
+
   @Test
   public void testRemoteManagerConnectionRetryTest() throws Exception {
     final ExecutorService smExecutor = Executors.newFixedThreadPool(1);
@@ -18,10 +18,14 @@
  */
 package org.apache.reef.wake.test.remote;
 
+import com.google.protobuf.ByteString;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.exceptions.InjectionException;
 import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.WakeParameters;
 import org.apache.reef.wake.impl.LoggingEventHandler;
 import org.apache.reef.wake.impl.LoggingUtils;
 import org.apache.reef.wake.impl.MultiEventHandler;
@@ -32,6 +36,7 @@ import org.apache.reef.wake.remote.RemoteIdentifier;
 import org.apache.reef.wake.remote.RemoteIdentifierFactory;
 import org.apache.reef.wake.remote.address.LocalAddressProvider;
 import org.apache.reef.wake.remote.impl.*;
+import org.apache.reef.wake.remote.proto.WakeRemoteProtos.WakeMessagePBuf;
 import org.apache.reef.wake.remote.transport.Transport;
 import org.apache.reef.wake.remote.transport.TransportFactory;
 import org.apache.reef.wake.test.util.Monitor;
@@ -86,6 +91,85 @@ public class RemoteTest {
     Assert.assertEquals(e1.getEvent().getMessage(), e2.getEvent().getMessage());
   }
 
+  @Test
+  public void testRemoteEventEncoderWireFormat() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final RemoteEventEncoder<byte[]> encoder = new RemoteEventEncoder<>(new ByteCodec());
+    final RemoteEventDecoder<byte[]> decoder = new RemoteEventDecoder<>(new ByteCodec());
+    final byte[] event = new byte[300];
+    new Random(1).nextBytes(event);
+
+    for (final long seq : new long[]{0, 1, 127, 128, Long.MAX_VALUE, -1}) {
+      final RemoteEvent<byte[]> remoteEvent = new RemoteEvent<>(null, null, seq, event);
+      final byte[] expected = WakeMessagePBuf.newBuilder()
+          .setSeq(seq).setData(ByteString.copyFrom(event)).build().toByteArray();
+
+      final byte[] data = encoder.encode(remoteEvent);
+      Assert.assertArrayEquals(expected, data);
+
+      final ByteBuf buf = Unpooled.buffer();
+      encoder.encodeTo(remoteEvent, buf);
+      final byte[] bufData = new byte[buf.readableBytes()];
+      buf.readBytes(bufData);
+      buf.release();
+      Assert.assertArrayEquals(expected, bufData);
+
+      final RemoteEvent<byte[]> decoded = decoder.decode(expected);
+      Assert.assertEquals(seq, decoded.getSeq());
+      Assert.assertArrayEquals(event, decoded.getEvent());
+    }
+  }
+
+  @Test
+  public void testOrderedRemoteReceiverStage() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final int numEvents = 1000;
+    final RemoteEventCodec<byte[]> codec = new RemoteEventCodec<>(new ByteCodec());
+    final SocketAddress localAddr = new InetSocketAddress(this.localAddressProvider.getLocalAddress(), 8000);
+    final SocketAddress remoteAddr = new InetSocketAddress(this.localAddressProvider.getLocalAddress(), 9000);
+
+    final List<Long> received = Collections.synchronizedList(new ArrayList<Long>());
+    final Monitor monitor = new Monitor();
+    final OrderedRemoteReceiverStage stage = new OrderedRemoteReceiverStage(new EventHandler<RemoteEvent<byte[]>>() {
+      @Override
+      public void onNext(final RemoteEvent<byte[]> value) {
+        received.add(value.getSeq());
+        if (received.size() == numEvents) {
+          monitor.mnotify();
+        }
+      }
+    }, new LoggingEventHandler<Throwable>());
+
+    // shuffle the events within windows of 50, so that they arrive out of order
+    final List<Long> seqs = new ArrayList<>();
+    for (long seq = 0; seq < numEvents; ++seq) {
+      seqs.add(seq);
+    }
+    final Random rand = new Random(1);
+    for (int i = 0; i < numEvents; i += 50) {
+      Collections.shuffle(seqs.subList(i, i + 50), rand);
+    }
+    // the duplicate is dropped
+    seqs.add(numEvents / 2, seqs.get(numEvents / 2));
+
+    for (final long seq : seqs) {
+      final byte[] data = codec.encode(new RemoteEvent<>(localAddr, remoteAddr, seq, new byte[]{(byte) seq}));
+      stage.onNext(new TransportEvent(data, localAddr, remoteAddr));
+    }
+
+    final TimerStage timer = new TimerStage(new TimeoutHandler(monitor), 5000, 5000);
+    monitor.mwait();
+    stage.close();
+    timer.close();
+
+    Assert.assertEquals(numEvents, received.size());
+    for (int i = 0; i < numEvents; ++i) {
+      Assert.assertEquals(i, received.get(i).longValue());
+    }
+  }
+
   @Test
   public void testRandomPort() throws Exception {
     System.out.println(LOG_PREFIX + name.getMethodName());
@@ -151,7 +235,8 @@ public class RemoteTest {
     final Encoder<Object> encoder = new MultiEncoder<>(clazzToEncoderMap);
 
     // sender stage
-    final RemoteSenderStage reSendStage = new RemoteSenderStage(encoder, transport, 10);
+    final RemoteSenderStage reSendStage = new RemoteSenderStage(encoder, transport,
+        WakeParameters.REMOTE_SEND_QUEUE_CAPACITY, new LoggingEventHandler<Throwable>());
 
     final RemoteIdentifierFactory factory = new DefaultRemoteIdentifierFactoryImplementation();
     final RemoteIdentifier myId = factory.getNewInstance("socket://" + hostAddress + ":" + 8000);
@@ -22,6 +22,8 @@ import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.exceptions.InjectionException;
 import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.WakeParameters;
+import org.apache.reef.wake.impl.LoggingEventHandler;
 import org.apache.reef.wake.impl.LoggingUtils;
 import org.apache.reef.wake.impl.MultiEventHandler;
 import org.apache.reef.wake.impl.TimerStage;
@@ -103,7 +105,8 @@ public class SmallMessagesTest {
     final Encoder<Object> encoder = new MultiEncoder<>(clazzToEncoderMap);
 
     // sender stage
-    final RemoteSenderStage reSendStage = new RemoteSenderStage(encoder, transport, 10);
+    final RemoteSenderStage reSendStage = new RemoteSenderStage(encoder, transport,
+        WakeParameters.REMOTE_SEND_QUEUE_CAPACITY, new LoggingEventHandler<Throwable>());
 
     final RemoteIdentifierFactory factory = new DefaultRemoteIdentifierFactoryImplementation();
     final RemoteIdentifier myId = factory.getNewInstance("socket://" + hostAddress + ":" + 8000);
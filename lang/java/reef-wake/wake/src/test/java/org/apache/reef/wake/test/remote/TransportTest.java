@@ -18,19 +18,36 @@
  */
 package org.apache.reef.wake.test.remote;
 
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
 import org.apache.reef.tang.Injector;
 import org.apache.reef.tang.Tang;
 import org.apache.reef.tang.exceptions.InjectionException;
 import org.apache.reef.wake.EStage;
+import org.apache.reef.wake.EventHandler;
+import org.apache.reef.wake.impl.LoggingEventHandler;
 import org.apache.reef.wake.impl.LoggingUtils;
+import org.apache.reef.wake.impl.SyncStage;
 import org.apache.reef.wake.impl.TimerStage;
 import org.apache.reef.wake.remote.Codec;
+import org.apache.reef.wake.remote.RemoteConfiguration;
 import org.apache.reef.wake.remote.address.LocalAddressProvider;
 import org.apache.reef.wake.remote.impl.ObjectSerializableCodec;
+import org.apache.reef.wake.remote.impl.RemoteEvent;
+import org.apache.reef.wake.remote.impl.RemoteEventCodec;
+import org.apache.reef.wake.remote.impl.StringCodec;
 import org.apache.reef.wake.remote.impl.TransportEvent;
 import org.apache.reef.wake.remote.transport.Link;
+import org.apache.reef.wake.remote.transport.LinkListener;
 import org.apache.reef.wake.remote.transport.Transport;
+import org.apache.reef.wake.remote.transport.netty.CoalescingNettyLink;
 import org.apache.reef.wake.remote.transport.netty.LoggingLinkListener;
+import org.apache.reef.wake.remote.transport.netty.NettyTransportOptions;
 import org.apache.reef.wake.remote.transport.TransportFactory;
 import org.apache.reef.wake.test.util.Monitor;
 import org.apache.reef.wake.test.util.TimeoutHandler;
@@ -40,6 +57,15 @@ import org.junit.Test;
 import org.junit.rules.TestName;
 
 import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.SocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
@@ -125,12 +151,245 @@ public class TransportTest {
     Assert.assertEquals(expected, stage.getCount());
   }
 
+  @Test
+  public void testTransportCoalescedWrites() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    final Injector injector = Tang.Factory.getTang().newInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(RemoteConfiguration.CoalesceWrites.class, "true")
+        .bindNamedParameter(RemoteConfiguration.CoalesceMaxDelay.class, "100")
+        .build());
+    final TransportFactory coalescingFactory = injector.getInstance(TransportFactory.class);
+
+    final Monitor monitor = new Monitor();
+    final TimerStage timer = new TimerStage(new TimeoutHandler(monitor), 5000, 5000);
+
+    final int expected = 1000;
+    final String hostAddress = this.localAddressProvider.getLocalAddress();
+
+    final ReceiverStage<String> stage =
+        new ReceiverStage<>(new ObjectSerializableCodec<String>(), monitor, expected);
+    final Transport transport = coalescingFactory.newInstance(hostAddress, 0, stage, stage, 1, 10000);
+    final int port = transport.getListeningPort();
+
+    // sending side
+    final Link<String> link = transport.open(
+        new InetSocketAddress(hostAddress, port),
+        new ObjectSerializableCodec<String>(),
+        new LoggingLinkListener<String>());
+    for (int i = 0; i < expected; i++) {
+      link.write("hello" + i);
+    }
+
+    monitor.mwait();
+    transport.close();
+    timer.close();
+
+    Assert.assertEquals(expected, stage.getCount());
+    Assert.assertTrue(link instanceof CoalescingNettyLink);
+    final CoalescingNettyLink<String> coalescingLink = (CoalescingNettyLink<String>) link;
+    Assert.assertEquals(expected, coalescingLink.getNumFlushedMessages());
+    Assert.assertTrue(coalescingLink.getNumFlushes() < expected);
+    System.out.println(LOG_PREFIX + "messages per flush: " + coalescingLink.getMessagesPerFlush());
+  }
+
+  @Test
+  public void testCoalescedWritesFailedOnClose() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+
+    final String hostAddress = this.localAddressProvider.getLocalAddress();
+    final EStage<TransportEvent> stage = new SyncStage<>(new LoggingEventHandler<TransportEvent>());
+    final Transport transport = tpFactory.newInstance(hostAddress, 0, stage, stage, 1, 10000);
+    final EventLoopGroup group = new NioEventLoopGroup(1);
+    try {
+      final Channel channel = new Bootstrap().group(group).channel(NioSocketChannel.class)
+          .handler(new ChannelInboundHandlerAdapter())
+          .connect(new InetSocketAddress(hostAddress, transport.getListeningPort()))
+          .syncUninterruptibly().channel();
+      final List<String> failed = Collections.synchronizedList(new ArrayList<String>());
+      final LinkListener<String> listener = new LinkListener<String>() {
+        @Override
+        public void onSuccess(final String message) {
+        }
+
+        @Override
+        public void onException(final Throwable cause, final SocketAddress remoteAddress, final String message) {
+          failed.add(message);
+        }
+      };
+      // the long delay keeps the messages queued until the channel closes
+      final CoalescingNettyLink<String> link = new CoalescingNettyLink<>(
+          channel, new StringCodec(), listener, 1 << 16, TimeUnit.SECONDS.toMicros(60));
+      link.write("hello0");
+      link.write("hello1");
+
+      channel.close().syncUninterruptibly();
+      Assert.assertTrue(waitForSize(failed, 2));
+      Assert.assertEquals(Arrays.asList("hello0", "hello1"), failed);
+
+      link.write("hello2");
+      Assert.assertEquals(Arrays.asList("hello0", "hello1", "hello2"), failed);
+      Assert.assertEquals(0, link.getNumFlushedMessages());
+    } finally {
+      group.shutdownGracefully().syncUninterruptibly();
+      transport.close();
+    }
+  }
+
+  /**
+   * Waits until the list has the given size, as the listeners of a closed channel are notified asynchronously.
+   */
+  private static boolean waitForSize(final List<?> list, final int size) throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + 10000;
+    while (list.size() < size && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    return list.size() == size;
+  }
+
+  @Test
+  public void testTransportByteBufEncoder() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    final Monitor monitor = new Monitor();
+    final TimerStage timer = new TimerStage(new TimeoutHandler(monitor), 2000, 2000);
+
+    final int expected = 100;
+    final String hostAddress = this.localAddressProvider.getLocalAddress();
+
+    // RemoteEventCodec writes straight into the buffers of the link
+    final RemoteEventCodec<String> codec = new RemoteEventCodec<>(new ObjectSerializableCodec<String>());
+    final ReceiverStage<RemoteEvent<String>> stage = new ReceiverStage<>(codec, monitor, expected);
+    final Transport transport = tpFactory.newInstance(hostAddress, 0, stage, stage, 1, 10000);
+    final int port = transport.getListeningPort();
+
+    // sending side
+    final Link<RemoteEvent<String>> link = transport.open(
+        new InetSocketAddress(hostAddress, port), codec, new LoggingLinkListener<RemoteEvent<String>>());
+    for (int i = 0; i < expected; i++) {
+      link.write(new RemoteEvent<>(null, null, i, "hello" + i));
+    }
+
+    monitor.mwait();
+    transport.close();
+    timer.close();
+
+    Assert.assertEquals(expected, stage.getCount());
+    Assert.assertEquals("hello" + (expected - 1), stage.getLastValue().getEvent());
+    Assert.assertEquals(expected - 1, stage.getLastValue().getSeq());
+  }
+
+  @Test
+  public void testTransportNativeEpoll() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    final Injector injector = Tang.Factory.getTang().newInjector(Tang.Factory.getTang().newConfigurationBuilder()
+        .bindNamedParameter(RemoteConfiguration.NativeTransport.class, "true")
+        .bindNamedParameter(RemoteConfiguration.ServerWorkerThreads.class, "2")
+        .bindNamedParameter(RemoteConfiguration.ClientWorkerThreads.class, "2")
+        .bindNamedParameter(RemoteConfiguration.SendBufferSize.class, "262144")
+        .bindNamedParameter(RemoteConfiguration.ReceiveBufferSize.class, "262144")
+        .bindNamedParameter(RemoteConfiguration.WriteBufferHighWaterMark.class, "16384")
+        .bindNamedParameter(RemoteConfiguration.WriteBufferLowWaterMark.class, "8192")
+        .build());
+    // falls back to NIO where epoll is unavailable
+    Assert.assertEquals(Epoll.isAvailable(), injector.getInstance(NettyTransportOptions.class).isUsingEpoll());
+    final TransportFactory epollFactory = injector.getInstance(TransportFactory.class);
+
+    final Monitor monitor = new Monitor();
+    final TimerStage timer = new TimerStage(new TimeoutHandler(monitor), 2000, 2000);
+
+    final int expected = 100;
+    final String hostAddress = this.localAddressProvider.getLocalAddress();
+
+    final ReceiverStage<String> stage =
+        new ReceiverStage<>(new ObjectSerializableCodec<String>(), monitor, expected);
+    final Transport transport = epollFactory.newInstance(hostAddress, 0, stage, stage, 1, 10000);
+    final int port = transport.getListeningPort();
+
+    // sending side
+    final Link<String> link = transport.open(
+        new InetSocketAddress(hostAddress, port),
+        new ObjectSerializableCodec<String>(),
+        new LoggingLinkListener<String>());
+    for (int i = 0; i < expected; i++) {
+      link.write("hello" + i);
+    }
+
+    monitor.mwait();
+    transport.close();
+    timer.close();
+
+    Assert.assertEquals(expected, stage.getCount());
+  }
+
+  @Test
+  public void testTransportOpenAsync() throws Exception {
+    System.out.println(LOG_PREFIX + name.getMethodName());
+    LoggingUtils.setLoggingLevel(Level.INFO);
+
+    final Monitor monitor = new Monitor();
+    final TimerStage timer = new TimerStage(new TimeoutHandler(monitor), 5000, 5000);
+
+    final String hostAddress = this.localAddressProvider.getLocalAddress();
+    final ReceiverStage<String> stage = new ReceiverStage<>(new ObjectSerializableCodec<String>(), monitor, 1);
+    final Transport transport = tpFactory.newInstance(hostAddress, 0, stage, stage, 2, 500);
+
+    final BlockingQueue<Link<String>> links = new LinkedBlockingQueue<>();
+    final BlockingQueue<Exception> errors = new LinkedBlockingQueue<>();
+    final EventHandler<Link<String>> linkHandler = new EventHandler<Link<String>>() {
+      @Override
+      public void onNext(final Link<String> link) {
+        links.add(link);
+      }
+    };
+    final EventHandler<Exception> errorHandler = new EventHandler<Exception>() {
+      @Override
+      public void onNext(final Exception e) {
+        errors.add(e);
+      }
+    };
+
+    final int deadPort;
+    try (final ServerSocket socket = new ServerSocket(0)) {
+      deadPort = socket.getLocalPort();
+    }
+    final InetSocketAddress deadAddress = new InetSocketAddress(hostAddress, deadPort);
+
+    // the caller does not wait for the retries
+    transport.openAsync(deadAddress, new ObjectSerializableCodec<String>(), null, linkHandler, errorHandler);
+    Assert.assertTrue(errors.isEmpty());
+    Assert.assertNotNull(errors.poll(5, TimeUnit.SECONDS));
+
+    // after the retries failed, opening a link to the address fails right away
+    transport.openAsync(deadAddress, new ObjectSerializableCodec<String>(), null, linkHandler, errorHandler);
+    Assert.assertNotNull(errors.poll());
+
+    // links to live addresses are not affected
+    transport.openAsync(new InetSocketAddress(hostAddress, transport.getListeningPort()),
+        new ObjectSerializableCodec<String>(), new LoggingLinkListener<String>(), linkHandler, errorHandler);
+    final Link<String> link = links.poll(5, TimeUnit.SECONDS);
+    Assert.assertNotNull(link);
+    link.write("hello");
+
+    monitor.mwait();
+    transport.close();
+    timer.close();
+
+    Assert.assertTrue(links.isEmpty());
+    Assert.assertEquals(1, stage.getCount());
+  }
+
   class ReceiverStage<T> implements EStage<TransportEvent> {
 
     private final Codec<T> codec;
     private final Monitor monitor;
     private final int expected;
     private AtomicInteger count = new AtomicInteger(0);
+    private volatile T lastValue;
 
     ReceiverStage(final Codec<T> codec, final Monitor monitor, final int expected) {
       this.codec = codec;
@@ -142,9 +401,13 @@ public class TransportTest {
       return count.get();
     }
 
+    T getLastValue() {
+      return lastValue;
+    }
+
     @Override
     public void onNext(final TransportEvent value) {
-      codec.decode(value.getData());
+      lastValue = codec.decode(value.getData());
       //System.out.println(value + " " + obj);      
 
       if (count.incrementAndGet() == expected) {
@@ -31,10 +31,15 @@ import org.apache.reef.wake.time.event.Alarm;
 import org.apache.reef.wake.time.runtime.LogicalTimer;
 import org.apache.reef.wake.time.runtime.RealTimer;
 import org.apache.reef.wake.time.runtime.RuntimeClock;
+import org.apache.reef.wake.time.runtime.Schedule;
+import org.apache.reef.wake.time.runtime.TimingWheelSchedule;
 import org.apache.reef.wake.time.runtime.Timer;
+import org.apache.reef.wake.time.runtime.TreeSetSchedule;
+import org.apache.reef.wake.time.runtime.event.ClientAlarm;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.CountDownLatch;
@@ -67,6 +72,26 @@ public class RuntimeClockTest {
     return TANG.newInjector(clockConfig).getInstance(RuntimeClock.class);
   }
 
+  /**
+   * Create new RuntimeClock object injected with the given timer and schedule.
+   *
+   * @param timerClass Timer to use inside the RuntimeClock. Must implement the Timer interface.
+   * @param scheduleClass Schedule to use inside the RuntimeClock. Must implement the Schedule interface.
+   * @return A new instance of the RuntimeClock, instrumented with the given timer and schedule.
+   * @throws InjectionException On configuration error.
+   */
+  private static RuntimeClock buildClock(
+      final Class<? extends Timer> timerClass,
+      final Class<? extends Schedule> scheduleClass) throws InjectionException {
+
+    final Configuration clockConfig = TANG.newConfigurationBuilder()
+        .bind(Timer.class, timerClass)
+        .bind(Schedule.class, scheduleClass)
+        .build();
+
+    return TANG.newInjector(clockConfig).getInstance(RuntimeClock.class);
+  }
+
   /**
    * Create 10 threads to produce 40 alarms at random intervals
    * and check if all alarms get processed.
@@ -290,4 +315,81 @@ public class RuntimeClockTest {
     Thread.sleep(200);
     Assert.assertTrue("No events should be in the schedule", alarmRecorder.getEvents().isEmpty());
   }
+
+  /**
+   * Run the alarm order test against a RuntimeClock that uses the timing wheel schedule.
+   * @throws Exception Error building a runtime clock object.
+   */
+  @Test
+  public void testTimingWheelAlarmOrder() throws Exception {
+
+    LoggingUtils.setLoggingLevel(Level.FINEST);
+
+    final int numAlarms = 10;
+    final CountDownLatch eventCountLatch = new CountDownLatch(numAlarms);
+    final EventRecorder alarmRecorder = new EventRecorder(eventCountLatch);
+
+    final long[] expected = new long[numAlarms];
+
+    try (final RuntimeClock clock = buildClock(RealTimer.class, TimingWheelSchedule.class)) {
+
+      new Thread(clock).start();
+
+      // Schedule in reverse order, so that later alarms cascade down the wheel past the earlier ones.
+      for (int i = numAlarms - 1; i >= 0; --i) {
+        final Time event = clock.scheduleAlarm(i * 100, alarmRecorder);
+        expected[i] = event.getTimestamp();
+      }
+    }
+
+    Assert.assertTrue(eventCountLatch.await(10, TimeUnit.SECONDS));
+
+    int i = 0;
+    final long[] actual = new long[numAlarms];
+    for (final Time event : alarmRecorder.getEvents()) {
+      actual[i++] = event.getTimestamp();
+    }
+
+    Assert.assertArrayEquals("Alarms processed in the wrong order", expected, actual);
+  }
+
+  /**
+   * Feed the same random mix of adds and polls to the timing wheel and to the TreeSet schedules,
+   * and make sure that both of them return the events in the same order.
+   * @throws InjectionException Error building a schedule object.
+   */
+  @Test
+  public void testTimingWheelScheduleOrder() throws InjectionException {
+
+    final Schedule expected = TANG.newInjector().getInstance(TreeSetSchedule.class);
+    final Schedule actual = TANG.newInjector().getInstance(TimingWheelSchedule.class);
+
+    final long start = System.currentTimeMillis();
+    final List<Time> polled = new ArrayList<>();
+
+    for (int i = 0; i < 20000; ++i) {
+      if (this.rand.nextInt(3) > 0) {
+        // Mostly near-term alarms, some of them in the past or many hours away.
+        final int range = this.rand.nextInt(10) == 0 ? 100000000 : 5000;
+        final long timestamp = start + polled.size() + this.rand.nextInt(range) - 100;
+        final Time event = new ClientAlarm(timestamp, null);
+        expected.add(event);
+        actual.add(event);
+      } else {
+        Assert.assertSame(expected.first(), actual.first());
+        final Time event = expected.pollFirst();
+        Assert.assertSame(event, actual.pollFirst());
+        if (event != null) {
+          polled.add(event);
+        }
+      }
+    }
+
+    while (!expected.isEmpty()) {
+      Assert.assertSame(expected.pollFirst(), actual.pollFirst());
+    }
+
+    Assert.assertTrue(actual.isEmpty());
+    Assert.assertNull(actual.first());
+  }
 }